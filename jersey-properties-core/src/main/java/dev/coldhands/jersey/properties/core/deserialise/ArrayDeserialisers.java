@@ -0,0 +1,156 @@
+/*
+ * ISC License Copyright (c) 2004-2010 by Internet Systems Consortium, Inc. ("ISC")
+ *
+ * Copyright (c) 2021 by Jamie Redding
+ *
+ * Permission to use, copy, modify, and /or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above copyright
+ * notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND ISC DISCLAIMS ALL WARRANTIES WITH REGARD
+ * TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS.
+ * IN NO EVENT SHALL ISC BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL
+ * DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS,
+ * WHETHER IN AN ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING
+ * OUT OF OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package dev.coldhands.jersey.properties.core.deserialise;
+
+import java.lang.reflect.Array;
+import java.util.Arrays;
+
+/**
+ * Deserialisers for comma separated values to arrays. Elements are deserialised
+ * straight into an array as the value is scanned, so primitive arrays are filled
+ * without boxing. The default int, long and boolean deserialisers parse each
+ * element in place without creating a String for it.
+ */
+final class ArrayDeserialisers {
+
+    private ArrayDeserialisers() {
+    }
+
+    static Deserialiser<int[]> ofInts(IntDeserialiser elementDeserialiser) {
+        final boolean parseInPlace = elementDeserialiser == CharSequenceParsers.INT;
+        return value -> {
+            final var splitter = new ElementSplitter(value);
+            var elements = new int[ElementSplitter.INITIAL_CAPACITY];
+            int count = 0;
+            while (splitter.next()) {
+                if (count == elements.length) {
+                    elements = Arrays.copyOf(elements, ElementSplitter.grow(count));
+                }
+                elements[count++] = parseInPlace
+                        ? Integer.parseInt(value, splitter.start(), splitter.end(), 10)
+                        : elementDeserialiser.deserialise(splitter.element());
+            }
+            return Arrays.copyOf(elements, count);
+        };
+    }
+
+    static Deserialiser<long[]> ofLongs(LongDeserialiser elementDeserialiser) {
+        final boolean parseInPlace = elementDeserialiser == CharSequenceParsers.LONG;
+        return value -> {
+            final var splitter = new ElementSplitter(value);
+            var elements = new long[ElementSplitter.INITIAL_CAPACITY];
+            int count = 0;
+            while (splitter.next()) {
+                if (count == elements.length) {
+                    elements = Arrays.copyOf(elements, ElementSplitter.grow(count));
+                }
+                elements[count++] = parseInPlace
+                        ? Long.parseLong(value, splitter.start(), splitter.end(), 10)
+                        : elementDeserialiser.deserialise(splitter.element());
+            }
+            return Arrays.copyOf(elements, count);
+        };
+    }
+
+    /**
+     * The JDK cannot parse a double from a range of characters, so each element is a String.
+     */
+    static Deserialiser<double[]> ofDoubles(DoubleDeserialiser elementDeserialiser) {
+        return value -> {
+            final var splitter = new ElementSplitter(value);
+            var elements = new double[ElementSplitter.INITIAL_CAPACITY];
+            int count = 0;
+            while (splitter.next()) {
+                if (count == elements.length) {
+                    elements = Arrays.copyOf(elements, ElementSplitter.grow(count));
+                }
+                elements[count++] = elementDeserialiser.deserialise(splitter.element());
+            }
+            return Arrays.copyOf(elements, count);
+        };
+    }
+
+    static Deserialiser<boolean[]> ofBooleans(BooleanDeserialiser elementDeserialiser) {
+        final boolean parseInPlace = elementDeserialiser == CharSequenceParsers.BOOLEAN;
+        return value -> {
+            final var splitter = new ElementSplitter(value);
+            var elements = new boolean[ElementSplitter.INITIAL_CAPACITY];
+            int count = 0;
+            while (splitter.next()) {
+                if (count == elements.length) {
+                    elements = Arrays.copyOf(elements, ElementSplitter.grow(count));
+                }
+                elements[count++] = parseInPlace
+                        ? CharSequenceParsers.parseBoolean(value, splitter.start(), splitter.end())
+                        : elementDeserialiser.deserialise(splitter.element());
+            }
+            return Arrays.copyOf(elements, count);
+        };
+    }
+
+    static Deserialiser<Object[]> ofObjects(Class<?> componentType, Deserialiser<?> elementDeserialiser) {
+        return value -> deserialiseElements(value, elementDeserialiser,
+                (Object[]) Array.newInstance(componentType, ElementSplitter.INITIAL_CAPACITY));
+    }
+
+    /**
+     * Used for the remaining primitive types, which are set through reflection.
+     */
+    static Deserialiser<Object> ofOtherPrimitives(Class<?> componentType, Deserialiser<?> elementDeserialiser) {
+        return value -> {
+            final Object[] elements = deserialiseElements(value, elementDeserialiser,
+                    new Object[ElementSplitter.INITIAL_CAPACITY]);
+            final Object array = Array.newInstance(componentType, elements.length);
+            for (int i = 0; i < elements.length; i++) {
+                Array.set(array, i, elements[i]);
+            }
+            return array;
+        };
+    }
+
+    /**
+     * Arrays cannot be made immutable, so an array kept by a cache is copied
+     * before it is returned to a caller who could modify it.
+     * @return a copy of the value if it is an array, otherwise the value itself
+     */
+    static Object copyIfArray(Object value) {
+        if (value == null || !value.getClass().isArray()) {
+            return value;
+        }
+        final int length = Array.getLength(value);
+        final Object copy = Array.newInstance(value.getClass().getComponentType(), length);
+        System.arraycopy(value, 0, copy, 0, length);
+        return copy;
+    }
+
+    /**
+     * @param elements the array to fill, copies of which keep its component type as it grows
+     */
+    private static Object[] deserialiseElements(String value, Deserialiser<?> elementDeserialiser,
+                                                Object[] elements) throws Exception {
+        final var splitter = new ElementSplitter(value);
+        int count = 0;
+        while (splitter.next()) {
+            if (count == elements.length) {
+                elements = Arrays.copyOf(elements, ElementSplitter.grow(count));
+            }
+            elements[count++] = elementDeserialiser.deserialise(splitter.element());
+        }
+        return Arrays.copyOf(elements, count);
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * ISC License Copyright (c) 2004-2010 by Internet Systems Consortium, Inc. ("ISC")
+ *
+ * Copyright (c) 2021 by Jamie Redding
+ *
+ * Permission to use, copy, modify, and /or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above copyright
+ * notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND ISC DISCLAIMS ALL WARRANTIES WITH REGARD
+ * TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS.
+ * IN NO EVENT SHALL ISC BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL
+ * DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS,
+ * WHETHER IN AN ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING
+ * OUT OF OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package dev.coldhands.jersey.properties.core.deserialise;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A {@link CharSequence} view of ASCII bytes in a {@link ByteBuffer},
+ * read with absolute gets so the buffer's position is never changed.
+ */
+final class ByteBufferCharSequence implements CharSequence {
+
+    private final ByteBuffer buffer;
+    private final int offset;
+    private final int length;
+
+    private ByteBufferCharSequence(ByteBuffer buffer, int offset, int length) {
+        this.buffer = buffer;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    /**
+     * @return a view of the remaining bytes if they are all ASCII, otherwise
+     *         the result of decoding them as UTF-8
+     */
+    static CharSequence of(ByteBuffer buffer) {
+        if (buffer == null) {
+            throw new IllegalArgumentException("ByteBuffer must not be null");
+        }
+        final int position = buffer.position();
+        final int limit = buffer.limit();
+        for (int i = position; i < limit; i++) {
+            if (buffer.get(i) < 0) {
+                return StandardCharsets.UTF_8.decode(buffer.duplicate());
+            }
+        }
+        return new ByteBufferCharSequence(buffer, position, limit - position);
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("index " + index + ", length " + length);
+        }
+        return (char) buffer.get(offset + index);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        if (start < 0 || end > length || start > end) {
+            throw new IndexOutOfBoundsException("start " + start + ", end " + end + ", length " + length);
+        }
+        return new ByteBufferCharSequence(buffer, offset + start, end - start);
+    }
+
+    @Override
+    public String toString() {
+        final var bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = buffer.get(offset + i);
+        }
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+}
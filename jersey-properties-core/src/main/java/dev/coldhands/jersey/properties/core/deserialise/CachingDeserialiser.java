@@ -0,0 +1,73 @@
+/*
+ * ISC License Copyright (c) 2004-2010 by Internet Systems Consortium, Inc. ("ISC")
+ *
+ * Copyright (c) 2021 by Jamie Redding
+ *
+ * Permission to use, copy, modify, and /or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above copyright
+ * notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND ISC DISCLAIMS ALL WARRANTIES WITH REGARD
+ * TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS.
+ * IN NO EVENT SHALL ISC BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL
+ * DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS,
+ * WHETHER IN AN ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING
+ * OUT OF OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package dev.coldhands.jersey.properties.core.deserialise;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the result of deserialising each raw value so types which are
+ * expensive to create, such as a compiled {@link java.util.regex.Pattern},
+ * are only created once for each distinct value.
+ *
+ * <p>
+ *     Values which fail to deserialise are not cached. When the cache is full
+ *     it is cleared rather than tracking usage, as the number of distinct values
+ *     for a type is expected to be small and only grows when properties change.
+ *     Values are held for as long as the cache itself, so types which may carry
+ *     secrets should not be cached.
+ * </p>
+ */
+final class CachingDeserialiser<T> implements Deserialiser<T> {
+
+    static final int MAXIMUM_SIZE = 256;
+
+    private final Deserialiser<T> deserialiser;
+    private final Map<String, T> cache = new ConcurrentHashMap<>();
+
+    private CachingDeserialiser(Deserialiser<T> deserialiser) {
+        this.deserialiser = deserialiser;
+    }
+
+    static <T> CachingDeserialiser<T> of(Deserialiser<T> deserialiser) {
+        return new CachingDeserialiser<>(deserialiser);
+    }
+
+    @Override
+    public T deserialise(String value) throws Exception {
+        T result = cache.get(value);
+        if (result == null) {
+            result = deserialiser.deserialise(value);
+            if (result == null) {
+                return null;
+            }
+            if (cache.size() >= MAXIMUM_SIZE) {
+                cache.clear();
+            }
+            final T existing = cache.putIfAbsent(value, result);
+            if (existing != null) {
+                result = existing;
+            }
+        }
+        return result;
+    }
+
+    int size() {
+        return cache.size();
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * ISC License Copyright (c) 2004-2010 by Internet Systems Consortium, Inc. ("ISC")
+ *
+ * Copyright (c) 2021 by Jamie Redding
+ *
+ * Permission to use, copy, modify, and /or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above copyright
+ * notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND ISC DISCLAIMS ALL WARRANTIES WITH REGARD
+ * TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS.
+ * IN NO EVENT SHALL ISC BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL
+ * DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS,
+ * WHETHER IN AN ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING
+ * OUT OF OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package dev.coldhands.jersey.properties.core.deserialise;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Interface to define a class that can convert a {@link CharSequence}
+ * to a specified type without first copying it into a String.
+ *
+ * <p>
+ *     This suits values held in a buffer, where creating a String for each
+ *     value would dominate the cost of parsing it. Any {@link Deserialiser}
+ *     can be used where a CharSequenceDeserialiser is needed with
+ *     {@link #adapt(Deserialiser)}.
+ * </p>
+ * @param <T> the type that should be deserialised to
+ */
+@FunctionalInterface
+public interface CharSequenceDeserialiser<T> {
+
+    /**
+     * Convert a CharSequence to a specified type.
+     * @param value the characters to convert, which must not be retained
+     *              after this method returns as they may be reused
+     * @return the deserialised value
+     * @throws Exception if unable to deserialise value to that type
+     */
+    T deserialise(CharSequence value) throws Exception;
+
+    /**
+     * Convert the remaining UTF-8 encoded bytes of a buffer to a specified type.
+     * The position of the buffer is not changed.
+     *
+     * <p>
+     *     ASCII values, which include every number, boolean and enum constant
+     *     name, are read in place through a {@link CharSequence} view of the
+     *     buffer. Other values are decoded first.
+     * </p>
+     * @param value the bytes to convert
+     * @return the deserialised value
+     * @throws Exception if unable to deserialise value to that type
+     */
+    default T deserialise(ByteBuffer value) throws Exception {
+        return deserialise(ByteBufferCharSequence.of(value));
+    }
+
+    /**
+     * Use a {@link Deserialiser} as a CharSequenceDeserialiser. A deserialiser
+     * which already implements this interface, for the same type, is returned
+     * as it is; otherwise each value is converted to a String first.
+     * @param deserialiser the deserialiser to adapt
+     * @param <T> the type that should be deserialised to
+     * @return a CharSequenceDeserialiser using the supplied deserialiser
+     */
+    @SuppressWarnings("unchecked")
+    static <T> CharSequenceDeserialiser<T> adapt(Deserialiser<T> deserialiser) {
+        if (deserialiser == null) {
+            throw new IllegalArgumentException("Deserialiser must not be null");
+        }
+        if (deserialiser instanceof CharSequenceDeserialiser) {
+            return (CharSequenceDeserialiser<T>) deserialiser;
+        }
+        return value -> deserialiser.deserialise(value.toString());
+    }
+}
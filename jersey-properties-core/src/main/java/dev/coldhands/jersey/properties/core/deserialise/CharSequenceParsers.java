@@ -0,0 +1,97 @@
+/*
+ * ISC License Copyright (c) 2004-2010 by Internet Systems Consortium, Inc. ("ISC")
+ *
+ * Copyright (c) 2021 by Jamie Redding
+ *
+ * Permission to use, copy, modify, and /or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above copyright
+ * notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND ISC DISCLAIMS ALL WARRANTIES WITH REGARD
+ * TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS.
+ * IN NO EVENT SHALL ISC BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL
+ * DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS,
+ * WHETHER IN AN ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING
+ * OUT OF OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package dev.coldhands.jersey.properties.core.deserialise;
+
+/**
+ * Parsers for the default registry that read a {@link CharSequence} in place.
+ * The JDK can parse ints and longs from a range of a CharSequence, but has no
+ * equivalent for floating point numbers, so doubles are still parsed from a String.
+ */
+final class CharSequenceParsers {
+
+    static final IntDeserialiser INT = new IntDeserialiser() {
+        @Override
+        public int deserialise(String value) {
+            return Integer.parseInt(value);
+        }
+
+        @Override
+        public int deserialise(CharSequence value) {
+            return parseInt(value);
+        }
+    };
+
+    static final LongDeserialiser LONG = new LongDeserialiser() {
+        @Override
+        public long deserialise(String value) {
+            return Long.parseLong(value);
+        }
+
+        @Override
+        public long deserialise(CharSequence value) {
+            return parseLong(value);
+        }
+    };
+
+    static final BooleanDeserialiser BOOLEAN = new BooleanDeserialiser() {
+        @Override
+        public boolean deserialise(String value) {
+            return Boolean.parseBoolean(value);
+        }
+
+        @Override
+        public boolean deserialise(CharSequence value) {
+            return parseBoolean(value);
+        }
+    };
+
+    private CharSequenceParsers() {
+    }
+
+    static int parseInt(CharSequence value) {
+        return value instanceof String
+                ? Integer.parseInt((String) value)
+                : Integer.parseInt(value, 0, value.length(), 10);
+    }
+
+    static long parseLong(CharSequence value) {
+        return value instanceof String
+                ? Long.parseLong((String) value)
+                : Long.parseLong(value, 0, value.length(), 10);
+    }
+
+    /**
+     * As {@link Boolean#parseBoolean(String)}, <code>true</code> in any case is true
+     * and every other value is false.
+     */
+    static boolean parseBoolean(CharSequence value) {
+        return value != null && parseBoolean(value, 0, value.length());
+    }
+
+    /**
+     * As {@link #parseBoolean(CharSequence)} for the characters from <code>beginIndex</code>
+     * up to <code>endIndex</code>.
+     */
+    static boolean parseBoolean(CharSequence value, int beginIndex, int endIndex) {
+        return endIndex - beginIndex == 4
+               && Character.toLowerCase(value.charAt(beginIndex)) == 't'
+               && Character.toLowerCase(value.charAt(beginIndex + 1)) == 'r'
+               && Character.toLowerCase(value.charAt(beginIndex + 2)) == 'u'
+               && Character.toLowerCase(value.charAt(beginIndex + 3)) == 'e';
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * ISC License Copyright (c) 2004-2010 by Internet Systems Consortium, Inc. ("ISC")
+ *
+ * Copyright (c) 2021 by Jamie Redding
+ *
+ * Permission to use, copy, modify, and /or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above copyright
+ * notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND ISC DISCLAIMS ALL WARRANTIES WITH REGARD
+ * TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS.
+ * IN NO EVENT SHALL ISC BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL
+ * DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS,
+ * WHETHER IN AN ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING
+ * OUT OF OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package dev.coldhands.jersey.properties.core.deserialise;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Deserialises comma separated values to an immutable {@link List} or {@link Set},
+ * and comma separated <code>key=value</code> pairs to an immutable {@link Map},
+ * deserialising each element with the {@link Deserialiser} for its type.
+ *
+ * <p>
+ *     Whitespace around each element is ignored, as are empty elements.
+ *     Repeated elements are dropped from a {@link Set}, but a repeated key
+ *     in a {@link Map} is rejected.
+ * </p>
+ */
+final class CollectionDeserialiser implements Deserialiser<Object> {
+
+    private static final char KEY_VALUE_SEPARATOR = '=';
+
+    enum Kind {
+        LIST, SET, MAP
+    }
+
+    private final Kind kind;
+    private final Deserialiser<?> keyDeserialiser;
+    private final Deserialiser<?> elementDeserialiser;
+
+    CollectionDeserialiser(Kind kind, Deserialiser<?> keyDeserialiser, Deserialiser<?> elementDeserialiser) {
+        this.kind = kind;
+        this.keyDeserialiser = keyDeserialiser;
+        this.elementDeserialiser = elementDeserialiser;
+    }
+
+    /**
+     * @return the kind of collection for a supported generic type, otherwise null
+     */
+    static Kind kindOf(ParameterizedType type) {
+        final Type rawType = type.getRawType();
+        final Kind kind;
+        if (rawType == List.class || rawType == Collection.class || rawType == Iterable.class) {
+            kind = Kind.LIST;
+        } else if (rawType == Set.class) {
+            kind = Kind.SET;
+        } else if (rawType == Map.class) {
+            kind = Kind.MAP;
+        } else {
+            return null;
+        }
+        for (Type typeArgument : type.getActualTypeArguments()) {
+            if (elementClass(typeArgument) == null) {
+                return null;
+            }
+        }
+        return kind;
+    }
+
+    /**
+     * @return the class of a type argument, using the upper bound of a wildcard,
+     *         or null if the type argument is itself generic
+     */
+    static Class<?> elementClass(Type typeArgument) {
+        if (typeArgument instanceof Class<?>) {
+            return (Class<?>) typeArgument;
+        }
+        if (typeArgument instanceof WildcardType) {
+            final WildcardType wildcardType = (WildcardType) typeArgument;
+            if (wildcardType.getLowerBounds().length == 0 && wildcardType.getUpperBounds().length == 1) {
+                return elementClass(wildcardType.getUpperBounds()[0]);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public Object deserialise(String value) throws Exception {
+        final Object[] elements = split(value);
+        switch (kind) {
+            case LIST:
+                deserialiseAll(elements, elementDeserialiser);
+                return List.of(elements);
+            case SET:
+                deserialiseAll(elements, elementDeserialiser);
+                return Set.copyOf(Arrays.asList(elements));
+            default:
+                return deserialiseMap(elements);
+        }
+    }
+
+    private Map<Object, Object> deserialiseMap(Object[] pairs) throws Exception {
+        final Map<Object, Object> entries = new HashMap<>(pairs.length * 2);
+        for (Object element : pairs) {
+            final String pair = (String) element;
+            final int separator = pair.indexOf(KEY_VALUE_SEPARATOR);
+            if (separator < 0) {
+                throw new IllegalArgumentException("Expected key" + KEY_VALUE_SEPARATOR + "value but was: " + pair);
+            }
+            final String key = pair.substring(0, separator).strip();
+            final Object previous = entries.put(
+                    keyDeserialiser.deserialise(key),
+                    elementDeserialiser.deserialise(pair.substring(separator + 1).strip()));
+            if (previous != null) {
+                throw new IllegalArgumentException("Duplicate key: " + key);
+            }
+        }
+        return Map.copyOf(entries);
+    }
+
+    private static void deserialiseAll(Object[] elements, Deserialiser<?> deserialiser) throws Exception {
+        for (int i = 0; i < elements.length; i++) {
+            elements[i] = deserialiser.deserialise((String) elements[i]);
+        }
+    }
+
+    private static Object[] split(String value) {
+        final var splitter = new ElementSplitter(value);
+        var elements = new Object[ElementSplitter.INITIAL_CAPACITY];
+        int count = 0;
+        while (splitter.next()) {
+            if (count == elements.length) {
+                elements = Arrays.copyOf(elements, ElementSplitter.grow(count));
+            }
+            elements[count++] = splitter.element();
+        }
+        return Arrays.copyOf(elements, count);
+    }
+}
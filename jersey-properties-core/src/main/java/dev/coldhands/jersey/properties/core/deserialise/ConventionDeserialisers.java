@@ -0,0 +1,138 @@
+/*
+ * ISC License Copyright (c) 2004-2010 by Internet Systems Consortium, Inc. ("ISC")
+ *
+ * Copyright (c) 2021 by Jamie Redding
+ *
+ * Permission to use, copy, modify, and /or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above copyright
+ * notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND ISC DISCLAIMS ALL WARRANTIES WITH REGARD
+ * TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS.
+ * IN NO EVENT SHALL ISC BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL
+ * DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS,
+ * WHETHER IN AN ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING
+ * OUT OF OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package dev.coldhands.jersey.properties.core.deserialise;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.UndeclaredThrowableException;
+
+/**
+ * Finds deserialisers for classes by the conventions JAX-RS uses to convert
+ * parameters. The first of these that the class declares is used:
+ * <ol>
+ *     <li>a static <code>valueOf(String)</code> method</li>
+ *     <li>a static <code>fromString(String)</code> method</li>
+ *     <li>a static <code>of(String)</code> method</li>
+ *     <li>a static <code>parse(CharSequence)</code> or <code>parse(String)</code> method</li>
+ *     <li>a constructor taking a single <code>String</code></li>
+ * </ol>
+ * Each of these must be public, and a static method must return the class or
+ * a subtype of it. The method is bound to a {@link MethodHandle} once, so each
+ * deserialisation is a direct invocation rather than a reflective call. Members
+ * of classes in modules that are not open to this library are ignored.
+ */
+final class ConventionDeserialisers {
+
+    private static final MethodType DESERIALISER_TYPE = MethodType.methodType(Object.class, String.class);
+
+    private ConventionDeserialisers() {
+    }
+
+    /**
+     * @return a deserialiser using the first matching convention, or null if the
+     *         class follows none of them
+     */
+    static <T> Deserialiser<T> find(Class<T> type) {
+        if (type.isPrimitive() || type.isArray()) {
+            return null;
+        }
+        MethodHandle factory = findFactoryMethod(type, "valueOf", String.class);
+        if (factory == null) {
+            factory = findFactoryMethod(type, "fromString", String.class);
+        }
+        if (factory == null) {
+            factory = findFactoryMethod(type, "of", String.class);
+        }
+        if (factory == null) {
+            factory = findFactoryMethod(type, "parse", CharSequence.class);
+        }
+        if (factory == null) {
+            factory = findFactoryMethod(type, "parse", String.class);
+        }
+        if (factory == null) {
+            factory = findConstructor(type);
+        }
+        return factory == null ? null : new MethodHandleDeserialiser<>(type, factory.asType(DESERIALISER_TYPE));
+    }
+
+    private static MethodHandle findFactoryMethod(Class<?> type, String name, Class<?> parameterType) {
+        final Method method;
+        try {
+            method = type.getMethod(name, parameterType);
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+        if (!Modifier.isStatic(method.getModifiers()) || !type.isAssignableFrom(method.getReturnType())) {
+            return null;
+        }
+        if (!method.trySetAccessible()) {
+            return null;
+        }
+        try {
+            return MethodHandles.lookup().unreflect(method);
+        } catch (IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    private static MethodHandle findConstructor(Class<?> type) {
+        if (Modifier.isAbstract(type.getModifiers())) {
+            return null;
+        }
+        final Constructor<?> constructor;
+        try {
+            constructor = type.getConstructor(String.class);
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+        if (!constructor.trySetAccessible()) {
+            return null;
+        }
+        try {
+            return MethodHandles.lookup().unreflectConstructor(constructor);
+        } catch (IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    private static final class MethodHandleDeserialiser<T> implements Deserialiser<T> {
+
+        private final Class<T> type;
+        private final MethodHandle factory;
+
+        private MethodHandleDeserialiser(Class<T> type, MethodHandle factory) {
+            this.type = type;
+            this.factory = factory;
+        }
+
+        @Override
+        public T deserialise(String value) throws Exception {
+            try {
+                return type.cast((Object) factory.invokeExact(value));
+            } catch (Exception | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new UndeclaredThrowableException(t);
+            }
+        }
+    }
+}
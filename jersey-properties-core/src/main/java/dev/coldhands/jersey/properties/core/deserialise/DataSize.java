@@ -0,0 +1,232 @@
+/*
+ * ISC License Copyright (c) 2004-2010 by Internet Systems Consortium, Inc. ("ISC")
+ *
+ * Copyright (c) 2021 by Jamie Redding
+ *
+ * Permission to use, copy, modify, and /or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above copyright
+ * notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND ISC DISCLAIMS ALL WARRANTIES WITH REGARD
+ * TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS.
+ * IN NO EVENT SHALL ISC BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL
+ * DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS,
+ * WHETHER IN AN ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING
+ * OUT OF OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package dev.coldhands.jersey.properties.core.deserialise;
+
+/**
+ * An amount of data, such as the size of a buffer or cache, held as a
+ * number of bytes.
+ *
+ * <p>
+ *     Decimal units are powers of 1000 and binary units are powers of 1024:
+<pre>
+    B
+    KB  MB  GB  TB  PB
+    KiB MiB GiB TiB PiB
+</pre>
+ * </p>
+ */
+public final class DataSize implements Comparable<DataSize> {
+
+    private static final long KB = 1000L;
+    private static final long KIB = 1024L;
+
+    private static final String[] PREFIXES = {"K", "M", "G", "T", "P"};
+
+    private static final DataSize ZERO = new DataSize(0);
+
+    private final long bytes;
+
+    private DataSize(long bytes) {
+        this.bytes = bytes;
+    }
+
+    /**
+     * @param bytes the number of bytes
+     * @return a DataSize of the supplied number of bytes
+     */
+    public static DataSize ofBytes(long bytes) {
+        if (bytes < 0) {
+            throw new IllegalArgumentException("DataSize must not be negative: " + bytes);
+        }
+        return bytes == 0 ? ZERO : new DataSize(bytes);
+    }
+
+    /**
+     * Parse an amount optionally followed by a unit, for example <code>512MiB</code>,
+     * <code>10 GB</code> or <code>1.5KiB</code>. The unit is case insensitive and an
+     * amount without a unit is a number of bytes. A fractional amount must come to
+     * a whole number of bytes.
+     *
+     * <p>
+     *     The value is read in a single pass without creating any intermediate objects.
+     * </p>
+     * @param text the text to parse
+     * @return the parsed DataSize
+     * @throws IllegalArgumentException if the text is not a valid DataSize
+     */
+    public static DataSize parse(CharSequence text) {
+        int end = text.length();
+        while (end > 0 && Character.isWhitespace(text.charAt(end - 1))) {
+            end--;
+        }
+        int index = skipWhitespace(text, 0, end);
+        final int numberStart = index;
+
+        try {
+            long whole = 0;
+            while (index < end && isDigit(text.charAt(index))) {
+                whole = Math.addExact(Math.multiplyExact(whole, 10), text.charAt(index) - '0');
+                index++;
+            }
+            long fraction = 0;
+            long fractionScale = 1;
+            if (index < end && text.charAt(index) == '.') {
+                index++;
+                while (index < end && isDigit(text.charAt(index))) {
+                    fraction = Math.addExact(Math.multiplyExact(fraction, 10), text.charAt(index) - '0');
+                    fractionScale = Math.multiplyExact(fractionScale, 10);
+                    index++;
+                }
+            }
+            if (index == numberStart || index == numberStart + 1 && fractionScale == 1 && !isDigit(text.charAt(numberStart))) {
+                throw invalid(text, "expected an amount", numberStart);
+            }
+
+            index = skipWhitespace(text, index, end);
+            final long unitBytes = unitBytes(text, index, end);
+            if (unitBytes == 0) {
+                throw invalid(text, "unknown unit", index);
+            }
+
+            final long fractionBytes = Math.multiplyExact(fraction, unitBytes);
+            if (fractionBytes % fractionScale != 0) {
+                throw invalid(text, "not a whole number of bytes", numberStart);
+            }
+            return ofBytes(Math.addExact(Math.multiplyExact(whole, unitBytes), fractionBytes / fractionScale));
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("DataSize out of range: " + text, e);
+        }
+    }
+
+    /**
+     * @return the number of bytes
+     */
+    public long toBytes() {
+        return bytes;
+    }
+
+    @Override
+    public int compareTo(DataSize other) {
+        return Long.compare(bytes, other.bytes);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        return bytes == ((DataSize) o).bytes;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(bytes);
+    }
+
+    /**
+     * @return the size in the largest unit that represents it exactly,
+     *         for example <code>512MiB</code> or <code>10GB</code>
+     */
+    @Override
+    public String toString() {
+        long bestUnit = 1;
+        String bestSuffix = "B";
+        long decimal = 1;
+        long binary = 1;
+        for (String prefix : PREFIXES) {
+            decimal *= KB;
+            binary *= KIB;
+            if (bytes != 0 && bytes % decimal == 0 && decimal > bestUnit) {
+                bestUnit = decimal;
+                bestSuffix = prefix + "B";
+            }
+            if (bytes != 0 && bytes % binary == 0 && binary > bestUnit) {
+                bestUnit = binary;
+                bestSuffix = prefix + "iB";
+            }
+        }
+        return bytes / bestUnit + bestSuffix;
+    }
+
+    private static long unitBytes(CharSequence text, int start, int end) {
+        switch (end - start) {
+            case 0:
+                return 1;
+            case 1:
+                return isB(text.charAt(start)) ? 1 : 0;
+            case 2:
+                return isB(text.charAt(start + 1)) ? power(KB, text.charAt(start)) : 0;
+            case 3:
+                return Character.toLowerCase(text.charAt(start + 1)) == 'i' && isB(text.charAt(start + 2))
+                        ? power(KIB, text.charAt(start))
+                        : 0;
+            default:
+                return 0;
+        }
+    }
+
+    private static long power(long base, char prefix) {
+        final int exponent;
+        switch (Character.toLowerCase(prefix)) {
+            case 'k':
+                exponent = 1;
+                break;
+            case 'm':
+                exponent = 2;
+                break;
+            case 'g':
+                exponent = 3;
+                break;
+            case 't':
+                exponent = 4;
+                break;
+            case 'p':
+                exponent = 5;
+                break;
+            default:
+                return 0;
+        }
+        long result = 1;
+        for (int i = 0; i < exponent; i++) {
+            result *= base;
+        }
+        return result;
+    }
+
+    private static boolean isB(char c) {
+        return c == 'B' || c == 'b';
+    }
+
+    private static int skipWhitespace(CharSequence text, int index, int end) {
+        while (index < end && Character.isWhitespace(text.charAt(index))) {
+            index++;
+        }
+        return index;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static IllegalArgumentException invalid(CharSequence text, String reason, int index) {
+        return new IllegalArgumentException(String.format("Invalid DataSize: %s, %s at index %d", text, reason, index));
+    }
+}
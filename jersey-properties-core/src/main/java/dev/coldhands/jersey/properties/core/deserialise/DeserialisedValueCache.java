@@ -0,0 +1,99 @@
+/*
+ * ISC License Copyright (c) 2004-2010 by Internet Systems Consortium, Inc. ("ISC")
+ *
+ * Copyright (c) 2021 by Jamie Redding
+ *
+ * Permission to use, copy, modify, and /or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above copyright
+ * notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND ISC DISCLAIMS ALL WARRANTIES WITH REGARD
+ * TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS.
+ * IN NO EVENT SHALL ISC BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL
+ * DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS,
+ * WHETHER IN AN ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING
+ * OUT OF OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package dev.coldhands.jersey.properties.core.deserialise;
+
+import dev.coldhands.jersey.properties.core.resolver.PropertySnapshot;
+
+import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers the result of deserialising a property value to a type so that
+ * it is only deserialised again once the raw value of that property changes.
+ *
+ * <p>
+ *     Each entry also records the {@link PropertySnapshot} it was last confirmed
+ *     against, so while the same snapshot is current the value can be returned
+ *     without looking up or comparing the raw value. Snapshots are compared by
+ *     identity, as versions are only unique within a single resolver.
+ * </p>
+ */
+final class DeserialisedValueCache {
+
+    private final ClassValue<Map<String, Entry>> entriesByClass = new ClassValue<>() {
+        @Override
+        protected Map<String, Entry> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+    private final Map<Type, Map<String, Entry>> entriesByGenericType = new ConcurrentHashMap<>();
+
+    /**
+     * @return the previously deserialised value if it was last confirmed
+     *         against the same snapshot, otherwise null
+     */
+    Object getForSnapshot(Type type, String propertyName, PropertySnapshot snapshot) {
+        final Entry entry = entriesFor(type).get(propertyName);
+        return entry != null && entry.snapshot == snapshot ? entry.value : null;
+    }
+
+    /**
+     * @param snapshot the snapshot the raw value was read from, or null if
+     *                 the resolver does not provide snapshots
+     * @return the previously deserialised value if it was deserialised from
+     *         the same raw value, otherwise null
+     */
+    Object get(Type type, String propertyName, String rawValue, PropertySnapshot snapshot) {
+        final Map<String, Entry> entries = entriesFor(type);
+        final Entry entry = entries.get(propertyName);
+        if (entry == null || (entry.rawValue != rawValue && !entry.rawValue.equals(rawValue))) {
+            return null;
+        }
+        if (snapshot != null && entry.snapshot != snapshot) {
+            entries.put(propertyName, new Entry(rawValue, entry.value, snapshot));
+        }
+        return entry.value;
+    }
+
+    void put(Type type, String propertyName, String rawValue, Object value, PropertySnapshot snapshot) {
+        if (value == null) {
+            return;
+        }
+        entriesFor(type).put(propertyName, new Entry(rawValue, value, snapshot));
+    }
+
+    private Map<String, Entry> entriesFor(Type type) {
+        if (type instanceof Class<?>) {
+            return entriesByClass.get((Class<?>) type);
+        }
+        return entriesByGenericType.computeIfAbsent(type, ignored -> new ConcurrentHashMap<>());
+    }
+
+    private static final class Entry {
+        private final String rawValue;
+        private final Object value;
+        private final PropertySnapshot snapshot;
+
+        private Entry(String rawValue, Object value, PropertySnapshot snapshot) {
+            this.rawValue = rawValue;
+            this.value = value;
+            this.snapshot = snapshot;
+        }
+    }
+}
@@ -17,8 +17,15 @@
 
 package dev.coldhands.jersey.properties.core.deserialise;
 
+import java.lang.reflect.Type;
+
 class DeserialiserException extends PropertyException {
-    public DeserialiserException(String propertyName, Class<?> injecteeClass, Exception cause) {
-        super(String.format("Exception thrown while deserialising property: %s as type: %s", propertyName, injecteeClass.getTypeName()), cause);
+    public DeserialiserException(String propertyName, Type injecteeType, Exception cause) {
+        this(propertyName, injecteeType, cause, true);
+    }
+
+    public DeserialiserException(String propertyName, Type injecteeType, Exception cause, boolean writableStackTrace) {
+        super(String.format("Exception thrown while deserialising property: %s as type: %s", propertyName, injecteeType.getTypeName()),
+                cause, writableStackTrace);
     }
 }
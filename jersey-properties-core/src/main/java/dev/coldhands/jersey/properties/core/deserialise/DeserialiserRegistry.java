@@ -18,11 +18,24 @@
 package dev.coldhands.jersey.properties.core.deserialise;
 
 import java.io.File;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
 import java.nio.file.Path;
+import java.security.cert.X509Certificate;
 import java.time.*;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.regex.Pattern;
 
 /**
  * DeserialiserRegistry provides a mapping from a Class type to
@@ -37,25 +50,29 @@ import java.util.Optional;
 public class DeserialiserRegistry {
 
     private static final DeserialiserRegistry DEFAULT_REGISTRY = DeserialiserRegistry.builder()
-            .put(String.class, s -> s)
-            .put(Integer.class, Integer::parseInt)
-            .put(int.class, Integer::parseInt)
-            .put(Long.class, Long::parseLong)
-            .put(long.class, Long::parseLong)
+            .putCharSequence(String.class, CharSequence::toString)
+            .putInt(CharSequenceParsers.INT)
+            .putLong(CharSequenceParsers.LONG)
+            .putDouble(Double::parseDouble)
+            .putBoolean(CharSequenceParsers.BOOLEAN)
+            .putCharSequence(Integer.class, CharSequenceParsers::parseInt)
+            .putCharSequence(int.class, CharSequenceParsers::parseInt)
+            .putCharSequence(Long.class, CharSequenceParsers::parseLong)
+            .putCharSequence(long.class, CharSequenceParsers::parseLong)
             .put(Short.class, Short::parseShort)
             .put(short.class, Short::parseShort)
             .put(Float.class, Float::parseFloat)
             .put(float.class, Float::parseFloat)
             .put(Double.class, Double::parseDouble)
             .put(double.class, Double::parseDouble)
-            .put(Boolean.class, Boolean::parseBoolean)
-            .put(boolean.class, Boolean::parseBoolean)
+            .putCharSequence(Boolean.class, CharSequenceParsers::parseBoolean)
+            .putCharSequence(boolean.class, CharSequenceParsers::parseBoolean)
             .put(Character.class, s -> s.charAt(0))
             .put(char.class, s -> s.charAt(0))
             .put(Byte.class, Byte::parseByte)
             .put(byte.class, Byte::parseByte)
 
-            .put(Duration.class, Duration::parse)
+            .put(Duration.class, DurationDeserialiser::parse)
             .put(Instant.class, Instant::parse)
             .put(LocalDate.class, LocalDate::parse)
             .put(LocalDateTime.class, LocalDateTime::parse)
@@ -71,6 +88,7 @@ public class DeserialiserRegistry {
             .put(ZoneOffset.class, ZoneOffset::of)
             .put(Path.class, Path::of)
             .put(File.class, File::new)
+            .put(DataSize.class, DataSize::parse)
             .build();
 
     /**
@@ -82,10 +100,97 @@ public class DeserialiserRegistry {
         return DEFAULT_REGISTRY;
     }
 
+    /**
+     * A registry for types which are costly to create, to be used alongside
+     * the {@link #defaultRegistry()}:
+<pre>
+    PropertyDeserialiser.builder(propertyResolver)
+            .withDeserialiserRegistries(List.of(
+                    DeserialiserRegistry.defaultRegistry(),
+                    DeserialiserRegistry.extendedRegistry()))
+            .build();
+</pre>
+     * <ul>
+     *     <li>{@link Pattern} compiled from a regular expression</li>
+     *     <li>{@link URI}</li>
+     *     <li>{@link InetSocketAddress} from <code>host:port</code> or <code>[address]:port</code>, unresolved</li>
+     *     <li>{@link Charset} by name</li>
+     *     <li>{@link X509Certificate} from PEM or Base64 encoded DER</li>
+     *     <li>{@link ByteBuffer} decoded from Base64</li>
+     * </ul>
+     * <p>
+     *     Each deserialiser keeps its results keyed on the raw value, so a regular
+     *     expression is compiled once and a certificate is parsed once however often
+     *     the property is read. Every call returns a new registry with its own caches,
+     *     which are discarded along with the {@link PropertyDeserialiser} using it.
+     * </p>
+     * <p>
+     *     Base64 values are often keys or other secrets, so decoded bytes are never
+     *     cached. They are decoded on each read into a new read-only buffer.
+     * </p>
+     * @return a new extended registry
+     */
+    public static DeserialiserRegistry extendedRegistry() {
+        return DeserialiserRegistry.builder()
+                .put(Pattern.class, CachingDeserialiser.of(Pattern::compile))
+                .put(URI.class, CachingDeserialiser.of(URI::new))
+                .put(InetSocketAddress.class, CachingDeserialiser.of(ExtendedDeserialisers::inetSocketAddress))
+                .put(Charset.class, CachingDeserialiser.of(Charset::forName))
+                .put(X509Certificate.class, CachingDeserialiser.of(ExtendedDeserialisers::x509Certificate))
+                .put(ByteBuffer.class, ExtendedDeserialisers::base64Bytes)
+                .build();
+    }
+
+    /**
+     * A registry combining every {@link DeserialiserRegistryProvider} found by a
+     * {@link ServiceLoader} using the thread context class loader.
+     * @return a registry of the discovered deserialisers
+     * @see #discovered(ClassLoader)
+     */
+    public static DeserialiserRegistry discovered() {
+        return DiscoveredDeserialiserRegistry.load(ServiceLoader.load(DeserialiserRegistryProvider.class));
+    }
+
+    /**
+     * A registry combining every {@link DeserialiserRegistryProvider} found by a
+     * {@link ServiceLoader} using the supplied class loader.
+     *
+     * <p>
+     *     Only the provider classes are loaded by this method. Each provider is
+     *     instantiated the first time one of the types in its {@link DeserialisesTypes}
+     *     annotation is looked up, so libraries can ship deserialisers for many types
+     *     at no cost to applications which never use them. Primitive deserialisers
+     *     such as {@link Builder#putInt(IntDeserialiser)} are not discovered.
+     * </p>
+     * @param classLoader the class loader used to find providers
+     * @return a registry of the discovered deserialisers
+     */
+    public static DeserialiserRegistry discovered(ClassLoader classLoader) {
+        return DiscoveredDeserialiserRegistry.load(ServiceLoader.load(DeserialiserRegistryProvider.class, classLoader));
+    }
+
+    private static final Deserialiser<?> NOT_FOUND = value -> {
+        throw new UnsupportedOperationException();
+    };
+
     private final Map<Class<?>, Deserialiser<?>> registry = new HashMap<>();
+    private final ClassValue<Deserialiser<?>> hierarchyMatches = new ClassValue<>() {
+        @Override
+        protected Deserialiser<?> computeValue(Class<?> type) {
+            return findInHierarchy(type);
+        }
+    };
+    private final IntDeserialiser intDeserialiser;
+    private final LongDeserialiser longDeserialiser;
+    private final DoubleDeserialiser doubleDeserialiser;
+    private final BooleanDeserialiser booleanDeserialiser;
 
-    private DeserialiserRegistry(Map<Class<?>, Deserialiser<?>> registryConfiguration) {
-        registryConfiguration.forEach(registry::put);
+    DeserialiserRegistry(Builder builder) {
+        builder.map.forEach(registry::put);
+        this.intDeserialiser = builder.intDeserialiser;
+        this.longDeserialiser = builder.longDeserialiser;
+        this.doubleDeserialiser = builder.doubleDeserialiser;
+        this.booleanDeserialiser = builder.booleanDeserialiser;
     }
 
     /**
@@ -108,12 +213,190 @@ public class DeserialiserRegistry {
      */
     @SuppressWarnings({"unchecked", "rawtypes"})
     public <T> Optional<Deserialiser<T>> findForType(Class<T> clazz) {
-        return (Optional) Optional.ofNullable(registry.get(clazz));
+        return (Optional) Optional.ofNullable(lookup(clazz));
+    }
+
+    /**
+     * Lookup a registered {@link Deserialiser} for a particular
+     * Class type, falling back to one registered for a supertype.
+     * <p>
+     *     An exact match is preferred. Otherwise the superclasses are tried
+     *     from nearest to furthest, then the implemented interfaces breadth
+     *     first in declaration order, and finally {@link Object}. A
+     *     deserialiser found for a supertype is wrapped so that a value which
+     *     is not an instance of the requested type is rejected with an
+     *     {@link IllegalArgumentException}.
+     * </p>
+     * <p>
+     *     The hierarchy is only walked the first time a class is requested,
+     *     subsequent lookups are a single {@link ClassValue} read.
+     * </p>
+     * @param clazz a class whose type, or one of its supertypes, should have
+     *              a deserialiser in this registry
+     * @param <T> the type which should be deserialised to
+     * @return an {@link Optional} containing a deserialiser for
+     *         the specified type or empty if neither that class nor any
+     *         of its supertypes has been registered
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Optional<Deserialiser<T>> findForTypeOrSupertype(Class<T> clazz) {
+        final Deserialiser<?> deserialiser = hierarchyMatches.get(clazz);
+        return deserialiser == NOT_FOUND ? Optional.empty() : Optional.of((Deserialiser<T>) deserialiser);
+    }
+
+    Deserialiser<?> lookup(Class<?> type) {
+        return registry.get(type);
+    }
+
+    Collection<Class<?>> registeredTypes() {
+        return registry.keySet();
+    }
+
+    private Deserialiser<?> findInHierarchy(Class<?> type) {
+        final Deserialiser<?> exact = lookup(type);
+        if (exact != null) {
+            return exact;
+        }
+        for (Class<?> superclass = type.getSuperclass();
+             superclass != null && superclass != Object.class;
+             superclass = superclass.getSuperclass()) {
+            final Deserialiser<?> deserialiser = lookup(superclass);
+            if (deserialiser != null) {
+                return new SubtypeDeserialiser<>(type, superclass, deserialiser);
+            }
+        }
+
+        final Deque<Class<?>> interfaces = new ArrayDeque<>();
+        final Set<Class<?>> visited = new HashSet<>();
+        for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+            interfaces.addAll(List.of(current.getInterfaces()));
+        }
+        while (!interfaces.isEmpty()) {
+            final Class<?> candidate = interfaces.removeFirst();
+            if (!visited.add(candidate)) {
+                continue;
+            }
+            final Deserialiser<?> deserialiser = lookup(candidate);
+            if (deserialiser != null) {
+                return new SubtypeDeserialiser<>(type, candidate, deserialiser);
+            }
+            interfaces.addAll(List.of(candidate.getInterfaces()));
+        }
+
+        if (!type.isPrimitive() && type != Object.class) {
+            final Deserialiser<?> deserialiser = lookup(Object.class);
+            if (deserialiser != null) {
+                return new SubtypeDeserialiser<>(type, Object.class, deserialiser);
+            }
+        }
+        return NOT_FOUND;
+    }
+
+    /**
+     * Lookup a {@link CharSequenceDeserialiser} for a particular Class type. A
+     * {@link Deserialiser} registered with {@link Builder#put(Class, Deserialiser)}
+     * is {@link CharSequenceDeserialiser#adapt(Deserialiser) adapted}.
+     * @param clazz a class whose type should have a deserialiser in
+     *              this registry
+     * @param <T> the type which should be deserialised to
+     * @return an {@link Optional} containing a deserialiser for
+     *         the specified type or empty if that class has not been
+     *         registered
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Optional<CharSequenceDeserialiser<T>> findCharSequenceDeserialiserForType(Class<T> clazz) {
+        final Deserialiser<?> deserialiser = lookup(clazz);
+        return deserialiser == null
+                ? Optional.empty()
+                : Optional.of(CharSequenceDeserialiser.adapt((Deserialiser<T>) deserialiser));
+    }
+
+    /**
+     * @return an {@link Optional} containing the registered {@link IntDeserialiser}
+     *         or empty if none has been registered
+     */
+    public Optional<IntDeserialiser> findIntDeserialiser() {
+        return Optional.ofNullable(intDeserialiser);
+    }
+
+    /**
+     * @return an {@link Optional} containing the registered {@link LongDeserialiser}
+     *         or empty if none has been registered
+     */
+    public Optional<LongDeserialiser> findLongDeserialiser() {
+        return Optional.ofNullable(longDeserialiser);
+    }
+
+    /**
+     * @return an {@link Optional} containing the registered {@link DoubleDeserialiser}
+     *         or empty if none has been registered
+     */
+    public Optional<DoubleDeserialiser> findDoubleDeserialiser() {
+        return Optional.ofNullable(doubleDeserialiser);
+    }
+
+    /**
+     * @return an {@link Optional} containing the registered {@link BooleanDeserialiser}
+     *         or empty if none has been registered
+     */
+    public Optional<BooleanDeserialiser> findBooleanDeserialiser() {
+        return Optional.ofNullable(booleanDeserialiser);
+    }
+
+    private static final class SubtypeDeserialiser<T> implements Deserialiser<T> {
+
+        private final Class<T> type;
+        private final Class<?> registeredType;
+        private final Deserialiser<?> deserialiser;
+
+        private SubtypeDeserialiser(Class<T> type, Class<?> registeredType, Deserialiser<?> deserialiser) {
+            this.type = type;
+            this.registeredType = registeredType;
+            this.deserialiser = deserialiser;
+        }
+
+        @Override
+        public T deserialise(String value) throws Exception {
+            final Object result = deserialiser.deserialise(value);
+            if (result == null || type.isInstance(result)) {
+                return type.cast(result);
+            }
+            throw new IllegalArgumentException(String.format("Deserialiser registered for %s returned %s which is not an instance of %s",
+                    registeredType.getTypeName(), result.getClass().getTypeName(), type.getTypeName()));
+        }
+    }
+
+    private static final class CharSequenceBackedDeserialiser<T> implements Deserialiser<T>, CharSequenceDeserialiser<T> {
+
+        private final CharSequenceDeserialiser<T> deserialiser;
+
+        private CharSequenceBackedDeserialiser(CharSequenceDeserialiser<T> deserialiser) {
+            this.deserialiser = deserialiser;
+        }
+
+        @Override
+        public T deserialise(String value) throws Exception {
+            return deserialiser.deserialise(value);
+        }
+
+        @Override
+        public T deserialise(CharSequence value) throws Exception {
+            return deserialiser.deserialise(value);
+        }
+
+        @Override
+        public T deserialise(ByteBuffer value) throws Exception {
+            return deserialiser.deserialise(value);
+        }
     }
 
     public static class Builder {
 
         private final Map<Class<?>, Deserialiser<?>> map = new HashMap<>();
+        private IntDeserialiser intDeserialiser;
+        private LongDeserialiser longDeserialiser;
+        private DoubleDeserialiser doubleDeserialiser;
+        private BooleanDeserialiser booleanDeserialiser;
 
         /**
          * Add a {@link Deserialiser} to class mapping to the registry
@@ -128,8 +411,63 @@ public class DeserialiserRegistry {
             return this;
         }
 
+        /**
+         * Add a {@link CharSequenceDeserialiser} to class mapping to the registry. It
+         * is also used wherever a {@link Deserialiser} for that class is looked up,
+         * replacing any added with {@link #put(Class, Deserialiser)}.
+         * @param clazz a class whose type should have a deserialiser in
+         *              this registry
+         * @param deserialiser the deserialiser to used for that class
+         * @param <T> the type which should be deserialised to
+         * @return this builder instance
+         */
+        public <T> Builder putCharSequence(Class<T> clazz, CharSequenceDeserialiser<T> deserialiser) {
+            map.put(clazz, new CharSequenceBackedDeserialiser<>(deserialiser));
+            return this;
+        }
+
+        /**
+         * Add an {@link IntDeserialiser} used by {@link PropertyDeserialiser#getInt(String)}
+         * @param deserialiser the deserialiser to use for int values
+         * @return this builder instance
+         */
+        public Builder putInt(IntDeserialiser deserialiser) {
+            this.intDeserialiser = deserialiser;
+            return this;
+        }
+
+        /**
+         * Add a {@link LongDeserialiser} used by {@link PropertyDeserialiser#getLong(String)}
+         * @param deserialiser the deserialiser to use for long values
+         * @return this builder instance
+         */
+        public Builder putLong(LongDeserialiser deserialiser) {
+            this.longDeserialiser = deserialiser;
+            return this;
+        }
+
+        /**
+         * Add a {@link DoubleDeserialiser} used by {@link PropertyDeserialiser#getDouble(String)}
+         * @param deserialiser the deserialiser to use for double values
+         * @return this builder instance
+         */
+        public Builder putDouble(DoubleDeserialiser deserialiser) {
+            this.doubleDeserialiser = deserialiser;
+            return this;
+        }
+
+        /**
+         * Add a {@link BooleanDeserialiser} used by {@link PropertyDeserialiser#getBoolean(String)}
+         * @param deserialiser the deserialiser to use for boolean values
+         * @return this builder instance
+         */
+        public Builder putBoolean(BooleanDeserialiser deserialiser) {
+            this.booleanDeserialiser = deserialiser;
+            return this;
+        }
+
         public DeserialiserRegistry build() {
-            return new DeserialiserRegistry(map);
+            return new DeserialiserRegistry(this);
         }
     }
 }
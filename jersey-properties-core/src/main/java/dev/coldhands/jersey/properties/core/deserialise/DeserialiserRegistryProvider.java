@@ -0,0 +1,55 @@
+/*
+ * ISC License Copyright (c) 2004-2010 by Internet Systems Consortium, Inc. ("ISC")
+ *
+ * Copyright (c) 2021 by Jamie Redding
+ *
+ * Permission to use, copy, modify, and /or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above copyright
+ * notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND ISC DISCLAIMS ALL WARRANTIES WITH REGARD
+ * TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS.
+ * IN NO EVENT SHALL ISC BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL
+ * DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS,
+ * WHETHER IN AN ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING
+ * OUT OF OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package dev.coldhands.jersey.properties.core.deserialise;
+
+/**
+ * Service provider interface for a {@link DeserialiserRegistry} which is found with
+ * {@link java.util.ServiceLoader} by {@link DeserialiserRegistry#discovered()}.
+ *
+ * <p>
+ *     Implementations are listed in
+ *     <code>META-INF/services/dev.coldhands.jersey.properties.core.deserialise.DeserialiserRegistryProvider</code>
+ *     and should be annotated with {@link DeserialisesTypes}. The annotation lets
+ *     discovery index a provider by its types without instantiating it, so the provider
+ *     is only created when one of those types is first deserialised.
+ * </p>
+ * <p>
+ *     For example:
+<pre>
+    &#64;DeserialisesTypes({Money.class, AccountId.class})
+    public class AccountsDeserialiserRegistryProvider implements DeserialiserRegistryProvider {
+
+        &#64;Override
+        public DeserialiserRegistry createRegistry() {
+            return DeserialiserRegistry.builder()
+                    .put(Money.class, Money::parse)
+                    .put(AccountId.class, AccountId::new)
+                    .build();
+        }
+    }
+</pre>
+ * </p>
+ */
+public interface DeserialiserRegistryProvider {
+
+    /**
+     * Create the registry. This is called at most once for each discovered provider.
+     * @return the registry containing deserialisers for the provided types
+     */
+    DeserialiserRegistry createRegistry();
+}
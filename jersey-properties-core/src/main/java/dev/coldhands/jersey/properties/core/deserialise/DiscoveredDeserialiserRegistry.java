@@ -0,0 +1,108 @@
+/*
+ * ISC License Copyright (c) 2004-2010 by Internet Systems Consortium, Inc. ("ISC")
+ *
+ * Copyright (c) 2021 by Jamie Redding
+ *
+ * Permission to use, copy, modify, and /or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above copyright
+ * notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND ISC DISCLAIMS ALL WARRANTIES WITH REGARD
+ * TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS.
+ * IN NO EVENT SHALL ISC BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL
+ * DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS,
+ * WHETHER IN AN ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING
+ * OUT OF OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package dev.coldhands.jersey.properties.core.deserialise;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
+
+/**
+ * A {@link DeserialiserRegistry} backed by the {@link DeserialiserRegistryProvider
+ * DeserialiserRegistryProviders} found by a {@link ServiceLoader}.
+ *
+ * <p>
+ *     Only the provider classes are loaded up front, to read their {@link DeserialisesTypes}
+ *     annotation into an index from type to providers. A provider is instantiated the
+ *     first time one of its types is looked up. When several providers declare the same
+ *     type, the first one in {@link ServiceLoader} order that actually registers it wins.
+ * </p>
+ */
+final class DiscoveredDeserialiserRegistry extends DeserialiserRegistry {
+
+    private final Map<Class<?>, List<LazyRegistry>> index;
+
+    private DiscoveredDeserialiserRegistry(Map<Class<?>, List<LazyRegistry>> index) {
+        super(DeserialiserRegistry.builder());
+        this.index = index;
+    }
+
+    static DiscoveredDeserialiserRegistry load(ServiceLoader<DeserialiserRegistryProvider> serviceLoader) {
+        final Map<Class<?>, List<LazyRegistry>> index = new HashMap<>();
+        serviceLoader.stream().forEach(provider -> {
+            final var lazyRegistry = new LazyRegistry(provider);
+            final DeserialisesTypes metadata = provider.type().getAnnotation(DeserialisesTypes.class);
+            final Collection<Class<?>> types = metadata == null
+                    ? lazyRegistry.get().registeredTypes()
+                    : List.of(metadata.value());
+            for (Class<?> type : types) {
+                index.computeIfAbsent(type, ignored -> new ArrayList<>(1)).add(lazyRegistry);
+            }
+        });
+        return new DiscoveredDeserialiserRegistry(index);
+    }
+
+    @Override
+    Deserialiser<?> lookup(Class<?> type) {
+        final List<LazyRegistry> candidates = index.get(type);
+        if (candidates == null) {
+            return null;
+        }
+        for (LazyRegistry candidate : candidates) {
+            final Deserialiser<?> deserialiser = candidate.get().lookup(type);
+            if (deserialiser != null) {
+                return deserialiser;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    Collection<Class<?>> registeredTypes() {
+        return index.keySet();
+    }
+
+    private static final class LazyRegistry {
+
+        private final ServiceLoader.Provider<DeserialiserRegistryProvider> provider;
+        private volatile DeserialiserRegistry registry;
+
+        private LazyRegistry(ServiceLoader.Provider<DeserialiserRegistryProvider> provider) {
+            this.provider = provider;
+        }
+
+        private DeserialiserRegistry get() {
+            DeserialiserRegistry result = registry;
+            if (result == null) {
+                synchronized (this) {
+                    result = registry;
+                    if (result == null) {
+                        result = provider.get().createRegistry();
+                        if (result == null) {
+                            throw new IllegalStateException(provider.type().getName() + " created a null DeserialiserRegistry");
+                        }
+                        registry = result;
+                    }
+                }
+            }
+            return result;
+        }
+    }
+}
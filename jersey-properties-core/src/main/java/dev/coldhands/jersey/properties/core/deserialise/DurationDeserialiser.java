@@ -0,0 +1,170 @@
+/*
+ * ISC License Copyright (c) 2004-2010 by Internet Systems Consortium, Inc. ("ISC")
+ *
+ * Copyright (c) 2021 by Jamie Redding
+ *
+ * Permission to use, copy, modify, and /or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above copyright
+ * notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND ISC DISCLAIMS ALL WARRANTIES WITH REGARD
+ * TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS.
+ * IN NO EVENT SHALL ISC BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL
+ * DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS,
+ * WHETHER IN AN ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING
+ * OUT OF OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package dev.coldhands.jersey.properties.core.deserialise;
+
+import java.time.Duration;
+
+/**
+ * Deserialises a {@link Duration} from either ISO-8601, as accepted by
+ * {@link Duration#parse(CharSequence)}, or a human friendly form made up
+ * of one or more amounts each followed by a unit:
+<pre>
+    250ms
+    1.5s
+    1h 30m
+    -2d
+</pre>
+ * The units are <code>ns</code>, <code>us</code> (or <code>&micro;s</code>), <code>ms</code>,
+ * <code>s</code>, <code>m</code>, <code>h</code> and <code>d</code>, in any case.
+ * Values are read in a single pass over the String without creating any
+ * intermediate objects.
+ */
+final class DurationDeserialiser {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private DurationDeserialiser() {
+    }
+
+    static Duration parse(String value) {
+        int end = value.length();
+        while (end > 0 && Character.isWhitespace(value.charAt(end - 1))) {
+            end--;
+        }
+        int index = skipWhitespace(value, 0, end);
+        final int start = index;
+
+        boolean negative = false;
+        if (index < end && (value.charAt(index) == '-' || value.charAt(index) == '+')) {
+            negative = value.charAt(index) == '-';
+            index++;
+        }
+        if (index < end && (value.charAt(index) == 'P' || value.charAt(index) == 'p')) {
+            return Duration.parse(start == 0 && end == value.length() ? value : value.substring(start, end));
+        }
+        if (index == end) {
+            throw invalid(value, "expected an amount", index);
+        }
+
+        try {
+            long seconds = 0;
+            long nanos = 0;
+            while (index < end) {
+                final int numberStart = index;
+                long whole = 0;
+                while (index < end && isDigit(value.charAt(index))) {
+                    whole = Math.addExact(Math.multiplyExact(whole, 10), value.charAt(index) - '0');
+                    index++;
+                }
+                long fraction = 0;
+                long fractionScale = 1;
+                if (index < end && value.charAt(index) == '.') {
+                    index++;
+                    while (index < end && isDigit(value.charAt(index))) {
+                        if (fractionScale == NANOS_PER_SECOND) {
+                            throw invalid(value, "too many fractional digits", index);
+                        }
+                        fraction = fraction * 10 + (value.charAt(index) - '0');
+                        fractionScale *= 10;
+                        index++;
+                    }
+                }
+                if (index == numberStart || index == numberStart + 1 && fractionScale == 1 && !isDigit(value.charAt(numberStart))) {
+                    throw invalid(value, "expected an amount", numberStart);
+                }
+
+                index = skipWhitespace(value, index, end);
+                final int unitStart = index;
+                while (index < end && Character.isLetter(value.charAt(index))) {
+                    index++;
+                }
+                final long unitNanos = unitNanos(value, unitStart, index);
+                if (unitNanos == 0) {
+                    throw invalid(value, unitStart == index ? "expected a unit" : "unknown unit", unitStart);
+                }
+
+                if (unitNanos >= NANOS_PER_SECOND) {
+                    seconds = Math.addExact(seconds, Math.multiplyExact(whole, unitNanos / NANOS_PER_SECOND));
+                } else {
+                    nanos = Math.addExact(nanos, Math.multiplyExact(whole, unitNanos));
+                }
+                if (fractionScale > 1) {
+                    if (unitNanos % fractionScale != 0) {
+                        throw invalid(value, "too many fractional digits for unit", unitStart);
+                    }
+                    nanos = Math.addExact(nanos, fraction * (unitNanos / fractionScale));
+                }
+                index = skipWhitespace(value, index, end);
+            }
+            final Duration duration = Duration.ofSeconds(seconds, nanos);
+            return negative ? duration.negated() : duration;
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Duration out of range: " + value, e);
+        }
+    }
+
+    private static long unitNanos(String value, int start, int end) {
+        switch (end - start) {
+            case 1:
+                switch (Character.toLowerCase(value.charAt(start))) {
+                    case 's':
+                        return NANOS_PER_SECOND;
+                    case 'm':
+                        return 60 * NANOS_PER_SECOND;
+                    case 'h':
+                        return 60 * 60 * NANOS_PER_SECOND;
+                    case 'd':
+                        return 24 * 60 * 60 * NANOS_PER_SECOND;
+                    default:
+                        return 0;
+                }
+            case 2:
+                if (Character.toLowerCase(value.charAt(start + 1)) != 's') {
+                    return 0;
+                }
+                switch (Character.toLowerCase(value.charAt(start))) {
+                    case 'n':
+                        return 1;
+                    case 'u':
+                    case '\u00b5':
+                        return 1_000;
+                    case 'm':
+                        return 1_000_000;
+                    default:
+                        return 0;
+                }
+            default:
+                return 0;
+        }
+    }
+
+    private static int skipWhitespace(String value, int index, int end) {
+        while (index < end && Character.isWhitespace(value.charAt(index))) {
+            index++;
+        }
+        return index;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static IllegalArgumentException invalid(String value, String reason, int index) {
+        return new IllegalArgumentException(String.format("Invalid duration: %s, %s at index %d", value, reason, index));
+    }
+}
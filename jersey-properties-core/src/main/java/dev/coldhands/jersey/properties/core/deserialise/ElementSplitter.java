@@ -0,0 +1,99 @@
+/*
+ * ISC License Copyright (c) 2004-2010 by Internet Systems Consortium, Inc. ("ISC")
+ *
+ * Copyright (c) 2021 by Jamie Redding
+ *
+ * Permission to use, copy, modify, and /or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above copyright
+ * notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND ISC DISCLAIMS ALL WARRANTIES WITH REGARD
+ * TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS.
+ * IN NO EVENT SHALL ISC BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL
+ * DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS,
+ * WHETHER IN AN ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING
+ * OUT OF OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package dev.coldhands.jersey.properties.core.deserialise;
+
+/**
+ * Splits a property value into comma separated elements in a single scan,
+ * ignoring whitespace around each element and empty elements. Each element is
+ * exposed as a range of the value, so it can be parsed in place without
+ * creating a String for it.
+ */
+final class ElementSplitter {
+
+    static final char ELEMENT_SEPARATOR = ',';
+
+    /**
+     * The initial capacity for arrays filled from the elements, which are grown as needed.
+     */
+    static final int INITIAL_CAPACITY = 8;
+
+    private final String value;
+    private int position;
+    private int elementStart;
+    private int elementEnd;
+
+    ElementSplitter(String value) {
+        this.value = value;
+    }
+
+    /**
+     * Move to the next non-empty element.
+     * @return false if there are no more elements
+     */
+    boolean next() {
+        final int length = value.length();
+        while (position <= length) {
+            int end = value.indexOf(ELEMENT_SEPARATOR, position);
+            if (end < 0) {
+                end = length;
+            }
+            int start = position;
+            position = end + 1;
+            while (start < end && Character.isWhitespace(value.charAt(start))) {
+                start++;
+            }
+            while (end > start && Character.isWhitespace(value.charAt(end - 1))) {
+                end--;
+            }
+            if (start < end) {
+                elementStart = start;
+                elementEnd = end;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the index in the value of the first character of the current element
+     */
+    int start() {
+        return elementStart;
+    }
+
+    /**
+     * @return the index in the value after the last character of the current element
+     */
+    int end() {
+        return elementEnd;
+    }
+
+    /**
+     * @return the current element as a String
+     */
+    String element() {
+        return value.substring(elementStart, elementEnd);
+    }
+
+    /**
+     * @return the capacity to grow an array holding <code>length</code> elements to
+     */
+    static int grow(int length) {
+        return length + (length >> 1) + 1;
+    }
+}
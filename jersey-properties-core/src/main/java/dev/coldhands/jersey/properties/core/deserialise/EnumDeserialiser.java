@@ -0,0 +1,151 @@
+/*
+ * ISC License Copyright (c) 2004-2010 by Internet Systems Consortium, Inc. ("ISC")
+ *
+ * Copyright (c) 2021 by Jamie Redding
+ *
+ * Permission to use, copy, modify, and /or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above copyright
+ * notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND ISC DISCLAIMS ALL WARRANTIES WITH REGARD
+ * TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS.
+ * IN NO EVENT SHALL ISC BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL
+ * DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS,
+ * WHETHER IN AN ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING
+ * OUT OF OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package dev.coldhands.jersey.properties.core.deserialise;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Deserialises the constants of a single enum from tables of names
+ * built once when the deserialiser is created.
+ *
+ * <p>
+ *     Values are hashed and compared character by character, applying the
+ *     {@link EnumMatching} to each character as it is read, so neither a
+ *     {@link CharSequence} nor a value that only matches once normalised is
+ *     copied to a new String to look it up. An exact match is always tried first.
+ * </p>
+ */
+final class EnumDeserialiser<T> implements Deserialiser<T>, CharSequenceDeserialiser<T> {
+
+    private static final Object AMBIGUOUS = new Object();
+
+    private final Class<T> enumType;
+    private final EnumMatching matching;
+    private final Map<String, T> constantsByName = new HashMap<>();
+    private final NameTable exactNames;
+    private final NameTable normalisedNames;
+
+    EnumDeserialiser(Class<T> enumType, EnumMatching matching) {
+        this.enumType = enumType;
+        this.matching = matching;
+        final Map<String, Object> constantsByNormalisedName = new HashMap<>();
+        for (T constant : enumType.getEnumConstants()) {
+            final String name = ((Enum<?>) constant).name();
+            constantsByName.put(name, constant);
+            if (matching != EnumMatching.EXACT) {
+                constantsByNormalisedName.merge(matching.normalise(name), constant, (existing, duplicate) -> AMBIGUOUS);
+            }
+        }
+        this.exactNames = new NameTable(constantsByName, EnumMatching.EXACT);
+        this.normalisedNames = matching == EnumMatching.EXACT ? null : new NameTable(constantsByNormalisedName, matching);
+    }
+
+    @Override
+    public T deserialise(String propertyValue) {
+        final T constant = constantsByName.get(propertyValue);
+        return constant != null ? constant : deserialiseNormalised(propertyValue);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T deserialise(CharSequence propertyValue) {
+        if (propertyValue instanceof String) {
+            return deserialise((String) propertyValue);
+        }
+        final Object constant = exactNames.get(propertyValue);
+        return constant != null ? (T) constant : deserialiseNormalised(propertyValue);
+    }
+
+    @SuppressWarnings("unchecked")
+    private T deserialiseNormalised(CharSequence propertyValue) {
+        if (normalisedNames != null) {
+            final Object normalisedMatch = normalisedNames.get(propertyValue);
+            if (normalisedMatch == AMBIGUOUS) {
+                throw new IllegalArgumentException("Ambiguous enum constant " + enumType.getCanonicalName() + "." + propertyValue);
+            }
+            if (normalisedMatch != null) {
+                return (T) normalisedMatch;
+            }
+        }
+        throw new IllegalArgumentException("No enum constant " + enumType.getCanonicalName() + "." + propertyValue);
+    }
+
+    /**
+     * An open addressing hash table of names, which are already normalised, that
+     * normalises each character of a value while hashing and comparing it.
+     */
+    private static final class NameTable {
+
+        private final EnumMatching matching;
+        private final String[] names;
+        private final Object[] values;
+        private final int mask;
+
+        private NameTable(Map<String, ?> valuesByName, EnumMatching matching) {
+            this.matching = matching;
+            int capacity = 2;
+            while (capacity < valuesByName.size() * 2) {
+                capacity <<= 1;
+            }
+            this.names = new String[capacity];
+            this.values = new Object[capacity];
+            this.mask = capacity - 1;
+            valuesByName.forEach((name, value) -> {
+                int slot = hash(name) & mask;
+                while (names[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                names[slot] = name;
+                values[slot] = value;
+            });
+        }
+
+        /**
+         * @return the value for the name the value matches, or null if there is none
+         */
+        private Object get(CharSequence value) {
+            for (int slot = hash(value) & mask; names[slot] != null; slot = (slot + 1) & mask) {
+                if (matches(names[slot], value)) {
+                    return values[slot];
+                }
+            }
+            return null;
+        }
+
+        private int hash(CharSequence value) {
+            int hash = 0;
+            for (int i = 0; i < value.length(); i++) {
+                hash = 31 * hash + matching.normalise(value.charAt(i));
+            }
+            return hash ^ (hash >>> 16);
+        }
+
+        private boolean matches(String name, CharSequence value) {
+            if (name.length() != value.length()) {
+                return false;
+            }
+            for (int i = 0; i < name.length(); i++) {
+                if (name.charAt(i) != matching.normalise(value.charAt(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
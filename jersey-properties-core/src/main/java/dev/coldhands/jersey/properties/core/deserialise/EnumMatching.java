@@ -0,0 +1,71 @@
+/*
+ * ISC License Copyright (c) 2004-2010 by Internet Systems Consortium, Inc. ("ISC")
+ *
+ * Copyright (c) 2021 by Jamie Redding
+ *
+ * Permission to use, copy, modify, and /or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above copyright
+ * notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND ISC DISCLAIMS ALL WARRANTIES WITH REGARD
+ * TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS.
+ * IN NO EVENT SHALL ISC BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL
+ * DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS,
+ * WHETHER IN AN ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING
+ * OUT OF OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package dev.coldhands.jersey.properties.core.deserialise;
+
+/**
+ * How property values are matched to the names of enum constants when
+ * an enum has no {@link Deserialiser} in any {@link DeserialiserRegistry}.
+ */
+public enum EnumMatching {
+
+    /**
+     * The value must be exactly the name of a constant, as with <code>Enum.valueOf</code>.
+     */
+    EXACT,
+
+    /**
+     * The value may differ from the name of a constant in case only,
+     * so <code>blue</code> matches <code>BLUE</code>.
+     */
+    CASE_INSENSITIVE,
+
+    /**
+     * As {@link #CASE_INSENSITIVE} but <code>-</code> and <code>_</code> are also
+     * treated as the same, so <code>dark-blue</code> matches <code>DARK_BLUE</code>.
+     */
+    RELAXED;
+
+    /**
+     * @return the name with {@link #normalise(char)} applied to each character
+     */
+    String normalise(String name) {
+        if (this == EXACT) {
+            return name;
+        }
+        final var normalised = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            normalised.append(normalise(name.charAt(i)));
+        }
+        return normalised.toString();
+    }
+
+    /**
+     * @return the character that two names must both have at the same position
+     *         to match, applying this to a character it returned gives the same character
+     */
+    char normalise(char c) {
+        switch (this) {
+            case CASE_INSENSITIVE:
+                return Character.toLowerCase(c);
+            case RELAXED:
+                return c == '-' ? '_' : Character.toLowerCase(c);
+            default:
+                return c;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * ISC License Copyright (c) 2004-2010 by Internet Systems Consortium, Inc. ("ISC")
+ *
+ * Copyright (c) 2021 by Jamie Redding
+ *
+ * Permission to use, copy, modify, and /or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above copyright
+ * notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND ISC DISCLAIMS ALL WARRANTIES WITH REGARD
+ * TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS.
+ * IN NO EVENT SHALL ISC BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL
+ * DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS,
+ * WHETHER IN AN ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING
+ * OUT OF OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package dev.coldhands.jersey.properties.core.deserialise;
+
+import java.io.ByteArrayInputStream;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.cert.CertificateException;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509Certificate;
+import java.util.Base64;
+
+/**
+ * Deserialisers for the types in {@link DeserialiserRegistry#extendedRegistry()}
+ * which the JDK has no single method to parse.
+ */
+final class ExtendedDeserialisers {
+
+    private static final String PEM_BEGIN = "-----BEGIN";
+
+    private ExtendedDeserialisers() {
+    }
+
+    /**
+     * Parse <code>host:port</code>, or <code>[address]:port</code> for IPv6, without
+     * resolving the host so that deserialising never performs a DNS lookup.
+     */
+    static InetSocketAddress inetSocketAddress(String value) {
+        final int separator = value.lastIndexOf(':');
+        if (separator <= 0 || separator == value.length() - 1) {
+            throw new IllegalArgumentException("Expected host:port but was: " + value);
+        }
+        String host = value.substring(0, separator);
+        if (host.startsWith("[") && host.endsWith("]")) {
+            host = host.substring(1, host.length() - 1);
+        } else if (host.indexOf(':') >= 0) {
+            throw new IllegalArgumentException("IPv6 addresses must be enclosed in [] but was: " + value);
+        }
+        final int port = Integer.parseInt(value.substring(separator + 1));
+        return InetSocketAddress.createUnresolved(host, port);
+    }
+
+    /**
+     * Parse a certificate either in PEM format, including its
+     * <code>-----BEGIN CERTIFICATE-----</code> line, or as Base64 encoded DER.
+     */
+    static X509Certificate x509Certificate(String value) throws CertificateException {
+        final byte[] encoded = value.contains(PEM_BEGIN)
+                ? value.getBytes(StandardCharsets.US_ASCII)
+                : Base64.getMimeDecoder().decode(value);
+        return (X509Certificate) CertificateFactory.getInstance("X.509")
+                .generateCertificate(new ByteArrayInputStream(encoded));
+    }
+
+    /**
+     * Decode Base64, ignoring any line breaks, to a read-only buffer.
+     */
+    static ByteBuffer base64Bytes(String value) {
+        return ByteBuffer.wrap(Base64.getMimeDecoder().decode(value)).asReadOnlyBuffer();
+    }
+}
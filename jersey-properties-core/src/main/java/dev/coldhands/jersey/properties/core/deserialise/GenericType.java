@@ -0,0 +1,93 @@
+/*
+ * ISC License Copyright (c) 2004-2010 by Internet Systems Consortium, Inc. ("ISC")
+ *
+ * Copyright (c) 2021 by Jamie Redding
+ *
+ * Permission to use, copy, modify, and /or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above copyright
+ * notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND ISC DISCLAIMS ALL WARRANTIES WITH REGARD
+ * TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS.
+ * IN NO EVENT SHALL ISC BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL
+ * DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS,
+ * WHETHER IN AN ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING
+ * OUT OF OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package dev.coldhands.jersey.properties.core.deserialise;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+
+/**
+ * A {@link ParameterizedType} that is equal to the ones returned by reflection,
+ * so lookups made with either share the same cache entries.
+ */
+final class GenericType implements ParameterizedType {
+
+    private final Class<?> rawType;
+    private final Type[] actualTypeArguments;
+
+    private GenericType(Class<?> rawType, Type... actualTypeArguments) {
+        this.rawType = rawType;
+        this.actualTypeArguments = actualTypeArguments;
+    }
+
+    static ParameterizedType of(Class<?> rawType, Type... actualTypeArguments) {
+        return new GenericType(rawType, actualTypeArguments);
+    }
+
+    @Override
+    public Type[] getActualTypeArguments() {
+        return actualTypeArguments.clone();
+    }
+
+    @Override
+    public Type getRawType() {
+        return rawType;
+    }
+
+    @Override
+    public Type getOwnerType() {
+        return null;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ParameterizedType)) {
+            return false;
+        }
+        final ParameterizedType that = (ParameterizedType) o;
+        return that.getOwnerType() == null
+                && rawType.equals(that.getRawType())
+                && Arrays.equals(actualTypeArguments, that.getActualTypeArguments());
+    }
+
+    @Override
+    public int hashCode() {
+        // matches the hash code of the JDK's own implementation, whose null owner type hashes to 0
+        return Arrays.hashCode(actualTypeArguments) ^ rawType.hashCode();
+    }
+
+    @Override
+    public String getTypeName() {
+        final var typeName = new StringBuilder(rawType.getTypeName()).append('<');
+        for (int i = 0; i < actualTypeArguments.length; i++) {
+            if (i > 0) {
+                typeName.append(", ");
+            }
+            typeName.append(actualTypeArguments[i].getTypeName());
+        }
+        return typeName.append('>').toString();
+    }
+
+    @Override
+    public String toString() {
+        return getTypeName();
+    }
+}
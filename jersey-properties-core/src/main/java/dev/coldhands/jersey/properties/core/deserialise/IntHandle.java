@@ -0,0 +1,121 @@
+/*
+ * ISC License Copyright (c) 2004-2010 by Internet Systems Consortium, Inc. ("ISC")
+ *
+ * Copyright (c) 2021 by Jamie Redding
+ *
+ * Permission to use, copy, modify, and /or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above copyright
+ * notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND ISC DISCLAIMS ALL WARRANTIES WITH REGARD
+ * TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS.
+ * IN NO EVENT SHALL ISC BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL
+ * DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS,
+ * WHETHER IN AN ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING
+ * OUT OF OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package dev.coldhands.jersey.properties.core.deserialise;
+
+import dev.coldhands.jersey.properties.core.resolver.PropertyResolver;
+import dev.coldhands.jersey.properties.core.resolver.PropertySnapshot;
+import dev.coldhands.jersey.properties.core.resolver.SnapshotPropertyResolver;
+
+import java.util.function.Supplier;
+
+/**
+ * A single property deserialised to a <code>int</code>, created by
+ * {@link PropertyDeserialiser#intHandle(String)}.
+ *
+ * <p>
+ *     As with a {@link PropertyHandle}, the last value is kept with the raw value
+ *     and {@link PropertySnapshot} it came from, but it is kept as a <code>int</code>
+ *     so reads never box it. The property is only deserialised again when its raw
+ *     value changes.
+ * </p>
+ */
+public final class IntHandle {
+
+    private final String propertyName;
+    private final Supplier<PropertyResolver> propertyResolverSupplier;
+    private final IntDeserialiser deserialiser;
+    private final boolean writableStackTraces;
+    private volatile Entry current;
+
+    IntHandle(String propertyName, Supplier<PropertyResolver> propertyResolverSupplier,
+              IntDeserialiser deserialiser, boolean writableStackTraces) {
+        this.propertyName = propertyName;
+        this.propertyResolverSupplier = propertyResolverSupplier;
+        this.deserialiser = deserialiser;
+        this.writableStackTraces = writableStackTraces;
+    }
+
+    /**
+     * @return the deserialised value of the property
+     * @throws PropertyException if the property is missing or cannot be deserialised
+     */
+    public int getAsInt() throws PropertyException {
+        final PropertyResolver propertyResolver = propertyResolverSupplier.get();
+        final Entry entry = current;
+        if (propertyResolver instanceof SnapshotPropertyResolver) {
+            final PropertySnapshot snapshot = ((SnapshotPropertyResolver) propertyResolver).getSnapshot();
+            if (entry != null && entry.snapshot == snapshot) {
+                return entry.value;
+            }
+            return refresh(snapshot, snapshot, entry);
+        }
+        return refresh(propertyResolver, null, entry);
+    }
+
+    /**
+     * @param defaultValue the value to return if the property is missing or cannot be deserialised
+     * @return the deserialised value of the property, or the default value
+     */
+    public int getAsInt(int defaultValue) {
+        try {
+            return getAsInt();
+        } catch (PropertyException e) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * @return the name of the property
+     */
+    public String getPropertyName() {
+        return propertyName;
+    }
+
+    private int refresh(PropertyResolver propertyResolver, PropertySnapshot snapshot, Entry entry) throws PropertyException {
+        final String rawValue = propertyResolver.getProperty(propertyName);
+        if (rawValue == null) {
+            throw new MissingPropertyException(propertyName, writableStackTraces);
+        }
+        if (entry != null && (entry.rawValue == rawValue || entry.rawValue.equals(rawValue))) {
+            if (entry.snapshot != snapshot) {
+                current = new Entry(snapshot, rawValue, entry.value);
+            }
+            return entry.value;
+        }
+        final int value;
+        try {
+            value = deserialiser.deserialise(rawValue);
+        } catch (Exception e) {
+            throw new DeserialiserException(propertyName, int.class, e, writableStackTraces);
+        }
+        current = new Entry(snapshot, rawValue, value);
+        return value;
+    }
+
+    private static final class Entry {
+
+        private final PropertySnapshot snapshot;
+        private final String rawValue;
+        private final int value;
+
+        private Entry(PropertySnapshot snapshot, String rawValue, int value) {
+            this.snapshot = snapshot;
+            this.rawValue = rawValue;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * ISC License Copyright (c) 2004-2010 by Internet Systems Consortium, Inc. ("ISC")
+ *
+ * Copyright (c) 2021 by Jamie Redding
+ *
+ * Permission to use, copy, modify, and /or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above copyright
+ * notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND ISC DISCLAIMS ALL WARRANTIES WITH REGARD
+ * TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS.
+ * IN NO EVENT SHALL ISC BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL
+ * DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS,
+ * WHETHER IN AN ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING
+ * OUT OF OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package dev.coldhands.jersey.properties.core.deserialise;
+
+/**
+ * Interface to define a class that can convert a String
+ * to a long without boxing it.
+ */
+@FunctionalInterface
+public interface LongDeserialiser {
+
+    /**
+     * Convert a String to a long.
+     * @param value the String to convert
+     * @return the deserialised value
+     * @throws Exception if unable to deserialise value to a long
+     */
+    long deserialise(String value) throws Exception;
+
+    /**
+     * Convert a CharSequence to a long. By default the value is converted to
+     * a String first, implementations may override this to parse it in place.
+     * @param value the characters to convert
+     * @return the deserialised value
+     * @throws Exception if unable to deserialise value to a long
+     */
+    default long deserialise(CharSequence value) throws Exception {
+        return deserialise(value.toString());
+    }
+}
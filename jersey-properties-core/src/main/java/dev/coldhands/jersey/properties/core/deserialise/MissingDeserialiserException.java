@@ -17,8 +17,14 @@
 
 package dev.coldhands.jersey.properties.core.deserialise;
 
+import java.lang.reflect.Type;
+
 class MissingDeserialiserException extends PropertyException {
-    public MissingDeserialiserException(Class<?> injecteeClass) {
-        super("No deserialiser configured for type: " + injecteeClass.getTypeName());
+    public MissingDeserialiserException(Type injecteeType) {
+        this(injecteeType, true);
+    }
+
+    public MissingDeserialiserException(Type injecteeType, boolean writableStackTrace) {
+        super("No deserialiser configured for type: " + injecteeType.getTypeName(), null, writableStackTrace);
     }
 }
@@ -19,6 +19,10 @@ package dev.coldhands.jersey.properties.core.deserialise;
 
 class MissingPropertyException extends PropertyException {
     public MissingPropertyException(String propertyName) {
-        super("Could not find property with name: " + propertyName);
+        this(propertyName, true);
+    }
+
+    public MissingPropertyException(String propertyName, boolean writableStackTrace) {
+        super("Could not find property with name: " + propertyName, null, writableStackTrace);
     }
 }
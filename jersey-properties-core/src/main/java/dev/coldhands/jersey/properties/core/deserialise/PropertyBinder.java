@@ -0,0 +1,245 @@
+/*
+ * ISC License Copyright (c) 2004-2010 by Internet Systems Consortium, Inc. ("ISC")
+ *
+ * Copyright (c) 2021 by Jamie Redding
+ *
+ * Permission to use, copy, modify, and /or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above copyright
+ * notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND ISC DISCLAIMS ALL WARRANTIES WITH REGARD
+ * TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS.
+ * IN NO EVENT SHALL ISC BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL
+ * DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS,
+ * WHETHER IN AN ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING
+ * OUT OF OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package dev.coldhands.jersey.properties.core.deserialise;
+
+import dev.coldhands.jersey.properties.core.resolver.PropertyResolver;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Binds the properties under a prefix to a new instance of a single class.
+ *
+ * <p>
+ *     The class is inspected once, when the binder is created. A record is created
+ *     through its canonical constructor with a property for each component. Any
+ *     other class is created through its no argument constructor and then has a
+ *     property set for each instance field that is not transient, including those
+ *     of its superclasses. Each property is named after its field or component,
+ *     unless the field is annotated with {@link Property}.
+ * </p>
+ * <p>
+ *     Constructors and fields are bound to {@link MethodHandle MethodHandles}, so
+ *     binding an instance makes no reflective calls.
+ * </p>
+ */
+final class PropertyBinder<T> {
+
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+    private static final Method IS_RECORD = findMethod(Class.class, "isRecord");
+    private static final Method GET_RECORD_COMPONENTS = findMethod(Class.class, "getRecordComponents");
+
+    private final Class<T> type;
+    private final BoundProperty[] properties;
+    private final MethodHandle factory;
+    private final boolean record;
+
+    private PropertyBinder(Class<T> type, BoundProperty[] properties, MethodHandle factory, boolean record) {
+        this.type = type;
+        this.properties = properties;
+        this.factory = factory;
+        this.record = record;
+    }
+
+    /**
+     * @param deserialiserFinder finds the deserialiser for a property's type,
+     *                           or null if there is none
+     */
+    static <T> PropertyBinder<T> create(Class<T> type, Function<Type, Deserialiser<?>> deserialiserFinder) {
+        if (type.isPrimitive() || type.isArray() || type.isInterface() || Modifier.isAbstract(type.getModifiers())) {
+            throw new IllegalArgumentException("Unable to bind properties to " + type.getTypeName());
+        }
+        try {
+            return isRecord(type)
+                    ? createForRecord(type, deserialiserFinder)
+                    : createForClass(type, deserialiserFinder);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException("Unable to bind properties to " + type.getTypeName(), e);
+        }
+    }
+
+    private static <T> PropertyBinder<T> createForRecord(Class<T> type, Function<Type, Deserialiser<?>> deserialiserFinder)
+            throws ReflectiveOperationException {
+        final Object[] components = (Object[]) GET_RECORD_COMPONENTS.invoke(type);
+        final var properties = new BoundProperty[components.length];
+        final var componentTypes = new Class<?>[components.length];
+        for (int i = 0; i < components.length; i++) {
+            final Method getName = components[i].getClass().getMethod("getName");
+            final Method getType = components[i].getClass().getMethod("getType");
+            final Method getGenericType = components[i].getClass().getMethod("getGenericType");
+            final String name = (String) getName.invoke(components[i]);
+            final Type genericType = (Type) getGenericType.invoke(components[i]);
+            componentTypes[i] = (Class<?>) getType.invoke(components[i]);
+            properties[i] = new BoundProperty(propertyName(type.getDeclaredField(name)), genericType,
+                    deserialiserFinder.apply(genericType), null);
+        }
+        final Constructor<T> constructor = type.getDeclaredConstructor(componentTypes);
+        makeAccessible(type, constructor);
+        final MethodHandle factory = MethodHandles.lookup().unreflectConstructor(constructor)
+                .asSpreader(Object[].class, components.length)
+                .asType(MethodType.methodType(Object.class, Object[].class));
+        return new PropertyBinder<>(type, properties, factory, true);
+    }
+
+    private static <T> PropertyBinder<T> createForClass(Class<T> type, Function<Type, Deserialiser<?>> deserialiserFinder)
+            throws ReflectiveOperationException {
+        final Constructor<T> constructor;
+        try {
+            constructor = type.getDeclaredConstructor();
+        } catch (NoSuchMethodException e) {
+            throw new IllegalArgumentException(type.getTypeName() + " must be a record or have a no argument constructor");
+        }
+        makeAccessible(type, constructor);
+
+        final List<BoundProperty> properties = new ArrayList<>();
+        for (Class<?> current = type; current != Object.class; current = current.getSuperclass()) {
+            for (Field field : current.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers()) || Modifier.isTransient(field.getModifiers()) || field.isSynthetic()) {
+                    continue;
+                }
+                makeAccessible(type, field);
+                final MethodHandle setter = MethodHandles.lookup().unreflectSetter(field).asType(SETTER_TYPE);
+                properties.add(new BoundProperty(propertyName(field), field.getGenericType(),
+                        deserialiserFinder.apply(field.getGenericType()), setter));
+            }
+        }
+        final MethodHandle factory = MethodHandles.lookup().unreflectConstructor(constructor)
+                .asType(MethodType.methodType(Object.class));
+        return new PropertyBinder<>(type, properties.toArray(new BoundProperty[0]), factory, false);
+    }
+
+    /**
+     * Read every property from the same resolver, which should be a snapshot
+     * so that the values are consistent with each other. A property missing
+     * for a class leaves the field with the value set by its constructor, but
+     * a property missing for a record is an error.
+     */
+    T bind(String prefix, PropertyResolver propertyResolver, boolean writableStackTraces) throws PropertyException {
+        final var values = new Object[properties.length];
+        for (int i = 0; i < properties.length; i++) {
+            final BoundProperty property = properties[i];
+            final String propertyName = prefix.isEmpty() ? property.name : prefix + '.' + property.name;
+            final String propertyValue = propertyResolver.getProperty(propertyName);
+            if (propertyValue == null) {
+                if (record) {
+                    throw new MissingPropertyException(propertyName, writableStackTraces);
+                }
+                continue;
+            }
+            if (property.deserialiser == null) {
+                throw new MissingDeserialiserException(property.type, writableStackTraces);
+            }
+            try {
+                values[i] = property.deserialiser.deserialise(propertyValue);
+            } catch (Exception e) {
+                throw new DeserialiserException(propertyName, property.type, e, writableStackTraces);
+            }
+        }
+        try {
+            return record ? createRecord(values) : createInstance(values);
+        } catch (Exception e) {
+            throw new DeserialiserException(prefix, type, e, writableStackTraces);
+        }
+    }
+
+    private T createRecord(Object[] values) throws Exception {
+        try {
+            return type.cast((Object) factory.invokeExact(values));
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+
+    private T createInstance(Object[] values) throws Exception {
+        try {
+            final Object instance = (Object) factory.invokeExact();
+            for (int i = 0; i < properties.length; i++) {
+                if (values[i] != null) {
+                    properties[i].setter.invokeExact(instance, values[i]);
+                }
+            }
+            return type.cast(instance);
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+
+    private static String propertyName(Field field) {
+        final Property property = field.getAnnotation(Property.class);
+        return property == null ? field.getName() : property.value();
+    }
+
+    private static void makeAccessible(Class<?> type, AccessibleObject member) {
+        if (!member.trySetAccessible()) {
+            throw new IllegalArgumentException("Unable to bind properties to " + type.getTypeName() +
+                                               " as its package is not open to this library");
+        }
+    }
+
+    private static boolean isRecord(Class<?> type) {
+        if (IS_RECORD == null) {
+            return false;
+        }
+        try {
+            return (boolean) IS_RECORD.invoke(type);
+        } catch (ReflectiveOperationException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Records are read reflectively as they are not part of the Java release this
+     * library is compiled for, the methods are only present on newer runtimes.
+     */
+    private static Method findMethod(Class<?> type, String name) {
+        try {
+            return type.getMethod(name);
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    private static final class BoundProperty {
+
+        private final String name;
+        private final Type type;
+        private final Deserialiser<?> deserialiser;
+        private final MethodHandle setter;
+
+        private BoundProperty(String name, Type type, Deserialiser<?> deserialiser, MethodHandle setter) {
+            this.name = name;
+            this.type = type;
+            this.deserialiser = deserialiser;
+            this.setter = setter;
+        }
+    }
+}
@@ -18,12 +18,20 @@
 package dev.coldhands.jersey.properties.core.deserialise;
 
 import dev.coldhands.jersey.properties.core.resolver.PropertyResolver;
+import dev.coldhands.jersey.properties.core.resolver.PropertySnapshot;
+import dev.coldhands.jersey.properties.core.resolver.SnapshotPropertyResolver;
 
-import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 import java.util.function.Supplier;
-import java.util.stream.StreamSupport;
 
 /**
  * PropertyDeserialiser allows deserialisation of property values from
@@ -37,27 +45,346 @@ import java.util.stream.StreamSupport;
  */
 public class PropertyDeserialiser {
 
+    private static final Deserialiser<?> NO_DESERIALISER = propertyValue -> {
+        throw new UnsupportedOperationException();
+    };
+    private static final Object FAILED = new Object();
+
     private final Supplier<PropertyResolver> propertyResolverSupplier;
-    private final Iterable<DeserialiserRegistry> deserialiserRegistries;
+    private final DeserialiserRegistry[] deserialiserRegistries;
+    private final DeserialisedValueCache valueCache;
+    private final EnumMatching enumMatching;
+    private final boolean writableStackTraces;
+    private final boolean conventionDeserialisers;
+    private final IntDeserialiser intDeserialiser;
+    private final LongDeserialiser longDeserialiser;
+    private final DoubleDeserialiser doubleDeserialiser;
+    private final BooleanDeserialiser booleanDeserialiser;
+    private final ClassValue<Deserialiser<?>> deserialisers = new ClassValue<>() {
+        @Override
+        protected Deserialiser<?> computeValue(Class<?> type) {
+            return findDeserialiser(type);
+        }
+    };
+    private final ClassValue<CharSequenceDeserialiser<?>> charSequenceDeserialisers = new ClassValue<>() {
+        @Override
+        @SuppressWarnings("unchecked")
+        protected CharSequenceDeserialiser<?> computeValue(Class<?> type) {
+            final Deserialiser<?> deserialiser = deserialisers.get(type);
+            return deserialiser == NO_DESERIALISER ? null : CharSequenceDeserialiser.adapt((Deserialiser<Object>) deserialiser);
+        }
+    };
+    private final ClassValue<PropertyBinder<?>> binders = new ClassValue<>() {
+        @Override
+        protected PropertyBinder<?> computeValue(Class<?> type) {
+            return PropertyBinder.create(type, fieldType -> {
+                final Deserialiser<?> deserialiser = deserialiserFor(fieldType);
+                return deserialiser == NO_DESERIALISER ? null : deserialiser;
+            });
+        }
+    };
+    private final Map<ParameterizedType, Deserialiser<?>> genericDeserialisers = new ConcurrentHashMap<>();
 
-    private PropertyDeserialiser(Supplier<PropertyResolver> propertyResolverSupplier, Iterable<DeserialiserRegistry> deserialiserRegistries) {
+    private PropertyDeserialiser(Supplier<PropertyResolver> propertyResolverSupplier,
+                                 DeserialiserRegistry[] deserialiserRegistries,
+                                 DeserialisedValueCache valueCache,
+                                 EnumMatching enumMatching,
+                                 boolean writableStackTraces,
+                                 boolean conventionDeserialisers) {
         this.propertyResolverSupplier = propertyResolverSupplier;
         this.deserialiserRegistries = deserialiserRegistries;
+        this.valueCache = valueCache;
+        this.enumMatching = enumMatching;
+        this.writableStackTraces = writableStackTraces;
+        this.conventionDeserialisers = conventionDeserialisers;
+        this.intDeserialiser = findPrimitiveDeserialiser(deserialiserRegistries,
+                DeserialiserRegistry::findIntDeserialiser, int.class, boxed -> boxed::deserialise);
+        this.longDeserialiser = findPrimitiveDeserialiser(deserialiserRegistries,
+                DeserialiserRegistry::findLongDeserialiser, long.class, boxed -> boxed::deserialise);
+        this.doubleDeserialiser = findPrimitiveDeserialiser(deserialiserRegistries,
+                DeserialiserRegistry::findDoubleDeserialiser, double.class, boxed -> boxed::deserialise);
+        this.booleanDeserialiser = findPrimitiveDeserialiser(deserialiserRegistries,
+                DeserialiserRegistry::findBooleanDeserialiser, boolean.class, boxed -> boxed::deserialise);
     }
 
     /**
      * Find a property value for the supplied property name and deserialise it
      * to the supplied class type.
+     *
+     * <p>
+     *     Arrays are written as comma separated values. Arrays of <code>int</code>,
+     *     <code>long</code>, <code>double</code> and <code>boolean</code> are filled by
+     *     the primitive deserialisers without boxing.
+     * </p>
      * @param propertyName the name of the property whose value to deserialise
      * @param requiredType a class whose type parameter should be deserialised to
      * @param <T> the type to deserialise to
      * @return the deserialised property value
      * @throws PropertyException if unable to return a deserialised property value
      */
+    @SuppressWarnings("unchecked")
     public <T> T deserialise(String propertyName, Class<T> requiredType) throws PropertyException {
-        final String propertyValue = lookupPropertyValue(propertyName);
+        return (T) deserialiseToType(propertyName, requiredType);
+    }
+
+    /**
+     * Find a property value for the supplied property name and deserialise it
+     * to the supplied type, which may be a class or one of the generic types
+     * accepted by {@link #supportsType(Type)}.
+     *
+     * <p>
+     *     Collections are written as comma separated values and maps as comma separated
+     *     <code>key=value</code> pairs, with each element deserialised by the {@link Deserialiser}
+     *     for its type. The results are immutable.
+<pre>
+    hosts=alpha.example.com, beta.example.com
+    timeouts=connect=PT1S, read=PT30S
+
+    propertyDeserialiser.deserialise("hosts", hostsField.getGenericType());
+</pre>
+     * </p>
+     * @param propertyName the name of the property whose value to deserialise
+     * @param requiredType the type to deserialise to
+     * @return the deserialised property value
+     * @throws PropertyException if unable to return a deserialised property value
+     */
+    public Object deserialise(String propertyName, Type requiredType) throws PropertyException {
+        checkNotNull(requiredType, "Type");
+        return deserialiseToType(propertyName, requiredType);
+    }
+
+    /**
+     * Deserialise a comma separated property value to an immutable {@link List}.
+     * @param propertyName the name of the property whose value to deserialise
+     * @param elementType the type of each element
+     * @param <T> the type of each element
+     * @return the deserialised property value
+     * @throws PropertyException if unable to return a deserialised property value
+     */
+    @SuppressWarnings("unchecked")
+    public <T> List<T> deserialiseList(String propertyName, Class<T> elementType) throws PropertyException {
+        return (List<T>) deserialiseToType(propertyName, GenericType.of(List.class, elementType));
+    }
+
+    /**
+     * Deserialise a comma separated property value to an immutable {@link Set}.
+     * @param propertyName the name of the property whose value to deserialise
+     * @param elementType the type of each element
+     * @param <T> the type of each element
+     * @return the deserialised property value
+     * @throws PropertyException if unable to return a deserialised property value
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Set<T> deserialiseSet(String propertyName, Class<T> elementType) throws PropertyException {
+        return (Set<T>) deserialiseToType(propertyName, GenericType.of(Set.class, elementType));
+    }
+
+    /**
+     * Deserialise a property value of comma separated <code>key=value</code> pairs
+     * to an immutable {@link Map}.
+     * @param propertyName the name of the property whose value to deserialise
+     * @param keyType the type of each key
+     * @param valueType the type of each value
+     * @param <K> the type of each key
+     * @param <V> the type of each value
+     * @return the deserialised property value
+     * @throws PropertyException if unable to return a deserialised property value
+     */
+    @SuppressWarnings("unchecked")
+    public <K, V> Map<K, V> deserialiseMap(String propertyName, Class<K> keyType, Class<V> valueType) throws PropertyException {
+        return (Map<K, V>) deserialiseToType(propertyName, GenericType.of(Map.class, keyType, valueType));
+    }
+
+    /**
+     * @param type the type to check
+     * @return true if the type is a class, or a {@link List}, {@link Collection}, {@link Iterable},
+     *         {@link Set} or {@link Map} whose type arguments are classes
+     */
+    public boolean supportsType(Type type) {
+        if (type instanceof Class<?>) {
+            return true;
+        }
+        return type instanceof ParameterizedType && CollectionDeserialiser.kindOf((ParameterizedType) type) != null;
+    }
+
+    /**
+     * Create an instance of a class from the properties under the prefix given
+     * by its {@link PropertyPrefix} annotation.
+     * @param type the class to create, annotated with {@link PropertyPrefix}
+     * @param <T> the type to create
+     * @return a new instance bound to the properties
+     * @throws PropertyException if unable to deserialise one of the properties
+     * @see #bind(String, Class)
+     */
+    public <T> T bind(Class<T> type) throws PropertyException {
+        checkNotNull(type, "Type");
+        final PropertyPrefix propertyPrefix = type.getAnnotation(PropertyPrefix.class);
+        if (propertyPrefix == null) {
+            throw new IllegalArgumentException(type.getTypeName() + " is not annotated with @" + PropertyPrefix.class.getSimpleName());
+        }
+        return bind(propertyPrefix.value(), type);
+    }
+
+    /**
+     * Create an instance of a class, or a record, from the properties under a prefix.
+     * Each field or record component is set from the property named after it, as the
+     * type of the field would be {@link #deserialise(String, Type) deserialised}.
+     *
+     * <p>
+     *     For example, the properties <code>db.pool.maxSize</code> and
+     *     <code>db.pool.idleTimeout</code> are bound to:
+<pre>
+    &#64;PropertyPrefix("db.pool")
+    public class PoolConfig {
+        private int maxSize = 10;
+        private Duration idleTimeout;
+    }
+</pre>
+     * </p>
+     * <p>
+     *     A class must have a no argument constructor, and a field keeps the value
+     *     it was initialised with if its property is missing or deserialises to
+     *     <code>null</code>. A default set by a field initialiser therefore cannot be
+     *     cleared through the properties, leave the field uninitialised if it should
+     *     be <code>null</code> when unset. Every component of a record must have a
+     *     property. A field annotated with {@link Property} is bound to the property
+     *     with that name under the prefix instead.
+     * </p>
+     * <p>
+     *     If the {@link PropertyResolver} is a {@link SnapshotPropertyResolver}, every
+     *     property is read from the same {@link PropertySnapshot}, so the instance is
+     *     consistent even if the properties are reloaded while it is bound. Each class
+     *     is inspected once, later binds make no reflective calls.
+     * </p>
+     * @param prefix the prefix of the property names, without a trailing <code>.</code>
+     * @param type the class to create
+     * @param <T> the type to create
+     * @return a new instance bound to the properties
+     * @throws PropertyException if unable to deserialise one of the properties
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T bind(String prefix, Class<T> type) throws PropertyException {
+        checkNotNull(prefix, "Prefix");
+        checkNotNull(type, "Type");
+        final PropertyBinder<T> binder = (PropertyBinder<T>) binders.get(type);
+        PropertyResolver propertyResolver = propertyResolverSupplier.get();
+        if (propertyResolver instanceof SnapshotPropertyResolver) {
+            propertyResolver = ((SnapshotPropertyResolver) propertyResolver).getSnapshot();
+        }
+        return binder.bind(prefix, propertyResolver, writableStackTraces);
+    }
+
+    /**
+     * Bind a property name to a class once, for properties that are read repeatedly.
+     * Reading the returned handle does not look up the deserialiser again and, while
+     * the property is unchanged, does not deserialise it again.
+     * @param propertyName the name of the property whose value to deserialise
+     * @param requiredType a class whose type parameter should be deserialised to
+     * @param <T> the type to deserialise to
+     * @return a handle for reading the deserialised property value
+     * @throws MissingDeserialiserException if there is no deserialiser for that class
+     * @see PropertyHandle
+     */
+    public <T> PropertyHandle<T> handle(String propertyName, Class<T> requiredType) throws MissingDeserialiserException {
+        checkNotNull(propertyName, "Property name");
+        checkNotNull(requiredType, "Type");
+        final Deserialiser<?> deserialiser = deserialisers.get(requiredType);
+        if (deserialiser == NO_DESERIALISER) {
+            throw new MissingDeserialiserException(requiredType, writableStackTraces);
+        }
+        return new PropertyHandle<>(propertyName, requiredType, propertyResolverSupplier, deserialiser, writableStackTraces);
+    }
+
+    /**
+     * Bind a property name to an int once, for properties that are read repeatedly
+     * on a hot path. The value is kept unboxed and is only deserialised again when
+     * the raw value of the property changes.
+     * @param propertyName the name of the property whose value to deserialise
+     * @return a handle for reading the deserialised property value
+     * @throws MissingDeserialiserException if there is no deserialiser for ints
+     * @see #handle(String, Class)
+     */
+    public IntHandle intHandle(String propertyName) throws MissingDeserialiserException {
+        checkNotNull(propertyName, "Property name");
+        if (intDeserialiser == null) {
+            throw new MissingDeserialiserException(int.class, writableStackTraces);
+        }
+        return new IntHandle(propertyName, propertyResolverSupplier, intDeserialiser, writableStackTraces);
+    }
+
+    /**
+     * Bind a property name to a long once, for properties that are read repeatedly
+     * on a hot path. The value is kept unboxed and is only deserialised again when
+     * the raw value of the property changes.
+     * @param propertyName the name of the property whose value to deserialise
+     * @return a handle for reading the deserialised property value
+     * @throws MissingDeserialiserException if there is no deserialiser for longs
+     * @see #handle(String, Class)
+     */
+    public LongHandle longHandle(String propertyName) throws MissingDeserialiserException {
+        checkNotNull(propertyName, "Property name");
+        if (longDeserialiser == null) {
+            throw new MissingDeserialiserException(long.class, writableStackTraces);
+        }
+        return new LongHandle(propertyName, propertyResolverSupplier, longDeserialiser, writableStackTraces);
+    }
 
-        return deserialiseValueToCorrectType(propertyName, propertyValue, requiredType);
+    /**
+     * Find the deserialiser this PropertyDeserialiser would use for a class, as a
+     * {@link CharSequenceDeserialiser}, to convert values that are held outside of
+     * Strings such as in a {@link java.nio.ByteBuffer}.
+     *
+     * <p>
+     *     Ints, longs, booleans, Strings and enums are parsed directly from the
+     *     characters. Deserialisers which only accept Strings are
+     *     {@link CharSequenceDeserialiser#adapt(Deserialiser) adapted}.
+     * </p>
+     * @param requiredType a class whose type should be deserialised to
+     * @param <T> the type to deserialise to
+     * @return the deserialiser for that class
+     * @throws MissingDeserialiserException if there is no deserialiser for that class
+     */
+    @SuppressWarnings("unchecked")
+    public <T> CharSequenceDeserialiser<T> getCharSequenceDeserialiser(Class<T> requiredType) throws MissingDeserialiserException {
+        checkNotNull(requiredType, "Type");
+        final CharSequenceDeserialiser<?> deserialiser = charSequenceDeserialisers.get(requiredType);
+        if (deserialiser == null) {
+            throw new MissingDeserialiserException(requiredType, writableStackTraces);
+        }
+        return (CharSequenceDeserialiser<T>) deserialiser;
+    }
+
+    private Object deserialiseToType(String propertyName, Type requiredType) throws PropertyException {
+        return deserialiseToType(propertyName, requiredType, true);
+    }
+
+    /**
+     * @param throwOnFailure whether to throw a {@link PropertyException} on failure or
+     *                       return {@link #FAILED}, so optional lookups never create exceptions
+     *                       for missing properties or missing deserialisers
+     */
+    private Object deserialiseToType(String propertyName, Type requiredType, boolean throwOnFailure) throws PropertyException {
+        final PropertyResolver propertyResolver = propertyResolverSupplier.get();
+        if (valueCache == null) {
+            final String propertyValue = propertyResolver.getProperty(propertyName);
+            if (propertyValue == null) {
+                if (!throwOnFailure) {
+                    return FAILED;
+                }
+                throw missingProperty(propertyName);
+            }
+            return deserialiseValueToCorrectType(propertyName, propertyValue, requiredType, throwOnFailure);
+        }
+        if (!(propertyResolver instanceof SnapshotPropertyResolver)) {
+            return cachedDeserialise(propertyResolver, propertyName, requiredType, null, throwOnFailure);
+        }
+
+        final PropertySnapshot snapshot = ((SnapshotPropertyResolver) propertyResolver).getSnapshot();
+        final Object cachedValue = valueCache.getForSnapshot(requiredType, propertyName, snapshot);
+        if (cachedValue != null) {
+            return ArrayDeserialisers.copyIfArray(cachedValue);
+        }
+        return cachedDeserialise(snapshot, propertyName, requiredType, snapshot, throwOnFailure);
     }
 
     /**
@@ -76,67 +403,339 @@ public class PropertyDeserialiser {
      * @return an {@link Optional} containing the deserialised property value, or empty if
      *          an exception was thrown
      */
+    @SuppressWarnings("unchecked")
     public <T> Optional<T> optionalDeserialise(String propertyName, Class<T> requiredType) {
         try {
-            return Optional.of(deserialise(propertyName, requiredType));
+            final Object value = deserialiseToType(propertyName, requiredType, false);
+            return value == FAILED ? Optional.empty() : Optional.ofNullable((T) value);
         } catch (PropertyException e) {
+            // not thrown when throwOnFailure is false
             return Optional.empty();
         }
     }
 
-    private String lookupPropertyValue(String propertyName) throws PropertyException {
-        final Optional<String> optionalProperty = propertyResolverSupplier.get()
-                .getOptionalProperty(propertyName);
-        if (optionalProperty.isPresent()) {
-            return optionalProperty.get();
-        } else {
-            throw new MissingPropertyException(propertyName);
+    /**
+     * Find a property value for the supplied property name and deserialise it
+     * to an int without boxing, using the first {@link IntDeserialiser} or
+     * <code>int</code> {@link Deserialiser} in the configured registries.
+     * @param propertyName the name of the property whose value to deserialise
+     * @return the deserialised property value
+     * @throws PropertyException if unable to return a deserialised property value
+     */
+    public int getInt(String propertyName) throws PropertyException {
+        final String propertyValue = lookupPropertyValue(propertyResolverSupplier.get(), propertyName);
+        if (intDeserialiser == null) {
+            throw missingDeserialiser(int.class);
+        }
+        try {
+            return intDeserialiser.deserialise(propertyValue);
+        } catch (Exception e) {
+            throw deserialiserFailure(propertyName, int.class, e);
+        }
+    }
+
+    /**
+     * Version of {@link #getInt(String)} that returns a default value instead of throwing
+     * an exception, without the boxing of {@link #optionalDeserialise(String, Class)}.
+<pre>
+    propertyDeserialiser.getInt("httpPort", 8080);
+</pre>
+     * @param propertyName the name of the property whose value to deserialise
+     * @param defaultValue the value to return if unable to deserialise the property
+     * @return the deserialised property value, or the default value
+     */
+    public int getInt(String propertyName, int defaultValue) {
+        final String propertyValue = propertyResolverSupplier.get().getProperty(propertyName);
+        if (propertyValue == null || intDeserialiser == null) {
+            return defaultValue;
+        }
+        try {
+            return intDeserialiser.deserialise(propertyValue);
+        } catch (Exception e) {
+            return defaultValue;
         }
     }
 
-    private <T> T deserialiseValueToCorrectType(String propertyName, String propertyValue, Class<T> requiredType) throws PropertyException {
-        final Optional<Deserialiser<T>> deserialiser = getDeserialiser(requiredType);
-        if (deserialiser.isPresent()) {
-            try {
-                return deserialiser.get().deserialise(propertyValue);
-            } catch (Exception e) {
-                throw new DeserialiserException(propertyName, requiredType, e);
+    /**
+     * Find a property value for the supplied property name and deserialise it
+     * to a long without boxing, using the first {@link LongDeserialiser} or
+     * <code>long</code> {@link Deserialiser} in the configured registries.
+     * @param propertyName the name of the property whose value to deserialise
+     * @return the deserialised property value
+     * @throws PropertyException if unable to return a deserialised property value
+     */
+    public long getLong(String propertyName) throws PropertyException {
+        final String propertyValue = lookupPropertyValue(propertyResolverSupplier.get(), propertyName);
+        if (longDeserialiser == null) {
+            throw missingDeserialiser(long.class);
+        }
+        try {
+            return longDeserialiser.deserialise(propertyValue);
+        } catch (Exception e) {
+            throw deserialiserFailure(propertyName, long.class, e);
+        }
+    }
+
+    /**
+     * Version of {@link #getLong(String)} that returns a default value instead of throwing an exception.
+     * @param propertyName the name of the property whose value to deserialise
+     * @param defaultValue the value to return if unable to deserialise the property
+     * @return the deserialised property value, or the default value
+     */
+    public long getLong(String propertyName, long defaultValue) {
+        final String propertyValue = propertyResolverSupplier.get().getProperty(propertyName);
+        if (propertyValue == null || longDeserialiser == null) {
+            return defaultValue;
+        }
+        try {
+            return longDeserialiser.deserialise(propertyValue);
+        } catch (Exception e) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Find a property value for the supplied property name and deserialise it
+     * to a double without boxing, using the first {@link DoubleDeserialiser} or
+     * <code>double</code> {@link Deserialiser} in the configured registries.
+     * @param propertyName the name of the property whose value to deserialise
+     * @return the deserialised property value
+     * @throws PropertyException if unable to return a deserialised property value
+     */
+    public double getDouble(String propertyName) throws PropertyException {
+        final String propertyValue = lookupPropertyValue(propertyResolverSupplier.get(), propertyName);
+        if (doubleDeserialiser == null) {
+            throw missingDeserialiser(double.class);
+        }
+        try {
+            return doubleDeserialiser.deserialise(propertyValue);
+        } catch (Exception e) {
+            throw deserialiserFailure(propertyName, double.class, e);
+        }
+    }
+
+    /**
+     * Version of {@link #getDouble(String)} that returns a default value instead of throwing an exception.
+     * @param propertyName the name of the property whose value to deserialise
+     * @param defaultValue the value to return if unable to deserialise the property
+     * @return the deserialised property value, or the default value
+     */
+    public double getDouble(String propertyName, double defaultValue) {
+        final String propertyValue = propertyResolverSupplier.get().getProperty(propertyName);
+        if (propertyValue == null || doubleDeserialiser == null) {
+            return defaultValue;
+        }
+        try {
+            return doubleDeserialiser.deserialise(propertyValue);
+        } catch (Exception e) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Find a property value for the supplied property name and deserialise it
+     * to a boolean without boxing, using the first {@link BooleanDeserialiser} or
+     * <code>boolean</code> {@link Deserialiser} in the configured registries.
+     * @param propertyName the name of the property whose value to deserialise
+     * @return the deserialised property value
+     * @throws PropertyException if unable to return a deserialised property value
+     */
+    public boolean getBoolean(String propertyName) throws PropertyException {
+        final String propertyValue = lookupPropertyValue(propertyResolverSupplier.get(), propertyName);
+        if (booleanDeserialiser == null) {
+            throw missingDeserialiser(boolean.class);
+        }
+        try {
+            return booleanDeserialiser.deserialise(propertyValue);
+        } catch (Exception e) {
+            throw deserialiserFailure(propertyName, boolean.class, e);
+        }
+    }
+
+    /**
+     * Version of {@link #getBoolean(String)} that returns a default value instead of throwing an exception.
+     * @param propertyName the name of the property whose value to deserialise
+     * @param defaultValue the value to return if unable to deserialise the property
+     * @return the deserialised property value, or the default value
+     */
+    public boolean getBoolean(String propertyName, boolean defaultValue) {
+        final String propertyValue = propertyResolverSupplier.get().getProperty(propertyName);
+        if (propertyValue == null || booleanDeserialiser == null) {
+            return defaultValue;
+        }
+        try {
+            return booleanDeserialiser.deserialise(propertyValue);
+        } catch (Exception e) {
+            return defaultValue;
+        }
+    }
+
+    private Object cachedDeserialise(PropertyResolver propertyResolver, String propertyName, Type requiredType,
+                                     PropertySnapshot snapshot, boolean throwOnFailure) throws PropertyException {
+        final String propertyValue = propertyResolver.getProperty(propertyName);
+        if (propertyValue == null) {
+            if (!throwOnFailure) {
+                return FAILED;
+            }
+            throw missingProperty(propertyName);
+        }
+        final Object cachedValue = valueCache.get(requiredType, propertyName, propertyValue, snapshot);
+        if (cachedValue != null) {
+            return ArrayDeserialisers.copyIfArray(cachedValue);
+        }
+        final Object value = deserialiseValueToCorrectType(propertyName, propertyValue, requiredType, throwOnFailure);
+        if (value != FAILED) {
+            valueCache.put(requiredType, propertyName, propertyValue, value, snapshot);
+        }
+        return ArrayDeserialisers.copyIfArray(value);
+    }
+
+    private String lookupPropertyValue(PropertyResolver propertyResolver, String propertyName) throws PropertyException {
+        final String propertyValue = propertyResolver.getProperty(propertyName);
+        if (propertyValue == null) {
+            throw missingProperty(propertyName);
+        }
+        return propertyValue;
+    }
+
+    private Object deserialiseValueToCorrectType(String propertyName, String propertyValue, Type requiredType,
+                                                 boolean throwOnFailure) throws PropertyException {
+        final Deserialiser<?> deserialiser = deserialiserFor(requiredType);
+        if (deserialiser == NO_DESERIALISER) {
+            if (!throwOnFailure) {
+                return FAILED;
+            }
+            throw missingDeserialiser(requiredType);
+        }
+        try {
+            return deserialiser.deserialise(propertyValue);
+        } catch (Exception e) {
+            if (!throwOnFailure) {
+                return FAILED;
             }
-        } else {
-            throw new MissingDeserialiserException(requiredType);
+            throw deserialiserFailure(propertyName, requiredType, e);
         }
     }
 
-    private <T> Optional<Deserialiser<T>> getDeserialiser(Class<T> requiredType) {
-        return findDeserialiserInRegistry(requiredType)
-                .or(() -> {
-                    if (requiredType.isEnum()) {
-                        return Optional.of(new EnumDeserialiser<>(requiredType));
-                    }
-                    return Optional.empty();
-                });
+    private PropertyException missingProperty(String propertyName) {
+        return new MissingPropertyException(propertyName, writableStackTraces);
     }
 
-    private <T> Optional<Deserialiser<T>> findDeserialiserInRegistry(Class<T> typeName) {
-        return StreamSupport.stream(deserialiserRegistries.spliterator(), false)
-                .map(dr -> dr.findForType(typeName))
-                .flatMap(Optional::stream)
-                .findFirst();
+    private PropertyException missingDeserialiser(Type requiredType) {
+        return new MissingDeserialiserException(requiredType, writableStackTraces);
     }
 
-    private static class EnumDeserialiser<T> implements Deserialiser<T> {
-        private final Class<T> typeAsClass;
+    private PropertyException deserialiserFailure(String propertyName, Type requiredType, Exception cause) {
+        return new DeserialiserException(propertyName, requiredType, cause, writableStackTraces);
+    }
 
-        public EnumDeserialiser(Class<T> typeAsClass) {
-            this.typeAsClass = typeAsClass;
+    private Deserialiser<?> deserialiserFor(Type requiredType) {
+        if (requiredType instanceof Class<?>) {
+            return deserialisers.get((Class<?>) requiredType);
         }
+        if (requiredType instanceof ParameterizedType) {
+            final Deserialiser<?> deserialiser = genericDeserialisers.get(requiredType);
+            if (deserialiser != null) {
+                return deserialiser;
+            }
+            return genericDeserialisers.computeIfAbsent((ParameterizedType) requiredType, this::findGenericDeserialiser);
+        }
+        return NO_DESERIALISER;
+    }
 
-        @Override
-        @SuppressWarnings("unchecked")
-        public T deserialise(String propertyValue) throws Exception {
-            final Method method = typeAsClass.getDeclaredMethod("valueOf", String.class);
-            return (T) method.invoke(typeAsClass, propertyValue);
+    /**
+     * Only called once per generic type, the result is then held by {@link #genericDeserialisers}.
+     */
+    private Deserialiser<?> findGenericDeserialiser(ParameterizedType requiredType) {
+        final CollectionDeserialiser.Kind kind = CollectionDeserialiser.kindOf(requiredType);
+        if (kind == null) {
+            return NO_DESERIALISER;
         }
+        final Type[] typeArguments = requiredType.getActualTypeArguments();
+        final Deserialiser<?> elementDeserialiser = deserialisers.get(CollectionDeserialiser.elementClass(typeArguments[typeArguments.length - 1]));
+        final Deserialiser<?> keyDeserialiser = kind == CollectionDeserialiser.Kind.MAP
+                ? deserialisers.get(CollectionDeserialiser.elementClass(typeArguments[0]))
+                : null;
+        if (elementDeserialiser == NO_DESERIALISER || keyDeserialiser == NO_DESERIALISER) {
+            return NO_DESERIALISER;
+        }
+        return new CollectionDeserialiser(kind, keyDeserialiser, elementDeserialiser);
+    }
+
+    private Deserialiser<?> findArrayDeserialiser(Class<?> componentType) {
+        if (componentType == int.class && intDeserialiser != null) {
+            return ArrayDeserialisers.ofInts(intDeserialiser);
+        } else if (componentType == long.class && longDeserialiser != null) {
+            return ArrayDeserialisers.ofLongs(longDeserialiser);
+        } else if (componentType == double.class && doubleDeserialiser != null) {
+            return ArrayDeserialisers.ofDoubles(doubleDeserialiser);
+        } else if (componentType == boolean.class && booleanDeserialiser != null) {
+            return ArrayDeserialisers.ofBooleans(booleanDeserialiser);
+        }
+
+        // each element is a single comma separated value so nested arrays cannot be expressed
+        if (componentType.isArray()) {
+            return NO_DESERIALISER;
+        }
+        final Deserialiser<?> elementDeserialiser = deserialisers.get(componentType);
+        if (elementDeserialiser == NO_DESERIALISER) {
+            return NO_DESERIALISER;
+        }
+        return componentType.isPrimitive()
+                ? ArrayDeserialisers.ofOtherPrimitives(componentType, elementDeserialiser)
+                : ArrayDeserialisers.ofObjects(componentType, elementDeserialiser);
+    }
+
+    /**
+     * A registry's primitive deserialiser takes precedence over its boxed {@link Deserialiser}
+     * for the primitive class, which is adapted if it is the first one found.
+     */
+    private static <P, B> P findPrimitiveDeserialiser(DeserialiserRegistry[] deserialiserRegistries,
+                                                      Function<DeserialiserRegistry, Optional<P>> findPrimitive,
+                                                      Class<B> primitiveType,
+                                                      Function<Deserialiser<B>, P> adaptBoxed) {
+        for (DeserialiserRegistry deserialiserRegistry : deserialiserRegistries) {
+            final Optional<P> primitiveDeserialiser = findPrimitive.apply(deserialiserRegistry);
+            if (primitiveDeserialiser.isPresent()) {
+                return primitiveDeserialiser.get();
+            }
+            final Optional<Deserialiser<B>> boxedDeserialiser = deserialiserRegistry.findForType(primitiveType);
+            if (boxedDeserialiser.isPresent()) {
+                return adaptBoxed.apply(boxedDeserialiser.get());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Only called once per type, the result is then held by {@link #deserialisers}.
+     */
+    private Deserialiser<?> findDeserialiser(Class<?> requiredType) {
+        for (DeserialiserRegistry deserialiserRegistry : deserialiserRegistries) {
+            final Optional<? extends Deserialiser<?>> deserialiser = deserialiserRegistry.findForType(requiredType);
+            if (deserialiser.isPresent()) {
+                return deserialiser.get();
+            }
+        }
+        if (requiredType.isEnum()) {
+            return new EnumDeserialiser<>(requiredType, enumMatching);
+        }
+        if (requiredType.isArray()) {
+            return findArrayDeserialiser(requiredType.getComponentType());
+        }
+        for (DeserialiserRegistry deserialiserRegistry : deserialiserRegistries) {
+            final Optional<? extends Deserialiser<?>> deserialiser = deserialiserRegistry.findForTypeOrSupertype(requiredType);
+            if (deserialiser.isPresent()) {
+                return deserialiser.get();
+            }
+        }
+        if (conventionDeserialisers) {
+            final Deserialiser<?> deserialiser = ConventionDeserialisers.find(requiredType);
+            if (deserialiser != null) {
+                return deserialiser;
+            }
+        }
+        return NO_DESERIALISER;
     }
 
     /**
@@ -166,6 +765,11 @@ public class PropertyDeserialiser {
         private final Supplier<PropertyResolver> propertyResolverSupplier;
 
         private Iterable<DeserialiserRegistry> deserialiserRegistries = List.of(DeserialiserRegistry.defaultRegistry());
+        private boolean cacheDeserialisedValues;
+        private EnumMatching enumMatching = EnumMatching.EXACT;
+        private boolean writableStackTraces = true;
+        private boolean conventionDeserialisers = true;
+        private boolean discoverDeserialiserRegistries;
 
         private Builder(PropertyResolver propertyResolver) {
             this(() -> propertyResolver);
@@ -193,8 +797,116 @@ public class PropertyDeserialiser {
             return this;
         }
 
+        /**
+         * Also use the deserialisers found by {@link DeserialiserRegistry#discovered()}.
+         *
+         * <p>
+         *     The discovered registry is consulted after the configured
+         *     {@link DeserialiserRegistry DeserialiserRegistries}, so with the default configuration
+         *     {@link DeserialiserRegistry#defaultRegistry()} takes precedence for the types it
+         *     supports and discovered providers only add types to it. Discovery happens when
+         *     {@link #build()} is called, using the thread context class loader.
+         * </p>
+         * @return this builder
+         */
+        public Builder withDiscoveredDeserialiserRegistries() {
+            this.discoverDeserialiserRegistries = true;
+            return this;
+        }
+
+        /**
+         * Keep the result of deserialising each property to each type and reuse it
+         * for as long as the raw value of that property stays the same.
+         *
+         * <p>
+         *     When the {@link PropertyResolver} is reloaded, only properties whose
+         *     values changed are deserialised again. As the same instance is returned
+         *     to every caller, this should only be enabled when the deserialised
+         *     types are immutable. Arrays are the exception, each caller is given
+         *     its own copy of a cached array.
+         * </p>
+         * <p>
+         *     If the {@link PropertyResolver} is a {@link SnapshotPropertyResolver}, values
+         *     are also tagged with the {@link PropertySnapshot} they were read from. While
+         *     the resolver returns that same snapshot, a repeated read is a single cache
+         *     lookup without consulting the snapshot's properties at all.
+         * </p>
+         * @return this builder
+         */
+        public Builder withDeserialisedValueCache() {
+            this.cacheDeserialisedValues = true;
+            return this;
+        }
+
+        /**
+         * Configure how property values are matched to enum constants for enums
+         * that are not in any {@link DeserialiserRegistry}. By default, a value
+         * must exactly match the name of a constant.
+         *
+         * <p>
+         *     For example, to accept <code>dark-blue</code> from an environment
+         *     variable for a constant named <code>DARK_BLUE</code>:
+<pre>
+    PropertyDeserialiser.builder(propertyResolver)
+            .withEnumMatching(EnumMatching.RELAXED)
+            .build();
+</pre>
+         * </p>
+         * @param enumMatching how to match property values to enum constants
+         * @return this builder
+         */
+        public Builder withEnumMatching(EnumMatching enumMatching) {
+            checkNotNull(enumMatching, "EnumMatching");
+            this.enumMatching = enumMatching;
+            return this;
+        }
+
+        /**
+         * Create the {@link PropertyException PropertyExceptions} thrown by the built
+         * {@link PropertyDeserialiser} without stack traces. Filling in a stack trace is
+         * the most expensive part of creating an exception, so this is worthwhile when
+         * failures are expected and handled on a hot path. The message and cause of
+         * each exception are unaffected.
+         * @return this builder
+         */
+        public Builder withStacklessExceptions() {
+            this.writableStackTraces = false;
+            return this;
+        }
+
+        /**
+         * Only deserialise to classes which have a {@link Deserialiser} in one of the
+         * {@link DeserialiserRegistry DeserialiserRegistries}, or which are enums or arrays.
+         *
+         * <p>
+         *     By default, a class without a registered deserialiser is deserialised using
+         *     its public static <code>valueOf(String)</code>, <code>fromString(String)</code>,
+         *     <code>of(String)</code> or <code>parse(CharSequence)</code> method, or its
+         *     public <code>String</code> constructor, in that order of preference.
+         * </p>
+         * @return this builder
+         */
+        public Builder withoutConventionDeserialisers() {
+            this.conventionDeserialisers = false;
+            return this;
+        }
+
+        /**
+         * The configured registries are copied, so later changes to the
+         * {@link Iterable} do not affect the built {@link PropertyDeserialiser}.
+         * @return the new {@link PropertyDeserialiser}
+         */
         public PropertyDeserialiser build() {
-            return new PropertyDeserialiser(propertyResolverSupplier, deserialiserRegistries);
+            final List<DeserialiserRegistry> registries = new ArrayList<>();
+            for (DeserialiserRegistry deserialiserRegistry : deserialiserRegistries) {
+                checkNotNull(deserialiserRegistry, "DeserialiserRegistry");
+                registries.add(deserialiserRegistry);
+            }
+            if (discoverDeserialiserRegistries) {
+                registries.add(DeserialiserRegistry.discovered());
+            }
+            return new PropertyDeserialiser(propertyResolverSupplier, registries.toArray(new DeserialiserRegistry[0]),
+                    cacheDeserialisedValues ? new DeserialisedValueCache() : null, enumMatching, writableStackTraces, conventionDeserialisers);
         }
     }
 
@@ -30,4 +30,13 @@ public class PropertyException extends Exception {
     public PropertyException(String message, Exception cause) {
         super(message, cause);
     }
+
+    /**
+     * @param message the detail message
+     * @param cause the cause, or null if there is none
+     * @param writableStackTrace whether the stack trace should be filled in
+     */
+    protected PropertyException(String message, Exception cause, boolean writableStackTrace) {
+        super(message, cause, true, writableStackTrace);
+    }
 }
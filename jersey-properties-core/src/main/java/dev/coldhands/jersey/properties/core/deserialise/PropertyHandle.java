@@ -0,0 +1,151 @@
+/*
+ * ISC License Copyright (c) 2004-2010 by Internet Systems Consortium, Inc. ("ISC")
+ *
+ * Copyright (c) 2021 by Jamie Redding
+ *
+ * Permission to use, copy, modify, and /or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above copyright
+ * notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND ISC DISCLAIMS ALL WARRANTIES WITH REGARD
+ * TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS.
+ * IN NO EVENT SHALL ISC BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL
+ * DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS,
+ * WHETHER IN AN ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING
+ * OUT OF OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package dev.coldhands.jersey.properties.core.deserialise;
+
+import dev.coldhands.jersey.properties.core.resolver.PropertyResolver;
+import dev.coldhands.jersey.properties.core.resolver.PropertySnapshot;
+import dev.coldhands.jersey.properties.core.resolver.SnapshotPropertyResolver;
+
+import java.util.function.Supplier;
+
+/**
+ * A single property bound to the type it is deserialised to, created by
+ * {@link PropertyDeserialiser#handle(String, Class)}.
+ *
+ * <p>
+ *     The deserialiser is found once when the handle is created and the last
+ *     deserialised value is kept with the raw value it came from. If the
+ *     {@link PropertyResolver} is a {@link SnapshotPropertyResolver}, a read from
+ *     the same {@link PropertySnapshot} as the previous read returns the kept value
+ *     straight away. After a reload the property is looked up again, and it is only
+ *     deserialised again if its raw value changed. The kept value is shared by
+ *     every caller, except for arrays, which are copied for each read.
+ * </p>
+ * <p>
+ *     Ints and longs read on a hot path should use {@link PropertyDeserialiser#intHandle(String)}
+ *     or {@link PropertyDeserialiser#longHandle(String)} instead, which keep the value unboxed.
+ * </p>
+ * <p>
+ *     Handles are intended to be created once and kept, for example in a field:
+<pre>
+    private final PropertyHandle&lt;Integer&gt; rateLimit = propertyDeserialiser.handle("rate.limit", int.class);
+
+    int currentRateLimit() throws PropertyException {
+        return rateLimit.get();
+    }
+</pre>
+ * </p>
+ * @param <T> the type the property is deserialised to
+ */
+public final class PropertyHandle<T> {
+
+    private final String propertyName;
+    private final Class<T> type;
+    private final Supplier<PropertyResolver> propertyResolverSupplier;
+    private final Deserialiser<?> deserialiser;
+    private final boolean writableStackTraces;
+    private volatile Entry current;
+
+    PropertyHandle(String propertyName, Class<T> type, Supplier<PropertyResolver> propertyResolverSupplier,
+                   Deserialiser<?> deserialiser, boolean writableStackTraces) {
+        this.propertyName = propertyName;
+        this.type = type;
+        this.propertyResolverSupplier = propertyResolverSupplier;
+        this.deserialiser = deserialiser;
+        this.writableStackTraces = writableStackTraces;
+    }
+
+    /**
+     * @return the deserialised value of the property
+     * @throws PropertyException if the property is missing or cannot be deserialised
+     */
+    @SuppressWarnings("unchecked")
+    public T get() throws PropertyException {
+        final PropertyResolver propertyResolver = propertyResolverSupplier.get();
+        final Entry entry = current;
+        if (propertyResolver instanceof SnapshotPropertyResolver) {
+            final PropertySnapshot snapshot = ((SnapshotPropertyResolver) propertyResolver).getSnapshot();
+            if (entry != null && entry.snapshot == snapshot) {
+                return (T) ArrayDeserialisers.copyIfArray(entry.value);
+            }
+            return (T) refresh(snapshot, snapshot, entry);
+        }
+        return (T) refresh(propertyResolver, null, entry);
+    }
+
+    /**
+     * @param defaultValue the value to return if the property is missing or cannot be deserialised
+     * @return the deserialised value of the property, or the default value
+     */
+    public T get(T defaultValue) {
+        try {
+            final T value = get();
+            return value == null ? defaultValue : value;
+        } catch (PropertyException e) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * @return the name of the property
+     */
+    public String getPropertyName() {
+        return propertyName;
+    }
+
+    /**
+     * @return the type the property is deserialised to
+     */
+    public Class<T> getType() {
+        return type;
+    }
+
+    private Object refresh(PropertyResolver propertyResolver, PropertySnapshot snapshot, Entry entry) throws PropertyException {
+        final String rawValue = propertyResolver.getProperty(propertyName);
+        if (rawValue == null) {
+            throw new MissingPropertyException(propertyName, writableStackTraces);
+        }
+        if (entry != null && (entry.rawValue == rawValue || entry.rawValue.equals(rawValue))) {
+            if (entry.snapshot != snapshot) {
+                current = new Entry(snapshot, rawValue, entry.value);
+            }
+            return ArrayDeserialisers.copyIfArray(entry.value);
+        }
+        final Object value;
+        try {
+            value = deserialiser.deserialise(rawValue);
+        } catch (Exception e) {
+            throw new DeserialiserException(propertyName, type, e, writableStackTraces);
+        }
+        current = new Entry(snapshot, rawValue, value);
+        return ArrayDeserialisers.copyIfArray(value);
+    }
+
+    private static final class Entry {
+
+        private final PropertySnapshot snapshot;
+        private final String rawValue;
+        private final Object value;
+
+        private Entry(PropertySnapshot snapshot, String rawValue, Object value) {
+            this.snapshot = snapshot;
+            this.rawValue = rawValue;
+            this.value = value;
+        }
+    }
+}
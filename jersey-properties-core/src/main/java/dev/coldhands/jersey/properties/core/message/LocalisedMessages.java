@@ -0,0 +1,53 @@
+/*
+ * ISC License Copyright (c) 2004-2010 by Internet Systems Consortium, Inc. ("ISC")
+ *
+ * Copyright (c) 2021 by Jamie Redding
+ *
+ * Permission to use, copy, modify, and /or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above copyright
+ * notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND ISC DISCLAIMS ALL WARRANTIES WITH REGARD
+ * TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS.
+ * IN NO EVENT SHALL ISC BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL
+ * DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS,
+ * WHETHER IN AN ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING
+ * OUT OF OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package dev.coldhands.jersey.properties.core.message;
+
+import java.util.Locale;
+
+/**
+ * The messages of a {@link MessageResolver} for a single {@link Locale}.
+ */
+public final class LocalisedMessages {
+
+    private final MessageResolver messageResolver;
+    private final Locale locale;
+
+    public LocalisedMessages(MessageResolver messageResolver, Locale locale) {
+        if (messageResolver == null) {
+            throw new IllegalArgumentException("MessageResolver must not be null");
+        }
+        if (locale == null) {
+            throw new IllegalArgumentException("Locale must not be null");
+        }
+        this.messageResolver = messageResolver;
+        this.locale = locale;
+    }
+
+    public Locale getLocale() {
+        return locale;
+    }
+
+    /**
+     * @param key the key of the message
+     * @param arguments the arguments to format the message with
+     * @return the formatted message, or null if there is no message with that key
+     */
+    public String getMessage(String key, Object... arguments) {
+        return messageResolver.getMessage(locale, key, arguments);
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * ISC License Copyright (c) 2004-2010 by Internet Systems Consortium, Inc. ("ISC")
+ *
+ * Copyright (c) 2021 by Jamie Redding
+ *
+ * Permission to use, copy, modify, and /or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above copyright
+ * notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND ISC DISCLAIMS ALL WARRANTIES WITH REGARD
+ * TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS.
+ * IN NO EVENT SHALL ISC BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL
+ * DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS,
+ * WHETHER IN AN ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING
+ * OUT OF OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package dev.coldhands.jersey.properties.core.message;
+
+import java.util.Locale;
+
+/**
+ * Interface to define how localised messages are looked up and formatted.
+ */
+public interface MessageResolver {
+
+    /**
+     * @param locale the locale to look up the message for
+     * @param key the key of the message
+     * @param arguments the arguments to format the message with
+     * @return the formatted message, or null if there is no message with that key
+     */
+    String getMessage(Locale locale, String key, Object... arguments);
+
+    /**
+     * @param locale the locale to check
+     * @return true if there are messages specific to the locale or its
+     *         language, rather than only the base messages
+     */
+    boolean hasMessagesFor(Locale locale);
+
+    /**
+     * @param locale the locale to look up messages for
+     * @return a view of the messages for a single locale
+     */
+    default LocalisedMessages forLocale(Locale locale) {
+        return new LocalisedMessages(this, locale);
+    }
+}
@@ -0,0 +1,335 @@
+/*
+ * ISC License Copyright (c) 2004-2010 by Internet Systems Consortium, Inc. ("ISC")
+ *
+ * Copyright (c) 2021 by Jamie Redding
+ *
+ * Permission to use, copy, modify, and /or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above copyright
+ * notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND ISC DISCLAIMS ALL WARRANTIES WITH REGARD
+ * TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS.
+ * IN NO EVENT SHALL ISC BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL
+ * DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS,
+ * WHETHER IN AN ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING
+ * OUT OF OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package dev.coldhands.jersey.properties.core.message;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.ResourceBundle;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * PropertiesMessageResolver is a {@link MessageResolver} that reads
+ * a family of UTF-8 encoded <code>.properties</code> files such as
+ * <code>messages.properties</code>, <code>messages_fr.properties</code>
+ * and <code>messages_fr_CA.properties</code>.
+ *
+ * <p>
+ *     Files are found using the same candidate locales as {@link ResourceBundle},
+ *     so a message missing from <code>messages_fr_CA</code> falls back to
+ *     <code>messages_fr</code>, then the fallback locale if one is configured,
+ *     then <code>messages</code>. Each chain of files is flattened into a single
+ *     map the first time a locale is used and the {@link MessageFormat} for a
+ *     key is only compiled once per locale.
+ * </p>
+ * <p>
+ *     Locales usually come from clients, so a requested locale is first reduced
+ *     to the nearest locale that either has its own file or is supported by the
+ *     JDK, for example <code>fr-XX</code> to <code>fr</code>. Reduction drops
+ *     only parts that affect neither the files used nor the formatting, and it
+ *     bounds the number of locales that messages are loaded for. The messages
+ *     found for each requested locale are also remembered so that it is only
+ *     reduced once, in a cache that is cleared when it is full.
+ * </p>
+<pre>
+    var messages = PropertiesMessageResolver.builder("i18n.messages")
+            .withFallbackLocale(Locale.ENGLISH)
+            .build();
+    messages.getMessage(Locale.FRENCH, "error.notFound", id);
+</pre>
+ */
+public class PropertiesMessageResolver implements MessageResolver {
+
+    private static final ResourceBundle.Control CONTROL = ResourceBundle.Control.getControl(ResourceBundle.Control.FORMAT_PROPERTIES);
+    private static final Set<Locale> AVAILABLE_LOCALES = Set.of(Locale.getAvailableLocales());
+    private static final int MAXIMUM_CACHED_MISSING_BUNDLES = 256;
+    static final int MAXIMUM_CACHED_REQUESTED_LOCALES = 256;
+
+    private final String baseName;
+    private final BundleSource bundleSource;
+    private final Locale fallbackLocale;
+    private final Map<String, Optional<Map<String, String>>> bundles = new ConcurrentHashMap<>();
+    private final AtomicInteger cachedMissingBundles = new AtomicInteger();
+    private final Map<List<String>, Map<String, String>> flattenedChains = new ConcurrentHashMap<>();
+    private final Map<Locale, LocaleMessages> messagesByLocale = new ConcurrentHashMap<>();
+    private final Map<Locale, LocaleMessages> messagesByRequestedLocale = new ConcurrentHashMap<>();
+
+    private PropertiesMessageResolver(String baseName, BundleSource bundleSource, Locale fallbackLocale) {
+        this.baseName = baseName;
+        this.bundleSource = bundleSource;
+        this.fallbackLocale = fallbackLocale;
+    }
+
+    /**
+     * Factory method for a {@link PropertiesMessageResolver} that
+     * loads its files from the classpath.
+     * @param baseName the fully qualified base name, e.g. <code>i18n.messages</code>
+     * @return a new {@link Builder} instance
+     */
+    public static Builder builder(String baseName) {
+        checkNotNull(baseName, "Base name");
+        return new Builder(baseName, null);
+    }
+
+    /**
+     * Factory method for a {@link PropertiesMessageResolver} that
+     * loads its files from a directory.
+     * @param directory the directory containing the files
+     * @param baseName the base name of the files, e.g. <code>messages</code>
+     * @return a new {@link Builder} instance
+     */
+    public static Builder builder(Path directory, String baseName) {
+        checkNotNull(directory, "Directory");
+        checkNotNull(baseName, "Base name");
+        return new Builder(baseName, bundleName -> {
+            try {
+                return Files.newInputStream(directory.resolve(bundleName + ".properties"));
+            } catch (NoSuchFileException e) {
+                return null;
+            }
+        });
+    }
+
+    @Override
+    public String getMessage(Locale locale, String key, Object... arguments) {
+        return messagesFor(locale).format(key, arguments);
+    }
+
+    @Override
+    public boolean hasMessagesFor(Locale locale) {
+        return messagesFor(locale).specific;
+    }
+
+    private LocaleMessages messagesFor(Locale locale) {
+        LocaleMessages messages = messagesByRequestedLocale.get(locale);
+        if (messages != null) {
+            return messages;
+        }
+        messages = messagesByLocale.computeIfAbsent(knownLocale(locale), this::loadMessages);
+        // requested locales come from clients, so the number remembered is bounded
+        if (messagesByRequestedLocale.size() >= MAXIMUM_CACHED_REQUESTED_LOCALES) {
+            messagesByRequestedLocale.clear();
+        }
+        messagesByRequestedLocale.put(locale, messages);
+        return messages;
+    }
+
+    /**
+     * @return the most specific candidate of the locale that has its own
+     *         file or is supported by the JDK, otherwise {@link Locale#ROOT}
+     */
+    private Locale knownLocale(Locale locale) {
+        for (Locale candidate : CONTROL.getCandidateLocales(baseName, locale)) {
+            if (AVAILABLE_LOCALES.contains(candidate) || bundle(CONTROL.toBundleName(baseName, candidate)).isPresent()) {
+                return candidate;
+            }
+        }
+        return Locale.ROOT;
+    }
+
+    private LocaleMessages loadMessages(Locale locale) {
+        final List<String> chain = new ArrayList<>();
+        boolean specific = false;
+        for (Locale candidate : CONTROL.getCandidateLocales(baseName, locale)) {
+            if (!candidate.equals(Locale.ROOT) && addIfPresent(chain, candidate)) {
+                specific = true;
+            }
+        }
+        if (fallbackLocale != null) {
+            for (Locale candidate : CONTROL.getCandidateLocales(baseName, fallbackLocale)) {
+                if (!candidate.equals(Locale.ROOT)) {
+                    addIfPresent(chain, candidate);
+                }
+            }
+        }
+        addIfPresent(chain, Locale.ROOT);
+
+        // locales whose files are the same share one flattened map
+        final Map<String, String> patterns = flattenedChains.computeIfAbsent(List.copyOf(chain), this::flatten);
+        return new LocaleMessages(locale, patterns, specific);
+    }
+
+    private boolean addIfPresent(List<String> chain, Locale candidate) {
+        final String bundleName = CONTROL.toBundleName(baseName, candidate);
+        if (!chain.contains(bundleName) && bundle(bundleName).isPresent()) {
+            chain.add(bundleName);
+            return true;
+        }
+        return false;
+    }
+
+    private Map<String, String> flatten(List<String> chain) {
+        final Map<String, String> patterns = new HashMap<>();
+        for (int i = chain.size() - 1; i >= 0; i--) {
+            patterns.putAll(bundle(chain.get(i)).orElseThrow());
+        }
+        return Map.copyOf(patterns);
+    }
+
+    private Optional<Map<String, String>> bundle(String bundleName) {
+        final Optional<Map<String, String>> cached = bundles.get(bundleName);
+        if (cached != null) {
+            return cached;
+        }
+        final Optional<Map<String, String>> loaded = load(bundleName);
+        // names of missing bundles can come from clients, so only a bounded number are remembered
+        if (loaded.isPresent() || cachedMissingBundles.get() < MAXIMUM_CACHED_MISSING_BUNDLES) {
+            final Optional<Map<String, String>> raced = bundles.putIfAbsent(bundleName, loaded);
+            if (raced != null) {
+                return raced;
+            }
+            if (loaded.isEmpty()) {
+                cachedMissingBundles.incrementAndGet();
+            }
+        }
+        return loaded;
+    }
+
+    int getCachedLocaleCount() {
+        return messagesByLocale.size();
+    }
+
+    int getCachedRequestedLocaleCount() {
+        return messagesByRequestedLocale.size();
+    }
+
+    private Optional<Map<String, String>> load(String bundleName) {
+        try (InputStream inputStream = bundleSource.open(bundleName)) {
+            if (inputStream == null) {
+                return Optional.empty();
+            }
+            final var properties = new Properties();
+            properties.load(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+
+            final Map<String, String> messages = new HashMap<>();
+            properties.stringPropertyNames().forEach(key -> messages.put(key, properties.getProperty(key)));
+            return Optional.of(messages);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to load messages: " + bundleName, e);
+        }
+    }
+
+    private static final class LocaleMessages {
+
+        private final Locale locale;
+        private final Map<String, String> patterns;
+        private final boolean specific;
+        private final Map<String, MessageFormat> formats = new ConcurrentHashMap<>();
+
+        private LocaleMessages(Locale locale, Map<String, String> patterns, boolean specific) {
+            this.locale = locale;
+            this.patterns = patterns;
+            this.specific = specific;
+        }
+
+        private String format(String key, Object... arguments) {
+            MessageFormat format = formats.get(key);
+            if (format == null) {
+                final String pattern = patterns.get(key);
+                if (pattern == null) {
+                    return null;
+                }
+                format = formats.computeIfAbsent(key, k -> new MessageFormat(pattern, locale));
+            }
+            // MessageFormat is not thread safe
+            synchronized (format) {
+                return format.format(arguments);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface BundleSource {
+        /**
+         * @return the content of the bundle, or null if it does not exist
+         */
+        InputStream open(String bundleName) throws IOException;
+    }
+
+    public static class Builder {
+
+        private final String baseName;
+        private final BundleSource bundleSource;
+        private ClassLoader classLoader;
+        private Locale fallbackLocale;
+
+        private Builder(String baseName, BundleSource bundleSource) {
+            this.baseName = baseName;
+            this.bundleSource = bundleSource;
+        }
+
+        /**
+         * Only used when loading from the classpath.
+         * @param classLoader the class loader to load the files with,
+         *                    defaults to the context class loader
+         * @return this builder
+         */
+        public Builder withClassLoader(ClassLoader classLoader) {
+            checkNotNull(classLoader, "ClassLoader");
+            this.classLoader = classLoader;
+            return this;
+        }
+
+        /**
+         * @param fallbackLocale the locale to use before the base messages
+         *                       when a message is missing for the requested locale
+         * @return this builder
+         */
+        public Builder withFallbackLocale(Locale fallbackLocale) {
+            checkNotNull(fallbackLocale, "Fallback locale");
+            this.fallbackLocale = fallbackLocale;
+            return this;
+        }
+
+        public PropertiesMessageResolver build() {
+            if (bundleSource != null) {
+                return new PropertiesMessageResolver(baseName, bundleSource, fallbackLocale);
+            }
+            final ClassLoader loader = classLoader != null ? classLoader : defaultClassLoader();
+            return new PropertiesMessageResolver(baseName,
+                    bundleName -> loader.getResourceAsStream(CONTROL.toResourceName(bundleName, "properties")),
+                    fallbackLocale);
+        }
+
+        private static ClassLoader defaultClassLoader() {
+            final ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+            return contextClassLoader != null ? contextClassLoader : PropertiesMessageResolver.class.getClassLoader();
+        }
+    }
+
+    private static <T> void checkNotNull(T object, String type) {
+        if (object == null) {
+            throw new IllegalArgumentException(type + " must not be null");
+        }
+    }
+}
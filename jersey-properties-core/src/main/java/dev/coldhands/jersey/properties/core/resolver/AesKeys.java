@@ -0,0 +1,101 @@
+/*
+ * ISC License Copyright (c) 2004-2010 by Internet Systems Consortium, Inc. ("ISC")
+ *
+ * Copyright (c) 2021 by Jamie Redding
+ *
+ * Permission to use, copy, modify, and /or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above copyright
+ * notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND ISC DISCLAIMS ALL WARRANTIES WITH REGARD
+ * TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS.
+ * IN NO EVENT SHALL ISC BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL
+ * DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS,
+ * WHETHER IN AN ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING
+ * OUT OF OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package dev.coldhands.jersey.properties.core.resolver;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.function.UnaryOperator;
+
+/**
+ * Reads AES keys for the {@link KeyProvider} factory methods.
+ */
+final class AesKeys {
+
+    private AesKeys() {
+    }
+
+    static KeyProvider fromRawFile(Path keyFile) {
+        return () -> {
+            final byte[] content = Files.readAllBytes(keyFile);
+            if (!isAesKeyLength(content.length)) {
+                Arrays.fill(content, (byte) 0);
+                throw new IOException(wrongLengthMessage("key file " + keyFile.toAbsolutePath(), content.length));
+            }
+            return aesKey(content);
+        };
+    }
+
+    static KeyProvider fromBase64File(Path keyFile) {
+        return () -> {
+            final byte[] content = Files.readAllBytes(keyFile);
+            try {
+                return fromBase64(new String(content, StandardCharsets.US_ASCII).trim(), "key file " + keyFile.toAbsolutePath());
+            } finally {
+                Arrays.fill(content, (byte) 0);
+            }
+        };
+    }
+
+    /**
+     * @param environment looks up the value of an environment variable by name
+     */
+    static KeyProvider fromEnvironmentVariable(String variableName, UnaryOperator<String> environment) {
+        return () -> {
+            final String encodedKey = environment.apply(variableName);
+            if (encodedKey == null) {
+                throw new IOException("Environment variable is not set: " + variableName);
+            }
+            return fromBase64(encodedKey.trim(), "environment variable " + variableName);
+        };
+    }
+
+    private static SecretKey fromBase64(String encodedKey, String source) throws IOException {
+        final byte[] keyBytes;
+        try {
+            keyBytes = Base64.getDecoder().decode(encodedKey);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Key in " + source + " is not valid Base64", e);
+        }
+        if (!isAesKeyLength(keyBytes.length)) {
+            Arrays.fill(keyBytes, (byte) 0);
+            throw new IOException(wrongLengthMessage(source, keyBytes.length));
+        }
+        return aesKey(keyBytes);
+    }
+
+    private static String wrongLengthMessage(String source, int length) {
+        return "Key in " + source + " must be 16, 24 or 32 bytes but was " + length;
+    }
+
+    private static boolean isAesKeyLength(int length) {
+        return length == 16 || length == 24 || length == 32;
+    }
+
+    private static SecretKey aesKey(byte[] keyBytes) {
+        try {
+            return new SecretKeySpec(keyBytes, "AES");
+        } finally {
+            Arrays.fill(keyBytes, (byte) 0);
+        }
+    }
+}
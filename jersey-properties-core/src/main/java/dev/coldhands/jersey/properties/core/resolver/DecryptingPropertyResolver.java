@@ -0,0 +1,290 @@
+/*
+ * ISC License Copyright (c) 2004-2010 by Internet Systems Consortium, Inc. ("ISC")
+ *
+ * Copyright (c) 2021 by Jamie Redding
+ *
+ * Permission to use, copy, modify, and /or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above copyright
+ * notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND ISC DISCLAIMS ALL WARRANTIES WITH REGARD
+ * TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS.
+ * IN NO EVENT SHALL ISC BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL
+ * DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS,
+ * WHETHER IN AN ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING
+ * OUT OF OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package dev.coldhands.jersey.properties.core.resolver;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * DecryptingPropertyResolver is a {@link PropertyResolver} that decrypts
+ * property values of another {@link PropertyResolver} that are written
+ * as <code>ENC(...)</code>.
+ *
+ * <p>
+ *     The text between the brackets is the Base64 encoding of a 12 byte
+ *     initialisation vector followed by the AES-GCM ciphertext and tag, as
+ *     produced by {@link #encrypt(String, SecretKey)}. Values that are not
+ *     wrapped in <code>ENC(...)</code> are returned unchanged.
+ * </p>
+ * <p>
+ *     Each ciphertext is only decrypted once and the plaintext is cached.
+ *     If the underlying resolver is a {@link ReloadablePropertyResolver},
+ *     plaintexts of properties that change or are removed are evicted on reload,
+ *     unless another property still has the same ciphertext. The resolver listens
+ *     to the underlying resolver until it is {@link #close() closed}.
+ * </p>
+<pre>
+    var resolver = DecryptingPropertyResolver.builder(
+                    new FileBasedPropertyResolver(path),
+                    KeyProvider.fromEnvironmentVariable("CONFIG_KEY"))
+            .build();
+</pre>
+ */
+public class DecryptingPropertyResolver implements PropertyResolver, Closeable {
+
+    private static final String PREFIX = "ENC(";
+    private static final String SUFFIX = ")";
+    private static final String TRANSFORMATION = "AES/GCM/NoPadding";
+    private static final int IV_BYTES = 12;
+    private static final int TAG_BITS = 128;
+    private static final SecureRandom SECURE_RANDOM = new SecureRandom();
+
+    private final PropertyResolver delegate;
+    private final SecretKey key;
+    private final boolean zeroOnEviction;
+    private final Map<String, Plaintext> plaintexts = new ConcurrentHashMap<>();
+    private final Subscription subscription;
+
+    private DecryptingPropertyResolver(PropertyResolver delegate, SecretKey key, boolean zeroOnEviction) {
+        this.delegate = delegate;
+        this.key = key;
+        this.zeroOnEviction = zeroOnEviction;
+        this.subscription = delegate instanceof ReloadablePropertyResolver
+                ? ((ReloadablePropertyResolver) delegate).addChangeListener(this::evict)
+                : () -> {
+                };
+    }
+
+    /**
+     * Factory method for creating a {@link DecryptingPropertyResolver}.
+     * @param delegate the resolver whose values should be decrypted
+     * @param keyProvider the source of the key to decrypt with
+     * @return a new {@link Builder} instance
+     */
+    public static Builder builder(PropertyResolver delegate, KeyProvider keyProvider) {
+        checkNotNull(delegate, "PropertyResolver");
+        checkNotNull(keyProvider, "KeyProvider");
+        return new Builder(delegate, keyProvider);
+    }
+
+    /**
+     * Encrypt a value so that it can be stored in a property file and
+     * decrypted by a {@link DecryptingPropertyResolver} using the same key.
+     * @param plaintext the value to encrypt
+     * @param key the AES key to encrypt with
+     * @return the encrypted value wrapped in <code>ENC(...)</code>
+     * @throws GeneralSecurityException if unable to encrypt the value
+     */
+    public static String encrypt(String plaintext, SecretKey key) throws GeneralSecurityException {
+        final var iv = new byte[IV_BYTES];
+        SECURE_RANDOM.nextBytes(iv);
+        final Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+        cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, iv));
+        final byte[] ciphertext = cipher.doFinal(plaintext.getBytes(StandardCharsets.UTF_8));
+
+        final byte[] combined = Arrays.copyOf(iv, IV_BYTES + ciphertext.length);
+        System.arraycopy(ciphertext, 0, combined, IV_BYTES, ciphertext.length);
+        return PREFIX + Base64.getEncoder().encodeToString(combined) + SUFFIX;
+    }
+
+    @Override
+    public String getProperty(String propertyName) {
+        final String value = delegate.getProperty(propertyName);
+        if (value == null || !isEncrypted(value)) {
+            return value;
+        }
+        final Plaintext plaintext = plaintexts.computeIfAbsent(value, ciphertext -> decrypt(propertyName, ciphertext));
+        final String string = plaintext.asString();
+        if (string != null) {
+            return string;
+        }
+        // zeroed by an eviction after it was found, so decrypt the value read again without caching it
+        final Plaintext uncached = decrypt(propertyName, value);
+        try {
+            return uncached.asString();
+        } finally {
+            uncached.zero();
+        }
+    }
+
+    /**
+     * Evict every cached plaintext so that values are decrypted again
+     * the next time they are looked up.
+     */
+    public void invalidate() {
+        plaintexts.keySet().forEach(this::evict);
+    }
+
+    /**
+     * Stop listening for reloads of the underlying resolver and evict every
+     * cached plaintext. Otherwise the underlying resolver keeps this resolver,
+     * and the plaintexts it holds, reachable for as long as it is itself.
+     */
+    @Override
+    public void close() {
+        subscription.cancel();
+        invalidate();
+    }
+
+    int getCachedPlaintextCount() {
+        return plaintexts.size();
+    }
+
+    private void evict(PropertyChanges changes) {
+        final PropertySnapshot previousSnapshot = changes.getPreviousSnapshot();
+        final Set<String> candidates = new HashSet<>();
+        addCachedCiphertexts(changes.getChanged(), previousSnapshot, candidates);
+        addCachedCiphertexts(changes.getRemoved(), previousSnapshot, candidates);
+        if (candidates.isEmpty()) {
+            return;
+        }
+        // a ciphertext can be shared by several properties, so keep any still in use
+        for (String value : changes.getCurrentSnapshot().asMap().values()) {
+            candidates.remove(value);
+        }
+        candidates.forEach(this::evict);
+    }
+
+    private void addCachedCiphertexts(Set<String> propertyNames, PropertySnapshot snapshot, Set<String> ciphertexts) {
+        for (String propertyName : propertyNames) {
+            final String value = snapshot.getProperty(propertyName);
+            if (value != null && plaintexts.containsKey(value)) {
+                ciphertexts.add(value);
+            }
+        }
+    }
+
+    private void evict(String ciphertext) {
+        final Plaintext evicted = plaintexts.remove(ciphertext);
+        if (evicted != null && zeroOnEviction) {
+            evicted.zero();
+        }
+    }
+
+    private static boolean isEncrypted(String value) {
+        return value.startsWith(PREFIX) && value.endsWith(SUFFIX);
+    }
+
+    private Plaintext decrypt(String propertyName, String wrappedCiphertext) {
+        byte[] plaintextBytes = null;
+        try {
+            final byte[] combined = Base64.getDecoder().decode(
+                    wrappedCiphertext.substring(PREFIX.length(), wrappedCiphertext.length() - SUFFIX.length()));
+            final Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+            cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, combined, 0, IV_BYTES));
+            plaintextBytes = cipher.doFinal(combined, IV_BYTES, combined.length - IV_BYTES);
+
+            final CharBuffer decoded = StandardCharsets.UTF_8.decode(ByteBuffer.wrap(plaintextBytes));
+            final char[] chars = Arrays.copyOf(decoded.array(), decoded.limit());
+            Arrays.fill(decoded.array(), '\0');
+            return new Plaintext(chars, zeroOnEviction ? null : new String(chars));
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            throw new PropertyDecryptionException(propertyName, e);
+        } finally {
+            if (plaintextBytes != null) {
+                Arrays.fill(plaintextBytes, (byte) 0);
+            }
+        }
+    }
+
+    /**
+     * When zeroing on eviction, no String is kept so that the only long-lived
+     * copy of the plaintext is the char array that gets zeroed. Copying and
+     * zeroing share a lock, so a reader never copies a partly zeroed array.
+     */
+    private static final class Plaintext {
+        private final char[] chars;
+        private final String string;
+        private boolean zeroed;
+
+        private Plaintext(char[] chars, String string) {
+            this.chars = chars;
+            this.string = string;
+        }
+
+        /**
+         * @return the plaintext, or null if it has already been zeroed
+         */
+        private synchronized String asString() {
+            if (string != null) {
+                return string;
+            }
+            return zeroed ? null : new String(chars);
+        }
+
+        private synchronized void zero() {
+            zeroed = true;
+            Arrays.fill(chars, '\0');
+        }
+    }
+
+    public static class Builder {
+
+        private final PropertyResolver delegate;
+        private final KeyProvider keyProvider;
+        private boolean zeroOnEviction;
+
+        private Builder(PropertyResolver delegate, KeyProvider keyProvider) {
+            this.delegate = delegate;
+            this.keyProvider = keyProvider;
+        }
+
+        /**
+         * Overwrite cached plaintexts with zeros when they are evicted. The
+         * cache then only holds decrypted values as char arrays, so each
+         * lookup creates a new String from the cached characters.
+         * @return this builder
+         */
+        public Builder withZeroingOnEviction() {
+            this.zeroOnEviction = true;
+            return this;
+        }
+
+        /**
+         * @return the new resolver
+         * @throws IOException if unable to load the key
+         */
+        public DecryptingPropertyResolver build() throws IOException {
+            final SecretKey key = keyProvider.getKey();
+            if (key == null) {
+                throw new IOException("KeyProvider did not provide a key");
+            }
+            return new DecryptingPropertyResolver(delegate, key, zeroOnEviction);
+        }
+    }
+
+    private static <T> void checkNotNull(T object, String type) {
+        if (object == null) {
+            throw new IllegalArgumentException(type + " must not be null");
+        }
+    }
+}
@@ -22,16 +22,37 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.Executor;
 
 /**
  * FileBasedPropertyResolver is a {@link PropertyResolver}
  * implementation that currently uses {@link Properties} to
- * look up properties from a file.
+ * read properties from a file.
+ *
+ * <p>
+ *     When constructed with an active profile, properties qualified with
+ *     that profile, either <code>%prod.db.url</code> or <code>db.url[prod]</code>,
+ *     take precedence over the unqualified <code>db.url</code>. A bracketed
+ *     suffix that is not a known profile, such as <code>servers[0]</code>, is
+ *     left as part of the property name. This is resolved
+ *     once when the file is read, so a lookup is still a single hash probe.
+ * </p>
+ * <p>
+ *     The file can be read again with {@link #reload()}, which publishes
+ *     a new {@link PropertySnapshot} atomically and notifies any registered
+ *     {@link PropertyChangeListener} of the properties that changed.
+ * </p>
  */
-public class FileBasedPropertyResolver implements PropertyResolver {
+public class FileBasedPropertyResolver implements ReloadablePropertyResolver {
 
-    private final Properties properties;
+    private final Path propertyFilePath;
+    private final String activeProfile;
+    private final InputStreamProvider inputStreamProvider;
+    private final PropertyChangeListeners changeListeners = new PropertyChangeListeners();
+    private volatile PropertySnapshot snapshot;
 
     /**
      * Create a new property resolver
@@ -39,26 +60,101 @@ public class FileBasedPropertyResolver implements PropertyResolver {
      * @throws IOException if unable to read property file
      */
     public FileBasedPropertyResolver(Path propertyFilePath) throws IOException {
-        this(propertyFilePath, Files::newInputStream);
+        this(propertyFilePath, null, Files::newInputStream);
+    }
+
+    /**
+     * Create a new property resolver that resolves properties for a profile
+     * @param propertyFilePath the path to the property file to use
+     * @param activeProfile the profile whose qualified properties should be used,
+     *                      for example <code>prod</code>
+     * @throws IOException if unable to read property file
+     */
+    public FileBasedPropertyResolver(Path propertyFilePath, String activeProfile) throws IOException {
+        this(propertyFilePath, checkProfile(activeProfile), Files::newInputStream);
     }
 
     FileBasedPropertyResolver(Path propertyFilePath, InputStreamProvider inputStreamProvider) throws IOException {
+        this(propertyFilePath, null, inputStreamProvider);
+    }
+
+    FileBasedPropertyResolver(Path propertyFilePath, String activeProfile, InputStreamProvider inputStreamProvider) throws IOException {
+        this.propertyFilePath = propertyFilePath;
+        this.activeProfile = activeProfile;
+        this.inputStreamProvider = inputStreamProvider;
+        this.snapshot = PropertySnapshot.of(readPropertyFile(), 0);
+    }
+
+    /**
+     * Read the property file again and, if any property changed, publish
+     * its contents as a new {@link PropertySnapshot}. If the file cannot
+     * be read, the current snapshot is kept.
+     * <p>
+     *     Values of properties that did not change keep the same String
+     *     instance as in the previous snapshot, which allows caches keyed
+     *     on those values, such as the one enabled with
+     *     {@link dev.coldhands.jersey.properties.core.deserialise.PropertyDeserialiser.Builder#withDeserialisedValueCache()},
+     *     to keep everything that was derived from unchanged properties.
+     * </p>
+     * @throws IOException if unable to read property file
+     */
+    @Override
+    public void reload() throws IOException {
+        final Map<String, String> properties = readPropertyFile();
+        synchronized (this) {
+            final PropertySnapshot previous = snapshot;
+            properties.replaceAll((name, value) -> {
+                final String previousValue = previous.getProperty(name);
+                return value.equals(previousValue) ? previousValue : value;
+            });
+            final PropertySnapshot candidate = PropertySnapshot.of(properties, previous.getVersion() + 1);
+            final PropertyChanges changes = PropertyChanges.between(previous, candidate);
+            if (changes.isEmpty()) {
+                return;
+            }
+            snapshot = candidate;
+            changeListeners.notify(changes);
+        }
+    }
+
+    @Override
+    public Subscription addChangeListener(String prefix, PropertyChangeListener listener, Executor executor) {
+        return changeListeners.add(prefix, listener, executor);
+    }
+
+    @Override
+    public PropertySnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    @Override
+    public String getProperty(String propertyName) {
+        return snapshot.getProperty(propertyName);
+    }
+
+    private Map<String, String> readPropertyFile() throws IOException {
         if (!Files.exists(propertyFilePath)) {
             throw new FileNotFoundException("Property file does not exist: " + propertyFilePath.toAbsolutePath());
         }
 
-        properties = new Properties();
+        final var fileProperties = new Properties();
 
         try (final var inputStream = inputStreamProvider.getInputStream(propertyFilePath)) {
-            properties.load(inputStream);
+            fileProperties.load(inputStream);
         } catch (IOException e) {
             throw new IOException("Problem reading property file: " + propertyFilePath.toAbsolutePath(), e);
         }
+
+        final Map<String, String> loaded = new HashMap<>();
+        fileProperties.forEach((name, value) -> loaded.put((String) name, (String) value));
+        return activeProfile == null ? loaded : PropertyProfiles.flatten(loaded, activeProfile);
     }
 
-    @Override
-    public String getProperty(String propertyName) {
-        return properties.getProperty(propertyName);
+    private static String checkProfile(String activeProfile) {
+        if (activeProfile == null || activeProfile.isBlank()) {
+            throw new IllegalArgumentException("Profile must not be blank");
+        }
+        return activeProfile;
     }
 
     @FunctionalInterface
@@ -0,0 +1,573 @@
+/*
+ * ISC License Copyright (c) 2004-2010 by Internet Systems Consortium, Inc. ("ISC")
+ *
+ * Copyright (c) 2021 by Jamie Redding
+ *
+ * Permission to use, copy, modify, and /or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above copyright
+ * notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND ISC DISCLAIMS ALL WARRANTIES WITH REGARD
+ * TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS.
+ * IN NO EVENT SHALL ISC BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL
+ * DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS,
+ * WHETHER IN AN ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING
+ * OUT OF OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package dev.coldhands.jersey.properties.core.resolver;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+import static java.nio.file.LinkOption.NOFOLLOW_LINKS;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.*;
+
+/**
+ * JournalledPropertyStore is a {@link PropertyResolver} whose values can be
+ * changed at runtime and survive a restart.
+ *
+ * <p>
+ *     Every change is appended to a checksummed journal file instead of
+ *     rewriting all the properties. On startup the latest snapshot is loaded
+ *     and the journal is replayed on top of it. Once the journal grows past
+ *     the configured threshold it is compacted in the background into a new
+ *     snapshot. A partially written record at the end of the journal, for
+ *     example after a crash, is discarded. Writers are not held up while the
+ *     snapshot is written; changes made in the meantime stay in the journal.
+ * </p>
+ * <p>
+ *     Lookups fall back to an optional base {@link PropertyResolver}, so the
+ *     store can be used as a durable override layer.
+ * </p>
+<pre>
+    var store = JournalledPropertyStore.builder(Path.of("/var/lib/app/overrides"))
+            .withBaseResolver(new FileBasedPropertyResolver(path))
+            .withFsyncPolicy(JournalledPropertyStore.FsyncPolicy.ALWAYS)
+            .build();
+    store.set("http.timeout", "PT5S");
+</pre>
+ */
+public class JournalledPropertyStore implements PropertyResolver, Closeable {
+
+    static final String JOURNAL_FILE_NAME = "properties.journal";
+    static final String SNAPSHOT_FILE_NAME = "properties.snapshot";
+    static final String TEMPORARY_SUFFIX = ".tmp";
+
+    private static final int RECORD_HEADER_BYTES = Integer.BYTES + Integer.BYTES;
+    private static final byte SET = 1;
+    private static final byte REMOVE = 2;
+    // Windows does not allow a directory to be opened as a channel to force it
+    private static final boolean CAN_FORCE_DIRECTORIES = !System.getProperty("os.name", "").startsWith("Windows");
+
+    /**
+     * Controls when journal writes are forced to the storage device.
+     */
+    public enum FsyncPolicy {
+        /**
+         * Force every change to disk before the write method returns.
+         */
+        ALWAYS,
+        /**
+         * Leave flushing to the operating system and only force
+         * the journal when the store is closed.
+         */
+        ON_CLOSE
+    }
+
+    private final Path directory;
+    private final Path journalFile;
+    private final Path snapshotFile;
+    private final PropertyResolver baseResolver;
+    private final FsyncPolicy fsyncPolicy;
+    private final long compactionThresholdBytes;
+    private final Executor compactionExecutor;
+    private final ExecutorService ownedExecutor;
+    private final Consumer<? super IOException> compactionFailureHandler;
+
+    private final Object compactionLock = new Object();
+    private final Object writeLock = new Object();
+    private volatile PersistentHashMap<String, String> properties;
+    private FileChannel journal;
+    private long journalBytes;
+    private boolean compactionPending;
+    private boolean closed;
+
+    private JournalledPropertyStore(Builder builder) throws IOException {
+        this.directory = builder.directory;
+        this.journalFile = builder.directory.resolve(JOURNAL_FILE_NAME);
+        this.snapshotFile = builder.directory.resolve(SNAPSHOT_FILE_NAME);
+        this.baseResolver = builder.baseResolver;
+        this.fsyncPolicy = builder.fsyncPolicy;
+        this.compactionThresholdBytes = builder.compactionThresholdBytes;
+        this.compactionFailureHandler = builder.compactionFailureHandler;
+        if (builder.compactionExecutor != null) {
+            this.compactionExecutor = builder.compactionExecutor;
+            this.ownedExecutor = null;
+        } else {
+            this.ownedExecutor = Executors.newSingleThreadExecutor(runnable -> {
+                final var thread = new Thread(runnable, "jersey-properties-journal-compaction");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.compactionExecutor = ownedExecutor;
+        }
+
+        Files.createDirectories(builder.directory);
+        // left behind by a compaction that did not finish, the files they would have replaced are intact
+        deleteTemporaryFile(snapshotFile.resolveSibling(SNAPSHOT_FILE_NAME + TEMPORARY_SUFFIX));
+        deleteTemporaryFile(journalFile.resolveSibling(JOURNAL_FILE_NAME + TEMPORARY_SUFFIX));
+        final Map<String, String> recovered = new HashMap<>();
+        if (Files.exists(snapshotFile)) {
+            final ByteBuffer snapshot = ByteBuffer.wrap(Files.readAllBytes(snapshotFile));
+            if (!replayRecord(snapshot, recovered) || snapshot.hasRemaining()) {
+                throw new IOException("Corrupt property snapshot: " + snapshotFile.toAbsolutePath());
+            }
+        }
+
+        journal = FileChannel.open(journalFile, CREATE, READ, WRITE);
+        final ByteBuffer journalContent = ByteBuffer.wrap(Files.readAllBytes(journalFile));
+        while (journalContent.hasRemaining() && replayRecord(journalContent, recovered)) {
+            journalBytes = journalContent.position();
+        }
+        if (journalBytes < journalContent.limit()) {
+            journal.truncate(journalBytes);
+            journal.force(true);
+        }
+        journal.position(journalBytes);
+
+        properties = PersistentHashMap.copyOf(recovered);
+    }
+
+    /**
+     * Factory method for creating a {@link JournalledPropertyStore}.
+     * @param directory the directory to keep the journal and snapshot files in
+     * @return a new {@link Builder} instance
+     */
+    public static Builder builder(Path directory) {
+        if (directory == null) {
+            throw new IllegalArgumentException("Directory must not be null");
+        }
+        return new Builder(directory);
+    }
+
+    @Override
+    public String getProperty(String propertyName) {
+        final String value = properties.get(propertyName);
+        return value != null ? value : baseResolver.getProperty(propertyName);
+    }
+
+    /**
+     * @return an immutable copy of the properties held in this store,
+     *         not including those of the base resolver
+     */
+    public Map<String, String> getStoredProperties() {
+        return properties.toMap();
+    }
+
+    /**
+     * Durably set a single property.
+     * @param propertyName the name of the property to set
+     * @param value the value for the property
+     * @throws IOException if unable to append to the journal
+     */
+    public void set(String propertyName, String value) throws IOException {
+        update(updates -> updates.set(propertyName, value));
+    }
+
+    /**
+     * Durably remove a single property from this store.
+     * @param propertyName the name of the property to remove
+     * @throws IOException if unable to append to the journal
+     */
+    public void remove(String propertyName) throws IOException {
+        update(updates -> updates.remove(propertyName));
+    }
+
+    /**
+     * Durably apply a batch of changes. The batch is written as a single
+     * journal record, so it is either replayed completely or not at all.
+     * @param changes callback used to describe the changes to apply
+     * @throws IOException if unable to append to the journal
+     */
+    public void update(Consumer<PropertyUpdates> changes) throws IOException {
+        final var pendingUpdates = new PendingUpdates();
+        changes.accept(pendingUpdates);
+        if (pendingUpdates.isEmpty()) {
+            return;
+        }
+        final ByteBuffer record = encodeRecord(pendingUpdates);
+
+        final boolean scheduleCompaction;
+        synchronized (writeLock) {
+            checkOpen();
+            try {
+                writeFully(journal, record);
+                if (fsyncPolicy == FsyncPolicy.ALWAYS) {
+                    journal.force(false);
+                }
+            } catch (IOException e) {
+                discardUnacknowledgedWrite(e);
+                throw e;
+            }
+            journalBytes += record.limit();
+            properties = pendingUpdates.applyTo(properties);
+
+            scheduleCompaction = journalBytes > compactionThresholdBytes && !compactionPending;
+            if (scheduleCompaction) {
+                compactionPending = true;
+            }
+        }
+        // outside the write lock, as compaction takes the compaction lock before the write lock
+        if (scheduleCompaction) {
+            compactionExecutor.execute(this::compactQuietly);
+        }
+    }
+
+    /**
+     * Write the current properties to a new snapshot and empty the journal.
+     * This is normally triggered automatically once the journal grows past
+     * the compaction threshold.
+     * <p>
+     *     Writes are only blocked while the new snapshot is swapped in,
+     *     not while it is written. Journal records appended in the meantime
+     *     are carried over into the new journal.
+     * </p>
+     * @throws IOException if unable to write the snapshot
+     */
+    public void compact() throws IOException {
+        synchronized (compactionLock) {
+            final PersistentHashMap<String, String> compactedProperties;
+            final long compactedJournalBytes;
+            synchronized (writeLock) {
+                compactionPending = false;
+                checkOpen();
+                compactedProperties = properties;
+                compactedJournalBytes = journalBytes;
+            }
+
+            final var snapshotUpdates = new PendingUpdates();
+            compactedProperties.forEach(snapshotUpdates::set);
+            final Path temporarySnapshot = snapshotFile.resolveSibling(SNAPSHOT_FILE_NAME + TEMPORARY_SUFFIX);
+            try (var snapshot = FileChannel.open(temporarySnapshot, CREATE, WRITE, TRUNCATE_EXISTING)) {
+                writeFully(snapshot, encodeRecord(snapshotUpdates));
+                snapshot.force(true);
+            }
+
+            synchronized (writeLock) {
+                checkOpen();
+                // replaying the whole old journal over the new snapshot gives the same
+                // state as replaying it over the old one, so a crash between these moves is safe
+                Files.move(temporarySnapshot, snapshotFile, ATOMIC_MOVE, REPLACE_EXISTING);
+                // the rename must be durable before the journal records it replaces are dropped
+                forceDirectory();
+                retainJournalAfter(compactedJournalBytes);
+            }
+        }
+    }
+
+    /**
+     * @return the current size of the journal in bytes
+     */
+    public long getJournalSize() {
+        synchronized (writeLock) {
+            return journalBytes;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (writeLock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                journal.force(true);
+            } finally {
+                journal.close();
+                if (ownedExecutor != null) {
+                    ownedExecutor.shutdown();
+                }
+            }
+        }
+    }
+
+    private void compactQuietly() {
+        try {
+            compact();
+        } catch (IOException e) {
+            // the journal is still intact so compaction will be retried after the next write
+            compactionFailureHandler.accept(e);
+        } catch (IllegalStateException e) {
+            // the store was closed before the compaction ran
+        }
+    }
+
+    /**
+     * Move the journal back to the end of the last acknowledged record,
+     * so a torn record is not followed by records that replay can never reach.
+     */
+    private void discardUnacknowledgedWrite(IOException cause) {
+        try {
+            journal.truncate(journalBytes);
+            journal.position(journalBytes);
+        } catch (IOException e) {
+            cause.addSuppressed(e);
+        }
+    }
+
+    /**
+     * Replace the journal with the records written after the given offset.
+     * Must be called while holding the write lock.
+     */
+    private void retainJournalAfter(long offset) throws IOException {
+        final int retainedBytes = Math.toIntExact(journalBytes - offset);
+        if (retainedBytes == 0) {
+            journal.truncate(0);
+            journal.force(true);
+            journalBytes = 0;
+            return;
+        }
+
+        final ByteBuffer retained = ByteBuffer.allocate(retainedBytes);
+        while (retained.hasRemaining()) {
+            if (journal.read(retained, offset + retained.position()) < 0) {
+                throw new EOFException("Journal ended before offset " + journalBytes);
+            }
+        }
+        retained.flip();
+
+        final Path temporaryJournal = journalFile.resolveSibling(JOURNAL_FILE_NAME + TEMPORARY_SUFFIX);
+        try (var channel = FileChannel.open(temporaryJournal, CREATE, WRITE, TRUNCATE_EXISTING)) {
+            writeFully(channel, retained);
+            channel.force(true);
+        }
+        Files.move(temporaryJournal, journalFile, ATOMIC_MOVE, REPLACE_EXISTING);
+
+        final FileChannel previousJournal = journal;
+        journal = FileChannel.open(journalFile, READ, WRITE);
+        journal.position(retainedBytes);
+        journalBytes = retainedBytes;
+        previousJournal.close();
+    }
+
+    private void forceDirectory() throws IOException {
+        if (CAN_FORCE_DIRECTORIES) {
+            try (var channel = FileChannel.open(directory, READ)) {
+                channel.force(true);
+            }
+        }
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("JournalledPropertyStore has been closed");
+        }
+    }
+
+    private static void deleteTemporaryFile(Path temporaryFile) throws IOException {
+        if (Files.isRegularFile(temporaryFile, NOFOLLOW_LINKS)) {
+            Files.delete(temporaryFile);
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /*
+     * record  := payloadLength:int crc32:int payload
+     * payload := count:int (operation)*
+     * operation := SET name value | REMOVE name
+     * string := length:int utf8Bytes
+     */
+    private static ByteBuffer encodeRecord(PendingUpdates updates) {
+        final int count = updates.size();
+        final var encodedNames = new byte[count][];
+        final var encodedValues = new byte[count][];
+        int payloadLength = Integer.BYTES;
+        for (int i = 0; i < count; i++) {
+            encodedNames[i] = updates.nameAt(i).getBytes(StandardCharsets.UTF_8);
+            payloadLength += 1 + Integer.BYTES + encodedNames[i].length;
+            final String value = updates.valueAt(i);
+            if (value != null) {
+                encodedValues[i] = value.getBytes(StandardCharsets.UTF_8);
+                payloadLength += Integer.BYTES + encodedValues[i].length;
+            }
+        }
+
+        final ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_BYTES + payloadLength);
+        record.position(RECORD_HEADER_BYTES);
+        record.putInt(count);
+        for (int i = 0; i < count; i++) {
+            record.put(encodedValues[i] == null ? REMOVE : SET);
+            record.putInt(encodedNames[i].length).put(encodedNames[i]);
+            if (encodedValues[i] != null) {
+                record.putInt(encodedValues[i].length).put(encodedValues[i]);
+            }
+        }
+
+        final var crc = new CRC32();
+        crc.update(record.array(), RECORD_HEADER_BYTES, payloadLength);
+        record.putInt(0, payloadLength);
+        record.putInt(Integer.BYTES, (int) crc.getValue());
+        return record.flip();
+    }
+
+    /**
+     * @return false if the record at the buffer's position is incomplete or
+     *         fails its checksum, in which case nothing is applied
+     */
+    private static boolean replayRecord(ByteBuffer buffer, Map<String, String> target) {
+        if (buffer.remaining() < RECORD_HEADER_BYTES) {
+            return false;
+        }
+        final int start = buffer.position();
+        final int payloadLength = buffer.getInt(start);
+        final int expectedCrc = buffer.getInt(start + Integer.BYTES);
+        if (payloadLength < Integer.BYTES || payloadLength > buffer.remaining() - RECORD_HEADER_BYTES) {
+            return false;
+        }
+        final var crc = new CRC32();
+        final ByteBuffer payload = buffer.duplicate();
+        payload.position(start + RECORD_HEADER_BYTES).limit(start + RECORD_HEADER_BYTES + payloadLength);
+        crc.update(payload.duplicate());
+        if ((int) crc.getValue() != expectedCrc) {
+            return false;
+        }
+
+        final int count = payload.getInt();
+        for (int i = 0; i < count; i++) {
+            final byte operation = payload.get();
+            final String name = readString(payload);
+            if (operation == SET) {
+                target.put(name, readString(payload));
+            } else {
+                target.remove(name);
+            }
+        }
+        buffer.position(start + RECORD_HEADER_BYTES + payloadLength);
+        return true;
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        final int length = buffer.getInt();
+        final String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+
+    public static class Builder {
+
+        private final Path directory;
+        private PropertyResolver baseResolver = propertyName -> null;
+        private FsyncPolicy fsyncPolicy = FsyncPolicy.ALWAYS;
+        private long compactionThresholdBytes = 1024 * 1024;
+        private Executor compactionExecutor;
+        private Consumer<? super IOException> compactionFailureHandler = e -> {
+            final Thread thread = Thread.currentThread();
+            thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+        };
+
+        private Builder(Path directory) {
+            this.directory = directory;
+        }
+
+        /**
+         * Configure a {@link PropertyResolver} to use for properties
+         * that are not held in this store.
+         * @param baseResolver the resolver to fall back to
+         * @return this builder
+         */
+        public Builder withBaseResolver(PropertyResolver baseResolver) {
+            checkNotNull(baseResolver, "PropertyResolver");
+            this.baseResolver = baseResolver;
+            return this;
+        }
+
+        /**
+         * Configure when journal writes are forced to disk, defaults
+         * to {@link FsyncPolicy#ALWAYS}.
+         * @param fsyncPolicy the policy to use
+         * @return this builder
+         */
+        public Builder withFsyncPolicy(FsyncPolicy fsyncPolicy) {
+            checkNotNull(fsyncPolicy, "FsyncPolicy");
+            this.fsyncPolicy = fsyncPolicy;
+            return this;
+        }
+
+        /**
+         * Configure the journal size that triggers a compaction,
+         * defaults to 1 MiB.
+         * @param compactionThresholdBytes the journal size in bytes
+         * @return this builder
+         */
+        public Builder withCompactionThreshold(long compactionThresholdBytes) {
+            if (compactionThresholdBytes <= 0) {
+                throw new IllegalArgumentException("Compaction threshold must be positive");
+            }
+            this.compactionThresholdBytes = compactionThresholdBytes;
+            return this;
+        }
+
+        /**
+         * Configure the {@link Executor} used to run compactions. By default,
+         * a single daemon thread owned by the store is used.
+         * @param compactionExecutor the executor to run compactions on
+         * @return this builder
+         */
+        public Builder withCompactionExecutor(Executor compactionExecutor) {
+            checkNotNull(compactionExecutor, "Executor");
+            this.compactionExecutor = compactionExecutor;
+            return this;
+        }
+
+        /**
+         * Configure what happens when a background compaction fails. The
+         * journal is left intact and compaction is retried after the next
+         * write. By default, the failure is passed to the compaction thread's
+         * {@link Thread.UncaughtExceptionHandler}.
+         * @param compactionFailureHandler callback given the compaction failure
+         * @return this builder
+         */
+        public Builder withCompactionFailureHandler(Consumer<? super IOException> compactionFailureHandler) {
+            checkNotNull(compactionFailureHandler, "Compaction failure handler");
+            this.compactionFailureHandler = compactionFailureHandler;
+            return this;
+        }
+
+        /**
+         * Open the store, replaying any existing snapshot and journal.
+         * @return the opened store
+         * @throws IOException if unable to read the existing files
+         */
+        public JournalledPropertyStore build() throws IOException {
+            return new JournalledPropertyStore(this);
+        }
+    }
+
+    private static <T> void checkNotNull(T object, String type) {
+        if (object == null) {
+            throw new IllegalArgumentException(type + " must not be null");
+        }
+    }
+}
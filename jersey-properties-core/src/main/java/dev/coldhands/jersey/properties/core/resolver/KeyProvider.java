@@ -0,0 +1,67 @@
+/*
+ * ISC License Copyright (c) 2004-2010 by Internet Systems Consortium, Inc. ("ISC")
+ *
+ * Copyright (c) 2021 by Jamie Redding
+ *
+ * Permission to use, copy, modify, and /or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above copyright
+ * notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND ISC DISCLAIMS ALL WARRANTIES WITH REGARD
+ * TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS.
+ * IN NO EVENT SHALL ISC BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL
+ * DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS,
+ * WHETHER IN AN ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING
+ * OUT OF OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package dev.coldhands.jersey.properties.core.resolver;
+
+import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Interface to define a source of the AES key used by a
+ * {@link DecryptingPropertyResolver}.
+ */
+@FunctionalInterface
+public interface KeyProvider {
+
+    /**
+     * @return the key to decrypt property values with
+     * @throws IOException if unable to load the key
+     */
+    SecretKey getKey() throws IOException;
+
+    /**
+     * A key read from a file containing exactly the raw 16, 24 or 32 key bytes.
+     * @param keyFile the path of the key file
+     * @return a key provider reading that file
+     * @see #fromBase64KeyFile(Path)
+     */
+    static KeyProvider fromRawKeyFile(Path keyFile) {
+        return AesKeys.fromRawFile(keyFile);
+    }
+
+    /**
+     * A key read from a file containing the key bytes encoded as Base64 text.
+     * Whitespace around the text, such as a trailing newline, is ignored.
+     * @param keyFile the path of the key file
+     * @return a key provider reading that file
+     * @see #fromRawKeyFile(Path)
+     */
+    static KeyProvider fromBase64KeyFile(Path keyFile) {
+        return AesKeys.fromBase64File(keyFile);
+    }
+
+    /**
+     * A key read from an environment variable containing the
+     * Base64 encoded key bytes.
+     * @param variableName the name of the environment variable
+     * @return a key provider reading that environment variable
+     */
+    static KeyProvider fromEnvironmentVariable(String variableName) {
+        return AesKeys.fromEnvironmentVariable(variableName, System::getenv);
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * ISC License Copyright (c) 2004-2010 by Internet Systems Consortium, Inc. ("ISC")
+ *
+ * Copyright (c) 2021 by Jamie Redding
+ *
+ * Permission to use, copy, modify, and /or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above copyright
+ * notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND ISC DISCLAIMS ALL WARRANTIES WITH REGARD
+ * TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS.
+ * IN NO EVENT SHALL ISC BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL
+ * DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS,
+ * WHETHER IN AN ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING
+ * OUT OF OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package dev.coldhands.jersey.properties.core.resolver;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * OverridablePropertyResolver is a {@link PropertyResolver} that allows
+ * property values to be overridden at runtime on top of another
+ * {@link PropertyResolver}.
+ *
+ * <p>
+ *     Overrides are held in an immutable map that is replaced as a whole
+ *     on every update, so lookups never take a lock and a batch of changes
+ *     made with {@link #update(Consumer)} becomes visible all at once.
+ * </p>
+<pre>
+    var resolver = new OverridablePropertyResolver(new FileBasedPropertyResolver(path));
+    resolver.update(overrides -&gt; overrides
+            .set("http.timeout", "PT5S")
+            .remove("rate.limit"));
+</pre>
+ */
+public class OverridablePropertyResolver implements PropertyResolver {
+
+    private final PropertyResolver baseResolver;
+    private final AtomicReference<PersistentHashMap<String, String>> overrides =
+            new AtomicReference<>(PersistentHashMap.empty());
+
+    /**
+     * Create a new property resolver with no overrides
+     * @param baseResolver the resolver to use when a property has not been overridden
+     */
+    public OverridablePropertyResolver(PropertyResolver baseResolver) {
+        if (baseResolver == null) {
+            throw new IllegalArgumentException("PropertyResolver must not be null");
+        }
+        this.baseResolver = baseResolver;
+    }
+
+    @Override
+    public String getProperty(String propertyName) {
+        final String overriddenValue = overrides.get().get(propertyName);
+        return overriddenValue != null ? overriddenValue : baseResolver.getProperty(propertyName);
+    }
+
+    /**
+     * Override the value of a single property.
+     * @param propertyName the name of the property to override
+     * @param value the value to use instead of the base value
+     */
+    public void setOverride(String propertyName, String value) {
+        update(updates -> updates.set(propertyName, value));
+    }
+
+    /**
+     * Remove the override for a single property so that the
+     * base value is used again.
+     * @param propertyName the name of the property to stop overriding
+     */
+    public void removeOverride(String propertyName) {
+        update(updates -> updates.remove(propertyName));
+    }
+
+    /**
+     * Remove every override.
+     */
+    public void clearOverrides() {
+        overrides.set(PersistentHashMap.empty());
+    }
+
+    /**
+     * Apply a batch of overrides so that readers either see all of them
+     * or none of them.
+     * <p>
+     *     {@link PropertyUpdates#remove(String)} removes an override rather
+     *     than the underlying property.
+     * </p>
+     * @param changes callback used to describe the overrides to apply
+     */
+    public void update(Consumer<PropertyUpdates> changes) {
+        final var pendingUpdates = new PendingUpdates();
+        changes.accept(pendingUpdates);
+        if (pendingUpdates.isEmpty()) {
+            return;
+        }
+        overrides.updateAndGet(pendingUpdates::applyTo);
+    }
+
+    /**
+     * @return an immutable copy of the current overrides
+     */
+    public Map<String, String> getOverrides() {
+        return overrides.get().toMap();
+    }
+}
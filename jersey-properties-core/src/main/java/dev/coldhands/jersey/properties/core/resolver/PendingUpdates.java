@@ -0,0 +1,85 @@
+/*
+ * ISC License Copyright (c) 2004-2010 by Internet Systems Consortium, Inc. ("ISC")
+ *
+ * Copyright (c) 2021 by Jamie Redding
+ *
+ * Permission to use, copy, modify, and /or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above copyright
+ * notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND ISC DISCLAIMS ALL WARRANTIES WITH REGARD
+ * TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS.
+ * IN NO EVENT SHALL ISC BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL
+ * DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS,
+ * WHETHER IN AN ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING
+ * OUT OF OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package dev.coldhands.jersey.properties.core.resolver;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records {@link PropertyUpdates} so they can be applied later,
+ * possibly more than once if a concurrent update wins the race.
+ * A null value represents a removal.
+ */
+final class PendingUpdates implements PropertyUpdates {
+
+    private final List<String> names = new ArrayList<>();
+    private final List<String> values = new ArrayList<>();
+
+    @Override
+    public PropertyUpdates set(String propertyName, String value) {
+        checkNotNull(propertyName, "Property name");
+        checkNotNull(value, "Property value");
+        names.add(propertyName);
+        values.add(value);
+        return this;
+    }
+
+    @Override
+    public PropertyUpdates remove(String propertyName) {
+        checkNotNull(propertyName, "Property name");
+        names.add(propertyName);
+        values.add(null);
+        return this;
+    }
+
+    boolean isEmpty() {
+        return names.isEmpty();
+    }
+
+    int size() {
+        return names.size();
+    }
+
+    String nameAt(int index) {
+        return names.get(index);
+    }
+
+    /**
+     * @return the value to set, or null if the property should be removed
+     */
+    String valueAt(int index) {
+        return values.get(index);
+    }
+
+    PersistentHashMap<String, String> applyTo(PersistentHashMap<String, String> map) {
+        PersistentHashMap<String, String> result = map;
+        for (int i = 0; i < names.size(); i++) {
+            final String value = values.get(i);
+            result = value == null
+                    ? result.without(names.get(i))
+                    : result.with(names.get(i), value);
+        }
+        return result;
+    }
+
+    private static void checkNotNull(Object object, String type) {
+        if (object == null) {
+            throw new IllegalArgumentException(type + " must not be null");
+        }
+    }
+}
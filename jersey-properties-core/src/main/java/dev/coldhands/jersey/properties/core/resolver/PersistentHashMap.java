@@ -0,0 +1,339 @@
+/*
+ * ISC License Copyright (c) 2004-2010 by Internet Systems Consortium, Inc. ("ISC")
+ *
+ * Copyright (c) 2021 by Jamie Redding
+ *
+ * Permission to use, copy, modify, and /or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above copyright
+ * notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND ISC DISCLAIMS ALL WARRANTIES WITH REGARD
+ * TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS.
+ * IN NO EVENT SHALL ISC BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL
+ * DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS,
+ * WHETHER IN AN ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING
+ * OUT OF OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package dev.coldhands.jersey.properties.core.resolver;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Immutable hash array mapped trie.
+ * <p>
+ *     Every modification returns a new map that shares all untouched
+ *     nodes with the map it was derived from, so an update only copies
+ *     the path from the root to the changed entry.
+ * </p>
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+final class PersistentHashMap<K, V> {
+
+    private static final int BITS_PER_LEVEL = 5;
+    private static final int LEVEL_MASK = (1 << BITS_PER_LEVEL) - 1;
+
+    private static final PersistentHashMap<?, ?> EMPTY = new PersistentHashMap<>(BitmapIndexedNode.EMPTY, 0);
+
+    private final Node root;
+    private final int size;
+
+    private PersistentHashMap(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <K, V> PersistentHashMap<K, V> empty() {
+        return (PersistentHashMap<K, V>) EMPTY;
+    }
+
+    static <K, V> PersistentHashMap<K, V> copyOf(Map<? extends K, ? extends V> map) {
+        PersistentHashMap<K, V> result = empty();
+        for (Map.Entry<? extends K, ? extends V> entry : map.entrySet()) {
+            result = result.with(entry.getKey(), entry.getValue());
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    V get(Object key) {
+        return (V) root.find(0, key.hashCode(), key);
+    }
+
+    boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    PersistentHashMap<K, V> with(K key, V value) {
+        checkNotNull(key, "Key");
+        checkNotNull(value, "Value");
+        final var added = new boolean[1];
+        final Node newRoot = root.put(0, key.hashCode(), key, value, added);
+        if (newRoot == root) {
+            return this;
+        }
+        return new PersistentHashMap<>(newRoot, added[0] ? size + 1 : size);
+    }
+
+    PersistentHashMap<K, V> without(Object key) {
+        final Node newRoot = root.remove(0, key.hashCode(), key);
+        if (newRoot == root) {
+            return this;
+        }
+        return new PersistentHashMap<>(newRoot == null ? BitmapIndexedNode.EMPTY : newRoot, size - 1);
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    void forEach(BiConsumer<? super K, ? super V> action) {
+        root.forEach((BiConsumer<Object, Object>) action);
+    }
+
+    Map<K, V> toMap() {
+        final Map<K, V> map = new HashMap<>(Math.max(16, (int) (size / 0.75f) + 1));
+        forEach(map::put);
+        return Collections.unmodifiableMap(map);
+    }
+
+    private static void checkNotNull(Object object, String type) {
+        if (object == null) {
+            throw new IllegalArgumentException(type + " must not be null");
+        }
+    }
+
+    private static int bitFor(int hash, int shift) {
+        return 1 << ((hash >>> shift) & LEVEL_MASK);
+    }
+
+    private abstract static class Node {
+
+        abstract Object find(int shift, int hash, Object key);
+
+        abstract Node put(int shift, int hash, Object key, Object value, boolean[] added);
+
+        /**
+         * @return this node if the key was absent, null if the node
+         *         became empty, otherwise the replacement node
+         */
+        abstract Node remove(int shift, int hash, Object key);
+
+        abstract void forEach(BiConsumer<Object, Object> action);
+    }
+
+    /**
+     * Entries are stored as key/value pairs. A null key marks a slot
+     * whose value is a child {@link Node}.
+     */
+    private static final class BitmapIndexedNode extends Node {
+
+        private static final BitmapIndexedNode EMPTY = new BitmapIndexedNode(0, new Object[0]);
+
+        private final int bitmap;
+        private final Object[] array;
+
+        private BitmapIndexedNode(int bitmap, Object[] array) {
+            this.bitmap = bitmap;
+            this.array = array;
+        }
+
+        private int index(int bit) {
+            return Integer.bitCount(bitmap & (bit - 1));
+        }
+
+        @Override
+        Object find(int shift, int hash, Object key) {
+            final int bit = bitFor(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return null;
+            }
+            final int index = index(bit);
+            final Object keyOrNull = array[2 * index];
+            final Object valueOrNode = array[2 * index + 1];
+            if (keyOrNull == null) {
+                return ((Node) valueOrNode).find(shift + BITS_PER_LEVEL, hash, key);
+            }
+            return key.equals(keyOrNull) ? valueOrNode : null;
+        }
+
+        @Override
+        Node put(int shift, int hash, Object key, Object value, boolean[] added) {
+            final int bit = bitFor(hash, shift);
+            final int index = index(bit);
+
+            if ((bitmap & bit) == 0) {
+                final int count = Integer.bitCount(bitmap);
+                final var newArray = new Object[2 * (count + 1)];
+                System.arraycopy(array, 0, newArray, 0, 2 * index);
+                newArray[2 * index] = key;
+                newArray[2 * index + 1] = value;
+                System.arraycopy(array, 2 * index, newArray, 2 * (index + 1), 2 * (count - index));
+                added[0] = true;
+                return new BitmapIndexedNode(bitmap | bit, newArray);
+            }
+
+            final Object keyOrNull = array[2 * index];
+            final Object valueOrNode = array[2 * index + 1];
+
+            if (keyOrNull == null) {
+                final Node child = (Node) valueOrNode;
+                final Node newChild = child.put(shift + BITS_PER_LEVEL, hash, key, value, added);
+                return newChild == child ? this : withSlot(index, null, newChild);
+            }
+            if (key.equals(keyOrNull)) {
+                return valueOrNode == value ? this : withSlot(index, keyOrNull, value);
+            }
+            added[0] = true;
+            return withSlot(index, null, createNode(shift + BITS_PER_LEVEL, keyOrNull, valueOrNode, hash, key, value));
+        }
+
+        @Override
+        Node remove(int shift, int hash, Object key) {
+            final int bit = bitFor(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return this;
+            }
+            final int index = index(bit);
+            final Object keyOrNull = array[2 * index];
+            final Object valueOrNode = array[2 * index + 1];
+
+            if (keyOrNull == null) {
+                final Node child = (Node) valueOrNode;
+                final Node newChild = child.remove(shift + BITS_PER_LEVEL, hash, key);
+                if (newChild == child) {
+                    return this;
+                }
+                if (newChild != null) {
+                    return withSlot(index, null, newChild);
+                }
+            } else if (!key.equals(keyOrNull)) {
+                return this;
+            }
+
+            if (bitmap == bit) {
+                return null;
+            }
+            final int count = Integer.bitCount(bitmap);
+            final var newArray = new Object[2 * (count - 1)];
+            System.arraycopy(array, 0, newArray, 0, 2 * index);
+            System.arraycopy(array, 2 * (index + 1), newArray, 2 * index, 2 * (count - index - 1));
+            return new BitmapIndexedNode(bitmap & ~bit, newArray);
+        }
+
+        @Override
+        void forEach(BiConsumer<Object, Object> action) {
+            for (int i = 0; i < array.length; i += 2) {
+                if (array[i] == null) {
+                    ((Node) array[i + 1]).forEach(action);
+                } else {
+                    action.accept(array[i], array[i + 1]);
+                }
+            }
+        }
+
+        private BitmapIndexedNode withSlot(int index, Object key, Object valueOrNode) {
+            final Object[] newArray = array.clone();
+            newArray[2 * index] = key;
+            newArray[2 * index + 1] = valueOrNode;
+            return new BitmapIndexedNode(bitmap, newArray);
+        }
+
+        private static Node createNode(int shift, Object key1, Object value1, int hash2, Object key2, Object value2) {
+            final int hash1 = key1.hashCode();
+            if (hash1 == hash2) {
+                return new HashCollisionNode(hash1, new Object[]{key1, value1, key2, value2});
+            }
+            final var ignored = new boolean[1];
+            return EMPTY.put(shift, hash1, key1, value1, ignored)
+                    .put(shift, hash2, key2, value2, ignored);
+        }
+    }
+
+    /**
+     * Holds keys whose full 32-bit hashes are identical.
+     */
+    private static final class HashCollisionNode extends Node {
+
+        private final int hash;
+        private final Object[] array;
+
+        private HashCollisionNode(int hash, Object[] array) {
+            this.hash = hash;
+            this.array = array;
+        }
+
+        private int indexOf(Object key) {
+            for (int i = 0; i < array.length; i += 2) {
+                if (key.equals(array[i])) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        Object find(int shift, int hash, Object key) {
+            if (hash != this.hash) {
+                return null;
+            }
+            final int index = indexOf(key);
+            return index < 0 ? null : array[index + 1];
+        }
+
+        @Override
+        Node put(int shift, int hash, Object key, Object value, boolean[] added) {
+            if (hash != this.hash) {
+                return new BitmapIndexedNode(bitFor(this.hash, shift), new Object[]{null, this})
+                        .put(shift, hash, key, value, added);
+            }
+            final int index = indexOf(key);
+            if (index >= 0) {
+                if (array[index + 1] == value) {
+                    return this;
+                }
+                final Object[] newArray = array.clone();
+                newArray[index + 1] = value;
+                return new HashCollisionNode(hash, newArray);
+            }
+            final var newArray = new Object[array.length + 2];
+            System.arraycopy(array, 0, newArray, 0, array.length);
+            newArray[array.length] = key;
+            newArray[array.length + 1] = value;
+            added[0] = true;
+            return new HashCollisionNode(hash, newArray);
+        }
+
+        @Override
+        Node remove(int shift, int hash, Object key) {
+            final int index = hash == this.hash ? indexOf(key) : -1;
+            if (index < 0) {
+                return this;
+            }
+            if (array.length == 2) {
+                return null;
+            }
+            final var newArray = new Object[array.length - 2];
+            System.arraycopy(array, 0, newArray, 0, index);
+            System.arraycopy(array, index + 2, newArray, index, array.length - index - 2);
+            return new HashCollisionNode(hash, newArray);
+        }
+
+        @Override
+        void forEach(BiConsumer<Object, Object> action) {
+            for (int i = 0; i < array.length; i += 2) {
+                action.accept(array[i], array[i + 1]);
+            }
+        }
+    }
+}
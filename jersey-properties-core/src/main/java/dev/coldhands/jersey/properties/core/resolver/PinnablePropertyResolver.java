@@ -0,0 +1,88 @@
+/*
+ * ISC License Copyright (c) 2004-2010 by Internet Systems Consortium, Inc. ("ISC")
+ *
+ * Copyright (c) 2021 by Jamie Redding
+ *
+ * Permission to use, copy, modify, and /or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above copyright
+ * notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND ISC DISCLAIMS ALL WARRANTIES WITH REGARD
+ * TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS.
+ * IN NO EVENT SHALL ISC BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL
+ * DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS,
+ * WHETHER IN AN ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING
+ * OUT OF OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package dev.coldhands.jersey.properties.core.resolver;
+
+/**
+ * PinnablePropertyResolver allows the current thread to pin a single
+ * {@link PropertySnapshot} of another {@link SnapshotPropertyResolver}
+ * so that every lookup made by that thread sees the same version, even
+ * if the underlying resolver is reloaded part way through.
+ *
+ * <p>
+ *     Threads that have not pinned a snapshot always see the latest one.
+ * </p>
+<pre>
+    resolver.pin();
+    try {
+        // all lookups on this thread use the same snapshot
+    } finally {
+        resolver.unpin();
+    }
+</pre>
+ */
+public class PinnablePropertyResolver implements SnapshotPropertyResolver {
+
+    private final SnapshotPropertyResolver delegate;
+    private final ThreadLocal<PropertySnapshot> pinnedSnapshot = new ThreadLocal<>();
+
+    /**
+     * Create a new property resolver
+     * @param delegate the resolver whose snapshots should be pinned
+     */
+    public PinnablePropertyResolver(SnapshotPropertyResolver delegate) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("SnapshotPropertyResolver must not be null");
+        }
+        this.delegate = delegate;
+    }
+
+    /**
+     * Pin the latest snapshot for the current thread, replacing any
+     * snapshot that was already pinned.
+     * @return the pinned snapshot
+     */
+    public PropertySnapshot pin() {
+        final PropertySnapshot snapshot = delegate.getSnapshot();
+        pinnedSnapshot.set(snapshot);
+        return snapshot;
+    }
+
+    /**
+     * Release the snapshot pinned for the current thread, if there is one.
+     */
+    public void unpin() {
+        pinnedSnapshot.remove();
+    }
+
+    /**
+     * @return the latest snapshot of the underlying resolver, ignoring any pin
+     */
+    public PropertySnapshot getLatestSnapshot() {
+        return delegate.getSnapshot();
+    }
+
+    /**
+     * @return the snapshot pinned for the current thread, or the
+     *         latest snapshot if nothing has been pinned
+     */
+    @Override
+    public PropertySnapshot getSnapshot() {
+        final PropertySnapshot snapshot = pinnedSnapshot.get();
+        return snapshot != null ? snapshot : delegate.getSnapshot();
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * ISC License Copyright (c) 2004-2010 by Internet Systems Consortium, Inc. ("ISC")
+ *
+ * Copyright (c) 2021 by Jamie Redding
+ *
+ * Permission to use, copy, modify, and /or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above copyright
+ * notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND ISC DISCLAIMS ALL WARRANTIES WITH REGARD
+ * TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS.
+ * IN NO EVENT SHALL ISC BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL
+ * DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS,
+ * WHETHER IN AN ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING
+ * OUT OF OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package dev.coldhands.jersey.properties.core.resolver;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+
+/**
+ * Registered {@link PropertyChangeListener} instances for a single
+ * {@link ReloadablePropertyResolver}.
+ */
+final class PropertyChangeListeners {
+
+    private final List<Registration> registrations = new CopyOnWriteArrayList<>();
+
+    Subscription add(String prefix, PropertyChangeListener listener, Executor executor) {
+        checkNotNull(prefix, "Prefix");
+        checkNotNull(listener, "PropertyChangeListener");
+        checkNotNull(executor, "Executor");
+        final var registration = new Registration(prefix, listener, executor);
+        registrations.add(registration);
+        return () -> registrations.remove(registration);
+    }
+
+    void notify(PropertyChanges changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        for (Registration registration : registrations) {
+            final PropertyChanges matchingChanges = changes.withPrefix(registration.prefix);
+            if (!matchingChanges.isEmpty()) {
+                registration.executor.execute(() -> {
+                    try {
+                        registration.listener.onChange(matchingChanges);
+                    } catch (RuntimeException e) {
+                        final Thread thread = Thread.currentThread();
+                        thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+                    }
+                });
+            }
+        }
+    }
+
+    private static void checkNotNull(Object object, String type) {
+        if (object == null) {
+            throw new IllegalArgumentException(type + " must not be null");
+        }
+    }
+
+    private static final class Registration {
+        private final String prefix;
+        private final PropertyChangeListener listener;
+        private final Executor executor;
+
+        private Registration(String prefix, PropertyChangeListener listener, Executor executor) {
+            this.prefix = prefix;
+            this.listener = listener;
+            this.executor = executor;
+        }
+    }
+}
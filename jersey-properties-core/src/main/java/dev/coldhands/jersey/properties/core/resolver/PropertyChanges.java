@@ -0,0 +1,154 @@
+/*
+ * ISC License Copyright (c) 2004-2010 by Internet Systems Consortium, Inc. ("ISC")
+ *
+ * Copyright (c) 2021 by Jamie Redding
+ *
+ * Permission to use, copy, modify, and /or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above copyright
+ * notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND ISC DISCLAIMS ALL WARRANTIES WITH REGARD
+ * TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS.
+ * IN NO EVENT SHALL ISC BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL
+ * DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS,
+ * WHETHER IN AN ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING
+ * OUT OF OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package dev.coldhands.jersey.properties.core.resolver;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The difference between two {@link PropertySnapshot} versions, split
+ * into properties that were added, removed and changed.
+ */
+public final class PropertyChanges {
+
+    private final PropertySnapshot previousSnapshot;
+    private final PropertySnapshot currentSnapshot;
+    private final Set<String> added;
+    private final Set<String> removed;
+    private final Set<String> changed;
+
+    private PropertyChanges(PropertySnapshot previousSnapshot, PropertySnapshot currentSnapshot,
+                            Set<String> added, Set<String> removed, Set<String> changed) {
+        this.previousSnapshot = previousSnapshot;
+        this.currentSnapshot = currentSnapshot;
+        this.added = Collections.unmodifiableSet(added);
+        this.removed = Collections.unmodifiableSet(removed);
+        this.changed = Collections.unmodifiableSet(changed);
+    }
+
+    /**
+     * Compute the changes between two snapshots.
+     * <p>
+     *     Values are compared by identity first and then by their cached
+     *     hash codes, so only values whose hashes collide are compared
+     *     character by character.
+     * </p>
+     * @param previousSnapshot the older snapshot
+     * @param currentSnapshot the newer snapshot
+     * @return the changes
+     */
+    public static PropertyChanges between(PropertySnapshot previousSnapshot, PropertySnapshot currentSnapshot) {
+        final Set<String> added = new HashSet<>();
+        final Set<String> removed = new HashSet<>();
+        final Set<String> changed = new HashSet<>();
+
+        if (previousSnapshot != currentSnapshot) {
+            final Map<String, String> previous = previousSnapshot.asMap();
+            final Map<String, String> current = currentSnapshot.asMap();
+
+            current.forEach((name, value) -> {
+                final String previousValue = previous.get(name);
+                if (previousValue == null) {
+                    added.add(name);
+                } else if (!sameValue(previousValue, value)) {
+                    changed.add(name);
+                }
+            });
+            if (previous.size() + added.size() != current.size()) {
+                previous.keySet().forEach(name -> {
+                    if (!current.containsKey(name)) {
+                        removed.add(name);
+                    }
+                });
+            }
+        }
+
+        return new PropertyChanges(previousSnapshot, currentSnapshot, added, removed, changed);
+    }
+
+    private static boolean sameValue(String previousValue, String value) {
+        return previousValue == value
+                || (previousValue.hashCode() == value.hashCode() && previousValue.equals(value));
+    }
+
+    /**
+     * @param prefix the prefix that property names must start with
+     * @return only the changes to properties whose names start with the prefix
+     */
+    public PropertyChanges withPrefix(String prefix) {
+        if (prefix.isEmpty()) {
+            return this;
+        }
+        return new PropertyChanges(previousSnapshot, currentSnapshot,
+                filter(added, prefix), filter(removed, prefix), filter(changed, prefix));
+    }
+
+    private static Set<String> filter(Set<String> names, String prefix) {
+        final Set<String> filtered = new HashSet<>();
+        for (String name : names) {
+            if (name.startsWith(prefix)) {
+                filtered.add(name);
+            }
+        }
+        return filtered;
+    }
+
+    /**
+     * @return true if no properties were added, removed or changed
+     */
+    public boolean isEmpty() {
+        return added.isEmpty() && removed.isEmpty() && changed.isEmpty();
+    }
+
+    /**
+     * @return the names of properties that only exist in the current snapshot
+     */
+    public Set<String> getAdded() {
+        return added;
+    }
+
+    /**
+     * @return the names of properties that only exist in the previous snapshot
+     */
+    public Set<String> getRemoved() {
+        return removed;
+    }
+
+    /**
+     * @return the names of properties whose values differ between the snapshots
+     */
+    public Set<String> getChanged() {
+        return changed;
+    }
+
+    /**
+     * @return the snapshot before the changes, used to look up old values
+     */
+    public PropertySnapshot getPreviousSnapshot() {
+        return previousSnapshot;
+    }
+
+    /**
+     * @return the snapshot after the changes, used to look up new values
+     */
+    public PropertySnapshot getCurrentSnapshot() {
+        return currentSnapshot;
+    }
+}
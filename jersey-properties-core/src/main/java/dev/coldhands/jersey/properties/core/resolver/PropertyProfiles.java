@@ -0,0 +1,118 @@
+/*
+ * ISC License Copyright (c) 2004-2010 by Internet Systems Consortium, Inc. ("ISC")
+ *
+ * Copyright (c) 2021 by Jamie Redding
+ *
+ * Permission to use, copy, modify, and /or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above copyright
+ * notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND ISC DISCLAIMS ALL WARRANTIES WITH REGARD
+ * TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS.
+ * IN NO EVENT SHALL ISC BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL
+ * DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS,
+ * WHETHER IN AN ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING
+ * OUT OF OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package dev.coldhands.jersey.properties.core.resolver;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Resolves profile-qualified property names into a single flat view.
+ *
+ * <p>
+ *     A property can be qualified with a profile either as a prefix,
+ *     <code>%prod.db.url</code>, or as a suffix, <code>db.url[prod]</code>.
+ *     Qualified properties for the active profile replace the unqualified
+ *     property of the same name and qualified properties for any other
+ *     profile are dropped.
+ * </p>
+ * <p>
+ *     A <code>[name]</code> suffix is only treated as a profile when
+ *     <code>name</code> is a known profile, that is the active profile or one
+ *     used as a <code>%name.</code> prefix elsewhere in the properties. Other
+ *     bracketed names, such as <code>servers[0]</code>, are kept as written.
+ *     If a property is qualified for the active profile both ways the
+ *     prefixed form wins.
+ * </p>
+ */
+final class PropertyProfiles {
+
+    private static final char PREFIX_MARKER = '%';
+    private static final char SUFFIX_START = '[';
+    private static final char SUFFIX_END = ']';
+
+    private PropertyProfiles() {
+    }
+
+    static Map<String, String> flatten(Map<String, String> properties, String activeProfile) {
+        final Set<String> knownProfiles = knownProfiles(properties.keySet(), activeProfile);
+        final Map<String, String> flattened = new HashMap<>(properties.size());
+        final Map<String, String> prefixedProperties = new HashMap<>();
+        final Map<String, String> suffixedProperties = new HashMap<>();
+
+        properties.forEach((name, value) -> {
+            final int prefixEnd = prefixedProfileEnd(name);
+            if (prefixEnd > 0) {
+                if (name.regionMatches(1, activeProfile, 0, prefixEnd - 1) && prefixEnd - 1 == activeProfile.length()) {
+                    prefixedProperties.put(name.substring(prefixEnd + 1), value);
+                }
+                return;
+            }
+            final int suffixStart = suffixedProfileStart(name);
+            if (suffixStart > 0) {
+                final String profile = name.substring(suffixStart + 1, name.length() - 1);
+                if (knownProfiles.contains(profile)) {
+                    if (profile.equals(activeProfile)) {
+                        suffixedProperties.put(name.substring(0, suffixStart), value);
+                    }
+                    return;
+                }
+            }
+            flattened.put(name, value);
+        });
+
+        flattened.putAll(suffixedProperties);
+        flattened.putAll(prefixedProperties);
+        return flattened;
+    }
+
+    private static Set<String> knownProfiles(Set<String> names, String activeProfile) {
+        final Set<String> knownProfiles = new HashSet<>();
+        knownProfiles.add(activeProfile);
+        for (String name : names) {
+            final int prefixEnd = prefixedProfileEnd(name);
+            if (prefixEnd > 0) {
+                knownProfiles.add(name.substring(1, prefixEnd));
+            }
+        }
+        return knownProfiles;
+    }
+
+    /**
+     * @return the index of the '.' ending a <code>%profile.</code> prefix, or -1
+     */
+    private static int prefixedProfileEnd(String name) {
+        if (name.length() < 3 || name.charAt(0) != PREFIX_MARKER) {
+            return -1;
+        }
+        final int dot = name.indexOf('.');
+        return dot > 1 && dot < name.length() - 1 ? dot : -1;
+    }
+
+    /**
+     * @return the index of the '[' starting a <code>[profile]</code> suffix, or -1
+     */
+    private static int suffixedProfileStart(String name) {
+        if (name.length() < 4 || name.charAt(name.length() - 1) != SUFFIX_END) {
+            return -1;
+        }
+        final int start = name.lastIndexOf(SUFFIX_START);
+        return start > 0 && start < name.length() - 2 ? start : -1;
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * ISC License Copyright (c) 2004-2010 by Internet Systems Consortium, Inc. ("ISC")
+ *
+ * Copyright (c) 2021 by Jamie Redding
+ *
+ * Permission to use, copy, modify, and /or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above copyright
+ * notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND ISC DISCLAIMS ALL WARRANTIES WITH REGARD
+ * TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS.
+ * IN NO EVENT SHALL ISC BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL
+ * DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS,
+ * WHETHER IN AN ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING
+ * OUT OF OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package dev.coldhands.jersey.properties.core.resolver;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An immutable view of every property held by a {@link SnapshotPropertyResolver}
+ * at a point in time.
+ *
+ * <p>
+ *     Each time the properties of a resolver change, it publishes a new
+ *     snapshot with a higher version.
+ * </p>
+ */
+public final class PropertySnapshot implements PropertyResolver {
+
+    private final Map<String, String> properties;
+    private final long version;
+
+    private PropertySnapshot(Map<String, String> properties, long version) {
+        this.properties = properties;
+        this.version = version;
+    }
+
+    /**
+     * Create a new snapshot.
+     * @param properties the properties in this snapshot, which are copied
+     * @param version the version of this snapshot
+     * @return the new snapshot
+     */
+    public static PropertySnapshot of(Map<String, String> properties, long version) {
+        if (properties == null) {
+            throw new IllegalArgumentException("Properties must not be null");
+        }
+        return new PropertySnapshot(Map.copyOf(properties), version);
+    }
+
+    @Override
+    public String getProperty(String propertyName) {
+        return properties.get(propertyName);
+    }
+
+    /**
+     * @return the version of this snapshot, higher versions are newer
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return the names of all properties in this snapshot
+     */
+    public Set<String> getPropertyNames() {
+        return properties.keySet();
+    }
+
+    /**
+     * @return an immutable map of all properties in this snapshot
+     */
+    public Map<String, String> asMap() {
+        return properties;
+    }
+}
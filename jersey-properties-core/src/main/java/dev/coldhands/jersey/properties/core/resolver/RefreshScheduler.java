@@ -0,0 +1,319 @@
+/*
+ * ISC License Copyright (c) 2004-2010 by Internet Systems Consortium, Inc. ("ISC")
+ *
+ * Copyright (c) 2021 by Jamie Redding
+ *
+ * Permission to use, copy, modify, and /or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above copyright
+ * notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND ISC DISCLAIMS ALL WARRANTIES WITH REGARD
+ * TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS.
+ * IN NO EVENT SHALL ISC BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL
+ * DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS,
+ * WHETHER IN AN ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING
+ * OUT OF OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package dev.coldhands.jersey.properties.core.resolver;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * RefreshScheduler periodically reloads any number of
+ * {@link ReloadablePropertyResolver} instances using one shared pool of threads.
+ *
+ * <p>
+ *     Each refresh interval is jittered so that resolvers registered together
+ *     do not all reload at the same moment. When a reload fails, the delay
+ *     before the next attempt doubles with each consecutive failure, up to a
+ *     maximum, and returns to the normal interval after a success. A refresh
+ *     requested while one is already running for the same resolver is
+ *     coalesced into the running one.
+ * </p>
+<pre>
+    var scheduler = RefreshScheduler.builder().build().registerShutdownHook();
+    var registration = scheduler.register(resolver, Duration.ofSeconds(30));
+    registration.getStatistics().getLastRefreshDuration();
+</pre>
+ */
+public class RefreshScheduler implements Closeable {
+
+    private final ScheduledExecutorService executor;
+    private final boolean ownsExecutor;
+    private final double jitter;
+    private final Duration maxBackoff;
+    private final Set<Registration> registrations = ConcurrentHashMap.newKeySet();
+    private volatile boolean closed;
+
+    private RefreshScheduler(Builder builder) {
+        if (builder.executor != null) {
+            this.executor = builder.executor;
+            this.ownsExecutor = false;
+        } else {
+            final var threadNumber = new AtomicInteger();
+            this.executor = Executors.newScheduledThreadPool(builder.threads, runnable -> {
+                final var thread = new Thread(runnable, "jersey-properties-refresh-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.ownsExecutor = true;
+        }
+        this.jitter = builder.jitter;
+        this.maxBackoff = builder.maxBackoff;
+    }
+
+    /**
+     * Factory method for creating a {@link RefreshScheduler}.
+     * @return a new {@link Builder} instance
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Periodically reload a resolver. The first reload happens after one interval.
+     * @param resolver the resolver to reload
+     * @param interval the time between the end of one reload and the start of the next
+     * @return a registration used to refresh on demand, read statistics or stop refreshing
+     */
+    public RefreshRegistration register(ReloadablePropertyResolver resolver, Duration interval) {
+        checkNotNull(resolver, "ReloadablePropertyResolver");
+        checkNotNull(interval, "Interval");
+        if (interval.isNegative() || interval.isZero()) {
+            throw new IllegalArgumentException("Interval must be positive");
+        }
+        if (closed) {
+            throw new IllegalStateException("RefreshScheduler has been closed");
+        }
+        final var registration = new Registration(resolver, interval);
+        registrations.add(registration);
+        registration.scheduleNext();
+        return registration;
+    }
+
+    /**
+     * Close this scheduler when the JVM shuts down.
+     * @return this scheduler
+     */
+    public RefreshScheduler registerShutdownHook() {
+        Runtime.getRuntime().addShutdownHook(new Thread(this::close, "jersey-properties-refresh-shutdown"));
+        return this;
+    }
+
+    /**
+     * Stop all refreshes. Refreshes that are already running are allowed to
+     * finish, and if this scheduler created its own threads they are shut down.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        registrations.forEach(Registration::cancel);
+        if (ownsExecutor) {
+            executor.shutdown();
+        }
+    }
+
+    long nextDelayNanos(Duration interval, int consecutiveFailures) {
+        final long intervalNanos = interval.toNanos();
+        long delay = intervalNanos;
+        if (consecutiveFailures > 0) {
+            final long maxBackoffNanos = Math.max(intervalNanos, maxBackoff.toNanos());
+            final int doublings = Math.min(consecutiveFailures, 62);
+            delay = intervalNanos > (maxBackoffNanos >> doublings)
+                    ? maxBackoffNanos
+                    : intervalNanos << doublings;
+        }
+        if (jitter > 0) {
+            final double factor = 1 + jitter * (2 * ThreadLocalRandom.current().nextDouble() - 1);
+            delay = (long) (delay * factor);
+        }
+        return Math.max(1, delay);
+    }
+
+    private static void checkNotNull(Object object, String type) {
+        if (object == null) {
+            throw new IllegalArgumentException(type + " must not be null");
+        }
+    }
+
+    /**
+     * Handle for a resolver registered with a {@link RefreshScheduler}.
+     */
+    public interface RefreshRegistration extends Subscription {
+
+        /**
+         * Refresh the resolver as soon as possible. If a refresh is already
+         * running, no new one is started and its result is returned instead.
+         * @return a future completed when the refresh finishes, exceptionally
+         *         if the reload failed
+         */
+        CompletableFuture<Void> refreshNow();
+
+        /**
+         * @return the statistics of refreshes performed so far
+         */
+        RefreshStatistics getStatistics();
+    }
+
+    private final class Registration implements RefreshRegistration {
+
+        private final ReloadablePropertyResolver resolver;
+        private final Duration interval;
+        private final AtomicReference<CompletableFuture<Void>> inFlight = new AtomicReference<>();
+        private volatile RefreshStatistics statistics = new RefreshStatistics(0, 0, 0, Duration.ZERO, null);
+        private volatile ScheduledFuture<?> scheduled;
+        private volatile boolean cancelled;
+
+        private Registration(ReloadablePropertyResolver resolver, Duration interval) {
+            this.resolver = resolver;
+            this.interval = interval;
+        }
+
+        @Override
+        public CompletableFuture<Void> refreshNow() {
+            final var refresh = new CompletableFuture<Void>();
+            final CompletableFuture<Void> running = inFlight.compareAndExchange(null, refresh);
+            if (running != null) {
+                return running;
+            }
+            try {
+                executor.execute(() -> refresh(refresh));
+            } catch (RejectedExecutionException e) {
+                inFlight.set(null);
+                refresh.completeExceptionally(e);
+            }
+            return refresh;
+        }
+
+        @Override
+        public RefreshStatistics getStatistics() {
+            return statistics;
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            registrations.remove(this);
+            final ScheduledFuture<?> next = scheduled;
+            if (next != null) {
+                next.cancel(false);
+            }
+        }
+
+        private void refresh(CompletableFuture<Void> refresh) {
+            final long start = System.nanoTime();
+            Throwable failure = null;
+            try {
+                resolver.reload();
+            } catch (Throwable e) {
+                // errors are caught too, otherwise the future never completes and periodic refreshes stop
+                failure = e;
+            } finally {
+                try {
+                    final Duration duration = Duration.ofNanos(System.nanoTime() - start);
+                    final RefreshStatistics previous = statistics;
+                    statistics = failure == null
+                            ? new RefreshStatistics(previous.getRefreshCount() + 1, previous.getFailureCount(), 0, duration, previous.getLastFailure())
+                            : new RefreshStatistics(previous.getRefreshCount() + 1, previous.getFailureCount() + 1,
+                            previous.getConsecutiveFailures() + 1, duration, failure);
+                } finally {
+                    inFlight.set(null);
+                    if (failure == null) {
+                        refresh.complete(null);
+                    } else {
+                        refresh.completeExceptionally(failure);
+                    }
+                }
+            }
+            if (failure instanceof VirtualMachineError) {
+                throw (VirtualMachineError) failure;
+            }
+        }
+
+        private void scheduleNext() {
+            if (cancelled || closed) {
+                return;
+            }
+            try {
+                scheduled = executor.schedule(
+                        () -> refreshNow().whenComplete((ignored, failure) -> scheduleNext()),
+                        nextDelayNanos(interval, statistics.getConsecutiveFailures()),
+                        TimeUnit.NANOSECONDS);
+            } catch (RejectedExecutionException e) {
+                // the executor has been shut down so there is nothing left to schedule
+            }
+        }
+    }
+
+    public static class Builder {
+
+        private int threads = 1;
+        private double jitter = 0.1;
+        private Duration maxBackoff = Duration.ofMinutes(5);
+        private ScheduledExecutorService executor;
+
+        private Builder() {
+        }
+
+        /**
+         * Configure the number of threads used to reload resolvers, defaults to 1.
+         * @param threads the number of threads
+         * @return this builder
+         */
+        public Builder withThreads(int threads) {
+            if (threads < 1) {
+                throw new IllegalArgumentException("Threads must be at least 1");
+            }
+            this.threads = threads;
+            return this;
+        }
+
+        /**
+         * Configure how much each delay is randomly varied by, as a fraction of
+         * the delay, defaults to 0.1 which varies each delay by up to 10%.
+         * @param jitter the fraction between 0 and 1
+         * @return this builder
+         */
+        public Builder withJitter(double jitter) {
+            if (jitter < 0 || jitter > 1) {
+                throw new IllegalArgumentException("Jitter must be between 0 and 1");
+            }
+            this.jitter = jitter;
+            return this;
+        }
+
+        /**
+         * Configure the longest delay between retries after repeated failures,
+         * defaults to 5 minutes.
+         * @param maxBackoff the maximum delay
+         * @return this builder
+         */
+        public Builder withMaxBackoff(Duration maxBackoff) {
+            checkNotNull(maxBackoff, "Max backoff");
+            this.maxBackoff = maxBackoff;
+            return this;
+        }
+
+        /**
+         * Configure an executor to run refreshes on instead of creating one. The
+         * executor is not shut down when the scheduler is closed.
+         * @param executor the executor to use
+         * @return this builder
+         */
+        public Builder withExecutor(ScheduledExecutorService executor) {
+            checkNotNull(executor, "ScheduledExecutorService");
+            this.executor = executor;
+            return this;
+        }
+
+        public RefreshScheduler build() {
+            return new RefreshScheduler(this);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * ISC License Copyright (c) 2004-2010 by Internet Systems Consortium, Inc. ("ISC")
+ *
+ * Copyright (c) 2021 by Jamie Redding
+ *
+ * Permission to use, copy, modify, and /or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above copyright
+ * notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND ISC DISCLAIMS ALL WARRANTIES WITH REGARD
+ * TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS.
+ * IN NO EVENT SHALL ISC BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL
+ * DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS,
+ * WHETHER IN AN ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING
+ * OUT OF OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package dev.coldhands.jersey.properties.core.resolver;
+
+import java.time.Duration;
+
+/**
+ * Timings and outcomes of the refreshes performed for a single
+ * resolver registered with a {@link RefreshScheduler}.
+ */
+public final class RefreshStatistics {
+
+    private final long refreshCount;
+    private final long failureCount;
+    private final int consecutiveFailures;
+    private final Duration lastRefreshDuration;
+    private final Throwable lastFailure;
+
+    RefreshStatistics(long refreshCount, long failureCount, int consecutiveFailures,
+                      Duration lastRefreshDuration, Throwable lastFailure) {
+        this.refreshCount = refreshCount;
+        this.failureCount = failureCount;
+        this.consecutiveFailures = consecutiveFailures;
+        this.lastRefreshDuration = lastRefreshDuration;
+        this.lastFailure = lastFailure;
+    }
+
+    /**
+     * @return the number of refreshes attempted, successful or not
+     */
+    public long getRefreshCount() {
+        return refreshCount;
+    }
+
+    /**
+     * @return the number of refreshes that failed
+     */
+    public long getFailureCount() {
+        return failureCount;
+    }
+
+    /**
+     * @return the number of refreshes that have failed since the last success
+     */
+    public int getConsecutiveFailures() {
+        return consecutiveFailures;
+    }
+
+    /**
+     * @return how long the most recent refresh took, {@link Duration#ZERO}
+     *         if no refresh has happened yet
+     */
+    public Duration getLastRefreshDuration() {
+        return lastRefreshDuration;
+    }
+
+    /**
+     * @return the exception or error thrown by the most recent failed refresh, or null
+     */
+    public Throwable getLastFailure() {
+        return lastFailure;
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * ISC License Copyright (c) 2004-2010 by Internet Systems Consortium, Inc. ("ISC")
+ *
+ * Copyright (c) 2021 by Jamie Redding
+ *
+ * Permission to use, copy, modify, and /or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above copyright
+ * notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND ISC DISCLAIMS ALL WARRANTIES WITH REGARD
+ * TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS.
+ * IN NO EVENT SHALL ISC BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL
+ * DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS,
+ * WHETHER IN AN ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING
+ * OUT OF OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package dev.coldhands.jersey.properties.core.resolver;
+
+import java.io.IOException;
+import java.util.concurrent.Executor;
+
+/**
+ * A {@link SnapshotPropertyResolver} whose properties can be reloaded
+ * from their source and that notifies listeners of what changed.
+ */
+public interface ReloadablePropertyResolver extends SnapshotPropertyResolver {
+
+    /**
+     * Read the properties from their source again and, if anything changed,
+     * publish a new {@link PropertySnapshot} and notify listeners.
+     * @throws IOException if unable to read the properties
+     */
+    void reload() throws IOException;
+
+    /**
+     * Register a listener for changes to any property. The listener is
+     * called on the thread that performed the reload.
+     * @param listener the listener to notify
+     * @return a subscription that can be used to remove the listener
+     */
+    default Subscription addChangeListener(PropertyChangeListener listener) {
+        return addChangeListener("", listener);
+    }
+
+    /**
+     * Register a listener for changes to properties whose names start with
+     * a prefix. The listener is called on the thread that performed the reload.
+     * @param prefix the prefix that property names must start with
+     * @param listener the listener to notify
+     * @return a subscription that can be used to remove the listener
+     */
+    default Subscription addChangeListener(String prefix, PropertyChangeListener listener) {
+        return addChangeListener(prefix, listener, Runnable::run);
+    }
+
+    /**
+     * Register a listener for changes to properties whose names start with
+     * a prefix. The listener is only notified if at least one matching
+     * property changed.
+     * @param prefix the prefix that property names must start with
+     * @param listener the listener to notify
+     * @param executor the executor to call the listener on
+     * @return a subscription that can be used to remove the listener
+     */
+    Subscription addChangeListener(String prefix, PropertyChangeListener listener, Executor executor);
+}
@@ -0,0 +1,41 @@
+/*
+ * ISC License Copyright (c) 2004-2010 by Internet Systems Consortium, Inc. ("ISC")
+ *
+ * Copyright (c) 2021 by Jamie Redding
+ *
+ * Permission to use, copy, modify, and /or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above copyright
+ * notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND ISC DISCLAIMS ALL WARRANTIES WITH REGARD
+ * TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS.
+ * IN NO EVENT SHALL ISC BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL
+ * DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS,
+ * WHETHER IN AN ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING
+ * OUT OF OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package dev.coldhands.jersey.properties.core.resolver;
+
+/**
+ * A {@link PropertyResolver} whose properties can be captured as
+ * an immutable {@link PropertySnapshot}.
+ *
+ * <p>
+ *     Reading several properties from the same snapshot guarantees they
+ *     are consistent with each other, even if the resolver changes
+ *     in the meantime.
+ * </p>
+ */
+public interface SnapshotPropertyResolver extends PropertyResolver {
+
+    /**
+     * @return the latest snapshot of this resolver's properties
+     */
+    PropertySnapshot getSnapshot();
+
+    @Override
+    default String getProperty(String propertyName) {
+        return getSnapshot().getProperty(propertyName);
+    }
+}
@@ -0,0 +1,241 @@
+/*
+ * ISC License Copyright (c) 2004-2010 by Internet Systems Consortium, Inc. ("ISC")
+ *
+ * Copyright (c) 2021 by Jamie Redding
+ *
+ * Permission to use, copy, modify, and /or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above copyright
+ * notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND ISC DISCLAIMS ALL WARRANTIES WITH REGARD
+ * TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS.
+ * IN NO EVENT SHALL ISC BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL
+ * DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS,
+ * WHETHER IN AN ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING
+ * OUT OF OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package dev.coldhands.jersey.properties.core.resolver;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * TenantPropertyResolvers provides a {@link PropertyResolver} per tenant where
+ * each tenant only holds the properties it overrides and shares a single base
+ * {@link PropertyResolver} for everything else.
+ *
+ * <p>
+ *     A tenant lookup is at most two hash probes before falling back to the
+ *     base resolver: one to find the tenant's current overrides and one into
+ *     them. The approximate heap used by each tenant's overrides can be read
+ *     with {@link #estimateMemoryUsage(String)}.
+ * </p>
+ * <p>
+ *     Only tenants with at least one override are tracked, so reads with
+ *     arbitrary tenant ids do not grow the set of tenants. A resolver returned
+ *     by {@link #forTenant(String)} finds the tenant's overrides on every lookup,
+ *     so it sees overrides set, changed or removed after it was returned.
+ * </p>
+<pre>
+    var tenants = new TenantPropertyResolvers(new FileBasedPropertyResolver(path));
+    tenants.setOverrides("acme", Map.of("rate.limit", "100"));
+    PropertyResolver acme = tenants.forTenant("acme");
+</pre>
+ */
+public class TenantPropertyResolvers {
+
+    private static final long TENANT_OVERHEAD_BYTES = 64;
+    private static final long ENTRY_OVERHEAD_BYTES = 16;
+    private static final long STRING_OVERHEAD_BYTES = 40;
+
+    private final PropertyResolver baseResolver;
+    private final Map<String, TenantOverrides> tenants = new ConcurrentHashMap<>();
+
+    /**
+     * Create a new set of tenant resolvers
+     * @param baseResolver the resolver shared by every tenant
+     */
+    public TenantPropertyResolvers(PropertyResolver baseResolver) {
+        if (baseResolver == null) {
+            throw new IllegalArgumentException("PropertyResolver must not be null");
+        }
+        this.baseResolver = baseResolver;
+    }
+
+    /**
+     * Get the {@link PropertyResolver} for a tenant. The resolver reflects
+     * later changes to that tenant's overrides, including overrides set after
+     * it was returned or after the tenant was removed. Getting a resolver does
+     * not track the tenant.
+     * @param tenantId the id of the tenant
+     * @return the resolver for that tenant
+     */
+    public PropertyResolver forTenant(String tenantId) {
+        checkTenantId(tenantId);
+        return new TenantPropertyResolver(tenantId);
+    }
+
+    /**
+     * Replace all overrides for a tenant. Setting no overrides
+     * forgets the tenant, as with {@link #removeTenant(String)}.
+     * @param tenantId the id of the tenant
+     * @param overrides the properties that should differ from the base resolver
+     */
+    public void setOverrides(String tenantId, Map<String, String> overrides) {
+        final Map<String, String> newOverrides = Map.copyOf(overrides);
+        updateTenant(tenantId, existing -> newOverrides);
+    }
+
+    /**
+     * Apply a batch of changes to a tenant's overrides so that readers
+     * either see all of them or none of them. If no overrides are left
+     * afterwards the tenant is forgotten, as with {@link #removeTenant(String)}.
+     * @param tenantId the id of the tenant
+     * @param changes callback used to describe the overrides to apply
+     */
+    public void updateOverrides(String tenantId, Consumer<PropertyUpdates> changes) {
+        final var pendingUpdates = new PendingUpdates();
+        changes.accept(pendingUpdates);
+        if (pendingUpdates.isEmpty()) {
+            return;
+        }
+        updateTenant(tenantId, existing -> apply(existing, pendingUpdates));
+    }
+
+    /**
+     * @param tenantId the id of the tenant
+     * @return an immutable view of the tenant's overrides, empty
+     *         if the tenant is not known
+     */
+    public Map<String, String> getOverrides(String tenantId) {
+        final TenantOverrides tenant = tenants.get(tenantId);
+        return tenant == null ? Map.of() : tenant.overrides;
+    }
+
+    /**
+     * Forget a tenant. Resolvers previously returned for the tenant
+     * fall back to only using the base resolver.
+     * @param tenantId the id of the tenant
+     */
+    public void removeTenant(String tenantId) {
+        updateTenant(tenantId, existing -> Map.of());
+    }
+
+    /**
+     * @return the ids of all tenants that have overrides
+     */
+    public Set<String> getTenantIds() {
+        return Set.copyOf(tenants.keySet());
+    }
+
+    /**
+     * Estimate the heap used by a tenant's overrides. This is an approximation
+     * based on typical object layouts and does not include the shared base resolver.
+     * @param tenantId the id of the tenant
+     * @return the estimated number of bytes, or zero if the tenant is not known
+     */
+    public long estimateMemoryUsage(String tenantId) {
+        final TenantOverrides tenant = tenants.get(tenantId);
+        return tenant == null ? 0 : tenant.estimatedBytes;
+    }
+
+    /**
+     * @return the estimated number of bytes used by all tenants' overrides
+     */
+    public long estimateTotalMemoryUsage() {
+        long total = 0;
+        for (TenantOverrides tenant : tenants.values()) {
+            total += tenant.estimatedBytes;
+        }
+        return total;
+    }
+
+    /**
+     * Apply a change to a tenant atomically with adding it to, or
+     * removing it from, the known tenants, so a tenant is only
+     * tracked while it has overrides.
+     */
+    private void updateTenant(String tenantId, UnaryOperator<Map<String, String>> change) {
+        checkTenantId(tenantId);
+        tenants.compute(tenantId, (id, existing) -> {
+            final Map<String, String> newOverrides = change.apply(existing != null ? existing.overrides : Map.of());
+            return newOverrides.isEmpty() ? null : new TenantOverrides(newOverrides);
+        });
+    }
+
+    private static Map<String, String> apply(Map<String, String> overrides, PendingUpdates updates) {
+        final Map<String, String> newOverrides = new HashMap<>(overrides);
+        for (int i = 0; i < updates.size(); i++) {
+            final String value = updates.valueAt(i);
+            if (value == null) {
+                newOverrides.remove(updates.nameAt(i));
+            } else {
+                newOverrides.put(updates.nameAt(i), value);
+            }
+        }
+        return Map.copyOf(newOverrides);
+    }
+
+    private static void checkTenantId(String tenantId) {
+        if (tenantId == null) {
+            throw new IllegalArgumentException("Tenant id must not be null");
+        }
+    }
+
+    private static long estimateBytes(Map<String, String> overrides) {
+        long bytes = TENANT_OVERHEAD_BYTES;
+        for (Map.Entry<String, String> entry : overrides.entrySet()) {
+            bytes += ENTRY_OVERHEAD_BYTES + estimateBytes(entry.getKey()) + estimateBytes(entry.getValue());
+        }
+        return bytes;
+    }
+
+    private static long estimateBytes(String value) {
+        int bytesPerChar = 1;
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > 0xFF) {
+                bytesPerChar = 2;
+                break;
+            }
+        }
+        final long contentBytes = (long) value.length() * bytesPerChar;
+        return STRING_OVERHEAD_BYTES + ((contentBytes + 7) & ~7L);
+    }
+
+    private final class TenantPropertyResolver implements PropertyResolver {
+
+        private final String tenantId;
+
+        private TenantPropertyResolver(String tenantId) {
+            this.tenantId = tenantId;
+        }
+
+        @Override
+        public String getProperty(String propertyName) {
+            final TenantOverrides tenant = tenants.get(tenantId);
+            if (tenant != null) {
+                final String overriddenValue = tenant.overrides.get(propertyName);
+                if (overriddenValue != null) {
+                    return overriddenValue;
+                }
+            }
+            return baseResolver.getProperty(propertyName);
+        }
+    }
+
+    private static final class TenantOverrides {
+
+        private final Map<String, String> overrides;
+        private final long estimatedBytes;
+
+        private TenantOverrides(Map<String, String> overrides) {
+            this.overrides = overrides;
+            this.estimatedBytes = estimateBytes(overrides);
+        }
+    }
+}
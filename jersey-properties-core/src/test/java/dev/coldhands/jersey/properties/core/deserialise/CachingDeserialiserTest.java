@@ -0,0 +1,187 @@
+/*
+ * ISC License Copyright (c) 2004-2010 by Internet Systems Consortium, Inc. ("ISC")
+ *
+ * Copyright (c) 2021 by Jamie Redding
+ *
+ * Permission to use, copy, modify, and /or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above copyright
+ * notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND ISC DISCLAIMS ALL WARRANTIES WITH REGARD
+ * TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS.
+ * IN NO EVENT SHALL ISC BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL
+ * DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS,
+ * WHETHER IN AN ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING
+ * OUT OF OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package dev.coldhands.jersey.properties.core.deserialise;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.cert.X509Certificate;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CachingDeserialiserTest {
+
+    private static final String CERTIFICATE_PEM =
+            "-----BEGIN CERTIFICATE-----\n" +
+            "MIIBWzCCAQKgAwIBAgIJAK7Y1ghM3zaUMAoGCCqGSM49BAMCMCExHzAdBgNVBAMT\n" +
+            "FmplcnNleS1wcm9wZXJ0aWVzLXRlc3QwIBcNMjYxMDE4MjI0OTE4WhgPMjEyNjA5\n" +
+            "MjQyMjQ5MThaMCExHzAdBgNVBAMTFmplcnNleS1wcm9wZXJ0aWVzLXRlc3QwWTAT\n" +
+            "BgcqhkjOPQIBBggqhkjOPQMBBwNCAAQ7BqlCHZyYwW7Zp3g1C5ZQgVJ7fQ3mLoOC\n" +
+            "Hmce2fUJ6oJ3Frg+OiBz0w3CRSLWXgHWqE8SM0r4/2t2VN+xeADPoyEwHzAdBgNV\n" +
+            "HQ4EFgQUHFVpckBDz7uK6WnG3ot2rvlB4BwwCgYIKoZIzj0EAwIDRwAwRAIgbOJu\n" +
+            "STGU1OWkydPnWB3TyW7SQjiNjndBwOuAj+hjyAACIHnHGs8Qh6TPzpqY0EsbU/PX\n" +
+            "GdxKsDygpSyt45FjFMAU\n" +
+            "-----END CERTIFICATE-----\n";
+
+    @Test
+    void eachRawValueIsOnlyDeserialisedOnce() throws Exception {
+        final var calls = new AtomicInteger();
+        final CachingDeserialiser<Pattern> underTest = CachingDeserialiser.of(value -> {
+            calls.incrementAndGet();
+            return Pattern.compile(value);
+        });
+
+        final Pattern first = underTest.deserialise("a+b");
+        final Pattern second = underTest.deserialise("a+b");
+        underTest.deserialise("c*");
+
+        assertThat(first).isSameAs(second);
+        assertThat(calls).hasValue(2);
+        assertThat(underTest.size()).isEqualTo(2);
+    }
+
+    @Test
+    void failuresAreNotCached() {
+        final var calls = new AtomicInteger();
+        final CachingDeserialiser<Integer> underTest = CachingDeserialiser.of(value -> {
+            calls.incrementAndGet();
+            return Integer.parseInt(value);
+        });
+
+        assertThatThrownBy(() -> underTest.deserialise("x")).isInstanceOf(NumberFormatException.class);
+        assertThatThrownBy(() -> underTest.deserialise("x")).isInstanceOf(NumberFormatException.class);
+
+        assertThat(calls).hasValue(2);
+        assertThat(underTest.size()).isZero();
+    }
+
+    @Test
+    void whenCacheIsFull_thenItIsClearedBeforeAddingMore() throws Exception {
+        final CachingDeserialiser<String> underTest = CachingDeserialiser.of(String::trim);
+        for (int i = 0; i < CachingDeserialiser.MAXIMUM_SIZE; i++) {
+            underTest.deserialise(String.valueOf(i));
+        }
+        assertThat(underTest.size()).isEqualTo(CachingDeserialiser.MAXIMUM_SIZE);
+
+        underTest.deserialise("one more");
+
+        assertThat(underTest.size()).isEqualTo(1);
+    }
+
+    @Nested
+    class ExtendedRegistry {
+
+        private final PropertyDeserialiser underTest = PropertyDeserialiser.builder(Map.of(
+                "pattern", "^[a-z]+$",
+                "uri", "https://example.com/path?q=1",
+                "endpoint", "example.com:8443",
+                "ipv6Endpoint", "[::1]:8080",
+                "charset", "UTF-8",
+                "certificate", CERTIFICATE_PEM,
+                "key", Base64.getEncoder().encodeToString("secret".getBytes(StandardCharsets.US_ASCII)))::get)
+                .withDeserialiserRegistries(List.of(
+                        DeserialiserRegistry.defaultRegistry(),
+                        DeserialiserRegistry.extendedRegistry()))
+                .build();
+
+        @Test
+        void deserialiseExtendedTypes() throws PropertyException {
+            assertThat(underTest.deserialise("pattern", Pattern.class).matcher("abc").matches()).isTrue();
+            assertThat(underTest.deserialise("uri", URI.class)).isEqualTo(URI.create("https://example.com/path?q=1"));
+            assertThat(underTest.deserialise("charset", Charset.class)).isEqualTo(StandardCharsets.UTF_8);
+        }
+
+        @Test
+        void repeatedReadsReturnTheSameInstance() throws PropertyException {
+            assertThat(underTest.deserialise("pattern", Pattern.class))
+                    .isSameAs(underTest.deserialise("pattern", Pattern.class));
+            assertThat(underTest.deserialise("certificate", X509Certificate.class))
+                    .isSameAs(underTest.deserialise("certificate", X509Certificate.class));
+        }
+
+        @Test
+        void eachExtendedRegistryHasItsOwnCaches() throws PropertyException {
+            final var other = PropertyDeserialiser.builder(Map.of("pattern", "^[a-z]+$")::get)
+                    .withDeserialiserRegistries(List.of(DeserialiserRegistry.extendedRegistry()))
+                    .build();
+
+            assertThat(DeserialiserRegistry.extendedRegistry()).isNotSameAs(DeserialiserRegistry.extendedRegistry());
+            assertThat(other.deserialise("pattern", Pattern.class))
+                    .isNotSameAs(underTest.deserialise("pattern", Pattern.class));
+        }
+
+        @Test
+        void socketAddressesAreNotResolved() throws PropertyException {
+            final InetSocketAddress endpoint = underTest.deserialise("endpoint", InetSocketAddress.class);
+            final InetSocketAddress ipv6Endpoint = underTest.deserialise("ipv6Endpoint", InetSocketAddress.class);
+
+            assertThat(endpoint.isUnresolved()).isTrue();
+            assertThat(endpoint.getHostString()).isEqualTo("example.com");
+            assertThat(endpoint.getPort()).isEqualTo(8443);
+            assertThat(ipv6Endpoint.getHostString()).isEqualTo("::1");
+            assertThat(ipv6Endpoint.getPort()).isEqualTo(8080);
+        }
+
+        @Test
+        void invalidSocketAddressesAreRejected() {
+            assertThatThrownBy(() -> ExtendedDeserialisers.inetSocketAddress("example.com"))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Expected host:port but was: example.com");
+            assertThatThrownBy(() -> ExtendedDeserialisers.inetSocketAddress("::1:8080"))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("IPv6 addresses must be enclosed in [] but was: ::1:8080");
+            assertThatThrownBy(() -> ExtendedDeserialisers.inetSocketAddress("example.com:70000"))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+
+        @Test
+        void certificatesAreParsedFromPemOrBase64Der() throws Exception {
+            final X509Certificate fromPem = underTest.deserialise("certificate", X509Certificate.class);
+            final String der = Base64.getEncoder().encodeToString(fromPem.getEncoded());
+
+            assertThat(fromPem.getSubjectX500Principal().getName()).isEqualTo("CN=jersey-properties-test");
+            assertThat(ExtendedDeserialisers.x509Certificate(der)).isEqualTo(fromPem);
+        }
+
+        @Test
+        void base64BytesAreDecodedOnEachReadToReadOnlyBuffers() throws PropertyException {
+            final ByteBuffer first = underTest.deserialise("key", ByteBuffer.class);
+            final ByteBuffer second = underTest.deserialise("key", ByteBuffer.class);
+
+            first.get();
+
+            assertThat(first.isReadOnly()).isTrue();
+            assertThat(first.position()).isEqualTo(1);
+            assertThat(second.position()).isZero();
+            assertThat(StandardCharsets.US_ASCII.decode(second).toString()).isEqualTo("secret");
+            assertThatThrownBy(() -> first.put(0, (byte) 0)).isInstanceOf(ReadOnlyBufferException.class);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * ISC License Copyright (c) 2004-2010 by Internet Systems Consortium, Inc. ("ISC")
+ *
+ * Copyright (c) 2021 by Jamie Redding
+ *
+ * Permission to use, copy, modify, and /or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above copyright
+ * notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND ISC DISCLAIMS ALL WARRANTIES WITH REGARD
+ * TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS.
+ * IN NO EVENT SHALL ISC BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL
+ * DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS,
+ * WHETHER IN AN ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING
+ * OUT OF OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package dev.coldhands.jersey.properties.core.deserialise;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CharSequenceDeserialiserTest {
+
+    @Test
+    void asciiBytesAreReadInPlaceWithoutMovingTheBuffer() throws Exception {
+        final AtomicReference<CharSequence> received = new AtomicReference<>();
+        final CharSequenceDeserialiser<String> underTest = value -> {
+            received.set(value);
+            return value.toString();
+        };
+        final ByteBuffer buffer = ByteBuffer.wrap("key=value;".getBytes(StandardCharsets.US_ASCII));
+        buffer.position(4).limit(9);
+
+        assertThat(underTest.deserialise(buffer)).isEqualTo("value");
+        assertThat(received.get()).isNotInstanceOf(String.class);
+        assertThat(received.get().subSequence(1, 3)).hasToString("al");
+        assertThat(buffer.position()).isEqualTo(4);
+        assertThat(buffer.limit()).isEqualTo(9);
+    }
+
+    @Test
+    void nonAsciiBytesAreDecodedAsUtf8() throws Exception {
+        final CharSequenceDeserialiser<String> underTest = CharSequence::toString;
+        final ByteBuffer buffer = ByteBuffer.wrap("café".getBytes(StandardCharsets.UTF_8));
+
+        assertThat(underTest.deserialise(buffer)).isEqualTo("café");
+        assertThat(buffer.position()).isZero();
+    }
+
+    @Test
+    void directBuffersAreSupported() throws Exception {
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(8);
+        buffer.put("12345".getBytes(StandardCharsets.US_ASCII)).flip();
+
+        final CharSequenceDeserialiser<Integer> underTest = CharSequenceParsers::parseInt;
+
+        assertThat(underTest.deserialise(buffer)).isEqualTo(12345);
+    }
+
+    @Test
+    void adaptedDeserialisersReceiveAString() throws Exception {
+        final Deserialiser<Integer> deserialiser = Integer::parseInt;
+
+        final CharSequenceDeserialiser<Integer> underTest = CharSequenceDeserialiser.adapt(deserialiser);
+
+        assertThat(underTest.deserialise(new StringBuilder("42"))).isEqualTo(42);
+        assertThat(underTest.deserialise(ByteBuffer.wrap("7".getBytes(StandardCharsets.US_ASCII)))).isEqualTo(7);
+    }
+
+    @Test
+    void deserialisersThatAlreadySupportCharSequencesAreNotWrapped() {
+        final EnumDeserialiser<EnumMatching> deserialiser = new EnumDeserialiser<>(EnumMatching.class, EnumMatching.EXACT);
+
+        assertThat(CharSequenceDeserialiser.adapt(deserialiser)).isSameAs(deserialiser);
+    }
+
+    @Test
+    void whenAdaptingNull_thenThrowIllegalArgumentException() {
+        assertThatThrownBy(() -> CharSequenceDeserialiser.adapt(null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Deserialiser must not be null");
+    }
+
+    @Test
+    void charSequenceParsersMatchTheirStringEquivalents() throws Exception {
+        assertThat(CharSequenceParsers.INT.deserialise(new StringBuilder("-17"))).isEqualTo(-17);
+        assertThat(CharSequenceParsers.LONG.deserialise(new StringBuilder("9000000000"))).isEqualTo(9_000_000_000L);
+        assertThat(CharSequenceParsers.BOOLEAN.deserialise(new StringBuilder("TrUe"))).isTrue();
+        assertThat(CharSequenceParsers.BOOLEAN.deserialise(new StringBuilder("yes"))).isFalse();
+        assertThatThrownBy(() -> CharSequenceParsers.INT.deserialise(new StringBuilder("1x")))
+                .isInstanceOf(NumberFormatException.class);
+    }
+
+    @Test
+    void enumConstantsAreMatchedWithoutCreatingAString() {
+        final var exact = new EnumDeserialiser<>(EnumMatching.class, EnumMatching.EXACT);
+        final var relaxed = new EnumDeserialiser<>(EnumMatching.class, EnumMatching.RELAXED);
+
+        assertThat(exact.deserialise(new StringBuilder("CASE_INSENSITIVE"))).isEqualTo(EnumMatching.CASE_INSENSITIVE);
+        assertThat(relaxed.deserialise(new StringBuilder("case-insensitive"))).isEqualTo(EnumMatching.CASE_INSENSITIVE);
+        assertThatThrownBy(() -> exact.deserialise(new StringBuilder("relaxed")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("No enum constant " + EnumMatching.class.getCanonicalName() + ".relaxed");
+    }
+
+    @Test
+    void everyEnumConstantIsFoundByItsNormalisedNameFromAStringOrCharSequence() {
+        final var relaxed = new EnumDeserialiser<>(TimeUnit.class, EnumMatching.RELAXED);
+
+        for (TimeUnit unit : TimeUnit.values()) {
+            final String loose = unit.name().toLowerCase(Locale.ROOT).replace('_', '-');
+            assertThat(relaxed.deserialise(loose)).isEqualTo(unit);
+            assertThat(relaxed.deserialise(new StringBuilder(loose))).isEqualTo(unit);
+            assertThat(relaxed.deserialise(new StringBuilder(unit.name()))).isEqualTo(unit);
+        }
+        assertThatThrownBy(() -> relaxed.deserialise(new StringBuilder("fortnights")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("No enum constant " + TimeUnit.class.getCanonicalName() + ".fortnights");
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * ISC License Copyright (c) 2004-2010 by Internet Systems Consortium, Inc. ("ISC")
+ *
+ * Copyright (c) 2021 by Jamie Redding
+ *
+ * Permission to use, copy, modify, and /or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above copyright
+ * notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND ISC DISCLAIMS ALL WARRANTIES WITH REGARD
+ * TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS.
+ * IN NO EVENT SHALL ISC BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL
+ * DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS,
+ * WHETHER IN AN ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING
+ * OUT OF OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package dev.coldhands.jersey.properties.core.deserialise;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+
+class DataSizeTest {
+
+    @ParameterizedTest
+    @MethodSource("dataSizes")
+    void parseDataSize(String value, long expectedBytes) {
+        assertThat(DataSize.parse(value).toBytes()).isEqualTo(expectedBytes);
+    }
+
+    private static Stream<Arguments> dataSizes() {
+        return Stream.of(
+                arguments("0", 0L),
+                arguments("100", 100L),
+                arguments("100B", 100L),
+                arguments(" 100 b ", 100L),
+                arguments("1KB", 1_000L),
+                arguments("1KiB", 1_024L),
+                arguments("10GB", 10_000_000_000L),
+                arguments("10 gb", 10_000_000_000L),
+                arguments("512MiB", 512L * 1024 * 1024),
+                arguments("512mib", 512L * 1024 * 1024),
+                arguments("2TB", 2_000_000_000_000L),
+                arguments("2TiB", 2L << 40),
+                arguments("1PB", 1_000_000_000_000_000L),
+                arguments("1PiB", 1L << 50),
+                arguments("1.5KiB", 1_536L),
+                arguments("0.5MB", 500_000L),
+                arguments(".25GiB", 1L << 28)
+        );
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "KB", "-1KB", ".", "10 XB", "10KiBs", "10 K", "1.5B", "0.1KiB"})
+    void whenValueIsInvalid_thenThrowIllegalArgumentException(String value) {
+        assertThatThrownBy(() -> DataSize.parse(value))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageStartingWith("Invalid DataSize: " + value);
+    }
+
+    @Test
+    void whenDataSizeOverflows_thenThrowIllegalArgumentException() {
+        assertThatThrownBy(() -> DataSize.parse("9000000PiB"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("DataSize out of range: 9000000PiB")
+                .hasCauseInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    void whenBytesAreNegative_thenThrowIllegalArgumentException() {
+        assertThatThrownBy(() -> DataSize.ofBytes(-1))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("DataSize must not be negative: -1");
+    }
+
+    @Test
+    void toStringUsesTheLargestExactUnit() {
+        assertThat(DataSize.ofBytes(0)).hasToString("0B");
+        assertThat(DataSize.ofBytes(1_023)).hasToString("1023B");
+        assertThat(DataSize.parse("512MiB")).hasToString("512MiB");
+        assertThat(DataSize.parse("10GB")).hasToString("10GB");
+        assertThat(DataSize.parse("1.5KiB")).hasToString("1536B");
+    }
+
+    @Test
+    void equalityAndOrderingAreByNumberOfBytes() {
+        assertThat(DataSize.parse("1KiB")).isEqualTo(DataSize.ofBytes(1024)).hasSameHashCodeAs(DataSize.ofBytes(1024));
+        assertThat(DataSize.parse("1KB")).isLessThan(DataSize.parse("1KiB"));
+    }
+}
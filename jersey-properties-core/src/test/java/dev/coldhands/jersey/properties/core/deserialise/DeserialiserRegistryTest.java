@@ -17,6 +17,7 @@
 
 package dev.coldhands.jersey.properties.core.deserialise;
 
+import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
@@ -29,6 +30,7 @@ import java.util.Optional;
 import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.params.provider.Arguments.arguments;
 
 class DeserialiserRegistryTest {
@@ -59,6 +61,195 @@ class DeserialiserRegistryTest {
                 .isEmpty();
     }
 
+    @Test
+    void findCharSequenceDeserialiserForType() throws Exception {
+        final CharSequenceDeserialiser<Integer> lengthDeserialiser = CharSequence::length;
+        final var underTest = DeserialiserRegistry.builder()
+                .putCharSequence(Integer.class, lengthDeserialiser)
+                .put(Long.class, Long::parseLong)
+                .build();
+
+        assertThat(underTest.findCharSequenceDeserialiserForType(Integer.class).orElseThrow().deserialise(new StringBuilder("abc")))
+                .isEqualTo(3);
+        assertThat(underTest.findForType(Integer.class).orElseThrow().deserialise("abcd"))
+                .isEqualTo(4);
+        assertThat(underTest.findCharSequenceDeserialiserForType(Long.class).orElseThrow().deserialise(new StringBuilder("5")))
+                .isEqualTo(5L);
+        assertThat(underTest.findCharSequenceDeserialiserForType(String.class))
+                .isEmpty();
+    }
+
+    @Test
+    void laterRegistrationReplacesCharSequenceDeserialiser() throws Exception {
+        final var underTest = DeserialiserRegistry.builder()
+                .putCharSequence(Integer.class, CharSequence::length)
+                .put(Integer.class, Integer::parseInt)
+                .build();
+
+        assertThat(underTest.findCharSequenceDeserialiserForType(Integer.class).orElseThrow().deserialise(new StringBuilder("12")))
+                .isEqualTo(12);
+    }
+
+    @Test
+    void findConfiguredPrimitiveDeserialisers() {
+        final IntDeserialiser intDeserialiser = Integer::parseInt;
+        final LongDeserialiser longDeserialiser = Long::parseLong;
+        final DoubleDeserialiser doubleDeserialiser = Double::parseDouble;
+        final BooleanDeserialiser booleanDeserialiser = Boolean::parseBoolean;
+
+        final var underTest = DeserialiserRegistry.builder()
+                .putInt(intDeserialiser)
+                .putLong(longDeserialiser)
+                .putDouble(doubleDeserialiser)
+                .putBoolean(booleanDeserialiser)
+                .build();
+
+        assertThat(underTest.findIntDeserialiser()).hasValue(intDeserialiser);
+        assertThat(underTest.findLongDeserialiser()).hasValue(longDeserialiser);
+        assertThat(underTest.findDoubleDeserialiser()).hasValue(doubleDeserialiser);
+        assertThat(underTest.findBooleanDeserialiser()).hasValue(booleanDeserialiser);
+    }
+
+    @Test
+    void whenNoPrimitiveDeserialisersAreConfigured_thenReturnOptionalEmpty() {
+        final var underTest = DeserialiserRegistry.builder().build();
+
+        assertThat(underTest.findIntDeserialiser()).isEmpty();
+        assertThat(underTest.findLongDeserialiser()).isEmpty();
+        assertThat(underTest.findDoubleDeserialiser()).isEmpty();
+        assertThat(underTest.findBooleanDeserialiser()).isEmpty();
+    }
+
+    @Test
+    void defaultDeserialiserRegistrySupportsPrimitiveDeserialisers() throws Exception {
+        final var underTest = DeserialiserRegistry.defaultRegistry();
+
+        assertThat(underTest.findIntDeserialiser().orElseThrow().deserialise("1")).isEqualTo(1);
+        assertThat(underTest.findLongDeserialiser().orElseThrow().deserialise("1")).isEqualTo(1L);
+        assertThat(underTest.findDoubleDeserialiser().orElseThrow().deserialise("1.5")).isEqualTo(1.5d);
+        assertThat(underTest.findBooleanDeserialiser().orElseThrow().deserialise("true")).isTrue();
+    }
+
+    @Nested
+    class SupertypeLookup {
+
+        @Test
+        void whenTypeIsRegistered_thenReturnItsDeserialiserUnwrapped() {
+            final Deserialiser<String> stringDeserialiser = s -> s;
+            final var underTest = DeserialiserRegistry.builder()
+                    .put(String.class, stringDeserialiser)
+                    .put(CharSequence.class, StringBuilder::new)
+                    .build();
+
+            assertThat(underTest.findForTypeOrSupertype(String.class))
+                    .hasValue(stringDeserialiser);
+        }
+
+        @Test
+        void whenInterfaceIsRegistered_thenUseItForImplementations() throws Exception {
+            final var underTest = DeserialiserRegistry.builder()
+                    .put(CharSequence.class, StringBuilder::new)
+                    .build();
+
+            assertThat(underTest.findForType(StringBuilder.class)).isEmpty();
+            assertThat(underTest.findForTypeOrSupertype(StringBuilder.class).orElseThrow().deserialise("abc"))
+                    .hasToString("abc");
+        }
+
+        @Test
+        void whenAbstractBaseClassIsRegistered_thenUseItForSubclasses() throws Exception {
+            final var underTest = DeserialiserRegistry.builder()
+                    .put(Shape.class, Circle::new)
+                    .build();
+
+            assertThat(underTest.findForTypeOrSupertype(Circle.class).orElseThrow().deserialise("circle"))
+                    .isInstanceOf(Circle.class)
+                    .extracting(shape -> shape.name)
+                    .isEqualTo("circle");
+        }
+
+        @Test
+        void whenSuperclassAndInterfaceAreRegistered_thenPreferSuperclass() throws Exception {
+            final var underTest = DeserialiserRegistry.builder()
+                    .put(Named.class, Square::new)
+                    .put(Shape.class, Circle::new)
+                    .build();
+
+            assertThat(underTest.findForTypeOrSupertype(Circle.class).orElseThrow().deserialise("circle"))
+                    .isInstanceOf(Circle.class);
+        }
+
+        @Test
+        void whenInterfaceIsInheritedFromSuperclass_thenUseIt() throws Exception {
+            final var underTest = DeserialiserRegistry.builder()
+                    .put(Named.class, Circle::new)
+                    .build();
+
+            assertThat(underTest.findForTypeOrSupertype(Circle.class).orElseThrow().deserialise("circle"))
+                    .isInstanceOf(Circle.class);
+        }
+
+        @Test
+        void whenSupertypeDeserialiserReturnsAnotherSubtype_thenThrowIllegalArgumentException() {
+            final var underTest = DeserialiserRegistry.builder()
+                    .put(Shape.class, Square::new)
+                    .build();
+
+            final Deserialiser<Circle> deserialiser = underTest.findForTypeOrSupertype(Circle.class).orElseThrow();
+
+            assertThatThrownBy(() -> deserialiser.deserialise("square"))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Deserialiser registered for " + Shape.class.getTypeName() +
+                                " returned " + Square.class.getTypeName() +
+                                " which is not an instance of " + Circle.class.getTypeName());
+        }
+
+        @Test
+        void whenNoSupertypeIsRegistered_thenReturnOptionalEmpty() {
+            final var underTest = DeserialiserRegistry.builder()
+                    .put(Integer.class, Integer::parseInt)
+                    .build();
+
+            assertThat(underTest.findForTypeOrSupertype(Circle.class)).isEmpty();
+            assertThat(underTest.findForTypeOrSupertype(Circle.class)).isEmpty();
+            assertThat(underTest.findForTypeOrSupertype(int.class)).isEmpty();
+        }
+
+        @Test
+        void whenObjectIsRegistered_thenUseItAsTheLastResort() throws Exception {
+            final var underTest = DeserialiserRegistry.builder()
+                    .put(Object.class, Circle::new)
+                    .build();
+
+            assertThat(underTest.findForTypeOrSupertype(Circle.class).orElseThrow().deserialise("circle"))
+                    .isInstanceOf(Circle.class);
+            assertThat(underTest.findForTypeOrSupertype(int.class)).isEmpty();
+        }
+    }
+
+    interface Named {
+    }
+
+    abstract static class Shape implements Named {
+        final String name;
+
+        Shape(String name) {
+            this.name = name;
+        }
+    }
+
+    static class Circle extends Shape {
+        Circle(String name) {
+            super(name);
+        }
+    }
+
+    static class Square extends Shape {
+        Square(String name) {
+            super(name);
+        }
+    }
+
     @ParameterizedTest
     @MethodSource("expectedTypeAndDeserialisedValue")
     <T> void defaultDeserialiserRegistrySupports(Class<T> expectedClass, String serialisedValue, T expectedDeserialisedValue) throws Exception {
@@ -90,6 +281,7 @@ class DeserialiserRegistryTest {
                 arguments(byte.class, "1", (byte) 1),
 
                 arguments(Duration.class, "PT48H", Duration.ofDays(2)),
+                arguments(Duration.class, "250ms", Duration.ofMillis(250)),
                 arguments(Instant.class, "2021-05-10T18:50:05.684484732Z", Instant.ofEpochSecond(1620672605, 684484732)),
                 arguments(LocalDate.class, "2021-05-10", LocalDate.of(2021, 5, 10)),
                 arguments(LocalDateTime.class, "2021-05-10T19:50:00", LocalDateTime.of(2021, 5, 10, 19, 50)),
@@ -104,7 +296,8 @@ class DeserialiserRegistryTest {
                 arguments(ZoneId.class, "Europe/London", ZoneId.of("Europe/London")),
                 arguments(ZoneOffset.class, "+10:00", ZoneOffset.ofHours(10)),
                 arguments(Path.class, Path.of("a").resolve("b").toString(), Path.of("a").resolve("b")),
-                arguments(File.class, "file.txt", new File("file.txt"))
+                arguments(File.class, "file.txt", new File("file.txt")),
+                arguments(DataSize.class, "512MiB", DataSize.ofBytes(512L * 1024 * 1024))
         );
     }
 }
\ No newline at end of file
@@ -0,0 +1,213 @@
+/*
+ * ISC License Copyright (c) 2004-2010 by Internet Systems Consortium, Inc. ("ISC")
+ *
+ * Copyright (c) 2021 by Jamie Redding
+ *
+ * Permission to use, copy, modify, and /or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above copyright
+ * notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND ISC DISCLAIMS ALL WARRANTIES WITH REGARD
+ * TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS.
+ * IN NO EVENT SHALL ISC BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL
+ * DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS,
+ * WHETHER IN AN ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING
+ * OUT OF OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package dev.coldhands.jersey.properties.core.deserialise;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DiscoveredDeserialiserRegistryTest {
+
+    private static final AtomicInteger MONEY_PROVIDERS_CREATED = new AtomicInteger();
+    private static final AtomicInteger OVERRIDING_MONEY_PROVIDERS_CREATED = new AtomicInteger();
+    private static final AtomicInteger UNANNOTATED_PROVIDERS_CREATED = new AtomicInteger();
+
+    @BeforeEach
+    void resetCounters() {
+        MONEY_PROVIDERS_CREATED.set(0);
+        OVERRIDING_MONEY_PROVIDERS_CREATED.set(0);
+        UNANNOTATED_PROVIDERS_CREATED.set(0);
+    }
+
+    @Test
+    void annotatedProvidersAreNotCreatedUntilOneOfTheirTypesIsLookedUp() throws Exception {
+        final var underTest = DeserialiserRegistry.discovered();
+
+        assertThat(MONEY_PROVIDERS_CREATED).hasValue(0);
+
+        final Deserialiser<Money> deserialiser = underTest.findForType(Money.class).orElseThrow();
+        underTest.findForType(Money.class);
+
+        assertThat(deserialiser.deserialise("12")).isEqualTo(new Money(12));
+        assertThat(MONEY_PROVIDERS_CREATED).hasValue(1);
+    }
+
+    @Test
+    void providersAreNotCreatedForTypesTheyDoNotDeclare() {
+        final var underTest = DeserialiserRegistry.discovered();
+
+        assertThat(underTest.findForType(String.class)).isEmpty();
+
+        assertThat(MONEY_PROVIDERS_CREATED).hasValue(0);
+        assertThat(OVERRIDING_MONEY_PROVIDERS_CREATED).hasValue(0);
+    }
+
+    @Test
+    void whenSeveralProvidersDeclareAType_thenTheFirstProviderThatRegistersItWins() throws Exception {
+        final var underTest = DeserialiserRegistry.discovered();
+
+        assertThat(underTest.findForType(Money.class).orElseThrow().deserialise("1"))
+                .isEqualTo(new Money(1));
+        assertThat(OVERRIDING_MONEY_PROVIDERS_CREATED).hasValue(0);
+
+        assertThat(underTest.findForType(Currency.class).orElseThrow().deserialise("gbp"))
+                .isEqualTo(new Currency("GBP"));
+        assertThat(OVERRIDING_MONEY_PROVIDERS_CREATED).hasValue(1);
+    }
+
+    @Test
+    void unannotatedProvidersAreCreatedOnDiscoveryAndIndexedByTheirRegisteredTypes() throws Exception {
+        final var underTest = DeserialiserRegistry.discovered();
+
+        assertThat(UNANNOTATED_PROVIDERS_CREATED).hasValue(1);
+        assertThat(underTest.findForType(Token.class).orElseThrow().deserialise("abc"))
+                .isEqualTo(new Token("abc"));
+        assertThat(UNANNOTATED_PROVIDERS_CREATED).hasValue(1);
+    }
+
+    @Test
+    void discoveredTypesAreFoundForSupertypeLookups() {
+        final var underTest = DeserialiserRegistry.discovered();
+
+        assertThat(underTest.findForType(SpecialToken.class)).isEmpty();
+        assertThat(underTest.findForTypeOrSupertype(SpecialToken.class)).isPresent();
+    }
+
+    @Test
+    void discoveredRegistriesAreConsultedAfterConfiguredRegistries() throws PropertyException {
+        final var underTest = PropertyDeserialiser.builder(name -> "5")
+                .withDeserialiserRegistries(List.of(
+                        DeserialiserRegistry.builder().put(Money.class, value -> new Money(100)).build()))
+                .withDiscoveredDeserialiserRegistries()
+                .withoutConventionDeserialisers()
+                .build();
+
+        assertThat(underTest.deserialise("price", Money.class)).isEqualTo(new Money(100));
+        assertThat(underTest.deserialise("token", Token.class)).isEqualTo(new Token("5"));
+        assertThat(MONEY_PROVIDERS_CREATED).hasValue(0);
+    }
+
+    @DeserialisesTypes(Money.class)
+    public static class MoneyProvider implements DeserialiserRegistryProvider {
+
+        public MoneyProvider() {
+            MONEY_PROVIDERS_CREATED.incrementAndGet();
+        }
+
+        @Override
+        public DeserialiserRegistry createRegistry() {
+            return DeserialiserRegistry.builder()
+                    .put(Money.class, value -> new Money(Integer.parseInt(value)))
+                    .build();
+        }
+    }
+
+    @DeserialisesTypes({Money.class, Currency.class})
+    public static class OverridingMoneyProvider implements DeserialiserRegistryProvider {
+
+        public OverridingMoneyProvider() {
+            OVERRIDING_MONEY_PROVIDERS_CREATED.incrementAndGet();
+        }
+
+        @Override
+        public DeserialiserRegistry createRegistry() {
+            return DeserialiserRegistry.builder()
+                    .put(Money.class, value -> new Money(-1))
+                    .put(Currency.class, value -> new Currency(value.toUpperCase()))
+                    .build();
+        }
+    }
+
+    public static class UnannotatedProvider implements DeserialiserRegistryProvider {
+
+        public UnannotatedProvider() {
+            UNANNOTATED_PROVIDERS_CREATED.incrementAndGet();
+        }
+
+        @Override
+        public DeserialiserRegistry createRegistry() {
+            return DeserialiserRegistry.builder()
+                    .put(Token.class, Token::new)
+                    .build();
+        }
+    }
+
+    static final class Money {
+        private final int amount;
+
+        Money(int amount) {
+            this.amount = amount;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Money && ((Money) o).amount == amount;
+        }
+
+        @Override
+        public int hashCode() {
+            return amount;
+        }
+    }
+
+    static final class Currency {
+        private final String code;
+
+        Currency(String code) {
+            this.code = code;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Currency && ((Currency) o).code.equals(code);
+        }
+
+        @Override
+        public int hashCode() {
+            return code.hashCode();
+        }
+    }
+
+    static class Token {
+        private final String value;
+
+        Token(String value) {
+            this.value = value;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Token && ((Token) o).value.equals(value);
+        }
+
+        @Override
+        public int hashCode() {
+            return value.hashCode();
+        }
+    }
+
+    static final class SpecialToken extends Token {
+        SpecialToken(String value) {
+            super(value);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * ISC License Copyright (c) 2004-2010 by Internet Systems Consortium, Inc. ("ISC")
+ *
+ * Copyright (c) 2021 by Jamie Redding
+ *
+ * Permission to use, copy, modify, and /or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above copyright
+ * notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND ISC DISCLAIMS ALL WARRANTIES WITH REGARD
+ * TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS.
+ * IN NO EVENT SHALL ISC BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL
+ * DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS,
+ * WHETHER IN AN ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING
+ * OUT OF OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package dev.coldhands.jersey.properties.core.deserialise;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.Duration;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+
+class DurationDeserialiserTest {
+
+    @ParameterizedTest
+    @MethodSource("durations")
+    void parseDuration(String value, Duration expected) {
+        assertThat(DurationDeserialiser.parse(value)).isEqualTo(expected);
+    }
+
+    private static Stream<Arguments> durations() {
+        return Stream.of(
+                arguments("PT0.25S", Duration.ofMillis(250)),
+                arguments(" -PT1H ", Duration.ofHours(-1)),
+                arguments("p1d", Duration.ofDays(1)),
+                arguments("250ms", Duration.ofMillis(250)),
+                arguments("250 ms", Duration.ofMillis(250)),
+                arguments("  10s  ", Duration.ofSeconds(10)),
+                arguments("15ns", Duration.ofNanos(15)),
+                arguments("15us", Duration.ofNanos(15_000)),
+                arguments("15µs", Duration.ofNanos(15_000)),
+                arguments("5m", Duration.ofMinutes(5)),
+                arguments("2h", Duration.ofHours(2)),
+                arguments("3d", Duration.ofDays(3)),
+                arguments("1H30M", Duration.ofMinutes(90)),
+                arguments("1h 30m 15s", Duration.ofSeconds(5415)),
+                arguments("1.5s", Duration.ofMillis(1500)),
+                arguments(".5h", Duration.ofMinutes(30)),
+                arguments("0.000000001s", Duration.ofNanos(1)),
+                arguments("1.25ms", Duration.ofNanos(1_250_000)),
+                arguments("-2d", Duration.ofDays(-2)),
+                arguments("-1h30m", Duration.ofMinutes(-90)),
+                arguments("+45s", Duration.ofSeconds(45)),
+                arguments("0s", Duration.ZERO)
+        );
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", " ", "-", "ms", ".s", "10", "10 x", "10sec", "1.5ns", "0.0000000001s", "1h-30m", "1s,2s"})
+    void whenValueIsInvalid_thenThrowIllegalArgumentException(String value) {
+        assertThatThrownBy(() -> DurationDeserialiser.parse(value))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageStartingWith("Invalid duration: " + value);
+    }
+
+    @Test
+    void whenUnitIsUnknown_thenReportItsPosition() {
+        assertThatThrownBy(() -> DurationDeserialiser.parse("10s 5y"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid duration: 10s 5y, unknown unit at index 5");
+    }
+
+    @Test
+    void whenDurationOverflows_thenThrowIllegalArgumentException() {
+        assertThatThrownBy(() -> DurationDeserialiser.parse("9223372036854775807d"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Duration out of range: 9223372036854775807d")
+                .hasCauseInstanceOf(ArithmeticException.class);
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * ISC License Copyright (c) 2004-2010 by Internet Systems Consortium, Inc. ("ISC")
+ *
+ * Copyright (c) 2021 by Jamie Redding
+ *
+ * Permission to use, copy, modify, and /or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above copyright
+ * notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND ISC DISCLAIMS ALL WARRANTIES WITH REGARD
+ * TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS.
+ * IN NO EVENT SHALL ISC BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL
+ * DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS,
+ * WHETHER IN AN ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING
+ * OUT OF OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package dev.coldhands.jersey.properties.core.deserialise;
+
+import dev.coldhands.jersey.properties.core.resolver.PropertySnapshot;
+import dev.coldhands.jersey.properties.core.resolver.SnapshotPropertyResolver;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.ToolProvider;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class PropertyBinderTest {
+
+    private static final Map<String, String> PROPERTIES = Map.of(
+            "db.pool.maxSize", "25",
+            "db.pool.idleTimeout", "30s",
+            "db.pool.jdbc-url", "jdbc:postgresql://localhost/app",
+            "db.pool.schemas", "public, audit",
+            "db.pool.name", "primary");
+
+    @PropertyPrefix("db.pool")
+    static class PoolConfig extends NamedConfig {
+        private int maxSize = 10;
+        private int minIdle = 2;
+        private Duration idleTimeout;
+        @Property("jdbc-url")
+        private String url;
+        private List<String> schemas;
+        private static String ignoredStatic;
+        private transient String ignoredTransient;
+    }
+
+    static class NamedConfig {
+        private String name;
+    }
+
+    @Nested
+    class Classes {
+
+        private final PropertyDeserialiser underTest = PropertyDeserialiser.builder(PROPERTIES::get).build();
+
+        @Test
+        void bindEveryFieldUnderThePrefix() throws PropertyException {
+            final PoolConfig config = underTest.bind("db.pool", PoolConfig.class);
+
+            assertThat(config.maxSize).isEqualTo(25);
+            assertThat(config.idleTimeout).isEqualTo(Duration.ofSeconds(30));
+            assertThat(config.url).isEqualTo("jdbc:postgresql://localhost/app");
+            assertThat(config.schemas).containsExactly("public", "audit");
+            assertThat(((NamedConfig) config).name).isEqualTo("primary");
+            assertThat(config.ignoredTransient).isNull();
+            assertThat(PoolConfig.ignoredStatic).isNull();
+        }
+
+        @Test
+        void whenPropertyIsMissing_thenFieldKeepsItsInitialValue() throws PropertyException {
+            final PoolConfig config = underTest.bind("db.pool", PoolConfig.class);
+
+            assertThat(config.minIdle).isEqualTo(2);
+        }
+
+        @Test
+        void usePrefixFromTheClassAnnotation() throws PropertyException {
+            assertThat(underTest.bind(PoolConfig.class).maxSize).isEqualTo(25);
+        }
+
+        @Test
+        void eachBindCreatesANewInstance() throws PropertyException {
+            assertThat(underTest.bind(PoolConfig.class)).isNotSameAs(underTest.bind(PoolConfig.class));
+        }
+
+        @Test
+        void whenClassIsNotAnnotated_thenThrowIllegalArgumentException() {
+            assertThatThrownBy(() -> underTest.bind(NamedConfig.class))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage(NamedConfig.class.getTypeName() + " is not annotated with @PropertyPrefix");
+        }
+
+        @Test
+        void whenPropertyCannotBeDeserialised_thenThrowDeserialiserException() {
+            final var underTest = PropertyDeserialiser.builder(Map.of("db.pool.maxSize", "many")::get).build();
+
+            assertThatThrownBy(() -> underTest.bind(PoolConfig.class))
+                    .isInstanceOf(DeserialiserException.class)
+                    .hasMessage("Exception thrown while deserialising property: db.pool.maxSize as type: int");
+        }
+
+        @Test
+        void whenClassHasNoNoArgumentConstructor_thenThrowIllegalArgumentException() {
+            assertThatThrownBy(() -> underTest.bind("db.pool", WithoutDefaultConstructor.class))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage(WithoutDefaultConstructor.class.getTypeName() + " must be a record or have a no argument constructor");
+        }
+
+        @Test
+        void whenPrefixIsEmpty_thenPropertiesAreNamedAfterTheFields() throws PropertyException {
+            final var underTest = PropertyDeserialiser.builder(Map.of("name", "unprefixed")::get).build();
+
+            assertThat(underTest.bind("", NamedConfig.class).name).isEqualTo("unprefixed");
+        }
+    }
+
+    static class WithoutDefaultConstructor {
+        private final String name;
+
+        WithoutDefaultConstructor(String name) {
+            this.name = name;
+        }
+    }
+
+    @Test
+    void allPropertiesAreReadFromOneSnapshot() throws PropertyException {
+        final var snapshots = new AtomicInteger();
+        final SnapshotPropertyResolver resolver = () -> PropertySnapshot.of(
+                Map.of("db.pool.maxSize", String.valueOf(snapshots.incrementAndGet()),
+                        "db.pool.name", String.valueOf(snapshots.get())), snapshots.get());
+        final var underTest = PropertyDeserialiser.builder(resolver).build();
+
+        final PoolConfig config = underTest.bind(PoolConfig.class);
+
+        assertThat(snapshots).hasValue(1);
+        assertThat(config.maxSize).isEqualTo(1);
+        assertThat(((NamedConfig) config).name).isEqualTo("1");
+    }
+
+    @Test
+    void bindRecordsThroughTheirCanonicalConstructor(@TempDir Path sources) throws Exception {
+        assumeTrue(Runtime.version().feature() >= 16, "records require Java 16");
+        final Path source = sources.resolve("PoolRecord.java");
+        Files.writeString(source, "public record PoolRecord(int maxSize, java.time.Duration idleTimeout) {\n" +
+                                  "    public PoolRecord {\n" +
+                                  "        if (maxSize < 1) throw new IllegalArgumentException(\"maxSize must be positive\");\n" +
+                                  "    }\n" +
+                                  "}\n");
+        assertThat(ToolProvider.getSystemJavaCompiler().run(null, null, null, source.toString())).isZero();
+
+        try (var classLoader = new URLClassLoader(new URL[]{sources.toUri().toURL()}, getClass().getClassLoader())) {
+            final Class<?> recordType = classLoader.loadClass("PoolRecord");
+
+            final Object pool = PropertyDeserialiser.builder(PROPERTIES::get).build().bind("db.pool", recordType);
+
+            assertThat(pool).hasToString("PoolRecord[maxSize=25, idleTimeout=PT30S]");
+            assertThatThrownBy(() -> PropertyDeserialiser.builder(Map.of("db.pool.maxSize", "1")::get).build()
+                    .bind("db.pool", recordType))
+                    .isInstanceOf(MissingPropertyException.class);
+            assertThatThrownBy(() -> PropertyDeserialiser.builder(Map.of("db.pool.maxSize", "0", "db.pool.idleTimeout", "1s")::get).build()
+                    .bind("db.pool", recordType))
+                    .isInstanceOf(DeserialiserException.class)
+                    .hasMessage("Exception thrown while deserialising property: db.pool as type: PoolRecord")
+                    .getCause()
+                    .hasMessage("maxSize must be positive");
+        }
+    }
+}
@@ -18,15 +18,27 @@
 package dev.coldhands.jersey.properties.core.deserialise;
 
 import dev.coldhands.jersey.properties.core.resolver.PropertyResolver;
+import dev.coldhands.jersey.properties.core.resolver.PropertySnapshot;
+import dev.coldhands.jersey.properties.core.resolver.SnapshotPropertyResolver;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 
-import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
 
@@ -46,6 +58,10 @@ class PropertyDeserialiserTest {
 
     private enum MyEnum {VALUE}
 
+    private enum Colour {RED, DARK_BLUE}
+
+    private enum CaseClash {VALUE, value}
+
     @FunctionalInterface
     interface TypeResolver {
         Object resolve(String s);
@@ -93,6 +109,19 @@ class PropertyDeserialiserTest {
                 .isEqualTo(123);
     }
 
+    @Test
+    void whenDeserialiserRegistriesChangeAfterBuild_thenKeepUsingTheRegistriesItWasBuiltWith() throws PropertyException {
+        final List<DeserialiserRegistry> registries = new ArrayList<>(List.of(DeserialiserRegistry.defaultRegistry()));
+        final var underTest = PropertyDeserialiser.builder(PROPERTIES::get)
+                .withDeserialiserRegistries(registries)
+                .build();
+
+        registries.add(0, DeserialiserRegistry.builder().put(String.class, s -> "overriddenValue").build());
+
+        assertThat(underTest.deserialise("stringField", String.class))
+                .isEqualTo(PROPERTIES.get("stringField"));
+    }
+
     @Nested
     class PropertyMissing {
 
@@ -115,6 +144,7 @@ class PropertyDeserialiserTest {
         void whenNoDeserialiserConfiguredForThatType_thenThrowExceptionToCauseResolutionToFail() {
             final var underTest = PropertyDeserialiser.builder(PROPERTIES::get)
                     .withDeserialiserRegistries(List.of(DeserialiserRegistry.builder().build()))
+                    .withoutConventionDeserialisers()
                     .build();
 
             assertThatThrownBy(() -> underTest.deserialise("stringField", String.class))
@@ -122,6 +152,304 @@ class PropertyDeserialiserTest {
                     .isInstanceOf(MissingDeserialiserException.class)
                     .hasMessage("No deserialiser configured for type: " + String.class.getTypeName());
         }
+
+        @Test
+        void whenTypeWithoutDeserialiserIsRequestedAgain_thenStillThrowMissingDeserialiserException() throws PropertyException {
+            final var underTest = PropertyDeserialiser.builder(PROPERTIES::get)
+                    .withDeserialiserRegistries(List.of(DeserialiserRegistry.builder().put(Integer.class, Integer::parseInt).build()))
+                    .withoutConventionDeserialisers()
+                    .build();
+            assertThatThrownBy(() -> underTest.deserialise("stringField", String.class))
+                    .isInstanceOf(MissingDeserialiserException.class);
+
+            assertThat(underTest.deserialise("integerField", Integer.class)).isEqualTo(123);
+            assertThatThrownBy(() -> underTest.deserialise("stringField", String.class))
+                    .isInstanceOf(MissingDeserialiserException.class);
+        }
+
+        @Test
+        void whenDeserialiserRegistriesContainNull_thenThrowIllegalArgumentException() {
+            assertThatThrownBy(() -> PropertyDeserialiser.builder(PROPERTIES::get)
+                    .withDeserialiserRegistries(Arrays.asList(DeserialiserRegistry.defaultRegistry(), null))
+                    .build())
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("DeserialiserRegistry must not be null");
+        }
+    }
+
+    @Nested
+    class SupertypeDeserialisers {
+
+        @Test
+        void whenOnlyASupertypeIsRegistered_thenUseItsDeserialiser() throws PropertyException {
+            final var underTest = PropertyDeserialiser.builder(s -> "abc")
+                    .withDeserialiserRegistries(List.of(DeserialiserRegistry.builder()
+                            .put(CharSequence.class, StringBuilder::new)
+                            .build()))
+                    .build();
+
+            assertThat(underTest.deserialise("propertyName", StringBuilder.class))
+                    .hasToString("abc");
+        }
+
+        @Test
+        void whenAnotherRegistryHasAnExactMatch_thenPreferTheExactMatch() throws PropertyException {
+            final var underTest = PropertyDeserialiser.builder(s -> "abc")
+                    .withDeserialiserRegistries(List.of(
+                            DeserialiserRegistry.builder().put(CharSequence.class, s -> "supertype").build(),
+                            DeserialiserRegistry.builder().put(String.class, s -> "exact").build()))
+                    .build();
+
+            assertThat(underTest.deserialise("propertyName", String.class))
+                    .isEqualTo("exact");
+        }
+
+        @Test
+        void whenSupertypeDeserialiserReturnsWrongType_thenThrowDeserialiserException() {
+            final var underTest = PropertyDeserialiser.builder(s -> "abc")
+                    .withDeserialiserRegistries(List.of(DeserialiserRegistry.builder()
+                            .put(CharSequence.class, s -> s)
+                            .build()))
+                    .build();
+
+            assertThatThrownBy(() -> underTest.deserialise("propertyName", StringBuilder.class))
+                    .isInstanceOf(DeserialiserException.class)
+                    .getCause()
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+
+        @Test
+        void whenSupertypeIsRegistered_thenEnumsAreStillDeserialisedByConstantName() throws PropertyException {
+            final var underTest = PropertyDeserialiser.builder(s -> "VALUE")
+                    .withDeserialiserRegistries(List.of(DeserialiserRegistry.builder()
+                            .put(Comparable.class, s -> {
+                                throw new IllegalStateException("should not be used");
+                            })
+                            .build()))
+                    .build();
+
+            assertThat(underTest.deserialise("propertyName", MyEnum.class))
+                    .isEqualTo(MyEnum.VALUE);
+        }
+    }
+
+    @Nested
+    class ConventionDeserialisers {
+
+        private final PropertyDeserialiser underTest = PropertyDeserialiser.builder(Map.of(
+                "uuid", "7c2fa3a9-3c4f-4c5b-9a8e-2f0e6c1d4b7a",
+                "decimal", "12.50",
+                "valueOf", "a",
+                "fromString", "b",
+                "of", "c",
+                "parse", "d",
+                "constructor", "e",
+                "uuids", "7c2fa3a9-3c4f-4c5b-9a8e-2f0e6c1d4b7a, 00000000-0000-0000-0000-000000000000")::get)
+                .build();
+
+        @Test
+        void deserialiseJdkTypesByConvention() throws PropertyException {
+            assertThat(underTest.deserialise("uuid", UUID.class))
+                    .isEqualTo(UUID.fromString("7c2fa3a9-3c4f-4c5b-9a8e-2f0e6c1d4b7a"));
+            assertThat(underTest.deserialise("decimal", BigDecimal.class))
+                    .isEqualTo(new BigDecimal("12.50"));
+        }
+
+        @Test
+        void deserialiseUsingEachConvention() throws PropertyException {
+            assertThat(underTest.deserialise("valueOf", WithValueOf.class).value).isEqualTo("valueOf:a");
+            assertThat(underTest.deserialise("fromString", WithFromString.class).value).isEqualTo("fromString:b");
+            assertThat(underTest.deserialise("of", WithOf.class).value).isEqualTo("of:c");
+            assertThat(underTest.deserialise("parse", WithParse.class).value).isEqualTo("parse:d");
+            assertThat(underTest.deserialise("constructor", WithConstructor.class).value).isEqualTo("constructor:e");
+        }
+
+        @Test
+        void preferValueOfOverOtherConventions() throws PropertyException {
+            assertThat(underTest.deserialise("valueOf", WithAllConventions.class).value).isEqualTo("valueOf:a");
+        }
+
+        @Test
+        void deserialiseArrayElementsByConvention() throws PropertyException {
+            assertThat(underTest.deserialise("uuids", UUID[].class))
+                    .containsExactly(UUID.fromString("7c2fa3a9-3c4f-4c5b-9a8e-2f0e6c1d4b7a"), new UUID(0, 0));
+        }
+
+        @Test
+        void whenRegistryHasDeserialiserForType_thenPreferRegistry() throws PropertyException {
+            final var underTest = PropertyDeserialiser.builder(s -> "a")
+                    .withDeserialiserRegistries(List.of(DeserialiserRegistry.builder()
+                            .put(WithValueOf.class, s -> new WithValueOf("registry:" + s))
+                            .build()))
+                    .build();
+
+            assertThat(underTest.deserialise("valueOf", WithValueOf.class).value).isEqualTo("registry:a");
+        }
+
+        @Test
+        void whenFactoryMethodDoesNotReturnTheType_thenIgnoreIt() {
+            assertThatThrownBy(() -> underTest.deserialise("valueOf", WithUnrelatedValueOf.class))
+                    .isInstanceOf(MissingDeserialiserException.class);
+        }
+
+        @Test
+        void whenFactoryMethodIsNotPublic_thenIgnoreIt() {
+            assertThatThrownBy(() -> underTest.deserialise("valueOf", WithPrivateValueOf.class))
+                    .isInstanceOf(MissingDeserialiserException.class);
+        }
+
+        @Test
+        void whenFactoryMethodThrows_thenThrowDeserialiserExceptionWithOriginalCause() {
+            assertThatThrownBy(() -> underTest.deserialise("valueOf", WithThrowingValueOf.class))
+                    .isInstanceOf(DeserialiserException.class)
+                    .getCause()
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Invalid value: a");
+        }
+
+        @Test
+        void whenConventionDeserialisersAreDisabled_thenThrowMissingDeserialiserException() {
+            final var underTest = PropertyDeserialiser.builder(s -> "a")
+                    .withoutConventionDeserialisers()
+                    .build();
+
+            assertThatThrownBy(() -> underTest.deserialise("valueOf", WithValueOf.class))
+                    .isInstanceOf(MissingDeserialiserException.class);
+        }
+    }
+
+    public static class WithValueOf {
+        final String value;
+
+        private WithValueOf(String value) {
+            this.value = value;
+        }
+
+        public static WithValueOf valueOf(String value) {
+            return new WithValueOf("valueOf:" + value);
+        }
+    }
+
+    public static class WithFromString {
+        final String value;
+
+        private WithFromString(String value) {
+            this.value = value;
+        }
+
+        public static WithFromString fromString(String value) {
+            return new WithFromString("fromString:" + value);
+        }
+    }
+
+    public static class WithOf {
+        final String value;
+
+        private WithOf(String value) {
+            this.value = value;
+        }
+
+        public static WithOf of(String value) {
+            return new WithOf("of:" + value);
+        }
+    }
+
+    public static class WithParse {
+        final String value;
+
+        private WithParse(String value) {
+            this.value = value;
+        }
+
+        public static WithParse parse(CharSequence value) {
+            return new WithParse("parse:" + value);
+        }
+    }
+
+    public static class WithConstructor {
+        final String value;
+
+        public WithConstructor(String value) {
+            this.value = "constructor:" + value;
+        }
+    }
+
+    public static class WithAllConventions {
+        final String value;
+
+        public WithAllConventions(String value) {
+            this("constructor", value);
+        }
+
+        private WithAllConventions(String convention, String value) {
+            this.value = convention + ":" + value;
+        }
+
+        public static WithAllConventions of(String value) {
+            return new WithAllConventions("of", value);
+        }
+
+        public static WithAllConventions valueOf(String value) {
+            return new WithAllConventions("valueOf", value);
+        }
+    }
+
+    public static class WithUnrelatedValueOf {
+        public static String valueOf(String value) {
+            return value;
+        }
+    }
+
+    public static class WithPrivateValueOf {
+        private static WithPrivateValueOf valueOf(String value) {
+            return new WithPrivateValueOf();
+        }
+    }
+
+    public static class WithThrowingValueOf {
+        public static WithThrowingValueOf valueOf(String value) {
+            throw new IllegalArgumentException("Invalid value: " + value);
+        }
+    }
+
+    @Nested
+    class CharSequenceDeserialisers {
+
+        private final PropertyDeserialiser underTest = PropertyDeserialiser.builder(PROPERTIES::get)
+                .withEnumMatching(EnumMatching.RELAXED)
+                .build();
+
+        @Test
+        void deserialiseValuesHeldInAByteBuffer() throws Exception {
+            final ByteBuffer buffer = ByteBuffer.wrap("8080|true|dark-blue|PT1S".getBytes(StandardCharsets.US_ASCII));
+
+            assertThat(underTest.getCharSequenceDeserialiser(int.class).deserialise(buffer.duplicate().limit(4)))
+                    .isEqualTo(8080);
+            assertThat(underTest.getCharSequenceDeserialiser(Boolean.class).deserialise(buffer.duplicate().position(5).limit(9)))
+                    .isTrue();
+            assertThat(underTest.getCharSequenceDeserialiser(Colour.class).deserialise(buffer.duplicate().position(10).limit(19)))
+                    .isEqualTo(Colour.DARK_BLUE);
+            assertThat(underTest.getCharSequenceDeserialiser(Duration.class).deserialise(buffer.duplicate().position(20)))
+                    .isEqualTo(Duration.ofSeconds(1));
+        }
+
+        @Test
+        void sameDeserialiserIsReturnedForRepeatedLookups() throws MissingDeserialiserException {
+            assertThat(underTest.getCharSequenceDeserialiser(Duration.class))
+                    .isSameAs(underTest.getCharSequenceDeserialiser(Duration.class));
+        }
+
+        @Test
+        void whenNoDeserialiserConfiguredForThatType_thenThrowMissingDeserialiserException() {
+            final var underTest = PropertyDeserialiser.builder(PROPERTIES::get)
+                    .withDeserialiserRegistries(List.of())
+                    .withoutConventionDeserialisers()
+                    .build();
+
+            assertThatThrownBy(() -> underTest.getCharSequenceDeserialiser(String.class))
+                    .isInstanceOf(MissingDeserialiserException.class)
+                    .hasMessage("No deserialiser configured for type: " + String.class.getTypeName());
+        }
     }
 
     @Nested
@@ -155,12 +483,354 @@ class PropertyDeserialiserTest {
                     .isInstanceOf(DeserialiserException.class)
                     .hasMessage("Exception thrown while deserialising property: invalidEnum as type: " + MyEnum.class.getTypeName())
                     .getCause()
-                    .isInstanceOf(InvocationTargetException.class)
-                    .getCause()
+                    .isInstanceOf(IllegalArgumentException.class)
                     .hasMessageContainingAll("No enum constant", MyEnum.class.getSimpleName(), expectedPropertyValue);
         }
     }
 
+    @Nested
+    class EnumMatchingOptions {
+
+        @Test
+        void whenMatchingExactly_thenOnlyAcceptTheConstantName() throws PropertyException {
+            final var underTest = PropertyDeserialiser.builder(Map.of("colour", "DARK_BLUE", "lower", "red")::get).build();
+
+            assertThat(underTest.deserialise("colour", Colour.class)).isEqualTo(Colour.DARK_BLUE);
+            assertThatThrownBy(() -> underTest.deserialise("lower", Colour.class))
+                    .isInstanceOf(DeserialiserException.class);
+        }
+
+        @Test
+        void whenMatchingCaseInsensitively_thenAcceptAnyCase() throws PropertyException {
+            final var underTest = PropertyDeserialiser.builder(Map.of("lower", "dark_blue", "mixed", "Red", "kebab", "dark-blue")::get)
+                    .withEnumMatching(EnumMatching.CASE_INSENSITIVE)
+                    .build();
+
+            assertThat(underTest.deserialise("lower", Colour.class)).isEqualTo(Colour.DARK_BLUE);
+            assertThat(underTest.deserialise("mixed", Colour.class)).isEqualTo(Colour.RED);
+            assertThatThrownBy(() -> underTest.deserialise("kebab", Colour.class))
+                    .isInstanceOf(DeserialiserException.class);
+        }
+
+        @Test
+        void whenMatchingRelaxed_thenAcceptKebabAndSnakeCaseInAnyCase() throws PropertyException {
+            final var underTest = PropertyDeserialiser.builder(Map.of("kebab", "dark-blue", "snake", "DARK_BLUE", "mixed", "Dark-Blue")::get)
+                    .withEnumMatching(EnumMatching.RELAXED)
+                    .build();
+
+            assertThat(underTest.deserialise("kebab", Colour.class)).isEqualTo(Colour.DARK_BLUE);
+            assertThat(underTest.deserialise("snake", Colour.class)).isEqualTo(Colour.DARK_BLUE);
+            assertThat(underTest.deserialise("mixed", Colour.class)).isEqualTo(Colour.DARK_BLUE);
+        }
+
+        @Test
+        void whenValueMatchesAConstantExactly_thenPreferItOverOtherMatches() throws PropertyException {
+            final var underTest = PropertyDeserialiser.builder(Map.of("upper", "VALUE", "lower", "value")::get)
+                    .withEnumMatching(EnumMatching.CASE_INSENSITIVE)
+                    .build();
+
+            assertThat(underTest.deserialise("upper", CaseClash.class)).isEqualTo(CaseClash.VALUE);
+            assertThat(underTest.deserialise("lower", CaseClash.class)).isEqualTo(CaseClash.value);
+        }
+
+        @Test
+        void whenValueOnlyMatchesSeveralConstantsLoosely_thenThrowDeserialiserException() {
+            final var underTest = PropertyDeserialiser.builder(s -> "Value")
+                    .withEnumMatching(EnumMatching.CASE_INSENSITIVE)
+                    .build();
+
+            assertThatThrownBy(() -> underTest.deserialise("ambiguous", CaseClash.class))
+                    .isInstanceOf(DeserialiserException.class)
+                    .getCause()
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContainingAll("Ambiguous enum constant", CaseClash.class.getSimpleName(), "Value");
+        }
+
+        @Test
+        void whenEnumMatchingIsNull_thenThrowIllegalArgumentException() {
+            assertThatThrownBy(() -> PropertyDeserialiser.builder(PROPERTIES::get).withEnumMatching(null))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("EnumMatching must not be null");
+        }
+    }
+
+    @Nested
+    class PrimitiveDeserialisation {
+
+        private final Map<String, String> properties = Map.of(
+                "int", "8080",
+                "long", "9000000000",
+                "double", "0.75",
+                "boolean", "true",
+                "invalid", "abc");
+        private final PropertyDeserialiser underTest = PropertyDeserialiser.builder(properties::get).build();
+
+        @Test
+        void whenPropertyExists_thenDeserialiseToPrimitive() throws PropertyException {
+            assertThat(underTest.getInt("int")).isEqualTo(8080);
+            assertThat(underTest.getLong("long")).isEqualTo(9_000_000_000L);
+            assertThat(underTest.getDouble("double")).isEqualTo(0.75d);
+            assertThat(underTest.getBoolean("boolean")).isTrue();
+        }
+
+        @Test
+        void whenPropertyIsMissing_thenThrowMissingPropertyException() {
+            assertThatThrownBy(() -> underTest.getInt("missing"))
+                    .isInstanceOf(MissingPropertyException.class)
+                    .hasMessage("Could not find property with name: missing");
+        }
+
+        @Test
+        void whenPropertyCannotBeDeserialised_thenThrowDeserialiserException() {
+            assertThatThrownBy(() -> underTest.getLong("invalid"))
+                    .isInstanceOf(DeserialiserException.class)
+                    .hasMessage("Exception thrown while deserialising property: invalid as type: long")
+                    .hasCauseInstanceOf(NumberFormatException.class);
+        }
+
+        @Test
+        void whenPropertyIsMissingOrInvalid_thenReturnDefaultValue() {
+            assertThat(underTest.getInt("missing", 1)).isEqualTo(1);
+            assertThat(underTest.getInt("invalid", 1)).isEqualTo(1);
+            assertThat(underTest.getLong("invalid", 2L)).isEqualTo(2L);
+            assertThat(underTest.getDouble("invalid", 0.5d)).isEqualTo(0.5d);
+            assertThat(underTest.getBoolean("missing", true)).isTrue();
+        }
+
+        @Test
+        void whenPropertyExists_thenIgnoreDefaultValue() {
+            assertThat(underTest.getInt("int", 1)).isEqualTo(8080);
+            assertThat(underTest.getDouble("double", 0.5d)).isEqualTo(0.75d);
+        }
+
+        @Test
+        void whenRegistryOnlyHasABoxedDeserialiserForThePrimitiveType_thenUseIt() throws PropertyException {
+            final var custom = PropertyDeserialiser.builder(properties::get)
+                    .withDeserialiserRegistries(List.of(
+                            DeserialiserRegistry.builder().put(int.class, value -> Integer.parseInt(value) + 1).build(),
+                            DeserialiserRegistry.defaultRegistry()))
+                    .build();
+
+            assertThat(custom.getInt("int")).isEqualTo(8081);
+        }
+
+        @Test
+        void whenEarlierRegistryHasAPrimitiveDeserialiser_thenPreferIt() throws PropertyException {
+            final var custom = PropertyDeserialiser.builder(s -> "yes")
+                    .withDeserialiserRegistries(List.of(
+                            DeserialiserRegistry.builder().putBoolean(value -> value.equals("yes")).build(),
+                            DeserialiserRegistry.defaultRegistry()))
+                    .build();
+
+            assertThat(custom.getBoolean("enabled")).isTrue();
+        }
+
+        @Test
+        void whenNoDeserialiserForThePrimitiveType_thenThrowMissingDeserialiserException() {
+            final var custom = PropertyDeserialiser.builder(properties::get)
+                    .withDeserialiserRegistries(List.of(DeserialiserRegistry.builder().build()))
+                    .build();
+
+            assertThatThrownBy(() -> custom.getDouble("double"))
+                    .isInstanceOf(MissingDeserialiserException.class)
+                    .hasMessage("No deserialiser configured for type: double");
+            assertThat(custom.getDouble("double", 0.5d)).isEqualTo(0.5d);
+        }
+    }
+
+    @Nested
+    class GenericTypes {
+
+        private final Map<String, String> properties = Map.of(
+                "hosts", " alpha.example.com , beta.example.com,,",
+                "ports", "80,443,80",
+                "timeouts", "connect=PT1S, read = PT30S",
+                "empty", "  ",
+                "invalidPorts", "80,abc",
+                "invalidMap", "connect");
+        private final PropertyDeserialiser underTest = PropertyDeserialiser.builder(properties::get).build();
+
+        @Test
+        void whenDeserialisingToList_thenSplitOnCommasAndIgnoreWhitespaceAndEmptyElements() throws PropertyException {
+            assertThat(underTest.deserialiseList("hosts", String.class))
+                    .containsExactly("alpha.example.com", "beta.example.com");
+        }
+
+        @Test
+        void whenDeserialisingToList_thenDeserialiseEachElement() throws PropertyException {
+            assertThat(underTest.deserialiseList("ports", Integer.class))
+                    .containsExactly(80, 443, 80);
+        }
+
+        @Test
+        void whenDeserialisingToSet_thenRemoveDuplicates() throws PropertyException {
+            assertThat(underTest.deserialiseSet("ports", Integer.class))
+                    .containsExactlyInAnyOrder(80, 443);
+        }
+
+        @Test
+        void whenDeserialisingToMap_thenSplitEachPairOnFirstEquals() throws PropertyException {
+            assertThat(underTest.deserialiseMap("timeouts", String.class, Duration.class))
+                    .containsOnly(entry("connect", Duration.ofSeconds(1)), entry("read", Duration.ofSeconds(30)));
+        }
+
+        @Test
+        void whenValueIsBlank_thenReturnEmptyCollections() throws PropertyException {
+            assertThat(underTest.deserialiseList("empty", String.class)).isEmpty();
+            assertThat(underTest.deserialiseSet("empty", String.class)).isEmpty();
+            assertThat(underTest.deserialiseMap("empty", String.class, String.class)).isEmpty();
+        }
+
+        @Test
+        void whenDeserialised_thenCollectionsAreImmutable() throws PropertyException {
+            final List<String> hosts = underTest.deserialiseList("hosts", String.class);
+
+            assertThatThrownBy(() -> hosts.add("gamma.example.com"))
+                    .isInstanceOf(UnsupportedOperationException.class);
+        }
+
+        @Test
+        void whenDeserialisingToAReflectedGenericType_thenUseTheSameDeserialisation() throws Exception {
+            final Type listOfIntegers = GenericTypes.class.getDeclaredField("listOfIntegers").getGenericType();
+            final Type collectionOfWildcards = GenericTypes.class.getDeclaredField("collectionOfWildcards").getGenericType();
+
+            assertThat(underTest.deserialise("ports", listOfIntegers)).isEqualTo(List.of(80, 443, 80));
+            assertThat(underTest.deserialise("ports", collectionOfWildcards)).isEqualTo(List.of(80, 443, 80));
+            assertThat(GenericType.of(List.class, Integer.class))
+                    .isEqualTo(listOfIntegers)
+                    .hasSameHashCodeAs(listOfIntegers);
+        }
+
+        @Test
+        void whenAnElementCannotBeDeserialised_thenThrowDeserialiserException() {
+            assertThatThrownBy(() -> underTest.deserialiseList("invalidPorts", Integer.class))
+                    .isInstanceOf(DeserialiserException.class)
+                    .hasMessage("Exception thrown while deserialising property: invalidPorts as type: java.util.List<java.lang.Integer>")
+                    .hasCauseInstanceOf(NumberFormatException.class);
+        }
+
+        @Test
+        void whenAMapEntryHasNoKeyValueSeparator_thenThrowDeserialiserException() {
+            assertThatThrownBy(() -> underTest.deserialiseMap("invalidMap", String.class, String.class))
+                    .isInstanceOf(DeserialiserException.class)
+                    .getCause()
+                    .hasMessage("Expected key=value but was: connect");
+        }
+
+        @Test
+        void whenAMapHasDuplicateKeys_thenThrowDeserialiserException() {
+            final var duplicateKeys = PropertyDeserialiser.builder(s -> "a=1, a=2").build();
+
+            assertThatThrownBy(() -> duplicateKeys.deserialiseMap("map", String.class, Integer.class))
+                    .isInstanceOf(DeserialiserException.class)
+                    .getCause()
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Duplicate key: a");
+        }
+
+        @Test
+        void whenElementTypeHasNoDeserialiser_thenThrowMissingDeserialiserException() {
+            assertThatThrownBy(() -> underTest.deserialiseList("hosts", Object.class))
+                    .isInstanceOf(MissingDeserialiserException.class)
+                    .hasMessage("No deserialiser configured for type: java.util.List<java.lang.Object>");
+        }
+
+        @Test
+        void whenGenericTypeIsNotACollection_thenItIsNotSupported() throws Exception {
+            final Type supplier = GenericTypes.class.getDeclaredField("supplier").getGenericType();
+            final Type nested = GenericTypes.class.getDeclaredField("nested").getGenericType();
+
+            assertThat(underTest.supportsType(supplier)).isFalse();
+            assertThat(underTest.supportsType(nested)).isFalse();
+            assertThat(underTest.supportsType(GenericType.of(Map.class, String.class, Integer.class))).isTrue();
+            assertThatThrownBy(() -> underTest.deserialise("hosts", supplier))
+                    .isInstanceOf(MissingDeserialiserException.class);
+        }
+
+        private List<Integer> listOfIntegers;
+        private Collection<? extends Integer> collectionOfWildcards;
+        private Supplier<String> supplier;
+        private List<List<String>> nested;
+    }
+
+    @Nested
+    class ArrayTypes {
+
+        private final Map<String, String> properties = Map.of(
+                "ports", "8080, 8081,8082 ,",
+                "weights", "0.25,0.75",
+                "ids", "9000000000,1",
+                "flags", "true, false",
+                "hosts", "alpha, beta",
+                "shorts", "1,2",
+                "empty", "",
+                "invalid", "1,two");
+        private final PropertyDeserialiser underTest = PropertyDeserialiser.builder(properties::get).build();
+
+        @Test
+        void whenDeserialisingToPrimitiveArrays_thenParseEachElement() throws PropertyException {
+            assertThat(underTest.deserialise("ports", int[].class)).containsExactly(8080, 8081, 8082);
+            assertThat(underTest.deserialise("ids", long[].class)).containsExactly(9_000_000_000L, 1L);
+            assertThat(underTest.deserialise("weights", double[].class)).containsExactly(0.25d, 0.75d);
+            assertThat(underTest.deserialise("flags", boolean[].class)).containsExactly(true, false);
+            assertThat(underTest.deserialise("shorts", short[].class)).containsExactly((short) 1, (short) 2);
+        }
+
+        @Test
+        void whenDeserialisingToObjectArrays_thenUseTheDeserialiserForTheComponentType() throws PropertyException {
+            assertThat(underTest.deserialise("hosts", String[].class)).containsExactly("alpha", "beta");
+            assertThat(underTest.deserialise("ports", Integer[].class)).containsExactly(8080, 8081, 8082);
+        }
+
+        @Test
+        void whenValueHasManyElements_thenKeepEveryElementInOrder() throws PropertyException {
+            final var many = PropertyDeserialiser.builder(Map.of(
+                    "many", "1,2,3,4,5,6,7,8,9,10,11,12,13,14,15,16,17,18,19,20",
+                    "manyFlags", "true,false,true,false,true,false,true,false,TRUE,x")::get).build();
+
+            assertThat(many.deserialise("many", int[].class)).containsExactly(
+                    1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19, 20);
+            assertThat(many.deserialise("many", long[].class)).hasSize(20).endsWith(19L, 20L);
+            assertThat(many.deserialise("many", String[].class)).hasSize(20).endsWith("19", "20");
+            assertThat(many.deserialise("many", short[].class)).hasSize(20).endsWith((short) 19, (short) 20);
+            assertThat(many.deserialise("manyFlags", boolean[].class)).containsExactly(
+                    true, false, true, false, true, false, true, false, true, false);
+        }
+
+        @Test
+        void whenValueIsEmpty_thenReturnAnEmptyArray() throws PropertyException {
+            assertThat(underTest.deserialise("empty", int[].class)).isEmpty();
+            assertThat(underTest.deserialise("empty", String[].class)).isEmpty();
+        }
+
+        @Test
+        void whenAnElementCannotBeDeserialised_thenThrowDeserialiserException() {
+            assertThatThrownBy(() -> underTest.deserialise("invalid", int[].class))
+                    .isInstanceOf(DeserialiserException.class)
+                    .hasMessage("Exception thrown while deserialising property: invalid as type: int[]")
+                    .hasCauseInstanceOf(NumberFormatException.class);
+        }
+
+        @Test
+        void whenPrimitiveDeserialiserIsCustomised_thenUseItForArrayElements() throws PropertyException {
+            final var custom = PropertyDeserialiser.builder(properties::get)
+                    .withDeserialiserRegistries(List.of(
+                            DeserialiserRegistry.builder().putInt(value -> Integer.parseInt(value) - 8000).build()))
+                    .build();
+
+            assertThat(custom.deserialise("ports", int[].class)).containsExactly(80, 81, 82);
+        }
+
+        @Test
+        void whenComponentTypeHasNoDeserialiser_thenThrowMissingDeserialiserException() {
+            assertThatThrownBy(() -> underTest.deserialise("hosts", Object[].class))
+                    .isInstanceOf(MissingDeserialiserException.class)
+                    .hasMessage("No deserialiser configured for type: java.lang.Object[]");
+            assertThatThrownBy(() -> underTest.deserialise("ports", int[][].class))
+                    .isInstanceOf(MissingDeserialiserException.class);
+        }
+    }
+
     @Nested
     class OptionalDeserialise {
 
@@ -203,6 +873,208 @@ class PropertyDeserialiserTest {
             assertThat(underTest.optionalDeserialise("intField", int.class))
                     .isEmpty();
         }
+
+        @Test
+        void whenDeserialiserReturnsNull_thenReturnOptionalEmpty() {
+            final var underTest = PropertyDeserialiser.builder(PROPERTIES::get)
+                    .withDeserialiserRegistries(List.of(DeserialiserRegistry.builder()
+                            .put(String.class, s -> null)
+                            .build()))
+                    .build();
+
+            assertThat(underTest.optionalDeserialise("stringField", String.class))
+                    .isEmpty();
+        }
+
+        @Test
+        void whenValuesAreCached_thenStillReturnOptionalEmptyForMissingPropertiesAndOfValueOtherwise() {
+            final var underTest = PropertyDeserialiser.builder(PROPERTIES::get)
+                    .withDeserialisedValueCache()
+                    .build();
+
+            assertThat(underTest.optionalDeserialise("missing", int.class)).isEmpty();
+            assertThat(underTest.optionalDeserialise("intField", int.class)).contains(456);
+            assertThat(underTest.optionalDeserialise("intField", int.class)).contains(456);
+        }
+    }
+
+    @Nested
+    class StacklessExceptions {
+
+        @Test
+        void whenStacklessExceptionsAreEnabled_thenThrowExceptionsWithoutStackTraces() {
+            final var underTest = PropertyDeserialiser.builder(PROPERTIES::get)
+                    .withStacklessExceptions()
+                    .build();
+
+            assertThatThrownBy(() -> underTest.deserialise("missing", String.class))
+                    .isInstanceOf(MissingPropertyException.class)
+                    .hasMessage("Could not find property with name: missing")
+                    .satisfies(e -> assertThat(e.getStackTrace()).isEmpty());
+            assertThatThrownBy(() -> underTest.deserialise("stringField", Object.class))
+                    .isInstanceOf(MissingDeserialiserException.class)
+                    .satisfies(e -> assertThat(e.getStackTrace()).isEmpty());
+            assertThatThrownBy(() -> underTest.getInt("stringField"))
+                    .isInstanceOf(DeserialiserException.class)
+                    .hasCauseInstanceOf(NumberFormatException.class)
+                    .satisfies(e -> assertThat(e.getStackTrace()).isEmpty());
+        }
+
+        @Test
+        void whenStacklessExceptionsAreNotEnabled_thenThrowExceptionsWithStackTraces() {
+            final var underTest = PropertyDeserialiser.builder(PROPERTIES::get).build();
+
+            assertThatThrownBy(() -> underTest.deserialise("missing", String.class))
+                    .satisfies(e -> assertThat(e.getStackTrace()).isNotEmpty());
+        }
+    }
+
+    @Nested
+    class CachedDeserialisedValues {
+
+        private final Map<String, String> properties = new HashMap<>(Map.of(
+                "first", "1",
+                "second", "2"));
+        private final List<String> deserialisedValues = new ArrayList<>();
+        private final PropertyDeserialiser underTest = PropertyDeserialiser.builder(properties::get)
+                .withDeserialiserRegistries(List.of(DeserialiserRegistry.builder()
+                        .put(Integer.class, value -> {
+                            deserialisedValues.add(value);
+                            return Integer.valueOf(value);
+                        })
+                        .build()))
+                .withDeserialisedValueCache()
+                .build();
+
+        @Test
+        void whenRawValueIsUnchanged_thenReuseDeserialisedValue() throws PropertyException {
+            final Integer first = underTest.deserialise("first", Integer.class);
+
+            assertThat(underTest.deserialise("first", Integer.class)).isSameAs(first);
+            assertThat(deserialisedValues).containsExactly("1");
+        }
+
+        @Test
+        void whenArrayIsCached_thenEachCallerGetsItsOwnCopy() throws PropertyException {
+            final Integer[] first = underTest.deserialise("first", Integer[].class);
+            first[0] = 99;
+
+            assertThat(underTest.deserialise("first", Integer[].class)).containsExactly(1);
+            assertThat(underTest.deserialise("first", Integer[].class)).isNotSameAs(underTest.deserialise("first", Integer[].class));
+            assertThat(deserialisedValues).containsExactly("1");
+        }
+
+        @Test
+        void whenRawValueChanges_thenOnlyThatPropertyIsDeserialisedAgain() throws PropertyException {
+            underTest.deserialise("first", Integer.class);
+            underTest.deserialise("second", Integer.class);
+
+            properties.put("second", "20");
+
+            assertThat(underTest.deserialise("first", Integer.class)).isEqualTo(1);
+            assertThat(underTest.deserialise("second", Integer.class)).isEqualTo(20);
+            assertThat(deserialisedValues).containsExactly("1", "2", "20");
+        }
+
+        @Test
+        void whenDisabled_thenDeserialiseOnEveryCall() throws PropertyException {
+            final var uncached = PropertyDeserialiser.builder(properties::get)
+                    .withDeserialiserRegistries(List.of(DeserialiserRegistry.builder()
+                            .put(Integer.class, value -> {
+                                deserialisedValues.add(value);
+                                return Integer.valueOf(value);
+                            })
+                            .build()))
+                    .build();
+
+            uncached.deserialise("first", Integer.class);
+            uncached.deserialise("first", Integer.class);
+
+            assertThat(deserialisedValues).containsExactly("1", "1");
+        }
+
+        @Nested
+        class WithSnapshotPropertyResolver {
+
+            private final AtomicReference<PropertySnapshot> latest =
+                    new AtomicReference<>(PropertySnapshot.of(Map.of("first", "1", "second", "2"), 0));
+            private final PropertyDeserialiser underTest = PropertyDeserialiser.builder((SnapshotPropertyResolver) latest::get)
+                    .withDeserialiserRegistries(List.of(DeserialiserRegistry.builder()
+                            .put(Integer.class, value -> {
+                                deserialisedValues.add(value);
+                                return Integer.valueOf(value);
+                            })
+                            .build()))
+                    .withDeserialisedValueCache()
+                    .build();
+
+            @Test
+            void whenSnapshotIsUnchanged_thenReturnCachedValue() throws PropertyException {
+                final Integer first = underTest.deserialise("first", Integer.class);
+
+                assertThat(underTest.deserialise("first", Integer.class)).isSameAs(first);
+                assertThat(deserialisedValues).containsExactly("1");
+            }
+
+            @Test
+            void whenDifferentSnapshotHasTheSameVersion_thenCompareRawValues() throws PropertyException {
+                underTest.deserialise("first", Integer.class);
+
+                latest.set(PropertySnapshot.of(Map.of("first", "100"), 0));
+
+                assertThat(underTest.deserialise("first", Integer.class)).isEqualTo(100);
+                assertThat(deserialisedValues).containsExactly("1", "100");
+            }
+
+            @Test
+            void whenResolversWithEqualVersionsShareADeserialiser_thenReadEachResolversValue() throws PropertyException {
+                final SnapshotPropertyResolver resolverA = () -> PropertySnapshot.of(Map.of("first", "1"), 0);
+                final PropertySnapshot snapshotB = PropertySnapshot.of(Map.of("first", "2"), 0);
+                final SnapshotPropertyResolver resolverB = () -> snapshotB;
+                final AtomicReference<PropertyResolver> current = new AtomicReference<>(resolverA);
+                final PropertyDeserialiser shared = PropertyDeserialiser.builder(current::get)
+                        .withDeserialisedValueCache()
+                        .build();
+
+                assertThat(shared.deserialise("first", Integer.class)).isEqualTo(1);
+
+                current.set(resolverB);
+
+                assertThat(shared.deserialise("first", Integer.class)).isEqualTo(2);
+                assertThat(shared.deserialise("first", Integer.class)).isEqualTo(2);
+            }
+
+            @Test
+            void whenVersionChangesButRawValueIsUnchanged_thenReuseDeserialisedValue() throws PropertyException {
+                final Integer first = underTest.deserialise("first", Integer.class);
+
+                latest.set(PropertySnapshot.of(Map.of("first", "1", "second", "20"), 1));
+
+                assertThat(underTest.deserialise("first", Integer.class)).isSameAs(first);
+                assertThat(underTest.deserialise("first", Integer.class)).isSameAs(first);
+                assertThat(deserialisedValues).containsExactly("1");
+            }
+
+            @Test
+            void whenVersionAndRawValueChange_thenDeserialiseAgain() throws PropertyException {
+                underTest.deserialise("second", Integer.class);
+
+                latest.set(PropertySnapshot.of(Map.of("first", "1", "second", "20"), 1));
+
+                assertThat(underTest.deserialise("second", Integer.class)).isEqualTo(20);
+                assertThat(deserialisedValues).containsExactly("2", "20");
+            }
+
+            @Test
+            void whenPropertyIsRemovedInANewVersion_thenThrowMissingPropertyException() throws PropertyException {
+                underTest.deserialise("second", Integer.class);
+
+                latest.set(PropertySnapshot.of(Map.of("first", "1"), 1));
+
+                assertThatThrownBy(() -> underTest.deserialise("second", Integer.class))
+                        .isInstanceOf(MissingPropertyException.class);
+            }
+        }
     }
 
     @Nested
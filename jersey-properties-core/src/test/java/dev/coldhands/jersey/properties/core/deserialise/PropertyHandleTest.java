@@ -0,0 +1,266 @@
+/*
+ * ISC License Copyright (c) 2004-2010 by Internet Systems Consortium, Inc. ("ISC")
+ *
+ * Copyright (c) 2021 by Jamie Redding
+ *
+ * Permission to use, copy, modify, and /or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above copyright
+ * notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND ISC DISCLAIMS ALL WARRANTIES WITH REGARD
+ * TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS.
+ * IN NO EVENT SHALL ISC BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL
+ * DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS,
+ * WHETHER IN AN ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING
+ * OUT OF OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package dev.coldhands.jersey.properties.core.deserialise;
+
+import dev.coldhands.jersey.properties.core.resolver.PropertySnapshot;
+import dev.coldhands.jersey.properties.core.resolver.SnapshotPropertyResolver;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PropertyHandleTest {
+
+    private final AtomicInteger deserialisations = new AtomicInteger();
+    private final List<DeserialiserRegistry> countingRegistries = List.of(DeserialiserRegistry.builder()
+            .put(Integer.class, value -> {
+                deserialisations.incrementAndGet();
+                return Integer.parseInt(value);
+            })
+            .build());
+
+    @Nested
+    class SnapshotResolver {
+
+        private final AtomicReference<PropertySnapshot> snapshot = new AtomicReference<>(
+                PropertySnapshot.of(Map.of("rate.limit", "100", "other", "a"), 1));
+        private final SnapshotPropertyResolver resolver = snapshot::get;
+        private final PropertyDeserialiser propertyDeserialiser = PropertyDeserialiser.builder(resolver)
+                .withDeserialiserRegistries(countingRegistries)
+                .build();
+
+        @Test
+        void repeatedReadsFromTheSameSnapshotDoNotDeserialiseAgain() throws PropertyException {
+            final PropertyHandle<Integer> underTest = propertyDeserialiser.handle("rate.limit", Integer.class);
+
+            assertThat(underTest.get()).isEqualTo(100);
+            assertThat(underTest.get()).isEqualTo(100);
+            assertThat(underTest.get()).isSameAs(underTest.get());
+            assertThat(deserialisations).hasValue(1);
+        }
+
+        @Test
+        void whenPropertyChanges_thenNewValueIsDeserialised() throws PropertyException {
+            final PropertyHandle<Integer> underTest = propertyDeserialiser.handle("rate.limit", Integer.class);
+            assertThat(underTest.get()).isEqualTo(100);
+
+            snapshot.set(PropertySnapshot.of(Map.of("rate.limit", "250"), 2));
+
+            assertThat(underTest.get()).isEqualTo(250);
+            assertThat(deserialisations).hasValue(2);
+        }
+
+        @Test
+        void whenOnlyOtherPropertiesChange_thenValueIsNotDeserialisedAgain() throws PropertyException {
+            final PropertyHandle<Integer> underTest = propertyDeserialiser.handle("rate.limit", Integer.class);
+            final Integer first = underTest.get();
+
+            snapshot.set(PropertySnapshot.of(Map.of("rate.limit", "100", "other", "b"), 2));
+
+            assertThat(underTest.get()).isSameAs(first);
+            assertThat(underTest.get()).isSameAs(first);
+            assertThat(deserialisations).hasValue(1);
+        }
+
+        @Test
+        void whenPropertyIsRemoved_thenThrowMissingPropertyException() throws PropertyException {
+            final PropertyHandle<Integer> underTest = propertyDeserialiser.handle("rate.limit", Integer.class);
+            underTest.get();
+
+            snapshot.set(PropertySnapshot.of(Map.of(), 2));
+
+            assertThatThrownBy(underTest::get)
+                    .isInstanceOf(MissingPropertyException.class);
+            assertThat(underTest.get(5)).isEqualTo(5);
+        }
+    }
+
+    @Test
+    void withPlainResolver_thenValueIsOnlyDeserialisedWhenTheRawValueChanges() throws PropertyException {
+        final Map<String, String> properties = new HashMap<>(Map.of("rate.limit", "100"));
+        final PropertyHandle<Integer> underTest = PropertyDeserialiser.builder(properties::get)
+                .withDeserialiserRegistries(countingRegistries)
+                .build()
+                .handle("rate.limit", Integer.class);
+
+        assertThat(underTest.get()).isEqualTo(100);
+        assertThat(underTest.get()).isEqualTo(100);
+        assertThat(deserialisations).hasValue(1);
+
+        properties.put("rate.limit", "7");
+
+        assertThat(underTest.get()).isEqualTo(7);
+        assertThat(deserialisations).hasValue(2);
+    }
+
+    @Test
+    void primitiveTypesAreSupported() throws PropertyException {
+        final PropertyHandle<Integer> underTest = PropertyDeserialiser.builder(Map.of("port", "8080")::get)
+                .build()
+                .handle("port", int.class);
+
+        final int port = underTest.get();
+
+        assertThat(port).isEqualTo(8080);
+        assertThat(underTest.getPropertyName()).isEqualTo("port");
+        assertThat(underTest.getType()).isEqualTo(int.class);
+    }
+
+    @Test
+    void whenTypeIsAnArray_thenEachReadGetsItsOwnCopy() throws PropertyException {
+        final PropertyHandle<int[]> underTest = PropertyDeserialiser.builder(Map.of("ports", "80,81")::get)
+                .build()
+                .handle("ports", int[].class);
+
+        underTest.get()[0] = 99;
+
+        assertThat(underTest.get()).containsExactly(80, 81);
+        assertThat(underTest.get()).isNotSameAs(underTest.get());
+    }
+
+    @Test
+    void whenValueCannotBeDeserialised_thenThrowDeserialiserExceptionOrReturnDefault() throws MissingDeserialiserException {
+        final PropertyHandle<Integer> underTest = PropertyDeserialiser.builder(Map.of("port", "eighty")::get)
+                .build()
+                .handle("port", Integer.class);
+
+        assertThatThrownBy(underTest::get)
+                .isInstanceOf(DeserialiserException.class)
+                .hasMessage("Exception thrown while deserialising property: port as type: " + Integer.class.getTypeName());
+        assertThat(underTest.get(80)).isEqualTo(80);
+    }
+
+    @Test
+    void whenNoDeserialiserConfiguredForThatType_thenThrowWhenCreatingTheHandle() {
+        final var propertyDeserialiser = PropertyDeserialiser.builder(Map.of("port", "8080")::get)
+                .withDeserialiserRegistries(List.of())
+                .withoutConventionDeserialisers()
+                .build();
+
+        assertThatThrownBy(() -> propertyDeserialiser.handle("port", Integer.class))
+                .isInstanceOf(MissingDeserialiserException.class);
+    }
+
+    @Test
+    void whenArgumentsAreNull_thenThrowIllegalArgumentException() {
+        final var propertyDeserialiser = PropertyDeserialiser.builder(Map.of("port", "8080")::get).build();
+
+        assertThatThrownBy(() -> propertyDeserialiser.handle(null, Integer.class))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Property name must not be null");
+        assertThatThrownBy(() -> propertyDeserialiser.handle("port", null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Type must not be null");
+    }
+
+    @Nested
+    class PrimitiveHandles {
+
+        private final AtomicInteger primitiveDeserialisations = new AtomicInteger();
+        private final Map<String, String> properties = new HashMap<>(Map.of("rate.limit", "100", "quota", "9000000000"));
+        private final PropertyDeserialiser propertyDeserialiser = PropertyDeserialiser.builder(properties::get)
+                .withDeserialiserRegistries(List.of(DeserialiserRegistry.builder()
+                        .putInt(value -> {
+                            primitiveDeserialisations.incrementAndGet();
+                            return Integer.parseInt(value);
+                        })
+                        .putLong(value -> {
+                            primitiveDeserialisations.incrementAndGet();
+                            return Long.parseLong(value);
+                        })
+                        .build()))
+                .build();
+
+        @Test
+        void withPlainResolver_thenIntIsOnlyDeserialisedWhenTheRawValueChanges() throws PropertyException {
+            final IntHandle underTest = propertyDeserialiser.intHandle("rate.limit");
+
+            assertThat(underTest.getAsInt()).isEqualTo(100);
+            assertThat(underTest.getAsInt()).isEqualTo(100);
+            assertThat(primitiveDeserialisations).hasValue(1);
+
+            properties.put("rate.limit", "7");
+
+            assertThat(underTest.getAsInt()).isEqualTo(7);
+            assertThat(primitiveDeserialisations).hasValue(2);
+        }
+
+        @Test
+        void withPlainResolver_thenLongIsOnlyDeserialisedWhenTheRawValueChanges() throws PropertyException {
+            final LongHandle underTest = propertyDeserialiser.longHandle("quota");
+
+            assertThat(underTest.getAsLong()).isEqualTo(9_000_000_000L);
+            assertThat(underTest.getAsLong()).isEqualTo(9_000_000_000L);
+            assertThat(primitiveDeserialisations).hasValue(1);
+        }
+
+        @Test
+        void withSnapshotResolver_thenRepeatedReadsFromTheSameSnapshotDoNotDeserialiseAgain() throws PropertyException {
+            final var snapshot = new AtomicReference<>(PropertySnapshot.of(Map.of("rate.limit", "100"), 1));
+            final SnapshotPropertyResolver resolver = snapshot::get;
+            final IntHandle underTest = PropertyDeserialiser.builder(resolver)
+                    .withDeserialiserRegistries(List.of(DeserialiserRegistry.builder()
+                            .putInt(value -> {
+                                primitiveDeserialisations.incrementAndGet();
+                                return Integer.parseInt(value);
+                            })
+                            .build()))
+                    .build()
+                    .intHandle("rate.limit");
+
+            assertThat(underTest.getAsInt()).isEqualTo(100);
+            assertThat(underTest.getAsInt()).isEqualTo(100);
+
+            snapshot.set(PropertySnapshot.of(Map.of("rate.limit", "100", "other", "a"), 2));
+
+            assertThat(underTest.getAsInt()).isEqualTo(100);
+            assertThat(primitiveDeserialisations).hasValue(1);
+        }
+
+        @Test
+        void whenPropertyIsMissingOrInvalid_thenThrowOrReturnDefault() throws MissingDeserialiserException {
+            properties.put("invalid", "abc");
+
+            assertThatThrownBy(() -> propertyDeserialiser.intHandle("missing").getAsInt())
+                    .isInstanceOf(MissingPropertyException.class);
+            assertThatThrownBy(() -> propertyDeserialiser.intHandle("invalid").getAsInt())
+                    .isInstanceOf(DeserialiserException.class);
+            assertThat(propertyDeserialiser.intHandle("invalid").getAsInt(5)).isEqualTo(5);
+            assertThat(propertyDeserialiser.longHandle("missing").getAsLong(6L)).isEqualTo(6L);
+        }
+
+        @Test
+        void whenNoPrimitiveDeserialiserIsConfigured_thenThrowWhenCreatingTheHandle() {
+            final var withoutPrimitives = PropertyDeserialiser.builder(properties::get)
+                    .withDeserialiserRegistries(List.of(DeserialiserRegistry.builder().build()))
+                    .build();
+
+            assertThatThrownBy(() -> withoutPrimitives.intHandle("rate.limit"))
+                    .isInstanceOf(MissingDeserialiserException.class);
+            assertThatThrownBy(() -> withoutPrimitives.longHandle("quota"))
+                    .isInstanceOf(MissingDeserialiserException.class);
+        }
+    }
+}
@@ -0,0 +1,213 @@
+/*
+ * ISC License Copyright (c) 2004-2010 by Internet Systems Consortium, Inc. ("ISC")
+ *
+ * Copyright (c) 2021 by Jamie Redding
+ *
+ * Permission to use, copy, modify, and /or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above copyright
+ * notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND ISC DISCLAIMS ALL WARRANTIES WITH REGARD
+ * TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS.
+ * IN NO EVENT SHALL ISC BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL
+ * DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS,
+ * WHETHER IN AN ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING
+ * OUT OF OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package dev.coldhands.jersey.properties.core.message;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PropertiesMessageResolverTest {
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Files.writeString(tempDir.resolve("messages.properties"),
+                "greeting=Hello {0}\n" +
+                "farewell=Goodbye\n" +
+                "count=There are {0,number,integer} items\n" +
+                "rootOnly=Only in root\n");
+        Files.writeString(tempDir.resolve("messages_fr.properties"),
+                "greeting=Bonjour {0}\n" +
+                "farewell=Au revoir\n" +
+                "count=Il y a {0,number,integer} articles\n");
+        Files.writeString(tempDir.resolve("messages_fr_CA.properties"),
+                "farewell=Salut\n");
+        Files.writeString(tempDir.resolve("messages_de.properties"),
+                "greeting=Grüß dich {0}\n");
+    }
+
+    @Test
+    void whenMessageExistsForLocale_thenFormatIt() {
+        final var underTest = PropertiesMessageResolver.builder(tempDir, "messages").build();
+
+        assertThat(underTest.getMessage(Locale.FRENCH, "greeting", "Marie")).isEqualTo("Bonjour Marie");
+    }
+
+    @Test
+    void whenMessageIsMissingForLocale_thenFallBackThroughParentLocales() {
+        final var underTest = PropertiesMessageResolver.builder(tempDir, "messages").build();
+
+        assertThat(underTest.getMessage(Locale.CANADA_FRENCH, "farewell")).isEqualTo("Salut");
+        assertThat(underTest.getMessage(Locale.CANADA_FRENCH, "greeting", "Marie")).isEqualTo("Bonjour Marie");
+        assertThat(underTest.getMessage(Locale.CANADA_FRENCH, "rootOnly")).isEqualTo("Only in root");
+    }
+
+    @Test
+    void whenLocaleHasNoFiles_thenUseBaseMessages() {
+        final var underTest = PropertiesMessageResolver.builder(tempDir, "messages").build();
+
+        assertThat(underTest.getMessage(Locale.JAPANESE, "greeting", "Taro")).isEqualTo("Hello Taro");
+    }
+
+    @Test
+    void whenFallbackLocaleConfigured_thenUseItBeforeBaseMessages() {
+        final var underTest = PropertiesMessageResolver.builder(tempDir, "messages")
+                .withFallbackLocale(Locale.FRENCH)
+                .build();
+
+        assertThat(underTest.getMessage(Locale.GERMAN, "greeting", "Jan")).isEqualTo("Grüß dich Jan");
+        assertThat(underTest.getMessage(Locale.GERMAN, "farewell")).isEqualTo("Au revoir");
+        assertThat(underTest.getMessage(Locale.GERMAN, "rootOnly")).isEqualTo("Only in root");
+    }
+
+    @Test
+    void whenMessageDoesNotExist_thenReturnNull() {
+        final var underTest = PropertiesMessageResolver.builder(tempDir, "messages").build();
+
+        assertThat(underTest.getMessage(Locale.FRENCH, "missing")).isNull();
+    }
+
+    @Test
+    void whenFormattingNumbers_thenUseTheRequestedLocale() {
+        final var underTest = PropertiesMessageResolver.builder(tempDir, "messages").build();
+
+        assertThat(underTest.getMessage(Locale.UK, "count", 1234)).isEqualTo("There are 1,234 items");
+        assertThat(underTest.getMessage(Locale.GERMANY, "count", 1234)).isEqualTo("There are 1.234 items");
+    }
+
+    @Test
+    void whenCheckingForMessages_thenOnlyCountFilesSpecificToTheLocale() {
+        final var underTest = PropertiesMessageResolver.builder(tempDir, "messages")
+                .withFallbackLocale(Locale.FRENCH)
+                .build();
+
+        assertThat(underTest.hasMessagesFor(Locale.CANADA_FRENCH)).isTrue();
+        assertThat(underTest.hasMessagesFor(Locale.FRANCE)).isTrue();
+        assertThat(underTest.hasMessagesFor(Locale.JAPANESE)).isFalse();
+    }
+
+    @Test
+    void whenLocaleIsUnknown_thenReduceItToTheNearestKnownLocaleBeforeCaching() {
+        final var underTest = PropertiesMessageResolver.builder(tempDir, "messages").build();
+
+        for (int i = 0; i < 1000; i++) {
+            final Locale clientLocale = new Locale("fr", "X" + i);
+            assertThat(underTest.getMessage(clientLocale, "greeting", "Marie")).isEqualTo("Bonjour Marie");
+            assertThat(underTest.hasMessagesFor(clientLocale)).isTrue();
+            assertThat(underTest.getMessage(new Locale("q" + i), "greeting", "Taro")).isEqualTo("Hello Taro");
+        }
+
+        assertThat(underTest.getCachedLocaleCount()).isEqualTo(2);
+        assertThat(underTest.getCachedRequestedLocaleCount())
+                .isLessThanOrEqualTo(PropertiesMessageResolver.MAXIMUM_CACHED_REQUESTED_LOCALES);
+    }
+
+    @Test
+    void whenReducedLocaleIsRequestedAgain_thenReuseTheMessagesFoundForIt() {
+        final var underTest = PropertiesMessageResolver.builder(tempDir, "messages").build();
+        final Locale clientLocale = new Locale("fr", "XX");
+
+        assertThat(underTest.getMessage(clientLocale, "greeting", "Marie")).isEqualTo("Bonjour Marie");
+        assertThat(underTest.hasMessagesFor(clientLocale)).isTrue();
+        assertThat(underTest.getMessage(clientLocale, "greeting", "Marie")).isEqualTo("Bonjour Marie");
+
+        assertThat(underTest.getCachedLocaleCount()).isEqualTo(1);
+        assertThat(underTest.getCachedRequestedLocaleCount()).isEqualTo(1);
+    }
+
+    @Test
+    void whenFilesChangeAfterFirstUse_thenKeepUsingTheLoadedMessages() throws IOException {
+        final var underTest = PropertiesMessageResolver.builder(tempDir, "messages").build();
+        underTest.getMessage(Locale.FRENCH, "greeting", "Marie");
+
+        Files.writeString(tempDir.resolve("messages_fr.properties"), "greeting=Salut {0}\n");
+
+        assertThat(underTest.getMessage(Locale.FRENCH, "greeting", "Marie")).isEqualTo("Bonjour Marie");
+    }
+
+    @Test
+    void whenUsingLocalisedMessages_thenUseTheirLocale() {
+        final LocalisedMessages underTest = PropertiesMessageResolver.builder(tempDir, "messages").build()
+                .forLocale(Locale.FRENCH);
+
+        assertThat(underTest.getLocale()).isEqualTo(Locale.FRENCH);
+        assertThat(underTest.getMessage("greeting", "Marie")).isEqualTo("Bonjour Marie");
+    }
+
+    @Test
+    void whenLoadingFromTheClasspath_thenResolveTheBaseNameAsAResourcePath() throws IOException {
+        final Path packageDirectory = Files.createDirectories(tempDir.resolve("classpath/i18n"));
+        Files.writeString(packageDirectory.resolve("messages_fr.properties"), "greeting=Bonjour {0}\n");
+
+        try (var classLoader = new URLClassLoader(new URL[]{tempDir.resolve("classpath").toUri().toURL()}, null)) {
+            final var underTest = PropertiesMessageResolver.builder("i18n.messages")
+                    .withClassLoader(classLoader)
+                    .build();
+
+            assertThat(underTest.getMessage(Locale.FRENCH, "greeting", "Marie")).isEqualTo("Bonjour Marie");
+            assertThat(underTest.getMessage(Locale.ENGLISH, "greeting", "Marie")).isNull();
+        }
+    }
+
+    @Nested
+    class Validation {
+
+        @Test
+        void whenBaseNameIsNull_thenThrowIllegalArgumentException() {
+            assertThatThrownBy(() -> PropertiesMessageResolver.builder(null))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Base name must not be null");
+        }
+
+        @Test
+        void whenDirectoryIsNull_thenThrowIllegalArgumentException() {
+            assertThatThrownBy(() -> PropertiesMessageResolver.builder(null, "messages"))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Directory must not be null");
+        }
+
+        @Test
+        void whenFallbackLocaleIsNull_thenThrowIllegalArgumentException() {
+            assertThatThrownBy(() -> PropertiesMessageResolver.builder(tempDir, "messages").withFallbackLocale(null))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Fallback locale must not be null");
+        }
+
+        @Test
+        void whenLocalisedMessagesHaveNoLocale_thenThrowIllegalArgumentException() {
+            final var messageResolver = PropertiesMessageResolver.builder(tempDir, "messages").build();
+
+            assertThatThrownBy(() -> messageResolver.forLocale(null))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Locale must not be null");
+        }
+    }
+}
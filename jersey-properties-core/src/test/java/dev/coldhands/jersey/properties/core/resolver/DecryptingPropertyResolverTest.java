@@ -0,0 +1,355 @@
+/*
+ * ISC License Copyright (c) 2004-2010 by Internet Systems Consortium, Inc. ("ISC")
+ *
+ * Copyright (c) 2021 by Jamie Redding
+ *
+ * Permission to use, copy, modify, and /or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above copyright
+ * notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND ISC DISCLAIMS ALL WARRANTIES WITH REGARD
+ * TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS.
+ * IN NO EVENT SHALL ISC BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL
+ * DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS,
+ * WHETHER IN AN ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING
+ * OUT OF OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package dev.coldhands.jersey.properties.core.resolver;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DecryptingPropertyResolverTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final SecretKey key = generateKey();
+
+    @Test
+    void whenValueIsEncrypted_thenReturnPlaintext() throws Exception {
+        final var underTest = DecryptingPropertyResolver.builder(
+                        Map.of("db.password", DecryptingPropertyResolver.encrypt("s3cret", key))::get, () -> key)
+                .build();
+
+        assertThat(underTest.getProperty("db.password")).isEqualTo("s3cret");
+    }
+
+    @Test
+    void whenValueIsNotEncrypted_thenReturnItUnchanged() throws IOException {
+        final var underTest = DecryptingPropertyResolver.builder(Map.of("db.host", "localhost")::get, () -> key)
+                .build();
+
+        assertThat(underTest.getProperty("db.host")).isEqualTo("localhost");
+        assertThat(underTest.getProperty("db.port")).isNull();
+        assertThat(underTest.getCachedPlaintextCount()).isZero();
+    }
+
+    @Test
+    void whenValueIsLookedUpRepeatedly_thenOnlyDecryptOnce() throws Exception {
+        final var underTest = DecryptingPropertyResolver.builder(
+                        Map.of("db.password", DecryptingPropertyResolver.encrypt("s3cret", key))::get, () -> key)
+                .build();
+
+        final String first = underTest.getProperty("db.password");
+
+        assertThat(underTest.getProperty("db.password")).isSameAs(first);
+        assertThat(underTest.getCachedPlaintextCount()).isEqualTo(1);
+    }
+
+    @Test
+    void whenEncryptedWithAnotherKey_thenThrowPropertyDecryptionException() throws Exception {
+        final var underTest = DecryptingPropertyResolver.builder(
+                        Map.of("db.password", DecryptingPropertyResolver.encrypt("s3cret", generateKey()))::get, () -> key)
+                .build();
+
+        assertThatThrownBy(() -> underTest.getProperty("db.password"))
+                .isInstanceOf(PropertyDecryptionException.class)
+                .hasMessage("Unable to decrypt value of property: db.password");
+    }
+
+    @Test
+    void whenCiphertextIsNotBase64_thenThrowPropertyDecryptionException() throws IOException {
+        final var underTest = DecryptingPropertyResolver.builder(Map.of("db.password", "ENC(not base64!)")::get, () -> key)
+                .build();
+
+        assertThatThrownBy(() -> underTest.getProperty("db.password"))
+                .isInstanceOf(PropertyDecryptionException.class)
+                .hasCauseInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void whenInvalidated_thenDecryptAgainOnNextLookup() throws Exception {
+        final var underTest = DecryptingPropertyResolver.builder(
+                        Map.of("db.password", DecryptingPropertyResolver.encrypt("s3cret", key))::get, () -> key)
+                .build();
+        final String first = underTest.getProperty("db.password");
+
+        underTest.invalidate();
+
+        assertThat(underTest.getCachedPlaintextCount()).isZero();
+        assertThat(underTest.getProperty("db.password"))
+                .isEqualTo("s3cret")
+                .isNotSameAs(first);
+    }
+
+    @Test
+    void whenZeroingOnEviction_thenStillReturnPlaintextBeforeAndAfterEviction() throws Exception {
+        final var underTest = DecryptingPropertyResolver.builder(
+                        Map.of("db.password", DecryptingPropertyResolver.encrypt("s3cret", key))::get, () -> key)
+                .withZeroingOnEviction()
+                .build();
+        final String first = underTest.getProperty("db.password");
+
+        underTest.invalidate();
+
+        assertThat(first).isEqualTo("s3cret");
+        assertThat(underTest.getProperty("db.password")).isEqualTo("s3cret");
+    }
+
+    @Test
+    void whenDelegateReloads_thenEvictChangedAndRemovedValues() throws Exception {
+        final Path propertyFile = tempDir.resolve("app.properties");
+        final String unchanged = DecryptingPropertyResolver.encrypt("api-key", key);
+        Files.writeString(propertyFile,
+                "db.password=" + DecryptingPropertyResolver.encrypt("old", key) + "\n" +
+                "api.key=" + unchanged + "\n" +
+                "legacy.secret=" + DecryptingPropertyResolver.encrypt("legacy", key) + "\n");
+        final var delegate = new FileBasedPropertyResolver(propertyFile);
+        final var underTest = DecryptingPropertyResolver.builder(delegate, () -> key)
+                .withZeroingOnEviction()
+                .build();
+        underTest.getProperty("db.password");
+        underTest.getProperty("api.key");
+        underTest.getProperty("legacy.secret");
+
+        Files.writeString(propertyFile,
+                "db.password=" + DecryptingPropertyResolver.encrypt("new", key) + "\n" +
+                "api.key=" + unchanged + "\n");
+        delegate.reload();
+
+        assertThat(underTest.getCachedPlaintextCount()).isEqualTo(1);
+        assertThat(underTest.getProperty("db.password")).isEqualTo("new");
+        assertThat(underTest.getProperty("api.key")).isEqualTo("api-key");
+        assertThat(underTest.getProperty("legacy.secret")).isNull();
+    }
+
+    @Test
+    void whenChangedPropertySharesCiphertextWithAnUnchangedOne_thenKeepItCached() throws Exception {
+        final Path propertyFile = tempDir.resolve("app.properties");
+        final String shared = DecryptingPropertyResolver.encrypt("shared", key);
+        Files.writeString(propertyFile, "primary.password=" + shared + "\nreplica.password=" + shared + "\n");
+        final var delegate = new FileBasedPropertyResolver(propertyFile);
+        final var underTest = DecryptingPropertyResolver.builder(delegate, () -> key)
+                .withZeroingOnEviction()
+                .build();
+        underTest.getProperty("replica.password");
+
+        Files.writeString(propertyFile, "primary.password=" + DecryptingPropertyResolver.encrypt("new", key) + "\nreplica.password=" + shared + "\n");
+        delegate.reload();
+
+        assertThat(underTest.getCachedPlaintextCount()).isEqualTo(1);
+        assertThat(underTest.getProperty("replica.password")).isEqualTo("shared");
+        assertThat(underTest.getProperty("primary.password")).isEqualTo("new");
+    }
+
+    @Test
+    void whenEvictedWhileBeingRead_thenNeverReturnZeroedCharacters() throws Exception {
+        final var underTest = DecryptingPropertyResolver.builder(
+                        Map.of("db.password", DecryptingPropertyResolver.encrypt("s3cret", key))::get, () -> key)
+                .withZeroingOnEviction()
+                .build();
+        final var running = new AtomicBoolean(true);
+        final Thread invalidator = new Thread(() -> {
+            while (running.get()) {
+                underTest.invalidate();
+            }
+        });
+        invalidator.start();
+        try {
+            for (int i = 0; i < 10_000; i++) {
+                assertThat(underTest.getProperty("db.password")).isEqualTo("s3cret");
+            }
+        } finally {
+            running.set(false);
+            invalidator.join();
+        }
+    }
+
+    @Test
+    void whenClosed_thenStopListeningToTheDelegateAndEvictEveryPlaintext() throws Exception {
+        final Path propertyFile = tempDir.resolve("app.properties");
+        Files.writeString(propertyFile, "db.password=" + DecryptingPropertyResolver.encrypt("old", key) + "\n");
+        final var delegate = new FileBasedPropertyResolver(propertyFile);
+        final var cancelled = new AtomicBoolean();
+        final ReloadablePropertyResolver trackingDelegate = new ReloadablePropertyResolver() {
+            @Override
+            public void reload() throws IOException {
+                delegate.reload();
+            }
+
+            @Override
+            public Subscription addChangeListener(String prefix, PropertyChangeListener listener, Executor executor) {
+                final Subscription subscription = delegate.addChangeListener(prefix, listener, executor);
+                return () -> {
+                    cancelled.set(true);
+                    subscription.cancel();
+                };
+            }
+
+            @Override
+            public PropertySnapshot getSnapshot() {
+                return delegate.getSnapshot();
+            }
+        };
+        final var underTest = DecryptingPropertyResolver.builder(trackingDelegate, () -> key).build();
+        underTest.getProperty("db.password");
+
+        underTest.close();
+
+        assertThat(cancelled).isTrue();
+        assertThat(underTest.getCachedPlaintextCount()).isZero();
+    }
+
+    @Test
+    void whenKeyIsLoaded_thenOnlyAskKeyProviderOnce() throws Exception {
+        final var calls = new AtomicInteger();
+        final var underTest = DecryptingPropertyResolver.builder(
+                        Map.of("a", DecryptingPropertyResolver.encrypt("1", key),
+                                "b", DecryptingPropertyResolver.encrypt("2", key))::get,
+                        () -> {
+                            calls.incrementAndGet();
+                            return key;
+                        })
+                .build();
+
+        underTest.getProperty("a");
+        underTest.getProperty("b");
+
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    void whenKeyProviderReturnsNull_thenThrowIOException() {
+        assertThatThrownBy(() -> DecryptingPropertyResolver.builder(name -> null, () -> null).build())
+                .isInstanceOf(IOException.class)
+                .hasMessage("KeyProvider did not provide a key");
+    }
+
+    @Test
+    void whenDelegateIsNull_thenThrowIllegalArgumentException() {
+        assertThatThrownBy(() -> DecryptingPropertyResolver.builder(null, () -> key))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("PropertyResolver must not be null");
+    }
+
+    @Test
+    void whenKeyProviderIsNull_thenThrowIllegalArgumentException() {
+        assertThatThrownBy(() -> DecryptingPropertyResolver.builder(name -> null, null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("KeyProvider must not be null");
+    }
+
+    @Nested
+    class KeyProviders {
+
+        @Test
+        void whenRawKeyFileContainsKeyBytes_thenUseThem() throws Exception {
+            final Path keyFile = tempDir.resolve("key.bin");
+            Files.write(keyFile, key.getEncoded());
+
+            assertThat(KeyProvider.fromRawKeyFile(keyFile).getKey().getEncoded()).isEqualTo(key.getEncoded());
+        }
+
+        @Test
+        void whenRawKeyFileHasWrongLength_thenThrowIOException() throws IOException {
+            final Path keyFile = tempDir.resolve("key.bin");
+            Files.writeString(keyFile, Base64.getEncoder().encodeToString(key.getEncoded()) + "\n");
+
+            assertThatThrownBy(() -> KeyProvider.fromRawKeyFile(keyFile).getKey())
+                    .isInstanceOf(IOException.class)
+                    .hasMessageEndingWith("must be 16, 24 or 32 bytes but was 45");
+        }
+
+        @Test
+        void whenBase64KeyFileContainsBase64_thenDecodeIt() throws Exception {
+            final Path keyFile = tempDir.resolve("key.txt");
+            Files.writeString(keyFile, Base64.getEncoder().encodeToString(key.getEncoded()) + "\n");
+
+            assertThat(KeyProvider.fromBase64KeyFile(keyFile).getKey().getEncoded()).isEqualTo(key.getEncoded());
+        }
+
+        @Test
+        void whenBase64KeyFileHasNoTrailingNewlineAndTheLengthOfARawKey_thenStillDecodeIt() throws Exception {
+            final byte[] sixteenByteKey = new byte[16];
+            Arrays.fill(sixteenByteKey, (byte) 7);
+            final String encoded = Base64.getEncoder().encodeToString(sixteenByteKey);
+            final Path keyFile = tempDir.resolve("key.txt");
+            Files.writeString(keyFile, encoded);
+
+            assertThat(encoded).hasSize(24);
+            assertThat(KeyProvider.fromBase64KeyFile(keyFile).getKey().getEncoded()).isEqualTo(sixteenByteKey);
+        }
+
+        @Test
+        void whenBase64KeyFileHasWrongLength_thenThrowIOException() throws IOException {
+            final Path keyFile = tempDir.resolve("key.txt");
+            Files.writeString(keyFile, Base64.getEncoder().encodeToString(new byte[20]));
+
+            assertThatThrownBy(() -> KeyProvider.fromBase64KeyFile(keyFile).getKey())
+                    .isInstanceOf(IOException.class)
+                    .hasMessageEndingWith("must be 16, 24 or 32 bytes but was 20");
+        }
+
+        @Test
+        void whenEnvironmentVariableIsSet_thenDecodeIt() throws IOException {
+            final var encodedKey = Base64.getEncoder().encodeToString(key.getEncoded());
+
+            assertThat(AesKeys.fromEnvironmentVariable("CONFIG_KEY", Map.of("CONFIG_KEY", encodedKey)::get)
+                    .getKey().getEncoded())
+                    .isEqualTo(key.getEncoded());
+        }
+
+        @Test
+        void whenEnvironmentVariableIsNotSet_thenThrowIOException() {
+            assertThatThrownBy(() -> AesKeys.fromEnvironmentVariable("CONFIG_KEY", name -> null).getKey())
+                    .isInstanceOf(IOException.class)
+                    .hasMessage("Environment variable is not set: CONFIG_KEY");
+        }
+
+        @Test
+        void whenEnvironmentVariableIsNotBase64_thenThrowIOException() {
+            assertThatThrownBy(() -> AesKeys.fromEnvironmentVariable("CONFIG_KEY", name -> "%%%").getKey())
+                    .isInstanceOf(IOException.class)
+                    .hasMessage("Key in environment variable CONFIG_KEY is not valid Base64");
+        }
+    }
+
+    private static SecretKey generateKey() {
+        try {
+            final var generator = KeyGenerator.getInstance("AES");
+            generator.init(256);
+            return generator.generateKey();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
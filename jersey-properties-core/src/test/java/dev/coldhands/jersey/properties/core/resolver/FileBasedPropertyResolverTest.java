@@ -28,6 +28,8 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -192,4 +194,243 @@ class FileBasedPropertyResolverTest {
         }
     }
 
+    @Nested
+    class Reload {
+
+        @Test
+        void whenFileChanges_thenReloadPublishesNewSnapshot() throws IOException {
+            Files.writeString(propertyFile, "port=8080\nhost=localhost\n");
+            final var underTest = new FileBasedPropertyResolver(propertyFile);
+            final PropertySnapshot original = underTest.getSnapshot();
+
+            Files.writeString(propertyFile, "port=9090\n");
+            underTest.reload();
+
+            assertThat(underTest.getProperty("port")).isEqualTo("9090");
+            assertThat(underTest.getProperty("host")).isNull();
+            assertThat(underTest.getSnapshot().getVersion()).isGreaterThan(original.getVersion());
+            assertThat(original.getProperty("port")).isEqualTo("8080");
+        }
+
+        @Test
+        void unchangedValuesKeepTheSameInstanceAfterReload() throws IOException {
+            Files.writeString(propertyFile, "db.host=localhost\ndb.port=5432\n");
+            final var underTest = new FileBasedPropertyResolver(propertyFile);
+            final String originalHost = underTest.getProperty("db.host");
+
+            Files.writeString(propertyFile, "db.host=localhost\ndb.port=6543\n");
+            underTest.reload();
+
+            assertThat(underTest.getProperty("db.host")).isSameAs(originalHost);
+            assertThat(underTest.getProperty("db.port")).isEqualTo("6543");
+        }
+
+        @Test
+        void whenReloadFails_thenKeepCurrentSnapshot() throws IOException {
+            Files.writeString(propertyFile, "port=8080\n");
+            final var underTest = new FileBasedPropertyResolver(propertyFile);
+
+            Files.delete(propertyFile);
+
+            assertThatThrownBy(underTest::reload)
+                    .isInstanceOf(FileNotFoundException.class);
+            assertThat(underTest.getProperty("port")).isEqualTo("8080");
+        }
+
+        @Test
+        void reloadKeepsActiveProfile() throws IOException {
+            Files.writeString(propertyFile, "db.url=jdbc:dev\n%prod.db.url=jdbc:prod\n");
+            final var underTest = new FileBasedPropertyResolver(propertyFile, "prod");
+
+            Files.writeString(propertyFile, "db.url=jdbc:dev\n%prod.db.url=jdbc:prod2\n");
+            underTest.reload();
+
+            assertThat(underTest.getProperty("db.url")).isEqualTo("jdbc:prod2");
+        }
+    }
+
+    @Nested
+    class ChangeListeners {
+
+        @Test
+        void whenPropertiesChange_thenNotifyListenerWithDifferences() throws IOException {
+            Files.writeString(propertyFile, "db.host=localhost\ndb.port=5432\npool.size=10\n");
+            final var underTest = new FileBasedPropertyResolver(propertyFile);
+            final List<PropertyChanges> notifications = new ArrayList<>();
+            underTest.addChangeListener(notifications::add);
+
+            Files.writeString(propertyFile, "db.host=localhost\ndb.port=6543\npool.max=20\n");
+            underTest.reload();
+
+            assertThat(notifications).singleElement().satisfies(changes -> {
+                assertThat(changes.getChanged()).containsExactly("db.port");
+                assertThat(changes.getAdded()).containsExactly("pool.max");
+                assertThat(changes.getRemoved()).containsExactly("pool.size");
+            });
+        }
+
+        @Test
+        void whenNothingChanged_thenDoNotNotifyOrPublishNewSnapshot() throws IOException {
+            Files.writeString(propertyFile, "db.host=localhost\n");
+            final var underTest = new FileBasedPropertyResolver(propertyFile);
+            final PropertySnapshot original = underTest.getSnapshot();
+            final List<PropertyChanges> notifications = new ArrayList<>();
+            underTest.addChangeListener(notifications::add);
+
+            underTest.reload();
+
+            assertThat(notifications).isEmpty();
+            assertThat(underTest.getSnapshot()).isSameAs(original);
+        }
+
+        @Test
+        void whenListeningToPrefix_thenOnlyNotifyForMatchingProperties() throws IOException {
+            Files.writeString(propertyFile, "db.host=localhost\npool.size=10\n");
+            final var underTest = new FileBasedPropertyResolver(propertyFile);
+            final List<PropertyChanges> notifications = new ArrayList<>();
+            underTest.addChangeListener("pool.", notifications::add);
+
+            Files.writeString(propertyFile, "db.host=remotehost\npool.size=10\n");
+            underTest.reload();
+
+            assertThat(notifications).isEmpty();
+
+            Files.writeString(propertyFile, "db.host=remotehost\npool.size=20\n");
+            underTest.reload();
+
+            assertThat(notifications).singleElement()
+                    .satisfies(changes -> assertThat(changes.getChanged()).containsExactly("pool.size"));
+        }
+
+        @Test
+        void listenerIsCalledOnConfiguredExecutor() throws IOException {
+            Files.writeString(propertyFile, "db.host=localhost\n");
+            final var underTest = new FileBasedPropertyResolver(propertyFile);
+            final List<Runnable> queued = new ArrayList<>();
+            final List<PropertyChanges> notifications = new ArrayList<>();
+            underTest.addChangeListener("", notifications::add, queued::add);
+
+            Files.writeString(propertyFile, "db.host=remotehost\n");
+            underTest.reload();
+
+            assertThat(notifications).isEmpty();
+            queued.forEach(Runnable::run);
+            assertThat(notifications).hasSize(1);
+        }
+
+        @Test
+        void whenSubscriptionCancelled_thenStopNotifying() throws IOException {
+            Files.writeString(propertyFile, "db.host=localhost\n");
+            final var underTest = new FileBasedPropertyResolver(propertyFile);
+            final List<PropertyChanges> notifications = new ArrayList<>();
+            final Subscription subscription = underTest.addChangeListener(notifications::add);
+
+            subscription.cancel();
+            Files.writeString(propertyFile, "db.host=remotehost\n");
+            underTest.reload();
+
+            assertThat(notifications).isEmpty();
+        }
+    }
+
+    @Nested
+    class Profiles {
+
+        @Test
+        void whenProfileIsActive_thenPrefixQualifiedPropertyTakesPrecedence() throws IOException {
+            Files.writeString(propertyFile, "db.url=jdbc:dev\n%prod.db.url=jdbc:prod\n%staging.db.url=jdbc:staging\n");
+
+            final PropertyResolver underTest = new FileBasedPropertyResolver(propertyFile, "prod");
+
+            assertThat(underTest.getProperty("db.url")).isEqualTo("jdbc:prod");
+        }
+
+        @Test
+        void whenProfileIsActive_thenSuffixQualifiedPropertyTakesPrecedence() throws IOException {
+            Files.writeString(propertyFile, "db.url[prod]=jdbc:prod\ndb.url=jdbc:dev\ndb.url[staging]=jdbc:staging\n");
+
+            final PropertyResolver underTest = new FileBasedPropertyResolver(propertyFile, "prod");
+
+            assertThat(underTest.getProperty("db.url")).isEqualTo("jdbc:prod");
+        }
+
+        @Test
+        void whenNoQualifiedPropertyForActiveProfile_thenUseUnqualifiedProperty() throws IOException {
+            Files.writeString(propertyFile, "db.url=jdbc:dev\n%staging.db.url=jdbc:staging\n");
+
+            final PropertyResolver underTest = new FileBasedPropertyResolver(propertyFile, "prod");
+
+            assertThat(underTest.getProperty("db.url")).isEqualTo("jdbc:dev");
+        }
+
+        @Test
+        void whenOnlyQualifiedPropertyExists_thenItIsAvailableForThatProfile() throws IOException {
+            Files.writeString(propertyFile, "%prod.metrics.enabled=true\n");
+
+            assertThat(new FileBasedPropertyResolver(propertyFile, "prod").getProperty("metrics.enabled"))
+                    .isEqualTo("true");
+            assertThat(new FileBasedPropertyResolver(propertyFile, "dev").getProperty("metrics.enabled"))
+                    .isNull();
+        }
+
+        @Test
+        void qualifiedPropertiesAreNotAvailableByTheirQualifiedName() throws IOException {
+            Files.writeString(propertyFile, "%prod.db.url=jdbc:prod\ndb.host[prod]=prodhost\n");
+
+            final PropertyResolver underTest = new FileBasedPropertyResolver(propertyFile, "prod");
+
+            assertThat(underTest.getProperty("%prod.db.url")).isNull();
+            assertThat(underTest.getProperty("db.host[prod]")).isNull();
+            assertThat(underTest.getProperty("db.host")).isEqualTo("prodhost");
+        }
+
+        @Test
+        void profileNamesMustMatchExactly() throws IOException {
+            Files.writeString(propertyFile, "db.url=jdbc:dev\n%production.db.url=jdbc:production\ndb.url[pro]=jdbc:pro\n");
+
+            final PropertyResolver underTest = new FileBasedPropertyResolver(propertyFile, "prod");
+
+            assertThat(underTest.getProperty("db.url")).isEqualTo("jdbc:dev");
+        }
+
+        @Test
+        void whenSuffixIsNotAKnownProfile_thenKeepPropertyAsWritten() throws IOException {
+            Files.writeString(propertyFile, "servers[0]=alpha\nservers[1]=beta\ndb.url[staging]=jdbc:staging\n%staging.db.host=staginghost\n");
+
+            final PropertyResolver underTest = new FileBasedPropertyResolver(propertyFile, "prod");
+
+            assertThat(underTest.getProperty("servers[0]")).isEqualTo("alpha");
+            assertThat(underTest.getProperty("servers[1]")).isEqualTo("beta");
+            assertThat(underTest.getProperty("db.url[staging]")).isNull();
+        }
+
+        @Test
+        void whenQualifiedWithPrefixAndSuffix_thenPrefixTakesPrecedence() throws IOException {
+            Files.writeString(propertyFile, "db.url[prod]=jdbc:suffix\n%prod.db.url=jdbc:prefix\ndb.url=jdbc:dev\n");
+
+            final PropertyResolver underTest = new FileBasedPropertyResolver(propertyFile, "prod");
+
+            assertThat(underTest.getProperty("db.url")).isEqualTo("jdbc:prefix");
+        }
+
+        @Test
+        void whenNoProfileIsActive_thenPropertyNamesAreUsedAsWritten() throws IOException {
+            Files.writeString(propertyFile, "%prod.db.url=jdbc:prod\n");
+
+            final PropertyResolver underTest = new FileBasedPropertyResolver(propertyFile);
+
+            assertThat(underTest.getProperty("%prod.db.url")).isEqualTo("jdbc:prod");
+            assertThat(underTest.getProperty("db.url")).isNull();
+        }
+
+        @Test
+        void whenProfileIsBlank_thenThrowIllegalArgumentException() throws IOException {
+            Files.createFile(propertyFile);
+
+            assertThatThrownBy(() -> new FileBasedPropertyResolver(propertyFile, " "))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Profile must not be blank");
+        }
+    }
+
 }
\ No newline at end of file
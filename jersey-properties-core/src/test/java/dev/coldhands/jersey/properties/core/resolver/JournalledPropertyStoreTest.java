@@ -0,0 +1,300 @@
+/*
+ * ISC License Copyright (c) 2004-2010 by Internet Systems Consortium, Inc. ("ISC")
+ *
+ * Copyright (c) 2021 by Jamie Redding
+ *
+ * Permission to use, copy, modify, and /or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above copyright
+ * notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND ISC DISCLAIMS ALL WARRANTIES WITH REGARD
+ * TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS.
+ * IN NO EVENT SHALL ISC BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL
+ * DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS,
+ * WHETHER IN AN ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING
+ * OUT OF OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package dev.coldhands.jersey.properties.core.resolver;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static dev.coldhands.jersey.properties.core.resolver.JournalledPropertyStore.JOURNAL_FILE_NAME;
+import static dev.coldhands.jersey.properties.core.resolver.JournalledPropertyStore.SNAPSHOT_FILE_NAME;
+import static java.util.Map.entry;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JournalledPropertyStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    private JournalledPropertyStore open() throws IOException {
+        return JournalledPropertyStore.builder(tempDir)
+                .withCompactionExecutor(Runnable::run)
+                .build();
+    }
+
+    @Test
+    void whenStoreIsEmpty_thenFallBackToBaseResolver() throws IOException {
+        try (var underTest = JournalledPropertyStore.builder(tempDir)
+                .withBaseResolver(Map.of("port", "8080")::get)
+                .build()) {
+
+            assertThat(underTest.getProperty("port")).isEqualTo("8080");
+            assertThat(underTest.getProperty("host")).isNull();
+        }
+    }
+
+    @Test
+    void whenPropertySet_thenOverrideBaseResolver() throws IOException {
+        try (var underTest = JournalledPropertyStore.builder(tempDir)
+                .withBaseResolver(Map.of("port", "8080")::get)
+                .build()) {
+
+            underTest.set("port", "9090");
+
+            assertThat(underTest.getProperty("port")).isEqualTo("9090");
+        }
+    }
+
+    @Nested
+    class Persistence {
+
+        @Test
+        void changesSurviveReopening() throws IOException {
+            try (var store = open()) {
+                store.set("port", "8080");
+                store.set("host", "localhost");
+                store.set("timeout", "PT5S");
+                store.remove("host");
+            }
+
+            try (var underTest = open()) {
+                assertThat(underTest.getStoredProperties()).containsOnly(
+                        entry("port", "8080"),
+                        entry("timeout", "PT5S"));
+            }
+        }
+
+        @Test
+        void batchedChangesSurviveReopening() throws IOException {
+            try (var store = open()) {
+                store.update(updates -> updates
+                        .set("port", "8080")
+                        .set("host", "localhost"));
+            }
+
+            try (var underTest = open()) {
+                assertThat(underTest.getStoredProperties()).containsOnly(
+                        entry("port", "8080"),
+                        entry("host", "localhost"));
+            }
+        }
+
+        @Test
+        void valuesCanContainAnyCharacters() throws IOException {
+            final String value = "line one\nline two=é中";
+            try (var store = open()) {
+                store.set("multi\nline", value);
+            }
+
+            try (var underTest = open()) {
+                assertThat(underTest.getProperty("multi\nline")).isEqualTo(value);
+            }
+        }
+
+        @Test
+        void whenJournalEndsWithAPartialRecord_thenDiscardIt() throws IOException {
+            try (var store = open()) {
+                store.set("port", "8080");
+                store.set("host", "localhost");
+            }
+            final Path journal = tempDir.resolve(JOURNAL_FILE_NAME);
+            final long completeSize = Files.size(journal);
+            Files.write(journal, new byte[]{0, 0, 0, 40, 1, 2}, StandardOpenOption.APPEND);
+
+            try (var underTest = open()) {
+                assertThat(underTest.getStoredProperties()).containsOnly(
+                        entry("port", "8080"),
+                        entry("host", "localhost"));
+                assertThat(underTest.getJournalSize()).isEqualTo(completeSize);
+                underTest.set("timeout", "PT5S");
+            }
+
+            try (var underTest = open()) {
+                assertThat(underTest.getProperty("timeout")).isEqualTo("PT5S");
+            }
+        }
+
+        @Test
+        void whenRecordFailsChecksum_thenDiscardItAndEverythingAfterIt() throws IOException {
+            try (var store = open()) {
+                store.set("port", "8080");
+                store.set("host", "localhost");
+            }
+            final Path journal = tempDir.resolve(JOURNAL_FILE_NAME);
+            final byte[] content = Files.readAllBytes(journal);
+            content[content.length - 1] ^= 0x7f;
+            Files.write(journal, content);
+
+            try (var underTest = open()) {
+                assertThat(underTest.getStoredProperties()).containsOnly(entry("port", "8080"));
+            }
+        }
+
+        @Test
+        void whenFsyncOnlyOnClose_thenChangesStillSurviveReopening() throws IOException {
+            try (var store = JournalledPropertyStore.builder(tempDir)
+                    .withFsyncPolicy(JournalledPropertyStore.FsyncPolicy.ON_CLOSE)
+                    .build()) {
+                store.set("port", "8080");
+            }
+
+            try (var underTest = open()) {
+                assertThat(underTest.getProperty("port")).isEqualTo("8080");
+            }
+        }
+    }
+
+    @Nested
+    class Compaction {
+
+        @Test
+        void whenJournalExceedsThreshold_thenCompactIntoSnapshot() throws IOException {
+            try (var store = JournalledPropertyStore.builder(tempDir)
+                    .withCompactionThreshold(256)
+                    .withCompactionExecutor(Runnable::run)
+                    .build()) {
+                for (int i = 0; i < 100; i++) {
+                    store.set("counter", String.valueOf(i));
+                }
+
+                assertThat(store.getJournalSize()).isLessThan(256);
+                assertThat(tempDir.resolve(SNAPSHOT_FILE_NAME)).exists();
+            }
+
+            try (var underTest = open()) {
+                assertThat(underTest.getStoredProperties()).containsOnly(entry("counter", "99"));
+            }
+        }
+
+        @Test
+        void whenACompactionDidNotFinish_thenDeleteItsTemporaryFilesOnOpen() throws IOException {
+            try (var store = open()) {
+                store.set("port", "8080");
+                store.compact();
+            }
+            final Path temporarySnapshot = tempDir.resolve(SNAPSHOT_FILE_NAME + JournalledPropertyStore.TEMPORARY_SUFFIX);
+            final Path temporaryJournal = tempDir.resolve(JournalledPropertyStore.JOURNAL_FILE_NAME + JournalledPropertyStore.TEMPORARY_SUFFIX);
+            Files.write(temporarySnapshot, new byte[]{1, 2, 3});
+            Files.write(temporaryJournal, new byte[]{4, 5, 6});
+
+            try (var underTest = open()) {
+                assertThat(underTest.getStoredProperties()).containsOnly(entry("port", "8080"));
+                assertThat(temporarySnapshot).doesNotExist();
+                assertThat(temporaryJournal).doesNotExist();
+            }
+        }
+
+        @Test
+        void compactedStateIncludesLaterJournalEntries() throws IOException {
+            try (var store = open()) {
+                store.set("port", "8080");
+                store.set("host", "localhost");
+                store.compact();
+                store.remove("host");
+                store.set("timeout", "PT5S");
+            }
+
+            try (var underTest = open()) {
+                assertThat(underTest.getStoredProperties()).containsOnly(
+                        entry("port", "8080"),
+                        entry("timeout", "PT5S"));
+            }
+        }
+
+        @Test
+        void writesMadeWhileCompactingSurviveReopening() throws Exception {
+            final Map<String, String> expected;
+            try (var store = open()) {
+                final Thread writer = new Thread(() -> {
+                    try {
+                        for (int i = 0; i < 500; i++) {
+                            store.set("key" + (i % 50), String.valueOf(i));
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                writer.start();
+                while (writer.isAlive()) {
+                    store.compact();
+                }
+                writer.join();
+                expected = store.getStoredProperties();
+            }
+
+            try (var underTest = open()) {
+                assertThat(underTest.getStoredProperties()).isEqualTo(expected).hasSize(50);
+            }
+        }
+
+        @Test
+        void whenBackgroundCompactionFails_thenReportFailureAndKeepJournal() throws IOException {
+            Files.createDirectories(tempDir.resolve(SNAPSHOT_FILE_NAME + ".tmp").resolve("blocked"));
+            final List<IOException> failures = new ArrayList<>();
+
+            try (var store = JournalledPropertyStore.builder(tempDir)
+                    .withCompactionThreshold(64)
+                    .withCompactionExecutor(Runnable::run)
+                    .withCompactionFailureHandler(failures::add)
+                    .build()) {
+                store.set("port", "8080");
+                store.set("host", "localhost");
+                store.set("timeout", "PT5S");
+
+                assertThat(failures).isNotEmpty();
+                assertThat(store.getJournalSize()).isGreaterThan(64);
+            }
+
+            try (var underTest = open()) {
+                assertThat(underTest.getStoredProperties()).containsOnly(
+                        entry("port", "8080"),
+                        entry("host", "localhost"),
+                        entry("timeout", "PT5S"));
+            }
+        }
+
+        @Test
+        void whenSnapshotIsCorrupt_thenThrowIOException() throws IOException {
+            Files.write(tempDir.resolve(SNAPSHOT_FILE_NAME), new byte[]{1, 2, 3});
+
+            assertThatThrownBy(JournalledPropertyStoreTest.this::open)
+                    .isInstanceOf(IOException.class)
+                    .hasMessage("Corrupt property snapshot: " + tempDir.resolve(SNAPSHOT_FILE_NAME).toAbsolutePath());
+        }
+    }
+
+    @Test
+    void whenClosed_thenWritesAreRejected() throws IOException {
+        final JournalledPropertyStore underTest = open();
+        underTest.close();
+
+        assertThatThrownBy(() -> underTest.set("port", "8080"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("JournalledPropertyStore has been closed");
+    }
+}
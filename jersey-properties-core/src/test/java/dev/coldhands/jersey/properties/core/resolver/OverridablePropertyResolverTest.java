@@ -0,0 +1,147 @@
+/*
+ * ISC License Copyright (c) 2004-2010 by Internet Systems Consortium, Inc. ("ISC")
+ *
+ * Copyright (c) 2021 by Jamie Redding
+ *
+ * Permission to use, copy, modify, and /or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above copyright
+ * notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND ISC DISCLAIMS ALL WARRANTIES WITH REGARD
+ * TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS.
+ * IN NO EVENT SHALL ISC BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL
+ * DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS,
+ * WHETHER IN AN ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING
+ * OUT OF OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package dev.coldhands.jersey.properties.core.resolver;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static java.util.Map.entry;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OverridablePropertyResolverTest {
+
+    private static final Map<String, String> PROPERTIES = Map.of(
+            "port", "8080",
+            "host", "localhost");
+
+    private final OverridablePropertyResolver underTest = new OverridablePropertyResolver(PROPERTIES::get);
+
+    @Test
+    void whenNoOverrides_thenReturnBaseValue() {
+        assertThat(underTest.getProperty("port")).isEqualTo("8080");
+        assertThat(underTest.getProperty("missing")).isNull();
+    }
+
+    @Test
+    void whenPropertyOverridden_thenReturnOverriddenValue() {
+        underTest.setOverride("port", "9090");
+        underTest.setOverride("timeout", "PT5S");
+
+        assertThat(underTest.getProperty("port")).isEqualTo("9090");
+        assertThat(underTest.getProperty("timeout")).isEqualTo("PT5S");
+        assertThat(underTest.getProperty("host")).isEqualTo("localhost");
+    }
+
+    @Test
+    void whenOverrideRemoved_thenReturnBaseValue() {
+        underTest.setOverride("port", "9090");
+        underTest.removeOverride("port");
+
+        assertThat(underTest.getProperty("port")).isEqualTo("8080");
+        assertThat(underTest.getOverrides()).isEmpty();
+    }
+
+    @Test
+    void whenOverridesCleared_thenReturnBaseValues() {
+        underTest.setOverride("port", "9090");
+        underTest.setOverride("host", "remotehost");
+        underTest.clearOverrides();
+
+        assertThat(underTest.getProperty("port")).isEqualTo("8080");
+        assertThat(underTest.getProperty("host")).isEqualTo("localhost");
+    }
+
+    @Test
+    void getOverridesReturnsOnlyOverriddenProperties() {
+        underTest.update(updates -> updates
+                .set("port", "9090")
+                .set("timeout", "PT5S")
+                .remove("timeout")
+                .set("rate.limit", "10"));
+
+        assertThat(underTest.getOverrides()).containsOnly(
+                entry("port", "9090"),
+                entry("rate.limit", "10"));
+    }
+
+    @Nested
+    class BatchedUpdates {
+
+        @Test
+        void readersNeverObserveAPartiallyAppliedBatch() throws InterruptedException {
+            final var torn = new AtomicBoolean();
+            final var stop = new AtomicBoolean();
+            final var readerStarted = new CountDownLatch(1);
+            final var reader = new Thread(() -> {
+                readerStarted.countDown();
+                while (!stop.get()) {
+                    final Map<String, String> overrides = underTest.getOverrides();
+                    if (overrides.size() == 1) {
+                        torn.set(true);
+                    }
+                }
+            });
+            reader.start();
+            readerStarted.await();
+
+            for (int i = 0; i < 10_000; i++) {
+                underTest.update(updates -> updates
+                        .set("host", "remotehost")
+                        .set("port", "9090"));
+                underTest.clearOverrides();
+            }
+            stop.set(true);
+            reader.join();
+
+            assertThat(torn).isFalse();
+        }
+
+        @Test
+        void whenBatchIsEmpty_thenNothingChanges() {
+            underTest.setOverride("port", "9090");
+
+            underTest.update(updates -> {
+            });
+
+            assertThat(underTest.getOverrides()).containsOnly(entry("port", "9090"));
+        }
+    }
+
+    @Nested
+    class InvalidArguments {
+
+        @Test
+        void whenBaseResolverIsNull_thenThrowIllegalArgumentException() {
+            assertThatThrownBy(() -> new OverridablePropertyResolver(null))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("PropertyResolver must not be null");
+        }
+
+        @Test
+        void whenOverrideValueIsNull_thenThrowIllegalArgumentException() {
+            assertThatThrownBy(() -> underTest.setOverride("port", null))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Property value must not be null");
+        }
+    }
+}
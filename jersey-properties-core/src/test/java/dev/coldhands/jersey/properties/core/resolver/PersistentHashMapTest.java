@@ -0,0 +1,142 @@
+/*
+ * ISC License Copyright (c) 2004-2010 by Internet Systems Consortium, Inc. ("ISC")
+ *
+ * Copyright (c) 2021 by Jamie Redding
+ *
+ * Permission to use, copy, modify, and /or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above copyright
+ * notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND ISC DISCLAIMS ALL WARRANTIES WITH REGARD
+ * TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS.
+ * IN NO EVENT SHALL ISC BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL
+ * DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS,
+ * WHETHER IN AN ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING
+ * OUT OF OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package dev.coldhands.jersey.properties.core.resolver;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static java.util.Map.entry;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PersistentHashMapTest {
+
+    @Test
+    void whenEmpty_thenContainsNothing() {
+        final PersistentHashMap<String, String> underTest = PersistentHashMap.empty();
+
+        assertThat(underTest.size()).isZero();
+        assertThat(underTest.get("port")).isNull();
+        assertThat(underTest.toMap()).isEmpty();
+    }
+
+    @Test
+    void whenEntryAdded_thenOriginalMapIsUnchanged() {
+        final PersistentHashMap<String, String> original = PersistentHashMap.<String, String>empty()
+                .with("port", "8080");
+
+        final PersistentHashMap<String, String> updated = original.with("host", "localhost");
+
+        assertThat(original.toMap()).containsExactly(entry("port", "8080"));
+        assertThat(updated.toMap()).containsOnly(entry("port", "8080"), entry("host", "localhost"));
+    }
+
+    @Test
+    void whenEntryReplaced_thenSizeIsUnchanged() {
+        final PersistentHashMap<String, String> underTest = PersistentHashMap.<String, String>empty()
+                .with("port", "8080")
+                .with("port", "9090");
+
+        assertThat(underTest.size()).isEqualTo(1);
+        assertThat(underTest.get("port")).isEqualTo("9090");
+    }
+
+    @Test
+    void whenSameValueIsPut_thenReturnSameInstance() {
+        final String value = "8080";
+        final PersistentHashMap<String, String> underTest = PersistentHashMap.<String, String>empty()
+                .with("port", value);
+
+        assertThat(underTest.with("port", value)).isSameAs(underTest);
+    }
+
+    @Test
+    void whenRemovingMissingKey_thenReturnSameInstance() {
+        final PersistentHashMap<String, String> underTest = PersistentHashMap.<String, String>empty()
+                .with("port", "8080");
+
+        assertThat(underTest.without("host")).isSameAs(underTest);
+    }
+
+    @Test
+    void supportsManyEntries() {
+        final Map<String, String> expected = new HashMap<>();
+        PersistentHashMap<String, String> underTest = PersistentHashMap.empty();
+        for (int i = 0; i < 5_000; i++) {
+            expected.put("key" + i, "value" + i);
+            underTest = underTest.with("key" + i, "value" + i);
+        }
+
+        assertThat(underTest.size()).isEqualTo(5_000);
+        assertThat(underTest.toMap()).isEqualTo(expected);
+
+        for (int i = 0; i < 5_000; i += 2) {
+            expected.remove("key" + i);
+            underTest = underTest.without("key" + i);
+        }
+
+        assertThat(underTest.size()).isEqualTo(2_500);
+        assertThat(underTest.toMap()).isEqualTo(expected);
+    }
+
+    @Nested
+    class HashCollisions {
+
+        @Test
+        void keysWithTheSameHashCodeAreStoredSeparately() {
+            assertThat("Aa".hashCode()).isEqualTo("BB".hashCode());
+
+            PersistentHashMap<String, String> underTest = PersistentHashMap.<String, String>empty()
+                    .with("Aa", "first")
+                    .with("BB", "second");
+
+            assertThat(underTest.size()).isEqualTo(2);
+            assertThat(underTest.get("Aa")).isEqualTo("first");
+            assertThat(underTest.get("BB")).isEqualTo("second");
+
+            underTest = underTest.without("Aa");
+
+            assertThat(underTest.size()).isEqualTo(1);
+            assertThat(underTest.get("Aa")).isNull();
+            assertThat(underTest.get("BB")).isEqualTo("second");
+        }
+
+        @Test
+        void keyWithDifferentHashCanBeAddedAlongsideCollidingKeys() {
+            final PersistentHashMap<String, String> underTest = PersistentHashMap.<String, String>empty()
+                    .with("Aa", "first")
+                    .with("BB", "second")
+                    .with("Ab", "third");
+
+            assertThat(underTest.toMap()).containsOnly(
+                    entry("Aa", "first"),
+                    entry("BB", "second"),
+                    entry("Ab", "third"));
+        }
+    }
+
+    @Test
+    void whenNullValueIsPut_thenThrowIllegalArgumentException() {
+        assertThatThrownBy(() -> PersistentHashMap.<String, String>empty().with("port", null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Value must not be null");
+    }
+}
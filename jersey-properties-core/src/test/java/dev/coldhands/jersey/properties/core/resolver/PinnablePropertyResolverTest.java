@@ -0,0 +1,94 @@
+/*
+ * ISC License Copyright (c) 2004-2010 by Internet Systems Consortium, Inc. ("ISC")
+ *
+ * Copyright (c) 2021 by Jamie Redding
+ *
+ * Permission to use, copy, modify, and /or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above copyright
+ * notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND ISC DISCLAIMS ALL WARRANTIES WITH REGARD
+ * TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS.
+ * IN NO EVENT SHALL ISC BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL
+ * DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS,
+ * WHETHER IN AN ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING
+ * OUT OF OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package dev.coldhands.jersey.properties.core.resolver;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PinnablePropertyResolverTest {
+
+    private final AtomicReference<PropertySnapshot> latest =
+            new AtomicReference<>(PropertySnapshot.of(Map.of("db.host", "old-host", "db.port", "1111"), 0));
+    private final PinnablePropertyResolver underTest = new PinnablePropertyResolver(latest::get);
+
+    @Test
+    void whenNothingPinned_thenSeeLatestSnapshot() {
+        latest.set(PropertySnapshot.of(Map.of("db.host", "new-host"), 1));
+
+        assertThat(underTest.getProperty("db.host")).isEqualTo("new-host");
+        assertThat(underTest.getSnapshot().getVersion()).isEqualTo(1);
+    }
+
+    @Test
+    void whenPinned_thenKeepSeeingPinnedSnapshotAfterAReload() {
+        final PropertySnapshot pinned = underTest.pin();
+        latest.set(PropertySnapshot.of(Map.of("db.host", "new-host", "db.port", "2222"), 1));
+
+        assertThat(underTest.getSnapshot()).isSameAs(pinned);
+        assertThat(underTest.getProperty("db.host")).isEqualTo("old-host");
+        assertThat(underTest.getProperty("db.port")).isEqualTo("1111");
+    }
+
+    @Test
+    void whenPinned_thenLatestSnapshotIgnoresThePin() {
+        underTest.pin();
+        final PropertySnapshot reloaded = PropertySnapshot.of(Map.of("db.host", "new-host"), 1);
+        latest.set(reloaded);
+
+        assertThat(underTest.getLatestSnapshot()).isSameAs(reloaded);
+    }
+
+    @Test
+    void whenUnpinned_thenSeeLatestSnapshotAgain() {
+        underTest.pin();
+        latest.set(PropertySnapshot.of(Map.of("db.host", "new-host"), 1));
+
+        underTest.unpin();
+
+        assertThat(underTest.getProperty("db.host")).isEqualTo("new-host");
+    }
+
+    @Test
+    void pinningOnlyAffectsTheCurrentThread() throws ExecutionException, InterruptedException {
+        underTest.pin();
+        latest.set(PropertySnapshot.of(Map.of("db.host", "new-host"), 1));
+
+        final var executor = Executors.newSingleThreadExecutor();
+        try {
+            assertThat(executor.submit(() -> underTest.getProperty("db.host")).get())
+                    .isEqualTo("new-host");
+        } finally {
+            executor.shutdown();
+            underTest.unpin();
+        }
+    }
+
+    @Test
+    void whenDelegateIsNull_thenThrowIllegalArgumentException() {
+        assertThatThrownBy(() -> new PinnablePropertyResolver(null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("SnapshotPropertyResolver must not be null");
+    }
+}
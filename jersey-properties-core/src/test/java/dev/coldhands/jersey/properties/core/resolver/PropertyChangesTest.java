@@ -0,0 +1,84 @@
+/*
+ * ISC License Copyright (c) 2004-2010 by Internet Systems Consortium, Inc. ("ISC")
+ *
+ * Copyright (c) 2021 by Jamie Redding
+ *
+ * Permission to use, copy, modify, and /or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above copyright
+ * notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND ISC DISCLAIMS ALL WARRANTIES WITH REGARD
+ * TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS.
+ * IN NO EVENT SHALL ISC BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL
+ * DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS,
+ * WHETHER IN AN ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING
+ * OUT OF OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package dev.coldhands.jersey.properties.core.resolver;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PropertyChangesTest {
+
+    private final PropertySnapshot previous = PropertySnapshot.of(Map.of(
+            "db.host", "localhost",
+            "db.port", "5432",
+            "pool.size", "10",
+            "removed", "value"), 0);
+
+    @Test
+    void detectsAddedRemovedAndChangedProperties() {
+        final PropertySnapshot current = PropertySnapshot.of(Map.of(
+                "db.host", "localhost",
+                "db.port", "6543",
+                "pool.size", "10",
+                "added", "value"), 1);
+
+        final PropertyChanges underTest = PropertyChanges.between(previous, current);
+
+        assertThat(underTest.getAdded()).containsExactly("added");
+        assertThat(underTest.getRemoved()).containsExactly("removed");
+        assertThat(underTest.getChanged()).containsExactly("db.port");
+        assertThat(underTest.isEmpty()).isFalse();
+        assertThat(underTest.getPreviousSnapshot().getProperty("db.port")).isEqualTo("5432");
+        assertThat(underTest.getCurrentSnapshot().getProperty("db.port")).isEqualTo("6543");
+    }
+
+    @Test
+    void whenValuesAreEqualButNotTheSameInstance_thenTheyAreUnchanged() {
+        final PropertySnapshot current = PropertySnapshot.of(Map.of(
+                "db.host", new String("localhost"),
+                "db.port", "5432",
+                "pool.size", "10",
+                "removed", "value"), 1);
+
+        assertThat(PropertyChanges.between(previous, current).isEmpty()).isTrue();
+    }
+
+    @Test
+    void whenValuesHaveTheSameHashCode_thenTheyAreStillCompared() {
+        final PropertySnapshot before = PropertySnapshot.of(Map.of("key", "Aa"), 0);
+        final PropertySnapshot after = PropertySnapshot.of(Map.of("key", "BB"), 1);
+
+        assertThat(PropertyChanges.between(before, after).getChanged()).containsExactly("key");
+    }
+
+    @Test
+    void withPrefixOnlyKeepsMatchingProperties() {
+        final PropertySnapshot current = PropertySnapshot.of(Map.of(
+                "db.host", "remotehost",
+                "db.timeout", "PT5S",
+                "pool.size", "20"), 1);
+
+        final PropertyChanges underTest = PropertyChanges.between(previous, current).withPrefix("db.");
+
+        assertThat(underTest.getChanged()).containsExactly("db.host");
+        assertThat(underTest.getAdded()).containsExactly("db.timeout");
+        assertThat(underTest.getRemoved()).containsExactly("db.port");
+    }
+}
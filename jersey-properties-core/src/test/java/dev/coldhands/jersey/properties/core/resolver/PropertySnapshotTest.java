@@ -0,0 +1,48 @@
+/*
+ * ISC License Copyright (c) 2004-2010 by Internet Systems Consortium, Inc. ("ISC")
+ *
+ * Copyright (c) 2021 by Jamie Redding
+ *
+ * Permission to use, copy, modify, and /or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above copyright
+ * notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND ISC DISCLAIMS ALL WARRANTIES WITH REGARD
+ * TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS.
+ * IN NO EVENT SHALL ISC BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL
+ * DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS,
+ * WHETHER IN AN ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING
+ * OUT OF OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package dev.coldhands.jersey.properties.core.resolver;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PropertySnapshotTest {
+
+    @Test
+    void snapshotIsNotAffectedByChangesToTheSourceMap() {
+        final Map<String, String> properties = new HashMap<>(Map.of("port", "8080"));
+
+        final PropertySnapshot underTest = PropertySnapshot.of(properties, 3);
+        properties.put("port", "9090");
+
+        assertThat(underTest.getProperty("port")).isEqualTo("8080");
+        assertThat(underTest.getVersion()).isEqualTo(3);
+        assertThat(underTest.getPropertyNames()).containsExactly("port");
+    }
+
+    @Test
+    void whenPropertiesAreNull_thenThrowIllegalArgumentException() {
+        assertThatThrownBy(() -> PropertySnapshot.of(null, 0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Properties must not be null");
+    }
+}
@@ -0,0 +1,227 @@
+/*
+ * ISC License Copyright (c) 2004-2010 by Internet Systems Consortium, Inc. ("ISC")
+ *
+ * Copyright (c) 2021 by Jamie Redding
+ *
+ * Permission to use, copy, modify, and /or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above copyright
+ * notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND ISC DISCLAIMS ALL WARRANTIES WITH REGARD
+ * TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS.
+ * IN NO EVENT SHALL ISC BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL
+ * DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS,
+ * WHETHER IN AN ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING
+ * OUT OF OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package dev.coldhands.jersey.properties.core.resolver;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RefreshSchedulerTest {
+
+    private final RefreshScheduler underTest = RefreshScheduler.builder()
+            .withThreads(2)
+            .withJitter(0)
+            .withMaxBackoff(Duration.ofSeconds(8))
+            .build();
+
+    @AfterEach
+    void tearDown() {
+        underTest.close();
+    }
+
+    @Test
+    void periodicallyReloadsRegisteredResolvers() throws InterruptedException {
+        final var first = new CountingResolver(3);
+        final var second = new CountingResolver(3);
+
+        underTest.register(first, Duration.ofMillis(5));
+        underTest.register(second, Duration.ofMillis(5));
+
+        assertThat(first.reloaded.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(second.reloaded.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void whenRegistrationCancelled_thenStopReloading() throws ExecutionException, InterruptedException {
+        final var resolver = new CountingResolver(1);
+        final var registration = underTest.register(resolver, Duration.ofHours(1));
+
+        registration.cancel();
+        registration.refreshNow().get();
+        final int reloadsAfterCancel = resolver.reloads.get();
+        Thread.sleep(50);
+
+        assertThat(resolver.reloads.get()).isEqualTo(reloadsAfterCancel);
+    }
+
+    @Nested
+    class RefreshNow {
+
+        @Test
+        void refreshesImmediatelyAndRecordsDuration() throws ExecutionException, InterruptedException {
+            final var resolver = new CountingResolver(1);
+            final var registration = underTest.register(resolver, Duration.ofHours(1));
+
+            registration.refreshNow().get();
+
+            assertThat(resolver.reloads.get()).isEqualTo(1);
+            assertThat(registration.getStatistics().getRefreshCount()).isEqualTo(1);
+            assertThat(registration.getStatistics().getLastRefreshDuration()).isPositive();
+        }
+
+        @Test
+        void whenRefreshAlreadyRunning_thenCoalesceIntoIt() throws ExecutionException, InterruptedException {
+            final var release = new CountDownLatch(1);
+            final var resolver = new CountingResolver(1) {
+                @Override
+                public void reload() throws IOException {
+                    super.reload();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        throw new IOException(e);
+                    }
+                }
+            };
+            final var registration = underTest.register(resolver, Duration.ofHours(1));
+
+            final CompletableFuture<Void> first = registration.refreshNow();
+            final CompletableFuture<Void> second = registration.refreshNow();
+            release.countDown();
+            first.get();
+
+            assertThat(second).isSameAs(first);
+            assertThat(resolver.reloads.get()).isEqualTo(1);
+        }
+
+        @Test
+        void whenReloadFails_thenCompleteExceptionallyAndRecordFailure() {
+            final var failure = new IOException("unreadable");
+            final var registration = underTest.register(new FailingResolver(failure), Duration.ofHours(1));
+
+            assertThatThrownBy(() -> registration.refreshNow().get())
+                    .hasCause(failure);
+            assertThat(registration.getStatistics().getConsecutiveFailures()).isEqualTo(1);
+            assertThat(registration.getStatistics().getFailureCount()).isEqualTo(1);
+            assertThat(registration.getStatistics().getLastFailure()).isSameAs(failure);
+        }
+    }
+
+    @Test
+    void whenReloadThrowsAnError_thenCompleteExceptionallyAndKeepRefreshing() throws InterruptedException {
+        final var error = new AssertionError("listener failed");
+        final var resolver = new CountingResolver(3) {
+            @Override
+            public void reload() throws IOException {
+                super.reload();
+                throw error;
+            }
+        };
+        final var registration = underTest.register(resolver, Duration.ofMillis(10));
+
+        assertThatThrownBy(() -> registration.refreshNow().get())
+                .hasCause(error);
+        assertThat(resolver.reloaded.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(registration.getStatistics().getLastFailure()).isSameAs(error);
+    }
+
+    @Nested
+    class Backoff {
+
+        @Test
+        void delayDoublesWithEachConsecutiveFailureUpToTheMaximum() {
+            final Duration interval = Duration.ofSeconds(1);
+
+            assertThat(underTest.nextDelayNanos(interval, 0)).isEqualTo(Duration.ofSeconds(1).toNanos());
+            assertThat(underTest.nextDelayNanos(interval, 1)).isEqualTo(Duration.ofSeconds(2).toNanos());
+            assertThat(underTest.nextDelayNanos(interval, 2)).isEqualTo(Duration.ofSeconds(4).toNanos());
+            assertThat(underTest.nextDelayNanos(interval, 3)).isEqualTo(Duration.ofSeconds(8).toNanos());
+            assertThat(underTest.nextDelayNanos(interval, 4)).isEqualTo(Duration.ofSeconds(8).toNanos());
+            assertThat(underTest.nextDelayNanos(interval, 1_000)).isEqualTo(Duration.ofSeconds(8).toNanos());
+        }
+
+        @Test
+        void jitterVariesDelayWithinConfiguredFraction() {
+            try (var jittered = RefreshScheduler.builder().withJitter(0.5).build()) {
+                for (int i = 0; i < 100; i++) {
+                    assertThat(jittered.nextDelayNanos(Duration.ofSeconds(2), 0))
+                            .isBetween(Duration.ofSeconds(1).toNanos(), Duration.ofSeconds(3).toNanos());
+                }
+            }
+        }
+    }
+
+    @Test
+    void whenClosed_thenRejectNewRegistrations() {
+        underTest.close();
+
+        assertThatThrownBy(() -> underTest.register(new CountingResolver(1), Duration.ofSeconds(1)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("RefreshScheduler has been closed");
+    }
+
+    @Test
+    void whenIntervalIsNotPositive_thenThrowIllegalArgumentException() {
+        assertThatThrownBy(() -> underTest.register(new CountingResolver(1), Duration.ZERO))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Interval must be positive");
+    }
+
+    private static class CountingResolver implements ReloadablePropertyResolver {
+        final AtomicInteger reloads = new AtomicInteger();
+        final CountDownLatch reloaded;
+
+        CountingResolver(int expectedReloads) {
+            reloaded = new CountDownLatch(expectedReloads);
+        }
+
+        @Override
+        public void reload() throws IOException {
+            reloads.incrementAndGet();
+            reloaded.countDown();
+        }
+
+        @Override
+        public PropertySnapshot getSnapshot() {
+            return PropertySnapshot.of(Map.of(), reloads.get());
+        }
+
+        @Override
+        public Subscription addChangeListener(String prefix, PropertyChangeListener listener, Executor executor) {
+            return () -> {
+            };
+        }
+    }
+
+    private static class FailingResolver extends CountingResolver {
+        private final IOException failure;
+
+        FailingResolver(IOException failure) {
+            super(1);
+            this.failure = failure;
+        }
+
+        @Override
+        public void reload() throws IOException {
+            throw failure;
+        }
+    }
+}
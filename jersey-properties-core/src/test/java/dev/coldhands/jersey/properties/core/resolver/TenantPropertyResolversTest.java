@@ -0,0 +1,181 @@
+/*
+ * ISC License Copyright (c) 2004-2010 by Internet Systems Consortium, Inc. ("ISC")
+ *
+ * Copyright (c) 2021 by Jamie Redding
+ *
+ * Permission to use, copy, modify, and /or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above copyright
+ * notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND ISC DISCLAIMS ALL WARRANTIES WITH REGARD
+ * TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS.
+ * IN NO EVENT SHALL ISC BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL
+ * DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS,
+ * WHETHER IN AN ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING
+ * OUT OF OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package dev.coldhands.jersey.properties.core.resolver;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static java.util.Map.entry;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TenantPropertyResolversTest {
+
+    private static final Map<String, String> BASE_PROPERTIES = Map.of(
+            "rate.limit", "10",
+            "host", "localhost");
+
+    private final TenantPropertyResolvers underTest = new TenantPropertyResolvers(BASE_PROPERTIES::get);
+
+    @Test
+    void whenTenantHasNoOverrides_thenReturnBaseValues() {
+        final PropertyResolver tenant = underTest.forTenant("acme");
+
+        assertThat(tenant.getProperty("rate.limit")).isEqualTo("10");
+        assertThat(tenant.getProperty("missing")).isNull();
+    }
+
+    @Test
+    void whenTenantHasNoOverrides_thenReadBaseValuesWithoutTrackingTenant() {
+        final PropertyResolver tenant = underTest.forTenant("acme");
+
+        assertThat(tenant.getProperty("rate.limit")).isEqualTo("10");
+        assertThat(underTest.getTenantIds()).isEmpty();
+        assertThat(underTest.estimateTotalMemoryUsage()).isZero();
+    }
+
+    @Test
+    void whenTenantHasOverrides_thenOtherTenantsAreUnaffected() {
+        underTest.setOverrides("acme", Map.of("rate.limit", "100"));
+
+        assertThat(underTest.forTenant("acme").getProperty("rate.limit")).isEqualTo("100");
+        assertThat(underTest.forTenant("acme").getProperty("host")).isEqualTo("localhost");
+        assertThat(underTest.forTenant("globex").getProperty("rate.limit")).isEqualTo("10");
+    }
+
+    @Test
+    void resolverReflectsLaterChangesToOverrides() {
+        underTest.setOverrides("acme", Map.of("rate.limit", "100"));
+        final PropertyResolver tenant = underTest.forTenant("acme");
+
+        underTest.updateOverrides("acme", updates -> updates.set("rate.limit", "200"));
+
+        assertThat(tenant.getProperty("rate.limit")).isEqualTo("200");
+    }
+
+    @Test
+    void whenOverridesAreSetAfterTheResolverWasReturned_thenResolverSeesThem() {
+        final PropertyResolver tenant = underTest.forTenant("acme");
+
+        underTest.setOverrides("acme", Map.of("rate.limit", "100"));
+
+        assertThat(tenant.getProperty("rate.limit")).isEqualTo("100");
+    }
+
+    @Test
+    void whenTenantIsRemovedAndAddedAgain_thenExistingResolverSeesTheNewOverrides() {
+        underTest.setOverrides("acme", Map.of("rate.limit", "100"));
+        final PropertyResolver tenant = underTest.forTenant("acme");
+
+        underTest.removeTenant("acme");
+        underTest.setOverrides("acme", Map.of("rate.limit", "300"));
+
+        assertThat(tenant.getProperty("rate.limit")).isEqualTo("300");
+        assertThat(underTest.getTenantIds()).containsExactly("acme");
+    }
+
+    @Test
+    void updateOverridesAppliesChangesOnTopOfExistingOverrides() {
+        underTest.setOverrides("acme", Map.of("rate.limit", "100", "host", "acme.example"));
+
+        underTest.updateOverrides("acme", updates -> updates
+                .remove("host")
+                .set("timeout", "PT5S"));
+
+        assertThat(underTest.getOverrides("acme")).containsOnly(
+                entry("rate.limit", "100"),
+                entry("timeout", "PT5S"));
+        assertThat(underTest.forTenant("acme").getProperty("host")).isEqualTo("localhost");
+    }
+
+    @Test
+    void whenTenantRemoved_thenExistingResolverFallsBackToBase() {
+        underTest.setOverrides("acme", Map.of("rate.limit", "100"));
+        final PropertyResolver tenant = underTest.forTenant("acme");
+
+        underTest.removeTenant("acme");
+
+        assertThat(tenant.getProperty("rate.limit")).isEqualTo("10");
+        assertThat(underTest.getTenantIds()).isEmpty();
+        assertThat(underTest.getOverrides("acme")).isEmpty();
+    }
+
+    @Test
+    void whenLastOverrideRemoved_thenForgetTenant() {
+        underTest.setOverrides("acme", Map.of("rate.limit", "100"));
+
+        underTest.updateOverrides("acme", updates -> updates.remove("rate.limit"));
+
+        assertThat(underTest.getTenantIds()).isEmpty();
+        assertThat(underTest.forTenant("acme").getProperty("rate.limit")).isEqualTo("10");
+    }
+
+    @Nested
+    class MemoryAccounting {
+
+        @Test
+        void whenTenantIsUnknown_thenUsageIsZero() {
+            assertThat(underTest.estimateMemoryUsage("acme")).isZero();
+        }
+
+        @Test
+        void usageGrowsWithOverrides() {
+            underTest.setOverrides("small", Map.of("a", "1"));
+            underTest.setOverrides("large", Map.of(
+                    "rate.limit", "100",
+                    "description", "a much longer property value for this tenant"));
+
+            final long small = underTest.estimateMemoryUsage("small");
+            final long large = underTest.estimateMemoryUsage("large");
+
+            assertThat(small).isPositive();
+            assertThat(large).isGreaterThan(small);
+            assertThat(underTest.estimateTotalMemoryUsage()).isEqualTo(small + large);
+        }
+
+        @Test
+        void usageShrinksWhenOverridesAreRemoved() {
+            underTest.setOverrides("acme", Map.of("rate.limit", "100", "host", "acme.example"));
+            final long before = underTest.estimateMemoryUsage("acme");
+
+            underTest.updateOverrides("acme", updates -> updates.remove("host"));
+
+            assertThat(underTest.estimateMemoryUsage("acme")).isLessThan(before);
+        }
+    }
+
+    @Nested
+    class InvalidArguments {
+
+        @Test
+        void whenBaseResolverIsNull_thenThrowIllegalArgumentException() {
+            assertThatThrownBy(() -> new TenantPropertyResolvers(null))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("PropertyResolver must not be null");
+        }
+
+        @Test
+        void whenTenantIdIsNull_thenThrowIllegalArgumentException() {
+            assertThatThrownBy(() -> underTest.forTenant(null))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Tenant id must not be null");
+        }
+    }
+}
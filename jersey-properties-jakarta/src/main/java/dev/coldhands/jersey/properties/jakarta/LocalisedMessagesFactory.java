@@ -0,0 +1,64 @@
+/*
+ * ISC License Copyright (c) 2004-2010 by Internet Systems Consortium, Inc. ("ISC")
+ *
+ * Copyright (c) 2021 by Jamie Redding
+ *
+ * Permission to use, copy, modify, and /or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above copyright
+ * notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND ISC DISCLAIMS ALL WARRANTIES WITH REGARD
+ * TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS.
+ * IN NO EVENT SHALL ISC BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL
+ * DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS,
+ * WHETHER IN AN ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING
+ * OUT OF OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package dev.coldhands.jersey.properties.jakarta;
+
+import dev.coldhands.jersey.properties.core.message.LocalisedMessages;
+import dev.coldhands.jersey.properties.core.message.MessageResolver;
+import jakarta.inject.Inject;
+import jakarta.inject.Provider;
+import jakarta.ws.rs.core.HttpHeaders;
+import org.glassfish.hk2.api.Factory;
+
+import java.util.List;
+import java.util.Locale;
+
+class LocalisedMessagesFactory implements Factory<LocalisedMessages> {
+
+    private static final String WILDCARD = "*";
+
+    @Inject
+    private MessageResolver messageResolver;
+
+    @Inject
+    private Provider<HttpHeaders> httpHeaders;
+
+    @Override
+    public LocalisedMessages provide() {
+        return messageResolver.forLocale(selectLocale(httpHeaders.get().getAcceptableLanguages()));
+    }
+
+    @Override
+    public void dispose(LocalisedMessages instance) {
+    }
+
+    private Locale selectLocale(List<Locale> acceptableLanguages) {
+        Locale mostPreferred = null;
+        for (Locale locale : acceptableLanguages) {
+            if (WILDCARD.equals(locale.getLanguage())) {
+                continue;
+            }
+            if (messageResolver.hasMessagesFor(locale)) {
+                return locale;
+            }
+            if (mostPreferred == null) {
+                mostPreferred = locale;
+            }
+        }
+        return mostPreferred != null ? mostPreferred : Locale.ROOT;
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * ISC License Copyright (c) 2004-2010 by Internet Systems Consortium, Inc. ("ISC")
+ *
+ * Copyright (c) 2021 by Jamie Redding
+ *
+ * Permission to use, copy, modify, and /or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above copyright
+ * notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND ISC DISCLAIMS ALL WARRANTIES WITH REGARD
+ * TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS.
+ * IN NO EVENT SHALL ISC BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL
+ * DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS,
+ * WHETHER IN AN ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING
+ * OUT OF OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package dev.coldhands.jersey.properties.jakarta;
+
+import dev.coldhands.jersey.properties.core.message.LocalisedMessages;
+import dev.coldhands.jersey.properties.core.message.MessageResolver;
+import jakarta.ws.rs.core.Feature;
+import jakarta.ws.rs.core.FeatureContext;
+import org.glassfish.hk2.api.PerLookup;
+import org.glassfish.hk2.utilities.binding.AbstractBinder;
+
+/**
+ * LocalisedMessagesFeature makes {@link LocalisedMessages} injectable into
+ * resources, using the locale of the current request.
+ *
+ * <p>
+ *     The locale is the most preferred of the request's acceptable languages
+ *     that the {@link MessageResolver} has messages for. If it has messages for
+ *     none of them, the most preferred language is used with the base messages.
+ * </p>
+<pre>
+    resourceConfig.register(new LocalisedMessagesFeature(
+            PropertiesMessageResolver.builder("i18n.messages").build()));
+
+    &#64;Inject
+    private LocalisedMessages messages;
+</pre>
+ */
+public class LocalisedMessagesFeature implements Feature {
+
+    private final MessageResolver messageResolver;
+
+    public LocalisedMessagesFeature(MessageResolver messageResolver) {
+        if (messageResolver == null) {
+            throw new IllegalArgumentException("MessageResolver must not be null");
+        }
+        this.messageResolver = messageResolver;
+    }
+
+    @Override
+    public boolean configure(FeatureContext context) {
+        context.register(new AbstractBinder() {
+            @Override
+            protected void configure() {
+                bind(messageResolver).to(MessageResolver.class);
+
+                bindFactory(LocalisedMessagesFactory.class)
+                        .to(LocalisedMessages.class)
+                        .in(PerLookup.class);
+            }
+        });
+
+        return true;
+    }
+}
@@ -19,6 +19,7 @@ package dev.coldhands.jersey.properties.jakarta;
 
 import dev.coldhands.jersey.properties.core.deserialise.Property;
 import dev.coldhands.jersey.properties.core.deserialise.PropertyDeserialiser;
+import dev.coldhands.jersey.properties.core.deserialise.PropertyPrefix;
 import dev.coldhands.jersey.properties.core.resolver.PropertyResolver;
 import jakarta.inject.Singleton;
 import jakarta.ws.rs.core.Feature;
@@ -56,6 +57,11 @@ public class PropertyInjectionFeature implements Feature {
                         .to(new TypeLiteral<InjectionResolver<Property>>() {
                         })
                         .in(Singleton.class);
+
+                bind(PropertyPrefixInjectionResolver.class)
+                        .to(new TypeLiteral<InjectionResolver<PropertyPrefix>>() {
+                        })
+                        .in(Singleton.class);
             }
         });
 
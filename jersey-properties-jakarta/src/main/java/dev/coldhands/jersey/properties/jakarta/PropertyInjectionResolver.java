@@ -25,6 +25,7 @@ import org.glassfish.hk2.api.Injectee;
 import org.glassfish.hk2.api.InjectionResolver;
 import org.glassfish.hk2.api.ServiceHandle;
 
+import java.lang.annotation.Annotation;
 import java.lang.reflect.*;
 
 class PropertyInjectionResolver implements InjectionResolver<Property> {
@@ -34,34 +35,37 @@ class PropertyInjectionResolver implements InjectionResolver<Property> {
 
     @Override
     public Object resolve(Injectee injectee, ServiceHandle<?> serviceHandle) {
-        final Property propertyAnnotation = locateAnnotation(injectee);
+        final Property propertyAnnotation = locateAnnotation(injectee, Property.class);
         final String propertyName = propertyAnnotation.value();
 
         try {
-            return propertyDeserialiser.deserialise(propertyName, getInjectionSiteClass(injectee, propertyName));
+            return propertyDeserialiser.deserialise(propertyName, getInjectionSiteType(injectee, propertyName));
         } catch (PropertyException e) {
             throw new RuntimeException(e);
         }
     }
 
-    private Property locateAnnotation(Injectee injectee) {
+    /**
+     * Shared with {@link PropertyPrefixInjectionResolver}, which resolves the same kinds of injection site.
+     */
+    static <A extends Annotation> A locateAnnotation(Injectee injectee, Class<A> annotationType) {
         final AnnotatedElement parent = injectee.getParent();
 
         if (parent instanceof Constructor<?>) {
             final var constructor = (Constructor<?>) parent;
             final Parameter[] parameters = constructor.getParameters();
             final Parameter paramToInject = parameters[injectee.getPosition()];
-            return paramToInject.getAnnotation(Property.class);
+            return paramToInject.getAnnotation(annotationType);
         } else {
-            return parent.getAnnotation(Property.class);
+            return parent.getAnnotation(annotationType);
         }
     }
 
-    private Class<?> getInjectionSiteClass(Injectee injectee, String propertyName) {
+    private Type getInjectionSiteType(Injectee injectee, String propertyName) {
         final Type requiredType = injectee.getRequiredType();
 
-        if (requiredType instanceof Class<?>) {
-            return (Class<?>) requiredType;
+        if (propertyDeserialiser.supportsType(requiredType)) {
+            return requiredType;
         } else if (requiredType instanceof ParameterizedType) {
             throw new UnsupportedInjectionTargetException(requiredType, propertyName, ParameterizedType.class);
         } else if (requiredType instanceof GenericArrayType) {
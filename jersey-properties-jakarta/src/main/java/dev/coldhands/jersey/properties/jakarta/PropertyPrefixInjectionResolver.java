@@ -0,0 +1,69 @@
+/*
+ * ISC License Copyright (c) 2004-2010 by Internet Systems Consortium, Inc. ("ISC")
+ *
+ * Copyright (c) 2021 by Jamie Redding
+ *
+ * Permission to use, copy, modify, and /or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above copyright
+ * notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND ISC DISCLAIMS ALL WARRANTIES WITH REGARD
+ * TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS.
+ * IN NO EVENT SHALL ISC BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL
+ * DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS,
+ * WHETHER IN AN ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING
+ * OUT OF OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package dev.coldhands.jersey.properties.jakarta;
+
+import dev.coldhands.jersey.properties.core.deserialise.PropertyDeserialiser;
+import dev.coldhands.jersey.properties.core.deserialise.PropertyException;
+import dev.coldhands.jersey.properties.core.deserialise.PropertyPrefix;
+import jakarta.inject.Inject;
+import org.glassfish.hk2.api.Injectee;
+import org.glassfish.hk2.api.InjectionResolver;
+import org.glassfish.hk2.api.ServiceHandle;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+
+class PropertyPrefixInjectionResolver implements InjectionResolver<PropertyPrefix> {
+
+    @Inject
+    private PropertyDeserialiser propertyDeserialiser;
+
+    @Override
+    public Object resolve(Injectee injectee, ServiceHandle<?> serviceHandle) {
+        final PropertyPrefix prefixAnnotation = PropertyInjectionResolver.locateAnnotation(injectee, PropertyPrefix.class);
+        final String prefix = prefixAnnotation.value();
+
+        try {
+            return propertyDeserialiser.bind(prefix, getInjectionSiteClass(injectee, prefix));
+        } catch (PropertyException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private Class<?> getInjectionSiteClass(Injectee injectee, String prefix) {
+        final Type requiredType = injectee.getRequiredType();
+
+        if (requiredType instanceof Class<?>) {
+            return (Class<?>) requiredType;
+        } else if (requiredType instanceof ParameterizedType) {
+            throw new UnsupportedInjectionTargetException(requiredType, prefix, ParameterizedType.class);
+        }
+        throw new UnsupportedInjectionTargetException(requiredType, prefix, requiredType.getClass());
+    }
+
+    @Override
+    public boolean isConstructorParameterIndicator() {
+        return true;
+    }
+
+    @Override
+    public boolean isMethodParameterIndicator() {
+        return false;
+    }
+
+}
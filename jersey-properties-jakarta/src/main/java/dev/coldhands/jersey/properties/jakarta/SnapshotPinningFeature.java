@@ -0,0 +1,70 @@
+/*
+ * ISC License Copyright (c) 2004-2010 by Internet Systems Consortium, Inc. ("ISC")
+ *
+ * Copyright (c) 2021 by Jamie Redding
+ *
+ * Permission to use, copy, modify, and /or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above copyright
+ * notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND ISC DISCLAIMS ALL WARRANTIES WITH REGARD
+ * TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS.
+ * IN NO EVENT SHALL ISC BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL
+ * DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS,
+ * WHETHER IN AN ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING
+ * OUT OF OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package dev.coldhands.jersey.properties.jakarta;
+
+import dev.coldhands.jersey.properties.core.resolver.PinnablePropertyResolver;
+import jakarta.ws.rs.Priorities;
+import jakarta.ws.rs.core.Feature;
+import jakarta.ws.rs.core.FeatureContext;
+
+/**
+ * SnapshotPinningFeature pins a single {@link dev.coldhands.jersey.properties.core.resolver.PropertySnapshot}
+ * for the duration of each request, so every property injected or deserialised
+ * while handling that request is read from the same version of the properties,
+ * even if the underlying resolver is reloaded part way through.
+ *
+ * <p>
+ *     The snapshot is pinned to the thread handling the request with
+ *     {@link PinnablePropertyResolver#pin()} before any other filter runs, and is
+ *     released by a response filter, so each property lookup only costs a
+ *     {@link ThreadLocal} read. Work handed to other threads, such as an
+ *     asynchronous response resumed from an executor, sees the latest snapshot.
+ *     A thread whose request ends without running response filters, for example
+ *     because the request was suspended, keeps its pin until it starts handling
+ *     another request, which always pins a new snapshot.
+ * </p>
+ * <p>
+ *     The same {@link PinnablePropertyResolver} must also be used as the source of
+ *     properties for the {@link PropertyInjectionFeature}.
+ * </p>
+<pre>
+    var resolver = new PinnablePropertyResolver(new FileBasedPropertyResolver(path));
+    resourceConfig
+            .register(new PropertyInjectionFeature(resolver))
+            .register(new SnapshotPinningFeature(resolver));
+</pre>
+ */
+public class SnapshotPinningFeature implements Feature {
+
+    private final PinnablePropertyResolver propertyResolver;
+
+    public SnapshotPinningFeature(PinnablePropertyResolver propertyResolver) {
+        if (propertyResolver == null) {
+            throw new IllegalArgumentException("PinnablePropertyResolver must not be null");
+        }
+        this.propertyResolver = propertyResolver;
+    }
+
+    @Override
+    public boolean configure(FeatureContext context) {
+        // pin before any other filter runs and, as response filters run in
+        // reverse priority order, unpin after every other filter has finished
+        context.register(new SnapshotPinningFilter(propertyResolver), Priorities.AUTHENTICATION - 100);
+        return true;
+    }
+}
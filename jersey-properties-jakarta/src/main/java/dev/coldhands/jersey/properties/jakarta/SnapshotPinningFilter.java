@@ -0,0 +1,51 @@
+/*
+ * ISC License Copyright (c) 2004-2010 by Internet Systems Consortium, Inc. ("ISC")
+ *
+ * Copyright (c) 2021 by Jamie Redding
+ *
+ * Permission to use, copy, modify, and /or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above copyright
+ * notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND ISC DISCLAIMS ALL WARRANTIES WITH REGARD
+ * TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS.
+ * IN NO EVENT SHALL ISC BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL
+ * DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS,
+ * WHETHER IN AN ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING
+ * OUT OF OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package dev.coldhands.jersey.properties.jakarta;
+
+import dev.coldhands.jersey.properties.core.resolver.PinnablePropertyResolver;
+import dev.coldhands.jersey.properties.core.resolver.PropertySnapshot;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ContainerResponseFilter;
+import jakarta.ws.rs.container.PreMatching;
+
+@PreMatching
+class SnapshotPinningFilter implements ContainerRequestFilter, ContainerResponseFilter {
+
+    static final String PINNED_SNAPSHOT_PROPERTY = PropertySnapshot.class.getName();
+
+    private final PinnablePropertyResolver propertyResolver;
+
+    SnapshotPinningFilter(PinnablePropertyResolver propertyResolver) {
+        this.propertyResolver = propertyResolver;
+    }
+
+    @Override
+    public void filter(ContainerRequestContext requestContext) {
+        // a request is only pinned once, even if the feature is registered more than once
+        if (requestContext.getProperty(PINNED_SNAPSHOT_PROPERTY) == null) {
+            requestContext.setProperty(PINNED_SNAPSHOT_PROPERTY, propertyResolver.pin());
+        }
+    }
+
+    @Override
+    public void filter(ContainerRequestContext requestContext, ContainerResponseContext responseContext) {
+        propertyResolver.unpin();
+    }
+}
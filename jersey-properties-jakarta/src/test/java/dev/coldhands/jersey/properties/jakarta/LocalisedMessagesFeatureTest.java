@@ -0,0 +1,115 @@
+/*
+ * ISC License Copyright (c) 2004-2010 by Internet Systems Consortium, Inc. ("ISC")
+ *
+ * Copyright (c) 2021 by Jamie Redding
+ *
+ * Permission to use, copy, modify, and /or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above copyright
+ * notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND ISC DISCLAIMS ALL WARRANTIES WITH REGARD
+ * TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS.
+ * IN NO EVENT SHALL ISC BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL
+ * DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS,
+ * WHETHER IN AN ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING
+ * OUT OF OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package dev.coldhands.jersey.properties.jakarta;
+
+import com.sun.net.httpserver.HttpServer;
+import dev.coldhands.jersey.properties.core.message.MessageResolver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.util.Locale;
+import java.util.Map;
+
+import static dev.coldhands.jersey.properties.jakarta.TestHttpServerFactory.anyOpenPort;
+import static dev.coldhands.jersey.properties.jakarta.TestResources.LocalisedMessagesResource;
+import static jakarta.ws.rs.core.UriBuilder.fromUri;
+import static java.net.http.HttpClient.newHttpClient;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LocalisedMessagesFeatureTest {
+
+    private static final Map<String, String> GREETINGS = Map.of(
+            "", "Hello {0}",
+            "fr", "Bonjour {0}",
+            "de", "Hallo {0}");
+
+    private final URI baseUri = fromUri("http://localhost/").port(anyOpenPort()).build();
+    private HttpServer httpServer;
+
+    @BeforeEach
+    void setUp() {
+        httpServer = TestHttpServerFactory.createHttpServer(baseUri, config -> config
+                .register(LocalisedMessagesResource.class)
+                .register(new LocalisedMessagesFeature(new StubMessageResolver())));
+    }
+
+    @AfterEach
+    void tearDown() {
+        httpServer.stop(0);
+    }
+
+    @Test
+    void whenRequestAcceptsASupportedLanguage_thenUseItsMessages() throws IOException, InterruptedException {
+        final HttpResponse<String> response = makeGetRequest("fr");
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.body()).isEqualTo("fr:Bonjour Marie");
+    }
+
+    @Test
+    void whenMostPreferredLanguageIsUnsupported_thenUseTheNextSupportedOne() throws IOException, InterruptedException {
+        assertThat(makeGetRequest("ja, de;q=0.8, fr;q=0.5").body()).isEqualTo("de:Hallo Marie");
+    }
+
+    @Test
+    void whenNoAcceptedLanguageIsSupported_thenUseMostPreferredLanguageWithBaseMessages() throws IOException, InterruptedException {
+        assertThat(makeGetRequest("ja, ko;q=0.5").body()).isEqualTo("ja:Hello Marie");
+    }
+
+    @Test
+    void whenRequestHasNoAcceptLanguage_thenUseBaseMessages() throws IOException, InterruptedException {
+        assertThat(makeGetRequest(null).body()).isEqualTo("und:Hello Marie");
+    }
+
+    @Test
+    void whenConstructedWithNullMessageResolver_thenThrowIllegalArgumentException() {
+        assertThatThrownBy(() -> new LocalisedMessagesFeature(null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("MessageResolver must not be null");
+    }
+
+    private HttpResponse<String> makeGetRequest(String acceptLanguage) throws IOException, InterruptedException {
+        final var request = HttpRequest.newBuilder().GET()
+                .uri(fromUri(baseUri).path("/localisedMessages").queryParam("name", "Marie").build());
+        if (acceptLanguage != null) {
+            request.header("Accept-Language", acceptLanguage);
+        }
+        return newHttpClient().send(request.build(), BodyHandlers.ofString());
+    }
+
+    private static class StubMessageResolver implements MessageResolver {
+
+        @Override
+        public String getMessage(Locale locale, String key, Object... arguments) {
+            final String pattern = GREETINGS.getOrDefault(locale.getLanguage(), GREETINGS.get(""));
+            return pattern.replace("{0}", String.valueOf(arguments[0]));
+        }
+
+        @Override
+        public boolean hasMessagesFor(Locale locale) {
+            return GREETINGS.containsKey(locale.getLanguage()) && !locale.getLanguage().isEmpty();
+        }
+    }
+}
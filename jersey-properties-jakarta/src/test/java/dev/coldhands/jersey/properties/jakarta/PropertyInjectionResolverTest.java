@@ -129,6 +129,62 @@ class PropertyInjectionResolverTest {
         assertThat(response.headers().firstValue("javaType")).hasValue(int.class.getTypeName());
     }
 
+    @Test
+    void whenFieldIsAGenericCollection_thenInjectDeserialisedElements() throws IOException, InterruptedException {
+        httpServer = TestHttpServerFactory.createHttpServer(baseUri, config -> config
+                .register(CollectionInjectionResource.class)
+                .register(new PropertyInjectionFeature(Map.of(
+                        "hosts", "alpha, beta",
+                        "ports", "80, 443, 80",
+                        "weights", "alpha=1, beta=2")::get)));
+
+        final HttpResponse<String> response = makeGetRequest(fromUri(baseUri).path("/collections"));
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.body()).isEqualTo("[alpha, beta] 2 2");
+    }
+
+    @Test
+    void whenFieldIsAnArray_thenInjectDeserialisedElements() throws IOException, InterruptedException {
+        httpServer = TestHttpServerFactory.createHttpServer(baseUri, config -> config
+                .register(ArrayInjectionResource.class)
+                .register(new PropertyInjectionFeature(Map.of(
+                        "ports", "80, 443",
+                        "hosts", "alpha, beta")::get)));
+
+        final HttpResponse<String> response = makeGetRequest(fromUri(baseUri).path("/arrays"));
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.body()).isEqualTo("[80, 443] [alpha, beta]");
+    }
+
+    @Test
+    void whenFieldAnnotatedPropertyPrefix_thenInjectBoundObject() throws IOException, InterruptedException {
+        httpServer = TestHttpServerFactory.createHttpServer(baseUri, config -> config
+                .register(PropertyPrefixFieldInjectionResource.class)
+                .register(new PropertyInjectionFeature(Map.of(
+                        "db.pool.url", "jdbc:h2:mem:test",
+                        "db.pool.maxSize", "25")::get)));
+
+        final HttpResponse<String> response = makeGetRequest(fromUri(baseUri).path("/prefixField"));
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.body()).isEqualTo("jdbc:h2:mem:test 25");
+    }
+
+    @Test
+    void whenConstructorParameterAnnotatedPropertyPrefix_thenInjectBoundObjectKeepingFieldDefaults() throws IOException, InterruptedException {
+        httpServer = TestHttpServerFactory.createHttpServer(baseUri, config -> config
+                .register(PropertyPrefixConstructorInjectionResource.class)
+                .register(new PropertyInjectionFeature(Map.of(
+                        "db.pool.url", "jdbc:h2:mem:test")::get)));
+
+        final HttpResponse<String> response = makeGetRequest(fromUri(baseUri).path("/prefixConstructor"));
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.body()).isEqualTo("jdbc:h2:mem:test 10");
+    }
+
     @Test
     void whenConstructedWithNullPropertyResolver_thenThrowIllegalArgumentException() {
         assertThatThrownBy(() -> new PropertyInjectionFeature((PropertyResolver) null))
@@ -198,7 +254,7 @@ class PropertyInjectionResolverTest {
                     .anySatisfy(throwable ->
                             assertThat(throwable)
                                     .isInstanceOf(UnsupportedInjectionTargetException.class)
-                                    .hasMessage("Injection site java.util.Collection<java.lang.String> for property abc is not a supported target type: ParameterizedType"));
+                                    .hasMessage("Injection site java.util.function.Supplier<java.lang.String> for property abc is not a supported target type: ParameterizedType"));
         }
 
         @Test
@@ -0,0 +1,120 @@
+/*
+ * ISC License Copyright (c) 2004-2010 by Internet Systems Consortium, Inc. ("ISC")
+ *
+ * Copyright (c) 2021 by Jamie Redding
+ *
+ * Permission to use, copy, modify, and /or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above copyright
+ * notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND ISC DISCLAIMS ALL WARRANTIES WITH REGARD
+ * TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS.
+ * IN NO EVENT SHALL ISC BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL
+ * DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS,
+ * WHETHER IN AN ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING
+ * OUT OF OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package dev.coldhands.jersey.properties.jakarta;
+
+import com.sun.net.httpserver.HttpServer;
+import dev.coldhands.jersey.properties.core.resolver.PinnablePropertyResolver;
+import dev.coldhands.jersey.properties.core.resolver.PropertySnapshot;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.UriBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static dev.coldhands.jersey.properties.jakarta.TestHttpServerFactory.anyOpenPort;
+import static dev.coldhands.jersey.properties.jakarta.TestResources.SnapshotPinningResource;
+import static jakarta.ws.rs.core.UriBuilder.fromUri;
+import static java.net.http.HttpClient.newHttpClient;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SnapshotPinningFeatureTest {
+
+    private static final PropertySnapshot OLD_SNAPSHOT = PropertySnapshot.of(Map.of("db.host", "old-host", "db.port", "1111"), 0);
+    private static final PropertySnapshot NEW_SNAPSHOT = PropertySnapshot.of(Map.of("db.host", "new-host", "db.port", "2222"), 1);
+
+    private final URI baseUri = fromUri("http://localhost/").port(anyOpenPort()).build();
+    private final AtomicReference<PropertySnapshot> latest = new AtomicReference<>(OLD_SNAPSHOT);
+    private final PinnablePropertyResolver propertyResolver = new PinnablePropertyResolver(latest::get);
+    private HttpServer httpServer;
+
+    @AfterEach
+    void tearDown() {
+        SnapshotPinningResource.midRequestAction = () -> {
+        };
+        if (httpServer != null) {
+            httpServer.stop(0);
+        }
+    }
+
+    @Test
+    void whenResolverChangesDuringARequest_thenRequestKeepsUsingTheSnapshotItStartedWith() throws IOException, InterruptedException {
+        SnapshotPinningResource.midRequestAction = () -> latest.set(NEW_SNAPSHOT);
+        httpServer = TestHttpServerFactory.createHttpServer(baseUri, config -> config
+                .register(SnapshotPinningResource.class)
+                .register(new PropertyInjectionFeature(propertyResolver))
+                .register(new SnapshotPinningFeature(propertyResolver)));
+
+        final HttpResponse<String> response = makeGetRequest(fromUri(baseUri).path("/snapshotPinning"));
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.body()).isEqualTo("old-host:1111");
+    }
+
+    @Test
+    void whenResolverChangesBetweenRequests_thenNextRequestUsesTheNewSnapshot() throws IOException, InterruptedException {
+        httpServer = TestHttpServerFactory.createHttpServer(baseUri, config -> config
+                .register(SnapshotPinningResource.class)
+                .register(new PropertyInjectionFeature(propertyResolver))
+                .register(new SnapshotPinningFeature(propertyResolver)));
+
+        assertThat(makeGetRequest(fromUri(baseUri).path("/snapshotPinning")).body()).isEqualTo("old-host:1111");
+
+        latest.set(NEW_SNAPSHOT);
+
+        assertThat(makeGetRequest(fromUri(baseUri).path("/snapshotPinning")).body()).isEqualTo("new-host:2222");
+    }
+
+    @Test
+    void whenRequestIsAbortedByAFilter_thenLaterLookupsOutsideTheRequestSeeTheLatestSnapshot() throws IOException, InterruptedException {
+        httpServer = TestHttpServerFactory.createHttpServer(baseUri, config -> config
+                .register(SnapshotPinningResource.class)
+                .register((ContainerRequestFilter) requestContext ->
+                        requestContext.abortWith(Response.status(503).build()))
+                .register(new PropertyInjectionFeature(propertyResolver))
+                .register(new SnapshotPinningFeature(propertyResolver)));
+
+        assertThat(makeGetRequest(fromUri(baseUri).path("/snapshotPinning")).statusCode()).isEqualTo(503);
+
+        latest.set(NEW_SNAPSHOT);
+
+        assertThat(propertyResolver.getSnapshot()).isSameAs(NEW_SNAPSHOT);
+        assertThat(propertyResolver.getProperty("db.host")).isEqualTo("new-host");
+    }
+
+    @Test
+    void whenConstructedWithNullPropertyResolver_thenThrowIllegalArgumentException() {
+        assertThatThrownBy(() -> new SnapshotPinningFeature(null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("PinnablePropertyResolver must not be null");
+    }
+
+    private HttpResponse<String> makeGetRequest(UriBuilder uriBuilder) throws IOException, InterruptedException {
+        return newHttpClient().send(
+                HttpRequest.newBuilder().GET().uri(uriBuilder.build()).build(),
+                BodyHandlers.ofString());
+    }
+}
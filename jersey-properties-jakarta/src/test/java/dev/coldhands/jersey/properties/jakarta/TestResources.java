@@ -18,6 +18,11 @@
 package dev.coldhands.jersey.properties.jakarta;
 
 import dev.coldhands.jersey.properties.core.deserialise.Property;
+import dev.coldhands.jersey.properties.core.message.LocalisedMessages;
+import dev.coldhands.jersey.properties.core.deserialise.PropertyDeserialiser;
+import dev.coldhands.jersey.properties.core.deserialise.PropertyException;
+import dev.coldhands.jersey.properties.core.deserialise.PropertyPrefix;
+import jakarta.inject.Inject;
 import jakarta.ws.rs.GET;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
@@ -29,8 +34,13 @@ import org.glassfish.jersey.server.monitoring.ApplicationEventListener;
 import org.glassfish.jersey.server.monitoring.RequestEvent;
 import org.glassfish.jersey.server.monitoring.RequestEventListener;
 
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CountDownLatch;
+import java.util.function.Supplier;
 
 class TestResources {
 
@@ -171,7 +181,7 @@ class TestResources {
     @Path("/parameterizedType")
     static class ParameterizedTypeResource {
         @Property("abc")
-        private Collection<String> abc;
+        private Supplier<String> abc;
 
         @GET
         public Response done() {
@@ -179,6 +189,72 @@ class TestResources {
         }
     }
 
+    @Path("/collections")
+    public static class CollectionInjectionResource {
+        @Property("hosts")
+        private List<String> hosts;
+
+        @Property("ports")
+        private Set<Integer> ports;
+
+        @Property("weights")
+        private Map<String, Integer> weights;
+
+        @GET
+        @Produces(MediaType.TEXT_PLAIN)
+        public String collections() {
+            return hosts + " " + ports.size() + " " + weights.get("beta");
+        }
+    }
+
+    public static class PoolConfig {
+        private String url;
+        private int maxSize = 10;
+    }
+
+    @Path("/prefixField")
+    public static class PropertyPrefixFieldInjectionResource {
+        @PropertyPrefix("db.pool")
+        private PoolConfig poolConfig;
+
+        @GET
+        @Produces(MediaType.TEXT_PLAIN)
+        public String poolConfig() {
+            return poolConfig.url + " " + poolConfig.maxSize;
+        }
+    }
+
+    @Path("/prefixConstructor")
+    public static class PropertyPrefixConstructorInjectionResource {
+        private final PoolConfig poolConfig;
+
+        @Inject
+        public PropertyPrefixConstructorInjectionResource(@PropertyPrefix("db.pool") PoolConfig poolConfig) {
+            this.poolConfig = poolConfig;
+        }
+
+        @GET
+        @Produces(MediaType.TEXT_PLAIN)
+        public String poolConfig() {
+            return poolConfig.url + " " + poolConfig.maxSize;
+        }
+    }
+
+    @Path("/arrays")
+    public static class ArrayInjectionResource {
+        @Property("ports")
+        private int[] ports;
+
+        @Property("hosts")
+        private String[] hosts;
+
+        @GET
+        @Produces(MediaType.TEXT_PLAIN)
+        public String arrays() {
+            return Arrays.toString(ports) + " " + Arrays.toString(hosts);
+        }
+    }
+
     @Path("/genericArrayType")
     static class GenericArrayTypeInjection {
         @Property("abc")
@@ -211,4 +287,36 @@ class TestResources {
             return Response.noContent().build();
         }
     }
+
+    @Path("/snapshotPinning")
+    public static class SnapshotPinningResource {
+        static volatile Runnable midRequestAction = () -> {
+        };
+
+        @Property("db.host")
+        private String host;
+
+        @Inject
+        private PropertyDeserialiser propertyDeserialiser;
+
+        @GET
+        @Produces(MediaType.TEXT_PLAIN)
+        public String lookupProperties() throws PropertyException {
+            midRequestAction.run();
+            return host + ":" + propertyDeserialiser.deserialise("db.port", String.class);
+        }
+    }
+
+    @Path("/localisedMessages")
+    public static class LocalisedMessagesResource {
+
+        @Inject
+        private LocalisedMessages messages;
+
+        @GET
+        @Produces(MediaType.TEXT_PLAIN)
+        public String greet(@QueryParam("name") String name) {
+            return messages.getLocale().toLanguageTag() + ":" + messages.getMessage("greeting", name);
+        }
+    }
 }